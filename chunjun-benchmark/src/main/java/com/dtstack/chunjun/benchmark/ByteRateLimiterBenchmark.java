@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.source.ByteRateLimiter;
+
+import org.apache.flink.shaded.guava18.com.google.common.util.concurrent.RateLimiter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the {@link ByteRateLimiter#acquire()} check that every row pays when a byte
+ * rate is configured. The limit is raised far above the reachable rate so that only the bookkeeping
+ * is measured, never the throttling itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ByteRateLimiterBenchmark {
+
+    private static final double UNREACHABLE_RATE = 1.0e12;
+
+    private ByteRateLimiter byteRateLimiter;
+
+    @Setup
+    public void setup() throws Exception {
+        // the rate is normally adjusted from the bytesRead accumulator, which needs a running job
+        byteRateLimiter = new ByteRateLimiter(null, UNREACHABLE_RATE);
+        Field field = ByteRateLimiter.class.getDeclaredField("rateLimiter");
+        field.setAccessible(true);
+        ((RateLimiter) field.get(byteRateLimiter)).setRate(UNREACHABLE_RATE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        byteRateLimiter.stop();
+    }
+
+    @Benchmark
+    public void acquire() {
+        byteRateLimiter.acquire();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.connector.stream.converter.StreamRawTypeConverter;
+import com.dtstack.chunjun.util.TableUtil;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.table.data.RowData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes and deserializes the mock rows with the serializer that sync jobs use between
+ * operators, {@link com.dtstack.chunjun.typeutil.serializer.ColumnRowDataSerializer}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnRowDataSerializerBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"NARROW", "WIDE", "TEXT"})
+    public MockSchema schema;
+
+    private TypeSerializer<RowData> serializer;
+    private RowData[] rows;
+    private DataOutputSerializer output;
+    private byte[] serialized;
+    private DataInputDeserializer input;
+
+    @Setup
+    public void setup() throws Exception {
+        serializer =
+                TableUtil.getTypeInformation(
+                                schema.getFields(), StreamRawTypeConverter::apply, true)
+                        .createSerializer(new ExecutionConfig());
+        rows = MockRows.columnRows(schema, ROWS);
+        output = new DataOutputSerializer(64 * 1024);
+        for (RowData row : rows) {
+            serializer.serialize(row, output);
+        }
+        serialized = output.getCopyOfBuffer();
+        input = new DataInputDeserializer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void serialize(Blackhole blackhole) throws IOException {
+        output.clear();
+        for (RowData row : rows) {
+            serializer.serialize(row, output);
+        }
+        blackhole.consume(output.length());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void deserialize(Blackhole blackhole) throws IOException {
+        input.setBuffer(serialized);
+        for (int i = 0; i < ROWS; i++) {
+            blackhole.consume(serializer.deserialize(input));
+        }
+    }
+}
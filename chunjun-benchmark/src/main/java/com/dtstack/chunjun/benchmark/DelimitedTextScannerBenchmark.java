@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.element.AbstractBaseColumn;
+import com.dtstack.chunjun.element.ColumnRowData;
+import com.dtstack.chunjun.util.DelimitedTextScanner;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares splitting delimited text lines into Strings with scanning the line bytes and decoding
+ * only the projected fields, as the text readers do with {@link DelimitedTextScanner}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DelimitedTextScannerBenchmark {
+
+    private static final int ROWS = 1024;
+    private static final String DELIMITER = "\u0001";
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    @Param({"NARROW", "WIDE", "TEXT"})
+    public MockSchema schema;
+
+    /** number of leading fields read from every line, 0 reads them all */
+    @Param({"0", "3"})
+    public int projection;
+
+    private byte[] bytes;
+    private int[] offsets;
+    private int fieldCount;
+    private DelimitedTextScanner scanner;
+
+    @Setup
+    public void setup() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        offsets = new int[ROWS + 1];
+        for (int i = 0; i < ROWS; i++) {
+            offsets[i] = out.size();
+            byte[] line = toLine(MockRows.columnRows(schema, 1)[0]).getBytes(CHARSET);
+            out.write(line, 0, line.length);
+        }
+        offsets[ROWS] = out.size();
+        bytes = out.toByteArray();
+
+        int columns = schema.getTypes().size();
+        fieldCount = projection == 0 ? columns : Math.min(projection, columns);
+        scanner =
+                DelimitedTextScanner.ofSeparatorChars(DELIMITER, CHARSET)
+                        .withMaxIndex(fieldCount - 1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void splitPreserveAllTokens(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            String line = new String(bytes, offsets[i], offsets[i + 1] - offsets[i], CHARSET);
+            String[] fields = StringUtils.splitPreserveAllTokens(line, DELIMITER);
+            for (int j = 0; j < fieldCount; j++) {
+                blackhole.consume(fields[j]);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void scanner(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            scanner.scan(bytes, offsets[i], offsets[i + 1] - offsets[i]);
+            for (int j = 0; j < fieldCount; j++) {
+                blackhole.consume(scanner.getString(j));
+            }
+        }
+    }
+
+    private static String toLine(ColumnRowData row) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < row.getArity(); i++) {
+            if (i > 0) {
+                line.append(DELIMITER);
+            }
+            AbstractBaseColumn field = row.getField(i);
+            line.append(field == null ? "" : field.asString());
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.connector.kafka.conf.KafkaConf;
+import com.dtstack.chunjun.connector.kafka.converter.KafkaColumnConverter;
+import com.dtstack.chunjun.element.ColumnRowData;
+import com.dtstack.chunjun.element.column.TimestampColumn;
+import com.dtstack.chunjun.util.MapUtil;
+
+import org.apache.flink.util.StringUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Kafka sink's direct json writer with the map based serialization it replaced. Both
+ * produce the value bytes of one record from a sync row with {@code tableFields} set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KafkaJsonWriterBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"NARROW", "WIDE", "TEXT"})
+    public MockSchema schema;
+
+    private ColumnRowData[] rows;
+    private List<String> tableFields;
+    private KafkaColumnConverter converter;
+
+    @Setup
+    public void setup() throws Exception {
+        rows = MockRows.columnRows(schema, ROWS);
+        tableFields = schema.getNames();
+        KafkaConf kafkaConf = new KafkaConf();
+        kafkaConf.setCodec("json");
+        kafkaConf.setTableFields(tableFields);
+        converter = new KafkaColumnConverter(kafkaConf);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void jsonRowWriter(Blackhole blackhole) throws Exception {
+        for (ColumnRowData row : rows) {
+            blackhole.consume(converter.toExternal(row, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void linkedHashMap(Blackhole blackhole) throws Exception {
+        for (ColumnRowData row : rows) {
+            blackhole.consume(writeByMap(row));
+        }
+    }
+
+    /** The former tableFields branch of {@link KafkaColumnConverter#toExternal}. */
+    private byte[] writeByMap(ColumnRowData row) throws Exception {
+        int arity = row.getArity();
+        Map<String, Object> map = new LinkedHashMap<>((arity << 2) / 3);
+        for (int i = 0; i < arity; i++) {
+            Object object = row.getField(i);
+            Object value;
+            if (object instanceof TimestampColumn) {
+                value = ((TimestampColumn) object).asTimestampStr();
+            } else {
+                value = StringUtils.arrayAwareToString(object);
+            }
+            map.put(tableFields.get(i), value);
+        }
+        return MapUtil.writeValueAsString(map).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.connector.stream.conf.StreamConf;
+import com.dtstack.chunjun.connector.stream.converter.StreamColumnConverter;
+import com.dtstack.chunjun.connector.stream.converter.StreamRawTypeConverter;
+import com.dtstack.chunjun.connector.stream.converter.StreamRowConverter;
+import com.dtstack.chunjun.element.ColumnRowData;
+import com.dtstack.chunjun.util.TableUtil;
+
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
+
+/**
+ * Generates rows with the converters behind {@link
+ * com.dtstack.chunjun.connector.stream.source.StreamInputFormat}, so that the benchmarks run on the
+ * same mock data as a stream reader job.
+ */
+public final class MockRows {
+
+    private MockRows() {}
+
+    public static StreamConf streamConf(MockSchema schema) {
+        StreamConf streamConf = new StreamConf();
+        streamConf.setColumn(schema.getFields());
+        streamConf.setPrint(false);
+        return streamConf;
+    }
+
+    public static RowType rowType(MockSchema schema) {
+        return TableUtil.createRowType(schema.getFields(), StreamRawTypeConverter::apply);
+    }
+
+    /** Rows of sync jobs, which use {@link com.dtstack.chunjun.element.AbstractBaseColumn}. */
+    public static ColumnRowData[] columnRows(MockSchema schema, int count) throws Exception {
+        StreamColumnConverter converter = new StreamColumnConverter(streamConf(schema));
+        ColumnRowData[] rows = new ColumnRowData[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = converter.toInternal(null);
+        }
+        return rows;
+    }
+
+    /** Rows of sql jobs, which use Flink internal data structures. */
+    public static RowData[] genericRows(MockSchema schema, int count) throws Exception {
+        RowType rowType = rowType(schema);
+        StreamRowConverter converter = new StreamRowConverter(rowType);
+        RowData[] rows = new RowData[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = converter.toInternal(new GenericRowData(rowType.getFieldCount()));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.conf.FieldConf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Column layouts of the mock rows used by the benchmarks, named after the stream connector types.
+ */
+public enum MockSchema {
+
+    /** A small order-like row. */
+    NARROW(Arrays.asList("id", "int", "string", "decimal", "timestamp")),
+
+    /** A 40 column row mixing numeric, text and time columns. */
+    WIDE(
+            repeat(
+                    Arrays.asList(
+                            "int",
+                            "bigint",
+                            "double",
+                            "decimal",
+                            "string",
+                            "boolean",
+                            "date",
+                            "timestamp"),
+                    5)),
+
+    /** A row dominated by long text columns. */
+    TEXT(concat(Collections.singletonList("id"), repeat(Collections.singletonList("string"), 8)));
+
+    private final List<String> types;
+
+    MockSchema(List<String> types) {
+        this.types = types;
+    }
+
+    public List<String> getTypes() {
+        return types;
+    }
+
+    public List<String> getNames() {
+        List<String> names = new ArrayList<>(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            names.add("col_" + i);
+        }
+        return names;
+    }
+
+    public List<FieldConf> getFields() {
+        List<String> names = getNames();
+        List<FieldConf> fields = new ArrayList<>(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            FieldConf field = new FieldConf();
+            field.setName(names.get(i));
+            field.setType(types.get(i));
+            field.setIndex(i);
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private static List<String> repeat(List<String> types, int times) {
+        List<String> result = new ArrayList<>(types.size() * times);
+        for (int i = 0; i < times; i++) {
+            result.addAll(types);
+        }
+        return result;
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> result = new ArrayList<>(first);
+        result.addAll(second);
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.format.protobuf.deserialize.PbMessageGetter;
+import com.dtstack.chunjun.format.protobuf.deserialize.PbToRowDataPbConverter;
+import com.dtstack.chunjun.format.protobuf.test.MessageTestOuterClass.MessageItem;
+import com.dtstack.chunjun.format.protobuf.test.MessageTestOuterClass.MessageTest;
+import com.dtstack.chunjun.format.protobuf.test.MessageTestOuterClass.Variant;
+
+import com.google.protobuf.AbstractMessage;
+import com.google.protobuf.Descriptors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads every field of a nested protobuf message, once through the accessors generated by {@link
+ * PbMessageGetter} and once through {@link Method#invoke}, which the getter used before. The full
+ * conversion into {@link org.apache.flink.table.data.RowData} is measured as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PbMessageGetterBenchmark {
+
+    /** number of entries in the repeated and map fields of a message */
+    @Param({"1", "32"})
+    public int entries;
+
+    private MessageTest message;
+
+    private FieldReader testGetter;
+    private FieldReader itemGetter;
+    private FieldReader variantGetter;
+
+    private FieldReader testReflection;
+    private FieldReader itemReflection;
+    private FieldReader variantReflection;
+
+    private PbToRowDataPbConverter.ProtoToRowDataConverter converter;
+
+    @Setup
+    public void setup() {
+        MessageTest.Builder builder = MessageTest.newBuilder();
+        for (int i = 0; i < entries; i++) {
+            builder.putGroupInfo("group_" + i, "value_" + i);
+            MessageItem.Builder item = MessageItem.newBuilder().setTagName("tag_" + i);
+            item.setTagValue(Variant.newBuilder().setBoolx(true).setValueInt32(i).setBooly(false));
+            for (int j = 0; j < 4; j++) {
+                item.putExValues("key_" + j, "value_" + j);
+            }
+            builder.addMessages(item);
+        }
+        message = builder.build();
+
+        testGetter = getter(MessageTest.getDescriptor(), MessageTest.class);
+        itemGetter = getter(MessageItem.getDescriptor(), MessageItem.class);
+        variantGetter = getter(Variant.getDescriptor(), Variant.class);
+
+        testReflection = reflection(MessageTest.getDescriptor(), MessageTest.class);
+        itemReflection = reflection(MessageItem.getDescriptor(), MessageItem.class);
+        variantReflection = reflection(Variant.getDescriptor(), Variant.class);
+
+        converter = PbToRowDataPbConverter.initMessageDataConverter(MessageTest.class.getName());
+    }
+
+    @Benchmark
+    public void generatedAccessor(Blackhole blackhole) throws Exception {
+        readMessage(blackhole, testGetter, itemGetter, variantGetter);
+    }
+
+    @Benchmark
+    public void methodInvoke(Blackhole blackhole) throws Exception {
+        readMessage(blackhole, testReflection, itemReflection, variantReflection);
+    }
+
+    @Benchmark
+    public Object convertToRowData() throws Exception {
+        return converter.convert(message);
+    }
+
+    private void readMessage(
+            Blackhole blackhole, FieldReader test, FieldReader item, FieldReader variant)
+            throws Exception {
+        blackhole.consume(test.read(message, 0));
+        for (Object messageItem : (List<?>) test.read(message, 1)) {
+            blackhole.consume(item.read(messageItem, 0));
+            Object tagValue = item.read(messageItem, 1);
+            for (int i = 0; i < Variant.getDescriptor().getFields().size(); i++) {
+                blackhole.consume(variant.read(tagValue, i));
+            }
+            blackhole.consume(item.read(messageItem, 2));
+        }
+    }
+
+    private static FieldReader getter(
+            Descriptors.Descriptor descriptor, Class<? extends AbstractMessage> clazz) {
+        PbMessageGetter getter =
+                new PbMessageGetter(descriptor.getFields(), descriptor.getOneofs(), clazz);
+        return getter::getByIndex;
+    }
+
+    private static FieldReader reflection(
+            Descriptors.Descriptor descriptor, Class<? extends AbstractMessage> clazz) {
+        PbMessageGetter getter =
+                new PbMessageGetter(descriptor.getFields(), descriptor.getOneofs(), clazz);
+        Method[] methods =
+                descriptor.getFields().stream()
+                        .map(field -> getter.obtainNormalGetMethod(field, clazz))
+                        .toArray(Method[]::new);
+        return (object, index) -> methods[index].invoke(object);
+    }
+
+    private interface FieldReader {
+        Object read(Object object, int index) throws Exception;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.connector.stream.converter.StreamColumnConverter;
+import com.dtstack.chunjun.connector.stream.converter.StreamRowConverter;
+
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the stream connector's row converters, which generate the mock rows on the reader side and
+ * hand them to the writer on the sink side.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowConverterBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"NARROW", "WIDE", "TEXT"})
+    public MockSchema schema;
+
+    private StreamColumnConverter columnConverter;
+    private StreamRowConverter rowConverter;
+    private RowData[] genericRows;
+    private int arity;
+
+    @Setup
+    public void setup() throws Exception {
+        columnConverter = new StreamColumnConverter(MockRows.streamConf(schema));
+        rowConverter = new StreamRowConverter(MockRows.rowType(schema));
+        genericRows = MockRows.genericRows(schema, ROWS);
+        arity = schema.getTypes().size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void columnToInternal(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            blackhole.consume(columnConverter.toInternal(null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void rowToInternal(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            blackhole.consume(rowConverter.toInternal(new GenericRowData(arity)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void rowToExternal(Blackhole blackhole) throws Exception {
+        for (RowData row : genericRows) {
+            blackhole.consume(rowConverter.toExternal(row, new GenericRowData(arity)));
+        }
+    }
+}
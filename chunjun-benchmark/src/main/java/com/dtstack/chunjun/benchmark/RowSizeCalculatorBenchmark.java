@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.metrics.RowSizeCalculator;
+
+import org.apache.flink.table.data.RowData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per row byte accounting of {@link
+ * com.dtstack.chunjun.source.format.BaseRichInputFormat}: the sync calculator on {@link
+ * com.dtstack.chunjun.element.ColumnRowData} and the configurable calculators on sql rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowSizeCalculatorBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"NARROW", "WIDE", "TEXT"})
+    public MockSchema schema;
+
+    private RowData[] columnRows;
+    private RowData[] genericRows;
+    private RowSizeCalculator<RowData> syncCalculator;
+    private RowSizeCalculator<RowData> objectSizeCalculator;
+    private RowSizeCalculator<RowData> toStringCalculator;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        columnRows = MockRows.columnRows(schema, ROWS);
+        genericRows = MockRows.genericRows(schema, ROWS);
+        syncCalculator =
+                RowSizeCalculator.getRowSizeCalculator(
+                        RowSizeCalculator.CalculatorType.SYNC_CALCULATOR.getTypeName(), true);
+        objectSizeCalculator =
+                RowSizeCalculator.getRowSizeCalculator(
+                        RowSizeCalculator.CalculatorType.OBJECT_SIZE_CALCULATOR.getTypeName(),
+                        false);
+        toStringCalculator =
+                RowSizeCalculator.getRowSizeCalculator(
+                        RowSizeCalculator.CalculatorType.TO_STRING_CALCULATOR.getTypeName(), false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long syncCalculator() {
+        return sum(syncCalculator, columnRows);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long objectSizeCalculator() {
+        return sum(objectSizeCalculator, genericRows);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long toStringCalculator() {
+        return sum(toStringCalculator, genericRows);
+    }
+
+    private static long sum(RowSizeCalculator<RowData> calculator, RowData[] rows) {
+        long bytes = 0;
+        for (RowData row : rows) {
+            bytes += calculator.getObjectSize(row);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.benchmark;
+
+import com.dtstack.chunjun.conf.SyncConf;
+import com.dtstack.chunjun.connector.stream.sink.StreamSinkFactory;
+import com.dtstack.chunjun.connector.stream.source.StreamSourceFactory;
+import com.dtstack.chunjun.util.GsonUtil;
+
+import org.apache.flink.api.common.restartstrategy.RestartStrategies;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.minicluster.MiniCluster;
+import org.apache.flink.runtime.minicluster.MiniClusterConfiguration;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.table.data.RowData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a whole streamreader to streamwriter sync job on a local {@link MiniCluster} and reports
+ * rows per second. Operator chaining is disabled like in {@link com.dtstack.chunjun.Main}, so every
+ * row goes through the reader, the network serializer and {@link
+ * com.dtstack.chunjun.sink.format.BaseRichOutputFormat#writeRecord}. Run with {@code -prof gc} to
+ * get the allocation rate per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class StreamToBlackholeBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"NARROW", "WIDE", "TEXT"})
+    public MockSchema schema;
+
+    private MiniCluster miniCluster;
+    private JobGraph jobGraph;
+
+    @Setup(Level.Trial)
+    public void startCluster() throws Exception {
+        MiniClusterConfiguration configuration =
+                new MiniClusterConfiguration.Builder()
+                        .setConfiguration(new Configuration())
+                        .setNumTaskManagers(1)
+                        .setNumSlotsPerTaskManager(1)
+                        .build();
+        miniCluster = new MiniCluster(configuration);
+        miniCluster.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopCluster() throws Exception {
+        if (miniCluster != null) {
+            miniCluster.closeAsync().get();
+        }
+    }
+
+    /** A job graph is submitted only once, so every invocation builds a new one. */
+    @Setup(Level.Invocation)
+    public void buildJob() {
+        SyncConf config = SyncConf.parseJob(jobJson());
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        env.setParallelism(config.getSpeed().getChannel());
+        env.setRestartStrategy(RestartStrategies.noRestart());
+
+        DataStream<RowData> source = new StreamSourceFactory(config, env).createSource();
+        new StreamSinkFactory(config).createSink(source);
+        env.disableOperatorChaining();
+        jobGraph = env.getStreamGraph().getJobGraph();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void streamToBlackhole() throws Exception {
+        miniCluster.executeJobBlocking(jobGraph);
+    }
+
+    private String jobJson() {
+        List<Map<String, Object>> columns = new ArrayList<>();
+        List<String> names = schema.getNames();
+        List<String> types = schema.getTypes();
+        for (int i = 0; i < names.size(); i++) {
+            Map<String, Object> column = new LinkedHashMap<>();
+            column.put("name", names.get(i));
+            column.put("type", types.get(i));
+            columns.add(column);
+        }
+
+        Map<String, Object> readerParameter = new LinkedHashMap<>();
+        readerParameter.put("column", columns);
+        readerParameter.put("sliceRecordCount", Collections.singletonList(ROWS));
+        Map<String, Object> writerParameter = new LinkedHashMap<>();
+        writerParameter.put("print", false);
+        writerParameter.put("column", columns);
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("reader", plugin("streamreader", readerParameter));
+        content.put("writer", plugin("streamwriter", writerParameter));
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("content", Collections.singletonList(content));
+        job.put(
+                "setting",
+                Collections.singletonMap("speed", Collections.singletonMap("channel", 1)));
+        return GsonUtil.GSON.toJson(Collections.singletonMap("job", job));
+    }
+
+    private static Map<String, Object> plugin(String name, Map<String, Object> parameter) {
+        Map<String, Object> plugin = new LinkedHashMap<>();
+        plugin.put("name", name);
+        plugin.put("parameter", parameter);
+        return plugin;
+    }
+}
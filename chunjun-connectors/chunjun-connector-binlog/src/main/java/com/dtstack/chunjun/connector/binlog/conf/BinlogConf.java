@@ -88,6 +88,18 @@ public class BinlogConf extends ChunJunCommonConf {
 
     private List<String> lamostTableNameList = new ArrayList<>();
 
+    /** 是否开启多线程流水线转换 */
+    private boolean convertParallel = false;
+
+    /** 流水线转换线程数 */
+    private int convertThreadSize = 4;
+
+    /** 每个转换线程的待处理entry队列大小 */
+    private int convertQueueSize = 1024;
+
+    /** 流水线转换的分区方式：table 或 primaryKey */
+    private String convertPartitionKey = "table";
+
     public boolean isUpdrdb() {
         return isUpdrdb;
     }
@@ -316,6 +328,38 @@ public class BinlogConf extends ChunJunCommonConf {
         return transactionSize;
     }
 
+    public boolean isConvertParallel() {
+        return convertParallel;
+    }
+
+    public void setConvertParallel(boolean convertParallel) {
+        this.convertParallel = convertParallel;
+    }
+
+    public int getConvertThreadSize() {
+        return convertThreadSize;
+    }
+
+    public void setConvertThreadSize(int convertThreadSize) {
+        this.convertThreadSize = convertThreadSize;
+    }
+
+    public int getConvertQueueSize() {
+        return convertQueueSize;
+    }
+
+    public void setConvertQueueSize(int convertQueueSize) {
+        this.convertQueueSize = convertQueueSize;
+    }
+
+    public String getConvertPartitionKey() {
+        return convertPartitionKey;
+    }
+
+    public void setConvertPartitionKey(String convertPartitionKey) {
+        this.convertPartitionKey = convertPartitionKey;
+    }
+
     @Override
     public String toString() {
         return "BinlogConf{"
@@ -378,6 +422,15 @@ public class BinlogConf extends ChunJunCommonConf {
                 + queryTimeOut
                 + ", connectTimeOut="
                 + connectTimeOut
+                + ", convertParallel="
+                + convertParallel
+                + ", convertThreadSize="
+                + convertThreadSize
+                + ", convertQueueSize="
+                + convertQueueSize
+                + ", convertPartitionKey='"
+                + convertPartitionKey
+                + '\''
                 + ", isUpdrdb="
                 + isUpdrdb
                 + ", nodeGroupList="
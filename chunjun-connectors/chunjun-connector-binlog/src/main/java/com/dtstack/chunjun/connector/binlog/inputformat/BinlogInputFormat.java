@@ -26,6 +26,7 @@ import com.dtstack.chunjun.connector.binlog.listener.HeartBeatController;
 import com.dtstack.chunjun.connector.binlog.util.BinlogUtil;
 import com.dtstack.chunjun.constants.ConstantValue;
 import com.dtstack.chunjun.converter.AbstractCDCRowConverter;
+import com.dtstack.chunjun.converter.CDCEventFilter;
 import com.dtstack.chunjun.restore.FormatState;
 import com.dtstack.chunjun.source.format.BaseRichInputFormat;
 import com.dtstack.chunjun.util.ClassUtil;
@@ -125,6 +126,16 @@ public class BinlogInputFormat extends BaseRichInputFormat {
         }
     }
 
+    /** 操作类型的过滤下推到entry header，在解析RowChange之前完成；表的过滤由canal的filter完成 */
+    protected void initEventFilter() {
+        if (rowConverter == null) {
+            return;
+        }
+        CDCEventFilter eventFilter = new CDCEventFilter(null, categories);
+        rowConverter.setEventFilter(eventFilter);
+        initEventFilterMetric(eventFilter);
+    }
+
     @Override
     protected void openInternal(InputSplit inputSplit) {
         if (inputSplit.getSplitNumber() != 0) {
@@ -135,7 +146,9 @@ public class BinlogInputFormat extends BaseRichInputFormat {
         LOG.info("binlog openInternal split number:{} start...", inputSplit.getSplitNumber());
         LOG.info("binlog config:{}", JsonUtil.toPrintJson(binlogConf));
 
+        initEventFilter();
         binlogEventSink = new BinlogEventSink(this);
+        binlogEventSink.start();
         controller = getController(binlogConf.username, binlogConf.getFilter(), binlogEventSink);
         controller.start();
     }
@@ -165,7 +178,7 @@ public class BinlogInputFormat extends BaseRichInputFormat {
 
         controller.setEventSink(binlogEventSink);
 
-        controller.setLogPositionManager(new BinlogPositionManager(this));
+        controller.setLogPositionManager(new BinlogPositionManager(binlogEventSink));
         // 添加connection心跳回调处理器
         HeartBeatController heartBeatController = new HeartBeatController();
         heartBeatController.setBinlogEventSink(binlogEventSink);
@@ -211,6 +224,9 @@ public class BinlogInputFormat extends BaseRichInputFormat {
                     "binlog closeInternal..., entryPosition:{}",
                     formatState != null ? formatState.getState() : null);
         }
+        if (binlogEventSink != null && binlogEventSink.isStart()) {
+            binlogEventSink.stop();
+        }
     }
 
     /**
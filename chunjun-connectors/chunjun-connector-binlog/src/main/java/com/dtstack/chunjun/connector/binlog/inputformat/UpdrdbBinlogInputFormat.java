@@ -116,12 +116,14 @@ public class UpdrdbBinlogInputFormat extends BinlogInputFormat {
         LOG.info("binlog openInternal split number:{} start...", inputSplit.getSplitNumber());
         LOG.info("binlog config:{}", JsonUtil.toPrintJson(binlogConf));
 
+        initEventFilter();
         String username = binlogConf.username;
         // 判断是否单个slot内需要启动多个线程
         if (groupListSize > 1) {
             groupList.forEach(
                     group -> {
                         BinlogEventSink binlogEventSink = new BinlogEventSink(this);
+                        binlogEventSink.start();
                         String filter;
                         // 根据节点类型获取不同的过滤器
                         if (group.equalsIgnoreCase("coprocessor")) {
@@ -150,6 +152,7 @@ public class UpdrdbBinlogInputFormat extends BinlogInputFormat {
             updrdbControllerList.forEach(Thread::start);
         } else {
             binlogEventSink = new BinlogEventSink(this);
+            binlogEventSink.start();
             String filter = String.join(ConstantValue.COMMA_SYMBOL, binlogConf.getTable());
             LOG.info(
                     "binlog FilterAfter:{},username: {},subtaskIndex: {}",
@@ -194,6 +197,11 @@ public class UpdrdbBinlogInputFormat extends BinlogInputFormat {
                                     formatState != null ? formatState.getState() : null);
                         }
                     });
+            if (updrdbBinlogEventSinkList != null) {
+                updrdbBinlogEventSinkList.stream()
+                        .filter(BinlogEventSink::isStart)
+                        .forEach(BinlogEventSink::stop);
+            }
         }
     }
 }
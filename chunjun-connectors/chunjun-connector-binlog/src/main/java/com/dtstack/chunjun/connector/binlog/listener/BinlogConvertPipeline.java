@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.binlog.listener;
+
+import com.dtstack.chunjun.element.ErrorMsgRowData;
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+import com.dtstack.chunjun.util.ExceptionUtil;
+
+import com.alibaba.otter.canal.protocol.CanalEntry;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * binlog流水线转换：canal sink线程只负责分发，entry的反序列化及{@code toInternal}转换由多个转换线程执行。
+ *
+ * <p>同一分区(schema.table，或者配置为主键时的主键hash)的数据固定由同一个线程按接收顺序处理，
+ * 因此单表(单主键)内的数据顺序与binlog中一致，不同分区之间的数据可以交错输出。 位点由{@link BinlogPositionTracker}统一推进。
+ *
+ * <p>按主键分区时，ddl及修改了主键且前后主键落在不同线程的update作为屏障，等待之前的数据全部输出后在分发线程中处理， 保证其与新旧主键上的数据之间的顺序。
+ *
+ * @author tudou
+ */
+public class BinlogConvertPipeline {
+
+    public static final String PARTITION_BY_TABLE = "table";
+    public static final String PARTITION_BY_PRIMARY_KEY = "primaryKey";
+
+    private static final Logger LOG = LoggerFactory.getLogger(BinlogConvertPipeline.class);
+
+    private final BinlogEventSink sink;
+    private final BinlogPositionTracker tracker;
+    private final boolean partitionByPrimaryKey;
+    private final ConvertWorker[] workers;
+    private final Thread[] threads;
+
+    public BinlogConvertPipeline(
+            BinlogEventSink sink,
+            BinlogPositionTracker tracker,
+            int threadSize,
+            int queueSize,
+            String partitionBy) {
+        this.sink = sink;
+        this.tracker = tracker;
+        this.partitionByPrimaryKey = PARTITION_BY_PRIMARY_KEY.equalsIgnoreCase(partitionBy);
+        this.workers = new ConvertWorker[threadSize];
+        this.threads = new Thread[threadSize];
+        ThreadFactory threadFactory = new ChunJunThreadFactory("binlog-convert", true);
+        for (int i = 0; i < threadSize; i++) {
+            workers[i] = new ConvertWorker(queueSize);
+            threads[i] = threadFactory.newThread(workers[i]);
+        }
+    }
+
+    public void start() {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        LOG.info(
+                "binlog convert pipeline started, threadSize = {}, partitionByPrimaryKey = {}",
+                threads.length,
+                partitionByPrimaryKey);
+    }
+
+    /**
+     * 分发canal一次sink的全部entry，队列满时阻塞canal解析线程形成反压
+     *
+     * @param entries canal entry列表
+     * @throws InterruptedException 分发被中断
+     */
+    public void dispatch(List<CanalEntry.Entry> entries) throws InterruptedException {
+        BinlogPositionTracker.Batch batch = tracker.begin();
+        try {
+            for (CanalEntry.Entry entry : entries) {
+                if (entry.getEntryType() != CanalEntry.EntryType.ROWDATA || !sink.accept(entry)) {
+                    continue;
+                }
+                if (partitionByPrimaryKey) {
+                    dispatchByPrimaryKey(batch, entry);
+                } else {
+                    CanalEntry.Header header = entry.getHeader();
+                    submit(
+                            batch,
+                            tableHash(header.getSchemaName(), header.getTableName()),
+                            entry,
+                            null);
+                }
+            }
+        } finally {
+            tracker.seal(batch);
+        }
+    }
+
+    private void dispatchByPrimaryKey(BinlogPositionTracker.Batch batch, CanalEntry.Entry entry)
+            throws InterruptedException {
+        CanalEntry.RowChange rowChange;
+        try {
+            rowChange = CanalEntry.RowChange.parseFrom(entry.getStoreValue());
+        } catch (InvalidProtocolBufferException e) {
+            sink.processErrorMsgRowData(
+                    new ErrorMsgRowData("parser data error:" + ExceptionUtil.getErrorMessage(e)));
+            return;
+        }
+        CanalEntry.Header header = entry.getHeader();
+        int tableHash = tableHash(header.getSchemaName(), header.getTableName());
+        if (rowChange.getIsDdl()) {
+            // ddl作为屏障：等待之前的数据全部输出后在当前线程处理，保证ddl前后的数据顺序
+            tracker.awaitDispatched(batch);
+            sink.processEntry(entry, rowChange);
+            return;
+        }
+
+        List<List<CanalEntry.RowData>> partitions = new ArrayList<>(workers.length);
+        for (int i = 0; i < workers.length; i++) {
+            partitions.add(null);
+        }
+        int partitionCount = 0;
+        CanalEntry.EventType eventType = rowChange.getEventType();
+        for (CanalEntry.RowData rowData : rowChange.getRowDatasList()) {
+            int index = indexOf(primaryKeyHash(rowData, eventType, tableHash));
+            if (eventType == CanalEntry.EventType.UPDATE
+                    && index != indexOf(keyHash(rowData.getBeforeColumnsList(), tableHash))) {
+                // 主键变更且前后主键不在同一线程，整个entry作为屏障处理
+                tracker.awaitDispatched(batch);
+                if (!sink.processEntry(entry, rowChange)) {
+                    sink.processErrorMsgRowData(
+                            new ErrorMsgRowData("parser data error, header:" + header));
+                }
+                return;
+            }
+            List<CanalEntry.RowData> partition = partitions.get(index);
+            if (partition == null) {
+                partition = new ArrayList<>();
+                partitions.set(index, partition);
+                partitionCount++;
+            }
+            partition.add(rowData);
+        }
+
+        for (int i = 0; i < partitions.size(); i++) {
+            List<CanalEntry.RowData> partition = partitions.get(i);
+            if (partition == null) {
+                continue;
+            }
+            CanalEntry.RowChange subRowChange =
+                    partitionCount == 1
+                            ? rowChange
+                            : rowChange
+                                    .toBuilder()
+                                    .clearRowDatas()
+                                    .addAllRowDatas(partition)
+                                    .build();
+            submitTo(batch, i, entry, subRowChange);
+        }
+    }
+
+    private void submit(
+            BinlogPositionTracker.Batch batch,
+            int hash,
+            CanalEntry.Entry entry,
+            CanalEntry.RowChange rowChange)
+            throws InterruptedException {
+        submitTo(batch, indexOf(hash), entry, rowChange);
+    }
+
+    private void submitTo(
+            BinlogPositionTracker.Batch batch,
+            int index,
+            CanalEntry.Entry entry,
+            CanalEntry.RowChange rowChange)
+            throws InterruptedException {
+        tracker.retain(batch);
+        workers[index].queue.put(new ConvertTask(batch, entry, rowChange));
+    }
+
+    private int indexOf(int hash) {
+        return Math.floorMod(hash, workers.length);
+    }
+
+    private int tableHash(String schema, String table) {
+        return 31 * schema.hashCode() + table.hashCode();
+    }
+
+    /**
+     * 计算主键hash，delete取变更前镜像，其余取变更后镜像，无主键时退化为按表分区
+     *
+     * @param rowData 行数据
+     * @param eventType 事件类型
+     * @param tableHash 表hash
+     * @return hash
+     */
+    private int primaryKeyHash(
+            CanalEntry.RowData rowData, CanalEntry.EventType eventType, int tableHash) {
+        return keyHash(
+                eventType == CanalEntry.EventType.DELETE
+                        ? rowData.getBeforeColumnsList()
+                        : rowData.getAfterColumnsList(),
+                tableHash);
+    }
+
+    private int keyHash(List<CanalEntry.Column> columns, int tableHash) {
+        int hash = tableHash;
+        boolean hasKey = false;
+        for (CanalEntry.Column column : columns) {
+            if (column.getIsKey()) {
+                hash = 31 * hash + column.getValue().hashCode();
+                hasKey = true;
+            }
+        }
+        return hasKey ? hash : tableHash;
+    }
+
+    public void close() {
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        LOG.info(
+                "binlog convert pipeline closed, pending batches = {}",
+                tracker.getPendingBatchSize());
+    }
+
+    private static class ConvertTask {
+        private final BinlogPositionTracker.Batch batch;
+        private final CanalEntry.Entry entry;
+        /** 按主键分区时已经解析并拆分过的RowChange，按表分区时为null，由转换线程解析 */
+        private final CanalEntry.RowChange rowChange;
+
+        private ConvertTask(
+                BinlogPositionTracker.Batch batch,
+                CanalEntry.Entry entry,
+                CanalEntry.RowChange rowChange) {
+            this.batch = batch;
+            this.entry = entry;
+            this.rowChange = rowChange;
+        }
+    }
+
+    private class ConvertWorker implements Runnable {
+        private final BlockingQueue<ConvertTask> queue;
+
+        private ConvertWorker(int queueSize) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    ConvertTask task = queue.take();
+                    String errorMsg;
+                    try {
+                        if (sink.processEntry(task.entry, task.rowChange)) {
+                            tracker.release(task.batch);
+                            continue;
+                        }
+                        errorMsg = "parser data error, header:" + task.entry.getHeader();
+                    } catch (Exception e) {
+                        errorMsg = "binlog convert error:" + ExceptionUtil.getErrorMessage(e);
+                    }
+                    // 不释放批次，位点停留在出错事务之前，任务失败后从该位点恢复
+                    sink.processErrorMsgRowData(new ErrorMsgRowData(errorMsg));
+                }
+            } catch (InterruptedException e) {
+                LOG.info(
+                        "binlog convert thread [{}] interrupted", Thread.currentThread().getName());
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
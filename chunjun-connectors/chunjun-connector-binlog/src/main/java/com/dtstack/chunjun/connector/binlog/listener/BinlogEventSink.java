@@ -17,6 +17,7 @@
  */
 package com.dtstack.chunjun.connector.binlog.listener;
 
+import com.dtstack.chunjun.connector.binlog.conf.BinlogConf;
 import com.dtstack.chunjun.connector.binlog.inputformat.BinlogInputFormat;
 import com.dtstack.chunjun.converter.AbstractCDCRowConverter;
 import com.dtstack.chunjun.element.ErrorMsgRowData;
@@ -27,6 +28,7 @@ import org.apache.flink.table.data.RowData;
 
 import com.alibaba.otter.canal.common.AbstractCanalLifeCycle;
 import com.alibaba.otter.canal.protocol.CanalEntry;
+import com.alibaba.otter.canal.protocol.position.EntryPosition;
 import com.alibaba.otter.canal.sink.exception.CanalSinkException;
 import com.google.protobuf.InvalidProtocolBufferException;
 import org.apache.commons.collections.CollectionUtils;
@@ -49,22 +51,91 @@ public class BinlogEventSink extends AbstractCanalLifeCycle
     private final LinkedBlockingDeque<RowData> queue;
     private final AbstractCDCRowConverter rowConverter;
 
+    /** 流水线转换模式，未开启时为null */
+    private BinlogConvertPipeline pipeline;
+
+    private BinlogPositionTracker positionTracker;
+
     public BinlogEventSink(BinlogInputFormat format) {
         this.format = format;
         this.queue = new LinkedBlockingDeque<>();
         this.rowConverter = format.getRowConverter();
+        BinlogConf binlogConf = format.getBinlogConf();
+        if (binlogConf != null && binlogConf.isConvertParallel()) {
+            this.positionTracker = new BinlogPositionTracker(format);
+            this.pipeline =
+                    new BinlogConvertPipeline(
+                            this,
+                            positionTracker,
+                            binlogConf.getConvertThreadSize(),
+                            binlogConf.getConvertQueueSize(),
+                            binlogConf.getConvertPartitionKey());
+        }
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        if (pipeline != null) {
+            pipeline.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (pipeline != null) {
+            pipeline.close();
+        }
     }
 
     @Override
     public boolean sink(
             List<CanalEntry.Entry> entries, InetSocketAddress inetSocketAddress, String s)
             throws CanalSinkException {
+        if (pipeline != null) {
+            try {
+                pipeline.dispatch(entries);
+            } catch (InterruptedException e) {
+                LOG.warn("dispatch entries interrupted error:{}", ExceptionUtil.getErrorMessage(e));
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return true;
+        }
         for (CanalEntry.Entry entry : entries) {
             CanalEntry.EntryType entryType = entry.getEntryType();
-            if (entryType != CanalEntry.EntryType.ROWDATA) {
+            if (entryType != CanalEntry.EntryType.ROWDATA || !accept(entry)) {
                 continue;
             }
-            CanalEntry.RowChange rowChange = null;
+            if (!processEntry(entry, null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 根据entry header中的库表及操作类型判断是否需要该entry，不需要时不再解析RowChange
+     *
+     * @param entry canal entry
+     * @return 是否需要
+     */
+    boolean accept(CanalEntry.Entry entry) {
+        CanalEntry.Header header = entry.getHeader();
+        return rowConverter.accept(
+                header.getSchemaName(), header.getTableName(), header.getEventType().name());
+    }
+
+    /**
+     * 解析并转换单个entry
+     *
+     * @param entry canal entry
+     * @param rowChange 已经解析好的RowChange，为null时从entry中解析
+     * @return entry解析失败时返回false
+     */
+    boolean processEntry(CanalEntry.Entry entry, CanalEntry.RowChange rowChange) {
+        if (rowChange == null) {
             try {
                 rowChange = CanalEntry.RowChange.parseFrom(entry.getStoreValue());
             } catch (InvalidProtocolBufferException e) {
@@ -74,26 +145,39 @@ public class BinlogEventSink extends AbstractCanalLifeCycle
             if (rowChange == null) {
                 return false;
             }
+        }
 
-            CanalEntry.Header header = entry.getHeader();
-            String schema = header.getSchemaName();
-            String table = header.getTableName();
-            long executeTime = header.getExecuteTime();
-            try {
-                processRowChange(rowChange, schema, table, executeTime);
-            } catch (WriteRecordException e) {
-                // todo 脏数据记录
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(
-                            "write error rowData, rowData = {}, e = {}",
-                            e.getRowData().toString(),
-                            ExceptionUtil.getErrorMessage(e));
-                }
+        CanalEntry.Header header = entry.getHeader();
+        String schema = header.getSchemaName();
+        String table = header.getTableName();
+        long executeTime = header.getExecuteTime();
+        try {
+            processRowChange(rowChange, schema, table, executeTime);
+        } catch (WriteRecordException e) {
+            // todo 脏数据记录
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(
+                        "write error rowData, rowData = {}, e = {}",
+                        e.getRowData().toString(),
+                        ExceptionUtil.getErrorMessage(e));
             }
         }
         return true;
     }
 
+    /**
+     * canal持久化位点的回调，流水线模式下需要等该批次数据全部转换完成才推进位点
+     *
+     * @param position 事务结束位点
+     */
+    public void persistPosition(EntryPosition position) {
+        if (positionTracker != null) {
+            positionTracker.commit(position);
+        } else {
+            format.setEntryPosition(position);
+        }
+    }
+
     /**
      * 处理RowData数据
      *
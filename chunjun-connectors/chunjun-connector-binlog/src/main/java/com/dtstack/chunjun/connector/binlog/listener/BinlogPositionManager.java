@@ -17,8 +17,6 @@
  */
 package com.dtstack.chunjun.connector.binlog.listener;
 
-import com.dtstack.chunjun.connector.binlog.inputformat.BinlogInputFormat;
-
 import com.alibaba.otter.canal.parse.exception.CanalParseException;
 import com.alibaba.otter.canal.parse.index.AbstractLogPositionManager;
 import com.alibaba.otter.canal.protocol.position.LogPosition;
@@ -28,11 +26,11 @@ import com.google.common.cache.CacheBuilder;
 /** @author toutian */
 public class BinlogPositionManager extends AbstractLogPositionManager {
 
-    private final BinlogInputFormat format;
+    private final BinlogEventSink binlogEventSink;
     private final Cache<String, LogPosition> logPositionCache;
 
-    public BinlogPositionManager(BinlogInputFormat format) {
-        this.format = format;
+    public BinlogPositionManager(BinlogEventSink binlogEventSink) {
+        this.binlogEventSink = binlogEventSink;
         logPositionCache = CacheBuilder.newBuilder().build();
     }
 
@@ -44,7 +42,7 @@ public class BinlogPositionManager extends AbstractLogPositionManager {
     @Override
     public void persistLogPosition(String destination, LogPosition logPosition)
             throws CanalParseException {
-        format.setEntryPosition(logPosition.getPostion());
+        binlogEventSink.persistPosition(logPosition.getPostion());
         logPositionCache.put(destination, logPosition);
     }
 
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.binlog.listener;
+
+import com.dtstack.chunjun.connector.binlog.inputformat.BinlogInputFormat;
+
+import com.alibaba.otter.canal.protocol.position.EntryPosition;
+
+import java.util.ArrayDeque;
+
+/**
+ * 流水线转换模式下的位点跟踪器。
+ *
+ * <p>canal每次调用sink传入的entry列表视为一个批次，批次内的转换任务会被分发到多个线程异步执行。
+ * 只有当某个批次以及它之前的所有批次的数据都已经放入队列后，该批次对应的位点才会被设置到{@link BinlogInputFormat}中，
+ * 保证checkpoint中的entryPosition不会越过尚未输出完成的事务。
+ *
+ * @author tudou
+ */
+public class BinlogPositionTracker {
+
+    private final BinlogInputFormat format;
+    private final ArrayDeque<Batch> pendingBatches = new ArrayDeque<>();
+    /** 最近一次开始的批次，canal在sink返回后才会持久化该批次的位点 */
+    private Batch lastBatch;
+
+    public BinlogPositionTracker(BinlogInputFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * 开始一个新的批次，批次在{@link #seal(Batch)}之前不会被视为完成
+     *
+     * @return 新批次
+     */
+    public synchronized Batch begin() {
+        Batch batch = new Batch();
+        pendingBatches.addLast(batch);
+        lastBatch = batch;
+        return batch;
+    }
+
+    /**
+     * 批次中增加一个待完成的转换任务
+     *
+     * @param batch 批次
+     */
+    public synchronized void retain(Batch batch) {
+        batch.remaining++;
+    }
+
+    /**
+     * 批次中的一个转换任务已完成，数据已经放入队列
+     *
+     * @param batch 批次
+     */
+    public synchronized void release(Batch batch) {
+        batch.remaining--;
+        advance();
+        notifyAll();
+    }
+
+    /**
+     * 批次内所有任务已分发完毕
+     *
+     * @param batch 批次
+     */
+    public synchronized void seal(Batch batch) {
+        release(batch);
+    }
+
+    /**
+     * canal持久化位点的回调，位点属于最近一次sink的批次
+     *
+     * @param position 事务结束位点
+     */
+    public synchronized void commit(EntryPosition position) {
+        if (lastBatch != null && !lastBatch.finished) {
+            lastBatch.position = position;
+        } else {
+            // 批次已经输出完成且之前的批次也都已完成，可以直接推进位点
+            format.setEntryPosition(position);
+        }
+    }
+
+    /**
+     * 等待之前所有已分发的任务全部输出完成，用于按主键分区时ddl的屏障
+     *
+     * @param batch 当前批次
+     * @throws InterruptedException 等待被中断
+     */
+    public synchronized void awaitDispatched(Batch batch) throws InterruptedException {
+        while (pendingBatches.peekFirst() != batch || batch.remaining > 1) {
+            wait();
+        }
+    }
+
+    /** @return 尚未完全输出的批次数量 */
+    public synchronized int getPendingBatchSize() {
+        return pendingBatches.size();
+    }
+
+    private void advance() {
+        Batch head;
+        while ((head = pendingBatches.peekFirst()) != null && head.remaining == 0) {
+            pendingBatches.pollFirst();
+            head.finished = true;
+            if (head.position != null) {
+                format.setEntryPosition(head.position);
+            }
+        }
+    }
+
+    /** canal一次sink调用对应的批次 */
+    public static class Batch {
+        /** 初始为1，由{@link #seal(Batch)}释放，防止分发过程中批次被提前视为完成 */
+        private int remaining = 1;
+
+        private EntryPosition position;
+
+        private boolean finished;
+    }
+}
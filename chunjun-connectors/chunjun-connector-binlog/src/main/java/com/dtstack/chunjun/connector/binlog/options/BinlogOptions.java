@@ -154,4 +154,31 @@ public class BinlogOptions {
                     .defaultValue(60000)
                     .withDescription(
                             "The timeout period for the database driver (mysql-connector-java) to establish a TCP connection with the mysql server, in milliseconds");
+
+    public static final ConfigOption<Boolean> CONVERT_PARALLEL =
+            ConfigOptions.key("convert-parallel")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether to decode and convert binlog entries on multiple threads.");
+
+    public static final ConfigOption<Integer> CONVERT_THREAD_SIZE =
+            ConfigOptions.key("convert-thread-size")
+                    .intType()
+                    .defaultValue(4)
+                    .withDescription("MySQL Binlog convert thread size.");
+
+    public static final ConfigOption<Integer> CONVERT_QUEUE_SIZE =
+            ConfigOptions.key("convert-queue-size")
+                    .intType()
+                    .defaultValue(1024)
+                    .withDescription(
+                            "MySQL Binlog pending entry queue size of each convert thread.");
+
+    public static final ConfigOption<String> CONVERT_PARTITION_KEY =
+            ConfigOptions.key("convert-partition-key")
+                    .stringType()
+                    .defaultValue("table")
+                    .withDescription(
+                            "How entries are partitioned across convert threads, table or primaryKey.");
 }
@@ -80,6 +80,10 @@ public class BinlogDynamicTableFactory implements DynamicTableSourceFactory {
         options.add(BinlogOptions.IS_GTID_MODE);
         options.add(BinlogOptions.QUERY_TIME_OUT);
         options.add(BinlogOptions.CONNECT_TIME_OUT);
+        options.add(BinlogOptions.CONVERT_PARALLEL);
+        options.add(BinlogOptions.CONVERT_THREAD_SIZE);
+        options.add(BinlogOptions.CONVERT_QUEUE_SIZE);
+        options.add(BinlogOptions.CONVERT_PARTITION_KEY);
         options.add(JsonOptions.TIMESTAMP_FORMAT);
         return options;
     }
@@ -143,6 +147,10 @@ public class BinlogDynamicTableFactory implements DynamicTableSourceFactory {
         binlogConf.setSplit(true);
         binlogConf.setQueryTimeOut(config.get(BinlogOptions.QUERY_TIME_OUT));
         binlogConf.setConnectTimeOut(config.get(BinlogOptions.CONNECT_TIME_OUT));
+        binlogConf.setConvertParallel(config.get(BinlogOptions.CONVERT_PARALLEL));
+        binlogConf.setConvertThreadSize(config.get(BinlogOptions.CONVERT_THREAD_SIZE));
+        binlogConf.setConvertQueueSize(config.get(BinlogOptions.CONVERT_QUEUE_SIZE));
+        binlogConf.setConvertPartitionKey(config.get(BinlogOptions.CONVERT_PARTITION_KEY));
 
         return binlogConf;
     }
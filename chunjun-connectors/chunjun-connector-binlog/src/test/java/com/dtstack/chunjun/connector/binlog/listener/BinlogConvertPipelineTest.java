@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.binlog.listener;
+
+import com.dtstack.chunjun.connector.binlog.inputformat.BinlogInputFormat;
+
+import com.alibaba.otter.canal.protocol.CanalEntry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BinlogConvertPipelineTest {
+
+    private BinlogEventSink sink;
+    private BinlogConvertPipeline pipeline;
+    private final List<CanalEntry.EventType> processed =
+            Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch insertLatch = new CountDownLatch(1);
+
+    @Before
+    public void setup() {
+        sink = mock(BinlogEventSink.class);
+        when(sink.accept(any())).thenReturn(true);
+        doAnswer(
+                        invocation -> {
+                            CanalEntry.Entry entry = invocation.getArgument(0);
+                            CanalEntry.EventType eventType = entry.getHeader().getEventType();
+                            processed.add(eventType);
+                            if (eventType == CanalEntry.EventType.INSERT) {
+                                insertLatch.await();
+                            }
+                            return true;
+                        })
+                .when(sink)
+                .processEntry(any(), any());
+        BinlogPositionTracker tracker = new BinlogPositionTracker(mock(BinlogInputFormat.class));
+        pipeline =
+                new BinlogConvertPipeline(
+                        sink, tracker, 2, 16, BinlogConvertPipeline.PARTITION_BY_PRIMARY_KEY);
+        pipeline.start();
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    public void primaryKeyChangingUpdateWaitsForPreviousRowsTest() throws Exception {
+        // 主键1和2的hash相差1，在两个线程时落在不同线程上
+        pipeline.dispatch(Collections.singletonList(entry(CanalEntry.EventType.INSERT, null, "1")));
+        Thread dispatcher =
+                new Thread(
+                        () -> {
+                            try {
+                                pipeline.dispatch(
+                                        Collections.singletonList(
+                                                entry(CanalEntry.EventType.UPDATE, "1", "2")));
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        dispatcher.start();
+
+        TimeUnit.MILLISECONDS.sleep(200);
+        Assert.assertEquals(Collections.singletonList(CanalEntry.EventType.INSERT), processed);
+
+        insertLatch.countDown();
+        dispatcher.join(5000);
+        Assert.assertFalse(dispatcher.isAlive());
+        Assert.assertEquals(
+                Arrays.asList(CanalEntry.EventType.INSERT, CanalEntry.EventType.UPDATE), processed);
+    }
+
+    private static CanalEntry.Entry entry(
+            CanalEntry.EventType eventType, String beforeKey, String afterKey) {
+        CanalEntry.RowData.Builder rowData = CanalEntry.RowData.newBuilder();
+        if (beforeKey != null) {
+            rowData.addBeforeColumns(keyColumn(beforeKey));
+        }
+        rowData.addAfterColumns(keyColumn(afterKey));
+        CanalEntry.RowChange rowChange =
+                CanalEntry.RowChange.newBuilder()
+                        .setEventType(eventType)
+                        .addRowDatas(rowData)
+                        .build();
+        return CanalEntry.Entry.newBuilder()
+                .setEntryType(CanalEntry.EntryType.ROWDATA)
+                .setHeader(
+                        CanalEntry.Header.newBuilder()
+                                .setSchemaName("db")
+                                .setTableName("t")
+                                .setEventType(eventType))
+                .setStoreValue(rowChange.toByteString())
+                .build();
+    }
+
+    private static CanalEntry.Column keyColumn(String value) {
+        return CanalEntry.Column.newBuilder().setName("id").setIsKey(true).setValue(value).build();
+    }
+}
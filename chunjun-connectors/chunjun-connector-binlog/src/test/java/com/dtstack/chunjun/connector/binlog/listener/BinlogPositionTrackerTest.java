@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.binlog.listener;
+
+import com.dtstack.chunjun.connector.binlog.inputformat.BinlogInputFormat;
+
+import com.alibaba.otter.canal.protocol.position.EntryPosition;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class BinlogPositionTrackerTest {
+
+    private BinlogInputFormat format;
+    private BinlogPositionTracker tracker;
+
+    @Before
+    public void setup() {
+        format = mock(BinlogInputFormat.class);
+        tracker = new BinlogPositionTracker(format);
+    }
+
+    @Test
+    public void positionWaitsForUnfinishedTaskTest() {
+        BinlogPositionTracker.Batch batch = tracker.begin();
+        tracker.retain(batch);
+        tracker.seal(batch);
+        EntryPosition position = new EntryPosition("mysql-bin.000001", 100L);
+        tracker.commit(position);
+        verify(format, never()).setEntryPosition(any());
+
+        tracker.release(batch);
+        verify(format).setEntryPosition(position);
+        Assert.assertEquals(0, tracker.getPendingBatchSize());
+    }
+
+    @Test
+    public void laterBatchWaitsForEarlierBatchTest() {
+        BinlogPositionTracker.Batch first = tracker.begin();
+        tracker.retain(first);
+        tracker.seal(first);
+        EntryPosition firstPosition = new EntryPosition("mysql-bin.000001", 100L);
+        tracker.commit(firstPosition);
+
+        BinlogPositionTracker.Batch second = tracker.begin();
+        tracker.retain(second);
+        tracker.seal(second);
+        EntryPosition secondPosition = new EntryPosition("mysql-bin.000001", 200L);
+        tracker.commit(secondPosition);
+
+        tracker.release(second);
+        verify(format, never()).setEntryPosition(any());
+        Assert.assertEquals(2, tracker.getPendingBatchSize());
+
+        tracker.release(first);
+        InOrder inOrder = inOrder(format);
+        inOrder.verify(format).setEntryPosition(firstPosition);
+        inOrder.verify(format).setEntryPosition(secondPosition);
+        Assert.assertEquals(0, tracker.getPendingBatchSize());
+    }
+
+    @Test
+    public void commitAfterBatchFinishedTest() {
+        BinlogPositionTracker.Batch batch = tracker.begin();
+        tracker.seal(batch);
+        EntryPosition position = new EntryPosition("mysql-bin.000001", 100L);
+        tracker.commit(position);
+        verify(format).setEntryPosition(position);
+    }
+}
@@ -29,6 +29,7 @@ import static com.dtstack.chunjun.connector.cassandra.optinos.CassandraCommonOpt
 import static com.dtstack.chunjun.connector.cassandra.optinos.CassandraCommonOptions.HOST_DISTANCE;
 import static com.dtstack.chunjun.connector.cassandra.optinos.CassandraCommonOptions.KEY_SPACES;
 import static com.dtstack.chunjun.connector.cassandra.optinos.CassandraCommonOptions.MAX_CONNECTIONS__PER_HOST;
+import static com.dtstack.chunjun.connector.cassandra.optinos.CassandraCommonOptions.MAX_IN_FLIGHT_REQUESTS;
 import static com.dtstack.chunjun.connector.cassandra.optinos.CassandraCommonOptions.MAX_QUEUE_SIZE;
 import static com.dtstack.chunjun.connector.cassandra.optinos.CassandraCommonOptions.MAX_REQUESTS_PER_CONNECTION;
 import static com.dtstack.chunjun.connector.cassandra.optinos.CassandraCommonOptions.PASSWORD;
@@ -46,6 +47,8 @@ import static com.dtstack.chunjun.connector.cassandra.optinos.CassandraCommonOpt
 public class CassandraSinkConf extends CassandraCommonConf {
 
     private boolean asyncWrite;
+    /** 异步写入时同时执行的请求数 */
+    private int maxInFlightRequests = MAX_IN_FLIGHT_REQUESTS.defaultValue();
 
     public boolean isAsyncWrite() {
         return asyncWrite;
@@ -55,6 +58,14 @@ public class CassandraSinkConf extends CassandraCommonConf {
         this.asyncWrite = asyncWrite;
     }
 
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
     public static CassandraSinkConf from(ReadableConfig config) {
         CassandraSinkConf sinkConf = new CassandraSinkConf();
 
@@ -70,6 +81,7 @@ public class CassandraSinkConf extends CassandraCommonConf {
         sinkConf.setHostDistance(config.get(HOST_DISTANCE));
 
         sinkConf.setAsyncWrite(config.get(ASYNC_WRITE));
+        sinkConf.setMaxInFlightRequests(config.get(MAX_IN_FLIGHT_REQUESTS));
         sinkConf.setConnectTimeoutMillis(config.get(CONNECT_TIMEOUT_MILLISECONDS));
         sinkConf.setCoreConnectionsPerHost(config.get(CORE_CONNECTIONS_PER_HOST));
         sinkConf.setMaxQueueSize(config.get(MAX_QUEUE_SIZE));
@@ -129,6 +141,8 @@ public class CassandraSinkConf extends CassandraCommonConf {
                 + poolTimeoutMillis
                 + ", asyncWrite="
                 + asyncWrite
+                + ", maxInFlightRequests="
+                + maxInFlightRequests
                 + '}';
     }
 }
@@ -140,6 +140,13 @@ public class CassandraCommonOptions {
                     .defaultValue(false)
                     .withDescription("Cassandra params. Async write data to databases.");
 
+    public static final ConfigOption<Integer> MAX_IN_FLIGHT_REQUESTS =
+            ConfigOptions.key("maxInFlightRequests")
+                    .intType()
+                    .defaultValue(64)
+                    .withDescription(
+                            "Cassandra params. The max number of concurrent requests when asyncWrite is true.");
+
     public static final ConfigOption<String> WHERE =
             ConfigOptions.key("where")
                     .stringType()
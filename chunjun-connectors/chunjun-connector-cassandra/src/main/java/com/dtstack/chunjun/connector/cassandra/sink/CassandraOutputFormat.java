@@ -22,25 +22,43 @@ import com.dtstack.chunjun.connector.cassandra.conf.CassandraSinkConf;
 import com.dtstack.chunjun.connector.cassandra.util.CassandraService;
 import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
 import com.dtstack.chunjun.throwable.WriteRecordException;
+import com.dtstack.chunjun.util.ExceptionUtil;
 
 import org.apache.flink.table.data.RowData;
 
 import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ColumnMetadata;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
-import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.TableMetadata;
 import com.datastax.driver.core.querybuilder.Insert;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
 
 import static com.dtstack.chunjun.connector.cassandra.util.CassandraService.quoteColumn;
 
@@ -56,71 +74,169 @@ public class CassandraOutputFormat extends BaseRichOutputFormat {
 
     private CassandraSinkConf sinkConf;
 
-    private Session session;
+    private transient Session session;
 
-    private PreparedStatement preparedStatement;
+    private transient PreparedStatement preparedStatement;
 
-    protected List<ResultSetFuture> unConfirmedWrite;
+    private transient ConsistencyLevel consistencyLevel;
 
-    protected List<BoundStatement> bufferedWrite;
+    private transient ProtocolVersion protocolVersion;
+
+    private transient CodecRegistry codecRegistry;
+    /** 同时执行的请求数 */
+    private transient int maxInFlight;
+
+    private transient Semaphore inFlightPermits;
+    /** 主键列在insert语句中的位置 */
+    private transient int[] primaryKeyIndexes;
 
     @Override
     protected void writeSingleRecordInternal(RowData rowData) throws WriteRecordException {
         try {
             // cassandra支持对重复主键的值覆盖，无需判断writeMode
-            BoundStatement boundStatement = preparedStatement.bind();
             BoundStatement statement =
-                    (BoundStatement) rowConverter.toExternal(rowData, boundStatement);
+                    (BoundStatement) rowConverter.toExternal(rowData, preparedStatement.bind());
             session.execute(statement);
         } catch (Exception e) {
             throw new WriteRecordException("", e, -1, rowData);
         }
     }
 
+    @Override
+    protected boolean isWriteCountedBySink() {
+        return true;
+    }
+
+    /**
+     * 按partition key对一批数据分组，每个partition的数据组成一个UNLOGGED batch，只涉及单个partition的batch由token
+     * aware的负载均衡策略直接发送到副本节点，不需要coordinator再转发。各个batch异步执行，同时执行的请求数由maxInFlightRequests限制，
+     * 方法返回前等待本批次的请求全部完成。执行失败的partition中的数据转为单条写入。
+     *
+     * <p>同一个batch中的语句使用相同的写入时间戳，因此主键相同的数据只保留批次中的最后一条，被覆盖的数据随其最终写入的数据一起成功或失败。
+     */
     @Override
     @SuppressWarnings("unchecked")
     protected void writeMultipleRecordsInternal() throws Exception {
-        if (batchSize > 1) {
-            BoundStatement boundStatement = preparedStatement.bind();
-            for (RowData rowData : rows) {
-
-                BoundStatement statement =
-                        (BoundStatement) rowConverter.toExternal(rowData, boundStatement);
-
-                if (sinkConf.isAsyncWrite()) {
-                    unConfirmedWrite.add(session.executeAsync(statement));
-                    if (unConfirmedWrite.size() >= batchSize) {
-                        for (ResultSetFuture write : unConfirmedWrite) {
-                            write.getUninterruptibly(10000, TimeUnit.MILLISECONDS);
-                        }
-                        unConfirmedWrite.clear();
-                    }
+        List<BoundStatement> statements = new ArrayList<>(rows.size());
+        List<List<ByteBuffer>> primaryKeys = new ArrayList<>(rows.size());
+        Map<List<ByteBuffer>, Integer> lastIndexes = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            BoundStatement statement;
+            try {
+                statement =
+                        (BoundStatement)
+                                rowConverter.toExternal(rows.get(i), preparedStatement.bind());
+            } catch (Exception e) {
+                dirtyManager.collect(rows.get(i), e, null);
+                statements.add(null);
+                primaryKeys.add(null);
+                continue;
+            }
+            statements.add(statement);
+            List<ByteBuffer> primaryKey = primaryKeyOf(statement);
+            primaryKeys.add(primaryKey);
+            if (primaryKey != null) {
+                lastIndexes.put(primaryKey, i);
+            }
+        }
+
+        // 最终写入的数据的位置 -> 被其覆盖的数据的位置
+        Map<Integer, List<Integer>> superseded = new HashMap<>();
+        Map<ByteBuffer, List<Integer>> partitions = new LinkedHashMap<>();
+        List<List<Integer>> unrouted = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            BoundStatement statement = statements.get(i);
+            if (statement == null) {
+                continue;
+            }
+            Integer lastIndex = lastIndexes.get(primaryKeys.get(i));
+            if (lastIndex != null && lastIndex != i) {
+                superseded.computeIfAbsent(lastIndex, k -> new ArrayList<>()).add(i);
+                continue;
+            }
+            ByteBuffer routingKey = statement.getRoutingKey(protocolVersion, codecRegistry);
+            if (routingKey == null) {
+                unrouted.add(Collections.singletonList(i));
+            } else {
+                partitions.computeIfAbsent(routingKey, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Queue<PartitionFailure> failures = new ConcurrentLinkedQueue<>();
+        List<List<Integer>> groups = new ArrayList<>(partitions.values());
+        groups.addAll(unrouted);
+        try {
+            for (List<Integer> group : groups) {
+                Statement statement;
+                if (group.size() == 1) {
+                    statement = statements.get(group.get(0));
                 } else {
-                    bufferedWrite.add(statement);
-                    if (bufferedWrite.size() >= batchSize) {
-                        BatchStatement batchStatement =
-                                new BatchStatement(BatchStatement.Type.UNLOGGED);
-                        batchStatement.addAll(bufferedWrite);
-                        session.execute(batchStatement);
-                        bufferedWrite.clear();
+                    BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+                    for (int index : group) {
+                        batch.add(statements.get(index));
                     }
+                    batch.setConsistencyLevel(consistencyLevel);
+                    statement = batch;
                 }
+                inFlightPermits.acquire();
+                Futures.addCallback(
+                        session.executeAsync(statement),
+                        new FutureCallback<ResultSet>() {
+                            @Override
+                            public void onSuccess(ResultSet result) {
+                                inFlightPermits.release();
+                            }
+
+                            @Override
+                            public void onFailure(Throwable t) {
+                                failures.add(new PartitionFailure(group, t));
+                                inFlightPermits.release();
+                            }
+                        },
+                        MoreExecutors.directExecutor());
             }
+        } finally {
+            // 等待已发送的请求全部完成
+            inFlightPermits.acquireUninterruptibly(maxInFlight);
+            inFlightPermits.release(maxInFlight);
+        }
 
-            // 检查是否还有数据未写出去
-            if (unConfirmedWrite != null && unConfirmedWrite.size() > 0) {
-                for (ResultSetFuture write : unConfirmedWrite) {
-                    write.getUninterruptibly(10000, TimeUnit.MILLISECONDS);
+        long failed = 0;
+        for (PartitionFailure failure : failures) {
+            LOG.warn(
+                    "write {} records of one partition failed, write one by one, e = {}",
+                    failure.rows.size(),
+                    ExceptionUtil.getErrorMessage(failure.cause));
+            for (int index : failure.rows) {
+                // 被覆盖的数据先于最终的数据写入，保持原有顺序
+                for (int supersededIndex :
+                        superseded.getOrDefault(index, Collections.emptyList())) {
+                    writeSingleRecord(rows.get(supersededIndex), numWriteCounter);
+                    failed++;
                 }
-                unConfirmedWrite.clear();
+                writeSingleRecord(rows.get(index), numWriteCounter);
+                failed++;
             }
-            if (bufferedWrite != null && bufferedWrite.size() > 0) {
-                BatchStatement batchStatement = new BatchStatement(BatchStatement.Type.UNLOGGED);
-                batchStatement.addAll(bufferedWrite);
-                session.execute(batchStatement);
-                bufferedWrite.clear();
+        }
+        long written = 0;
+        for (BoundStatement statement : statements) {
+            if (statement != null) {
+                written++;
             }
         }
+        numWriteCounter.add(written - failed);
+    }
+
+    /** 语句中绑定的主键(partition key及clustering column)的值，没有找到主键列时返回null */
+    private List<ByteBuffer> primaryKeyOf(BoundStatement statement) {
+        if (primaryKeyIndexes.length == 0) {
+            return null;
+        }
+        List<ByteBuffer> primaryKey = new ArrayList<>(primaryKeyIndexes.length);
+        for (int index : primaryKeyIndexes) {
+            primaryKey.add(statement.getBytesUnsafe(index));
+        }
+        return primaryKey;
     }
 
     @Override
@@ -130,8 +246,7 @@ public class CassandraOutputFormat extends BaseRichOutputFormat {
         String keyspaces = sinkConf.getKeyspaces();
         String table = sinkConf.getTableName();
 
-        ConsistencyLevel consistencyLevel =
-                CassandraService.consistencyLevel(sinkConf.getConsistency());
+        consistencyLevel = CassandraService.consistencyLevel(sinkConf.getConsistency());
 
         session = CassandraService.session(sinkConf);
 
@@ -150,13 +265,24 @@ public class CassandraOutputFormat extends BaseRichOutputFormat {
 
         preparedStatement = session.prepare(insert);
 
-        if (batchSize > 1) {
-            if (sinkConf.isAsyncWrite()) {
-                unConfirmedWrite = new ArrayList<>();
-            } else {
-                bufferedWrite = new ArrayList<>();
+        Set<String> primaryKeyNames =
+                metadata.getPrimaryKey().stream()
+                        .map(ColumnMetadata::getName)
+                        .collect(Collectors.toSet());
+        List<ColumnDefinitions.Definition> variables = preparedStatement.getVariables().asList();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < variables.size(); i++) {
+            if (primaryKeyNames.contains(variables.get(i).getName())) {
+                indexes.add(i);
             }
         }
+        primaryKeyIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+
+        protocolVersion =
+                session.getCluster().getConfiguration().getProtocolOptions().getProtocolVersion();
+        codecRegistry = session.getCluster().getConfiguration().getCodecRegistry();
+        maxInFlight = sinkConf.isAsyncWrite() ? sinkConf.getMaxInFlightRequests() : 1;
+        inFlightPermits = new Semaphore(maxInFlight);
     }
 
     @Override
@@ -171,4 +297,16 @@ public class CassandraOutputFormat extends BaseRichOutputFormat {
     public void setSinkConf(CassandraSinkConf sinkConf) {
         this.sinkConf = sinkConf;
     }
+
+    private static class PartitionFailure {
+        /** 失败的数据在批次中的位置 */
+        private final List<Integer> rows;
+
+        private final Throwable cause;
+
+        private PartitionFailure(List<Integer> rows, Throwable cause) {
+            this.rows = rows;
+            this.cause = cause;
+        }
+    }
 }
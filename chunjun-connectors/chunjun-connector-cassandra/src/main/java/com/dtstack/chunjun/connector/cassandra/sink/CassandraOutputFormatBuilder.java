@@ -60,6 +60,10 @@ public class CassandraOutputFormatBuilder extends BaseRichOutputFormatBuilder {
             stringBuilder.append("No table-name supplied;\n");
         }
 
+        if (sinkConf.getMaxInFlightRequests() < 1) {
+            stringBuilder.append("maxInFlightRequests must be greater than 0;\n");
+        }
+
         if (stringBuilder.length() > 0) {
             throw new NoRestartException(stringBuilder.toString());
         }
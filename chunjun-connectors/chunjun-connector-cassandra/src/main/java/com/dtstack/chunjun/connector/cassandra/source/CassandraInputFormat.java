@@ -26,8 +26,8 @@ import com.dtstack.chunjun.throwable.ReadRecordException;
 import org.apache.flink.core.io.InputSplit;
 import org.apache.flink.table.data.RowData;
 
+import com.datastax.driver.core.ColumnMetadata;
 import com.datastax.driver.core.ConsistencyLevel;
-import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
@@ -37,6 +37,7 @@ import com.google.common.base.Preconditions;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import static com.dtstack.chunjun.connector.cassandra.util.CassandraService.quoteColumn;
 
@@ -52,6 +53,14 @@ public class CassandraInputFormat extends BaseRichInputFormat {
 
     protected transient Iterator<Row> cursor;
 
+    private transient ConsistencyLevel consistencyLevel;
+    /** token(partition key) */
+    private transient String tokenFunction;
+
+    private transient List<String[]> tokenRanges;
+    /** 下一个要读取的token range */
+    private transient int rangeIndex;
+
     @Override
     protected InputSplit[] createInputSplitsInternal(int minNumSplits) throws Exception {
         ArrayList<CassandraInputSplit> splits = new ArrayList<>();
@@ -73,23 +82,63 @@ public class CassandraInputFormat extends BaseRichInputFormat {
         String tableName = sourceConf.getTableName();
         String keyspaces = sourceConf.getKeyspaces();
 
-        sourceConf
-                .getColumn()
-                .forEach(fieldConf -> columnNameList.add(quoteColumn(fieldConf.getName())));
+        if (columnNameList.isEmpty()) {
+            sourceConf
+                    .getColumn()
+                    .forEach(fieldConf -> columnNameList.add(quoteColumn(fieldConf.getName())));
+        }
 
         Preconditions.checkNotNull(tableName, "table must not null");
         session = CassandraService.session(sourceConf);
 
         String consistency = sourceConf.getConsistency();
-        ConsistencyLevel consistencyLevel = CassandraService.consistencyLevel(consistency);
+        consistencyLevel = CassandraService.consistencyLevel(consistency);
+
+        List<ColumnMetadata> partitionKey =
+                session.getCluster()
+                        .getMetadata()
+                        .getKeyspace(keyspaces)
+                        .getTable(tableName)
+                        .getPartitionKey();
+        String[] partitionKeyNames = new String[partitionKey.size()];
+        for (int i = 0; i < partitionKeyNames.length; i++) {
+            partitionKeyNames[i] = quoteColumn(partitionKey.get(i).getName());
+        }
+        tokenFunction = QueryBuilder.token(partitionKeyNames);
+        tokenRanges = split.getTokenRanges();
+        rangeIndex = 0;
+
+        LOG.info(
+                "split: {}, {}, token ranges: {}",
+                split.getMinToken(),
+                split.getMaxToken(),
+                tokenRanges.size());
+        if (tokenRanges.isEmpty()) {
+            cursor = session.execute(createSelect()).iterator();
+        } else {
+            openNextRange();
+        }
+    }
 
-        Select select = QueryBuilder.select(columnNameList.toArray()).from(keyspaces, tableName);
+    private Select createSelect() {
+        Select select =
+                QueryBuilder.select(columnNameList.toArray())
+                        .from(sourceConf.getKeyspaces(), sourceConf.getTableName());
         select.setConsistencyLevel(consistencyLevel);
-        // TODO where ? group by ? order by ?
+        return select;
+    }
 
-        LOG.info("split: {}, {}", split.getMinToken(), split.getMaxToken());
-        ResultSet resultSet = session.execute(select);
-        cursor = resultSet.all().iterator();
+    /** 读取下一个token range，结果由driver按fetchSize分页读取 */
+    private void openNextRange() {
+        String[] range = tokenRanges.get(rangeIndex++);
+        Select select = createSelect();
+        if (range[0] != null) {
+            select.where(QueryBuilder.gt(tokenFunction, QueryBuilder.raw(range[0])));
+        }
+        if (range[1] != null) {
+            select.where(QueryBuilder.lte(tokenFunction, QueryBuilder.raw(range[1])));
+        }
+        cursor = session.execute(select).iterator();
     }
 
     @Override
@@ -112,6 +161,9 @@ public class CassandraInputFormat extends BaseRichInputFormat {
 
     @Override
     public boolean reachedEnd() throws IOException {
+        while (!cursor.hasNext() && rangeIndex < tokenRanges.size()) {
+            openNextRange();
+        }
         return !cursor.hasNext();
     }
 
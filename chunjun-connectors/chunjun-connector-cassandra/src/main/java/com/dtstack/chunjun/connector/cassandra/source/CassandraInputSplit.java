@@ -20,16 +20,20 @@ package com.dtstack.chunjun.connector.cassandra.source;
 
 import org.apache.flink.core.io.InputSplit;
 
-/**
- * @author tiezhu
- * @since 2021/6/21 星期一
- */
+import java.util.ArrayList;
+import java.util.List;
+
 public class CassandraInputSplit implements InputSplit {
 
+    private int splitNumber;
+
     private String minToken;
 
     private String maxToken;
 
+    /** 分片包含的token区间(start, end]，null表示不限制，为空时读取全表 */
+    private List<String[]> tokenRanges = new ArrayList<>();
+
     public CassandraInputSplit() {}
 
     public CassandraInputSplit(String minToken, String maxToken) {
@@ -37,6 +41,13 @@ public class CassandraInputSplit implements InputSplit {
         this.maxToken = maxToken;
     }
 
+    public CassandraInputSplit(int splitNumber, List<String[]> tokenRanges) {
+        this.splitNumber = splitNumber;
+        this.tokenRanges = tokenRanges;
+        this.minToken = tokenRanges.get(0)[0];
+        this.maxToken = tokenRanges.get(tokenRanges.size() - 1)[1];
+    }
+
     public String getMinToken() {
         return minToken;
     }
@@ -53,8 +64,12 @@ public class CassandraInputSplit implements InputSplit {
         this.maxToken = maxToken;
     }
 
+    public List<String[]> getTokenRanges() {
+        return tokenRanges;
+    }
+
     @Override
     public int getSplitNumber() {
-        return 0;
+        return splitNumber;
     }
 }
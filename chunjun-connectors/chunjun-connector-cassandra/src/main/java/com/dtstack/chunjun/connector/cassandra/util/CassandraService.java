@@ -27,10 +27,13 @@ import org.apache.flink.core.io.InputSplit;
 
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Host;
 import com.datastax.driver.core.HostDistance;
+import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.PoolingOptions;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.SocketOptions;
+import com.datastax.driver.core.TokenRange;
 import com.datastax.driver.core.policies.DefaultRetryPolicy;
 import com.datastax.driver.core.policies.ExponentialReconnectionPolicy;
 import com.google.common.base.Preconditions;
@@ -38,10 +41,11 @@ import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * @author tiezhu
@@ -52,10 +56,6 @@ public class CassandraService {
 
     private static final String TOKEN = "token(";
 
-    private static final String RANDOM_PARTITIONER = "RandomPartitioner";
-
-    private static final String MURMUR3_PARTITIONER = "Murmur3Partitioner";
-
     /**
      * Build cassandra session.
      *
@@ -202,7 +202,8 @@ public class CassandraService {
     }
 
     /**
-     * 分割任务
+     * 分割任务。按集群的token range切分，每个range按第一个副本节点及token排序后连续分配到各个分片， 使每个分片的range尽量属于同一个副本节点，读取时由token
+     * aware策略直接发送到该节点。
      *
      * @param minNumSplits 分片数
      * @param splits 分片列表
@@ -225,46 +226,79 @@ public class CassandraService {
             return splits.toArray(new CassandraInputSplit[0]);
         }
         Session session = CassandraService.session(sourceConf);
-        String partitioner = session.getCluster().getMetadata().getPartitioner();
-        if (partitioner.endsWith(RANDOM_PARTITIONER)) {
-            BigDecimal minToken = BigDecimal.valueOf(-1);
-            BigDecimal maxToken = new BigDecimal(new BigInteger("2").pow(127));
-            BigDecimal step =
-                    maxToken.subtract(minToken)
-                            .divide(
-                                    BigDecimal.valueOf(minNumSplits),
-                                    2,
-                                    BigDecimal.ROUND_HALF_EVEN);
-            for (int i = 0; i < minNumSplits; i++) {
-                BigInteger l = minToken.add(step.multiply(BigDecimal.valueOf(i))).toBigInteger();
-                BigInteger r =
-                        minToken.add(step.multiply(BigDecimal.valueOf(i + 1L))).toBigInteger();
-                if (i == minNumSplits - 1) {
-                    r = maxToken.toBigInteger();
+        try {
+            Metadata metadata = session.getCluster().getMetadata();
+            List<ReplicaTokenRange> ranges = new ArrayList<>();
+            for (TokenRange range : metadata.getTokenRanges()) {
+                String replica = primaryReplica(metadata, sourceConf.getKeyspaces(), range);
+                if (range.getStart().equals(range.getEnd())) {
+                    // 单个token时range覆盖整个环
+                    ranges.add(new ReplicaTokenRange(replica, range, null, null));
+                } else if (range.isWrappedAround()) {
+                    // 跨越环的起点，拆分为(start, 环的终点]和(环的起点, end]
+                    ranges.add(
+                            new ReplicaTokenRange(
+                                    replica, range, range.getStart().toString(), null));
+                    ranges.add(
+                            new ReplicaTokenRange(replica, range, null, range.getEnd().toString()));
+                } else {
+                    ranges.add(
+                            new ReplicaTokenRange(
+                                    replica,
+                                    range,
+                                    range.getStart().toString(),
+                                    range.getEnd().toString()));
                 }
-                splits.add(new CassandraInputSplit(l.toString(), r.toString()));
             }
-        } else if (partitioner.endsWith(MURMUR3_PARTITIONER)) {
-            BigDecimal minToken = BigDecimal.valueOf(Long.MIN_VALUE);
-            BigDecimal maxToken = BigDecimal.valueOf(Long.MAX_VALUE);
-            BigDecimal step =
-                    maxToken.subtract(minToken)
-                            .divide(
-                                    BigDecimal.valueOf(minNumSplits),
-                                    2,
-                                    BigDecimal.ROUND_HALF_EVEN);
-            for (int i = 0; i < minNumSplits; i++) {
-                long l = minToken.add(step.multiply(BigDecimal.valueOf(i))).longValue();
-                long r = minToken.add(step.multiply(BigDecimal.valueOf(i + 1L))).longValue();
-                if (i == minNumSplits - 1) {
-                    r = maxToken.longValue();
+            if (ranges.isEmpty()) {
+                splits.add(new CassandraInputSplit());
+                return splits.toArray(new CassandraInputSplit[0]);
+            }
+            ranges.sort(
+                    Comparator.comparing((ReplicaTokenRange r) -> r.replica)
+                            .thenComparing(r -> r.range));
+
+            int splitNum = Math.min(minNumSplits, ranges.size());
+            for (int i = 0; i < splitNum; i++) {
+                int from = (int) ((long) ranges.size() * i / splitNum);
+                int to = (int) ((long) ranges.size() * (i + 1) / splitNum);
+                List<String[]> tokenRanges = new ArrayList<>(to - from);
+                for (ReplicaTokenRange range : ranges.subList(from, to)) {
+                    tokenRanges.add(new String[] {range.start, range.end});
                 }
-                splits.add(new CassandraInputSplit(String.valueOf(l), String.valueOf(r)));
+                splits.add(new CassandraInputSplit(i, tokenRanges));
             }
-        } else {
-            splits.add(new CassandraInputSplit());
+            LOG.info(
+                    "split {} token ranges into {} splits, partitioner = {}",
+                    ranges.size(),
+                    splitNum,
+                    metadata.getPartitioner());
+            return splits.toArray(new CassandraInputSplit[0]);
+        } finally {
+            close(session);
+        }
+    }
+
+    private static String primaryReplica(Metadata metadata, String keyspace, TokenRange range) {
+        Set<Host> replicas = metadata.getReplicas(keyspace, range);
+        if (replicas.isEmpty()) {
+            return "";
+        }
+        return String.valueOf(replicas.iterator().next().getAddress());
+    }
+
+    private static class ReplicaTokenRange {
+        private final String replica;
+        private final TokenRange range;
+        private final String start;
+        private final String end;
+
+        private ReplicaTokenRange(String replica, TokenRange range, String start, String end) {
+            this.replica = replica;
+            this.range = range;
+            this.start = start;
+            this.end = end;
         }
-        return splits.toArray(new CassandraInputSplit[0]);
     }
 
     /**
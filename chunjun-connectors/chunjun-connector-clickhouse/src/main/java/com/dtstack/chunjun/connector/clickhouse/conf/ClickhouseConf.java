@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.clickhouse.conf;
+
+import com.dtstack.chunjun.connector.jdbc.conf.JdbcConf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * clickhouse sink配置，配置了httpUrls时通过HTTP接口以RowBinary格式写入，否则使用jdbc写入
+ *
+ * @author tudou
+ */
+public class ClickhouseConf extends JdbcConf {
+
+    /** HTTP接口地址 host:port，每个地址对应一个分片 */
+    private List<String> httpUrls = new ArrayList<>();
+    /** 分片字段，为空时每个子任务固定写入一个分片 */
+    private String shardKey;
+    /** 是否使用gzip压缩请求体 */
+    private boolean compress = true;
+    /** HTTP连接失败时的重试次数 */
+    private int maxRetries = 3;
+
+    public List<String> getHttpUrls() {
+        return httpUrls;
+    }
+
+    public void setHttpUrls(List<String> httpUrls) {
+        this.httpUrls = httpUrls;
+    }
+
+    public String getShardKey() {
+        return shardKey;
+    }
+
+    public void setShardKey(String shardKey) {
+        this.shardKey = shardKey;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public boolean isHttpMode() {
+        return httpUrls != null && !httpUrls.isEmpty();
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.clickhouse.converter;
+
+import com.dtstack.chunjun.connector.clickhouse.util.RowBinaryBuffer;
+import com.dtstack.chunjun.element.AbstractBaseColumn;
+import com.dtstack.chunjun.throwable.UnsupportedTypeException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 将字段值按clickhouse RowBinary格式编码，根据system.columns中的字段类型在open时创建，写入时不再解析类型。
+ *
+ * @author tudou
+ */
+@FunctionalInterface
+public interface RowBinaryEncoder extends Serializable {
+
+    long SECONDS_PER_DAY = 24 * 60 * 60L;
+
+    Pattern WRAPPED_TYPE = Pattern.compile("^(\\w+)\\((.*)\\)$");
+    Pattern ENUM_ENTRY = Pattern.compile("'((?:[^'\\\\]|\\\\.)*)'\\s*=\\s*(-?\\d+)");
+
+    /**
+     * 编码一个非null的字段值
+     *
+     * @param column 字段值
+     * @param buffer 缓冲区
+     */
+    void encode(AbstractBaseColumn column, RowBinaryBuffer buffer);
+
+    /**
+     * 根据clickhouse字段类型创建编码器
+     *
+     * @param type system.columns中的type，如 Nullable(DateTime64(3))
+     * @return 编码器，null值由编码器处理
+     */
+    static RowBinaryEncoder create(String type) {
+        String trimmed = type.trim();
+        Matcher matcher = WRAPPED_TYPE.matcher(trimmed);
+        String name = trimmed;
+        String args = null;
+        if (matcher.matches()) {
+            name = matcher.group(1);
+            args = matcher.group(2);
+        }
+        switch (name) {
+            case "LowCardinality":
+                return create(args);
+            case "Nullable":
+                RowBinaryEncoder nested = create(args);
+                return (column, buffer) -> {
+                    if (column == null || column.getData() == null) {
+                        buffer.writeByte(1);
+                    } else {
+                        buffer.writeByte(0);
+                        nested.encode(column, buffer);
+                    }
+                };
+            default:
+                RowBinaryEncoder encoder = createNotNull(name, args, trimmed);
+                return (column, buffer) -> {
+                    if (column == null || column.getData() == null) {
+                        throw new IllegalArgumentException(
+                                "null value can not be written to non-nullable type " + trimmed);
+                    }
+                    encoder.encode(column, buffer);
+                };
+        }
+    }
+
+    static RowBinaryEncoder createNotNull(String name, String args, String type) {
+        switch (name) {
+            case "Int8":
+            case "UInt8":
+                return (column, buffer) -> buffer.writeByte(column.asInt());
+            case "Bool":
+                return (column, buffer) -> buffer.writeByte(column.asBoolean() ? 1 : 0);
+            case "Int16":
+            case "UInt16":
+                return (column, buffer) -> buffer.writeShort(column.asInt());
+            case "Int32":
+                return (column, buffer) -> buffer.writeInt(column.asInt());
+            case "UInt32":
+                return (column, buffer) -> buffer.writeInt(column.asLong().intValue());
+            case "Int64":
+                return (column, buffer) -> buffer.writeLong(column.asLong());
+            case "UInt64":
+                return (column, buffer) ->
+                        buffer.writeLong(new BigDecimal(column.asString()).longValue());
+            case "Int128":
+            case "UInt128":
+                return (column, buffer) ->
+                        writeBigInteger(buffer, column.asBigDecimal().toBigInteger(), 16);
+            case "Int256":
+            case "UInt256":
+                return (column, buffer) ->
+                        writeBigInteger(buffer, column.asBigDecimal().toBigInteger(), 32);
+            case "Float32":
+                return (column, buffer) ->
+                        buffer.writeInt(Float.floatToRawIntBits(column.asFloat()));
+            case "Float64":
+                return (column, buffer) ->
+                        buffer.writeLong(Double.doubleToRawLongBits(column.asDouble()));
+            case "String":
+                return (column, buffer) -> buffer.writeString(toBytes(column));
+            case "FixedString":
+                int length = Integer.parseInt(args.trim());
+                return (column, buffer) -> {
+                    byte[] bytes = toBytes(column);
+                    if (bytes.length > length) {
+                        throw new IllegalArgumentException(
+                                "value length " + bytes.length + " exceeds " + type);
+                    }
+                    buffer.writeBytes(bytes, 0, bytes.length);
+                    for (int i = bytes.length; i < length; i++) {
+                        buffer.writeByte(0);
+                    }
+                };
+            case "Date":
+                return (column, buffer) -> buffer.writeShort((int) toEpochDay(column));
+            case "Date32":
+                return (column, buffer) -> buffer.writeInt((int) toEpochDay(column));
+            case "DateTime":
+                return (column, buffer) ->
+                        buffer.writeInt((int) Math.floorDiv(column.asTimestamp().getTime(), 1000));
+            case "DateTime64":
+                int precision = Integer.parseInt(StringUtils.split(args, ',')[0].trim());
+                return (column, buffer) ->
+                        buffer.writeLong(toDateTime64(column.asTimestamp(), precision));
+            case "Decimal":
+                String[] ps = StringUtils.split(args, ',');
+                return decimalEncoder(
+                        Integer.parseInt(ps[0].trim()), Integer.parseInt(ps[1].trim()));
+            case "Decimal32":
+                return decimalEncoder(9, Integer.parseInt(args.trim()));
+            case "Decimal64":
+                return decimalEncoder(18, Integer.parseInt(args.trim()));
+            case "Decimal128":
+                return decimalEncoder(38, Integer.parseInt(args.trim()));
+            case "Decimal256":
+                return decimalEncoder(76, Integer.parseInt(args.trim()));
+            case "UUID":
+                return (column, buffer) -> {
+                    UUID uuid = UUID.fromString(column.asString());
+                    buffer.writeLong(uuid.getMostSignificantBits());
+                    buffer.writeLong(uuid.getLeastSignificantBits());
+                };
+            case "Enum8":
+            case "Enum16":
+                Map<String, Integer> values = parseEnum(args);
+                boolean enum8 = "Enum8".equals(name);
+                return (column, buffer) -> {
+                    Integer value = values.get(column.asString());
+                    if (value == null) {
+                        throw new IllegalArgumentException(
+                                "unknown value [" + column.asString() + "] for " + type);
+                    }
+                    if (enum8) {
+                        buffer.writeByte(value);
+                    } else {
+                        buffer.writeShort(value);
+                    }
+                };
+            default:
+                throw new UnsupportedTypeException(type);
+        }
+    }
+
+    static RowBinaryEncoder decimalEncoder(int precision, int scale) {
+        int size = precision <= 9 ? 4 : precision <= 18 ? 8 : precision <= 38 ? 16 : 32;
+        return (column, buffer) -> {
+            BigInteger unscaled =
+                    column.asBigDecimal().setScale(scale, BigDecimal.ROUND_HALF_UP).unscaledValue();
+            if (size == 4) {
+                buffer.writeInt(unscaled.intValueExact());
+            } else if (size == 8) {
+                buffer.writeLong(unscaled.longValueExact());
+            } else {
+                writeBigInteger(buffer, unscaled, size);
+            }
+        };
+    }
+
+    /** 以小端序写入定长的补码整数 */
+    static void writeBigInteger(RowBinaryBuffer buffer, BigInteger value, int size) {
+        byte[] bigEndian = value.toByteArray();
+        if (bigEndian.length > size) {
+            throw new ArithmeticException(value + " out of range of " + (size << 3) + " bits");
+        }
+        int pad = value.signum() < 0 ? 0xFF : 0;
+        for (int i = bigEndian.length - 1; i >= 0; i--) {
+            buffer.writeByte(bigEndian[i]);
+        }
+        for (int i = bigEndian.length; i < size; i++) {
+            buffer.writeByte(pad);
+        }
+    }
+
+    static byte[] toBytes(AbstractBaseColumn column) {
+        Object data = column.getData();
+        if (data instanceof byte[]) {
+            return (byte[]) data;
+        }
+        return column.asString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static long toEpochDay(AbstractBaseColumn column) {
+        return column.asSqlDate().toLocalDate().toEpochDay();
+    }
+
+    static long toDateTime64(Timestamp timestamp, int precision) {
+        long seconds = Math.floorDiv(timestamp.getTime(), 1000);
+        long value = seconds;
+        for (int i = 0; i < precision; i++) {
+            value *= 10;
+        }
+        long fraction = timestamp.getNanos();
+        for (int i = precision; i < 9; i++) {
+            fraction /= 10;
+        }
+        return value + fraction;
+    }
+
+    static Map<String, Integer> parseEnum(String args) {
+        Map<String, Integer> values = new HashMap<>();
+        Matcher matcher = ENUM_ENTRY.matcher(args);
+        while (matcher.find()) {
+            values.put(matcher.group(1).replace("\\'", "'"), Integer.parseInt(matcher.group(2)));
+        }
+        return values;
+    }
+}
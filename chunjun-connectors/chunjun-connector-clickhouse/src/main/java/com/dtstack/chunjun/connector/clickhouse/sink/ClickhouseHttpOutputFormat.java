@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.clickhouse.sink;
+
+import com.dtstack.chunjun.conf.FieldConf;
+import com.dtstack.chunjun.connector.clickhouse.conf.ClickhouseConf;
+import com.dtstack.chunjun.connector.clickhouse.converter.RowBinaryEncoder;
+import com.dtstack.chunjun.connector.clickhouse.util.ClickhouseHttpClient;
+import com.dtstack.chunjun.connector.clickhouse.util.ClickhouseUtil;
+import com.dtstack.chunjun.connector.clickhouse.util.RowBinaryBuffer;
+import com.dtstack.chunjun.element.ColumnRowData;
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
+import com.dtstack.chunjun.throwable.WriteRecordException;
+
+import org.apache.flink.table.data.RowData;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 通过clickhouse HTTP接口以RowBinary格式写入数据。
+ *
+ * <p>数据直接编码到每个分片可复用的缓冲区中，按分片并发发送，不经过jdbc的PreparedStatement及文本格式。
+ * 配置shardKey时按字段值hash选择分片，否则每个子任务固定写入一个分片。 分片写入失败时整批数据记为脏数据，不会退化为逐条写入。
+ *
+ * @author tudou
+ */
+public class ClickhouseHttpOutputFormat extends BaseRichOutputFormat {
+
+    private static final String COLUMN_TYPE_SQL =
+            "SELECT name, type FROM system.columns WHERE database = ? AND table = ? ORDER BY position";
+
+    private static final int DEFAULT_CONNECT_TIMEOUT_MILLS = 10 * 1000;
+
+    private ClickhouseConf clickhouseConf;
+
+    private transient ClickhouseHttpClient client;
+    private transient String insertQuery;
+    private transient RowBinaryEncoder[] encoders;
+    /** 分片字段在columns中的下标，-1表示不按字段分片 */
+    private transient int shardKeyIndex;
+    /** 不按字段分片时写入的分片 */
+    private transient int fixedShard;
+
+    private transient RowBinaryBuffer[] shardBuffers;
+    private transient List<RowData>[] shardRows;
+    private transient ExecutorService loadExecutor;
+
+    public void setClickhouseConf(ClickhouseConf clickhouseConf) {
+        this.clickhouseConf = clickhouseConf;
+    }
+
+    public ClickhouseConf getClickhouseConf() {
+        return clickhouseConf;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void openInternal(int taskNumber, int numTasks) throws IOException {
+        String database = getDatabase();
+        Map<String, String> columnTypes = queryColumnTypes(database);
+        List<String> columns = new ArrayList<>();
+        if (clickhouseConf.getColumn() == null
+                || clickhouseConf.getColumn().isEmpty()
+                || "*".equals(clickhouseConf.getColumn().get(0).getName())) {
+            columns.addAll(columnTypes.keySet());
+        } else {
+            for (FieldConf field : clickhouseConf.getColumn()) {
+                columns.add(field.getName());
+            }
+        }
+
+        encoders = new RowBinaryEncoder[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            String type = columnTypes.get(columns.get(i));
+            if (type == null) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "column [%s] not found in table %s.%s",
+                                columns.get(i), database, clickhouseConf.getTable()));
+            }
+            encoders[i] = RowBinaryEncoder.create(type);
+        }
+        shardKeyIndex =
+                StringUtils.isBlank(clickhouseConf.getShardKey())
+                        ? -1
+                        : columns.indexOf(clickhouseConf.getShardKey());
+        if (StringUtils.isNotBlank(clickhouseConf.getShardKey()) && shardKeyIndex < 0) {
+            throw new IllegalArgumentException(
+                    "shardKey [" + clickhouseConf.getShardKey() + "] is not in column");
+        }
+        insertQuery =
+                ClickhouseHttpClient.buildInsertQuery(database, clickhouseConf.getTable(), columns);
+
+        int shardNum = clickhouseConf.getHttpUrls().size();
+        fixedShard = taskNumber % shardNum;
+        shardBuffers = new RowBinaryBuffer[shardNum];
+        shardRows = new List[shardNum];
+        for (int i = 0; i < shardNum; i++) {
+            shardBuffers[i] = new RowBinaryBuffer();
+            shardRows[i] = new ArrayList<>();
+        }
+        if (shardKeyIndex >= 0 && shardNum > 1) {
+            loadExecutor =
+                    Executors.newFixedThreadPool(
+                            shardNum, new ChunJunThreadFactory("clickhouse-http-insert", true));
+        }
+        client =
+                new ClickhouseHttpClient(
+                        clickhouseConf.getUsername(),
+                        clickhouseConf.getPassword(),
+                        clickhouseConf.isCompress(),
+                        shardNum + 1,
+                        clickhouseConf.getConnectTimeOut() > 0
+                                ? clickhouseConf.getConnectTimeOut() * 1000
+                                : DEFAULT_CONNECT_TIMEOUT_MILLS,
+                        clickhouseConf.getMaxRetries());
+        LOG.info(
+                "task number : {} , number task : {}, insert query : {}, shards : {}, shardKey : {}",
+                taskNumber,
+                numTasks,
+                insertQuery,
+                clickhouseConf.getHttpUrls(),
+                clickhouseConf.getShardKey());
+    }
+
+    /** schema为空时取jdbcUrl中的库名 */
+    private String getDatabase() {
+        if (StringUtils.isNotBlank(clickhouseConf.getSchema())) {
+            return clickhouseConf.getSchema();
+        }
+        String url = StringUtils.substringBefore(clickhouseConf.getJdbcUrl(), "?");
+        String database = StringUtils.substringAfter(StringUtils.substringAfter(url, "//"), "/");
+        return StringUtils.isBlank(database) ? "default" : database;
+    }
+
+    private Map<String, String> queryColumnTypes(String database) throws IOException {
+        Map<String, String> columnTypes = new LinkedHashMap<>();
+        try (Connection conn =
+                        ClickhouseUtil.getConnection(
+                                clickhouseConf.getJdbcUrl(),
+                                clickhouseConf.getUsername(),
+                                clickhouseConf.getPassword());
+                PreparedStatement ps = conn.prepareStatement(COLUMN_TYPE_SQL)) {
+            ps.setString(1, database);
+            ps.setString(2, clickhouseConf.getTable());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    columnTypes.put(rs.getString(1), rs.getString(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("query column types from clickhouse failed", e);
+        }
+        if (columnTypes.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "table " + database + "." + clickhouseConf.getTable() + " does not exist");
+        }
+        return columnTypes;
+    }
+
+    private int selectShard(ColumnRowData row) {
+        if (shardKeyIndex < 0) {
+            return fixedShard;
+        }
+        Object value =
+                row.getField(shardKeyIndex) == null ? null : row.getField(shardKeyIndex).getData();
+        int hash = value == null ? 0 : mix(value.toString().hashCode());
+        return Math.floorMod(hash, shardBuffers.length);
+    }
+
+    /** murmur3 fmix32，避免相邻的hash值集中在同一分片 */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private void encode(ColumnRowData row, RowBinaryBuffer buffer) {
+        if (row.getArity() < encoders.length) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "row arity %s is less than column size %s",
+                            row.getArity(), encoders.length));
+        }
+        for (int i = 0; i < encoders.length; i++) {
+            encoders[i].encode(row.getField(i), buffer);
+        }
+    }
+
+    @Override
+    protected void writeSingleRecordInternal(RowData rowData) throws WriteRecordException {
+        int shard = selectShard((ColumnRowData) rowData);
+        RowBinaryBuffer buffer = shardBuffers[shard];
+        try {
+            encode((ColumnRowData) rowData, buffer);
+            client.insert(clickhouseConf.getHttpUrls().get(shard), insertQuery, buffer);
+        } catch (Exception e) {
+            throw new WriteRecordException("", e, 0, rowData);
+        } finally {
+            buffer.reset();
+        }
+    }
+
+    @Override
+    protected void writeMultipleRecordsInternal() throws Exception {
+        for (RowData row : rows) {
+            ColumnRowData columnRowData = (ColumnRowData) row;
+            int shard = selectShard(columnRowData);
+            RowBinaryBuffer buffer = shardBuffers[shard];
+            int mark = buffer.size();
+            try {
+                encode(columnRowData, buffer);
+                shardRows[shard].add(row);
+            } catch (Exception e) {
+                // 丢弃已写入的部分字段，保证缓冲区中都是完整的行
+                buffer.truncate(mark);
+                dirtyManager.collect(row, e, null);
+            }
+        }
+        try {
+            Exception[] errors = insertShards();
+            for (int i = 0; i < shardBuffers.length; i++) {
+                if (errors[i] == null) {
+                    numWriteCounter.add(shardRows[i].size());
+                } else {
+                    // 整批写入失败，记为脏数据，不再逐条重试
+                    for (RowData rowData : shardRows[i]) {
+                        dirtyManager.collect(rowData, errors[i], null);
+                    }
+                }
+            }
+        } finally {
+            for (int i = 0; i < shardBuffers.length; i++) {
+                shardBuffers[i].reset();
+                shardRows[i].clear();
+            }
+        }
+    }
+
+    /**
+     * 发送所有非空分片的数据，多个分片时并发发送
+     *
+     * @return 每个分片的写入异常，成功时为null
+     */
+    private Exception[] insertShards() throws InterruptedException {
+        Exception[] errors = new Exception[shardBuffers.length];
+        Future<?>[] futures = new Future[shardBuffers.length];
+        for (int i = 0; i < shardBuffers.length; i++) {
+            if (shardBuffers[i].isEmpty()) {
+                continue;
+            }
+            String hostPort = clickhouseConf.getHttpUrls().get(i);
+            RowBinaryBuffer buffer = shardBuffers[i];
+            if (loadExecutor == null) {
+                try {
+                    client.insert(hostPort, insertQuery, buffer);
+                } catch (Exception e) {
+                    errors[i] = e;
+                }
+            } else {
+                futures[i] =
+                        loadExecutor.submit(
+                                () -> {
+                                    client.insert(hostPort, insertQuery, buffer);
+                                    return null;
+                                });
+            }
+        }
+        for (int i = 0; i < futures.length; i++) {
+            if (futures[i] == null) {
+                continue;
+            }
+            try {
+                futures[i].get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                errors[i] = cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    protected boolean isWriteCountedBySink() {
+        return true;
+    }
+
+    @Override
+    protected boolean fallbackToSingleWrite() {
+        return false;
+    }
+
+    @Override
+    protected void closeInternal() {
+        if (loadExecutor != null) {
+            loadExecutor.shutdownNow();
+        }
+        if (client != null) {
+            client.close();
+        }
+    }
+}
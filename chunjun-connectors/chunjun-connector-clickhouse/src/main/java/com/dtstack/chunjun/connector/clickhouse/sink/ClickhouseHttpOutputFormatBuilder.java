@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.clickhouse.sink;
+
+import com.dtstack.chunjun.connector.clickhouse.conf.ClickhouseConf;
+import com.dtstack.chunjun.enums.Semantic;
+import com.dtstack.chunjun.sink.format.BaseRichOutputFormatBuilder;
+
+import org.apache.commons.lang3.StringUtils;
+
+/** @author tudou */
+public class ClickhouseHttpOutputFormatBuilder extends BaseRichOutputFormatBuilder {
+
+    private final ClickhouseHttpOutputFormat format;
+
+    public ClickhouseHttpOutputFormatBuilder() {
+        super.format = format = new ClickhouseHttpOutputFormat();
+    }
+
+    public void setClickhouseConf(ClickhouseConf clickhouseConf) {
+        super.setConfig(clickhouseConf);
+        format.setClickhouseConf(clickhouseConf);
+    }
+
+    @Override
+    protected void checkFormat() {
+        ClickhouseConf conf = format.getClickhouseConf();
+        StringBuilder sb = new StringBuilder(256);
+        if (StringUtils.isBlank(conf.getJdbcUrl())) {
+            sb.append("No jdbc url supplied;\n");
+        }
+        if (StringUtils.isBlank(conf.getTable())) {
+            sb.append("No table supplied;\n");
+        }
+        if (!conf.isHttpMode()) {
+            sb.append("No httpUrls supplied;\n");
+        }
+        if (Semantic.EXACTLY_ONCE == Semantic.getByName(conf.getSemantic())) {
+            sb.append("clickhouse http writer does not support exactly-once semantic;\n");
+        }
+        if (conf.getMaxRetries() < 0) {
+            sb.append("maxRetries must be greater than or equal to 0;\n");
+        }
+        if (sb.length() > 0) {
+            throw new IllegalArgumentException(sb.toString());
+        }
+    }
+}
@@ -19,10 +19,16 @@
 package com.dtstack.chunjun.connector.clickhouse.sink;
 
 import com.dtstack.chunjun.conf.SyncConf;
+import com.dtstack.chunjun.connector.clickhouse.conf.ClickhouseConf;
 import com.dtstack.chunjun.connector.clickhouse.dialect.ClickhouseDialect;
+import com.dtstack.chunjun.connector.jdbc.conf.JdbcConf;
 import com.dtstack.chunjun.connector.jdbc.sink.JdbcOutputFormatBuilder;
 import com.dtstack.chunjun.connector.jdbc.sink.JdbcSinkFactory;
 
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.datastream.DataStreamSink;
+import org.apache.flink.table.data.RowData;
+
 /**
  * @program chunjun
  * @author: xiuzhu
@@ -34,6 +40,28 @@ public class ClickhouseSinkFactory extends JdbcSinkFactory {
         super(syncConf, new ClickhouseDialect());
     }
 
+    /** 配置了httpUrls时通过HTTP接口以RowBinary格式写入 */
+    @Override
+    public DataStreamSink<RowData> createSink(DataStream<RowData> dataSet) {
+        ClickhouseConf clickhouseConf = (ClickhouseConf) jdbcConf;
+        if (!clickhouseConf.isHttpMode()) {
+            return super.createSink(dataSet);
+        }
+        if (!useAbstractBaseColumn) {
+            throw new UnsupportedOperationException(
+                    "clickhouse http writer does not support transformer, please remove httpUrls.");
+        }
+        ClickhouseHttpOutputFormatBuilder builder = new ClickhouseHttpOutputFormatBuilder();
+        builder.setClickhouseConf(clickhouseConf);
+        builder.setMonitorConfig(monitor);
+        return createOutput(dataSet, builder.finish());
+    }
+
+    @Override
+    protected Class<? extends JdbcConf> getConfClass() {
+        return ClickhouseConf.class;
+    }
+
     @Override
     protected JdbcOutputFormatBuilder getBuilder() {
         return new ClickhouseOutputFormatBuilder(new ClickhouseOutputFormat());
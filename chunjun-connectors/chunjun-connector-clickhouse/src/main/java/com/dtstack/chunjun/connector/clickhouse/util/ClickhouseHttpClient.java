@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.clickhouse.util;
+
+import com.dtstack.chunjun.util.ExceptionUtil;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 通过clickhouse HTTP接口执行RowBinary格式的INSERT，连接在批次之间复用
+ *
+ * @author tudou
+ */
+public class ClickhouseHttpClient implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ClickhouseHttpClient.class);
+
+    private static final String USER_HEADER = "X-ClickHouse-User";
+    private static final String KEY_HEADER = "X-ClickHouse-Key";
+
+    private final String username;
+    private final String password;
+    private final boolean compress;
+    private final int maxRetries;
+    private final CloseableHttpClient httpClient;
+
+    public ClickhouseHttpClient(
+            String username,
+            String password,
+            boolean compress,
+            int maxConnections,
+            int connectTimeoutMills,
+            int maxRetries) {
+        this.username = username;
+        this.password = password;
+        this.compress = compress;
+        this.maxRetries = maxRetries;
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        RequestConfig requestConfig =
+                RequestConfig.custom()
+                        .setConnectTimeout(connectTimeoutMills)
+                        .setConnectionRequestTimeout(connectTimeoutMills)
+                        .build();
+        this.httpClient =
+                HttpClients.custom()
+                        .setConnectionManager(connectionManager)
+                        .setDefaultRequestConfig(requestConfig)
+                        .disableAutomaticRetries()
+                        .build();
+    }
+
+    /**
+     * 构建 INSERT INTO db.table (c1, c2) FORMAT RowBinary
+     *
+     * @param database 库名
+     * @param table 表名
+     * @param columns 字段名
+     * @return insert语句
+     */
+    public static String buildInsertQuery(String database, String table, List<String> columns) {
+        StringBuilder sb = new StringBuilder(128).append("INSERT INTO ");
+        if (StringUtils.isNotBlank(database)) {
+            sb.append(quote(database)).append('.');
+        }
+        sb.append(quote(table)).append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(quote(columns.get(i)));
+        }
+        return sb.append(") FORMAT RowBinary").toString();
+    }
+
+    private static String quote(String identifier) {
+        return '`' + identifier.replace("`", "\\`") + '`';
+    }
+
+    /**
+     * 将缓冲区中的数据写入指定节点，仅在连接失败时重试
+     *
+     * @param hostPort 节点 host:port
+     * @param query insert语句
+     * @param buffer RowBinary数据
+     * @throws IOException 写入失败
+     */
+    public void insert(String hostPort, String query, RowBinaryBuffer buffer) throws IOException {
+        URI uri;
+        try {
+            uri = new URIBuilder("http://" + hostPort + "/").addParameter("query", query).build();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("invalid clickhouse http url: " + hostPort, e);
+        }
+        for (int i = 0; ; i++) {
+            try {
+                execute(uri, buffer);
+                return;
+            } catch (ConnectException e) {
+                if (i >= maxRetries) {
+                    throw e;
+                }
+                LOG.warn(
+                        "connect to clickhouse {} failed, retry times = {}, e = {}",
+                        hostPort,
+                        i + 1,
+                        ExceptionUtil.getErrorMessage(e));
+            }
+        }
+    }
+
+    private void execute(URI uri, RowBinaryBuffer buffer) throws IOException {
+        HttpPost post = new HttpPost(uri);
+        if (username != null) {
+            post.setHeader(USER_HEADER, username);
+        }
+        if (password != null) {
+            post.setHeader(KEY_HEADER, password);
+        }
+        post.setHeader(HttpHeaders.CONTENT_TYPE, "application/octet-stream");
+        post.setEntity(buffer.toEntity(compress));
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            int status = response.getStatusLine().getStatusCode();
+            String body =
+                    response.getEntity() == null
+                            ? ""
+                            : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (status != 200) {
+                throw new IOException(
+                        String.format(
+                                "clickhouse insert failed, status = %s, response = %s",
+                                status, body));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOG.warn("close http client error, e = {}", ExceptionUtil.getErrorMessage(e));
+        }
+    }
+}
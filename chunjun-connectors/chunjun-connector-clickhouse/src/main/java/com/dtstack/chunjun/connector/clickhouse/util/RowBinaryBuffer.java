@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.clickhouse.util;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RowBinary格式的写缓冲区，数值按小端序写入。底层数组在批次之间复用。
+ *
+ * @author tudou
+ */
+public class RowBinaryBuffer {
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private byte[] buf = new byte[INITIAL_CAPACITY];
+    private int count;
+
+    public void writeByte(int v) {
+        ensureCapacity(count + 1);
+        buf[count++] = (byte) v;
+    }
+
+    public void writeShort(int v) {
+        ensureCapacity(count + 2);
+        buf[count++] = (byte) v;
+        buf[count++] = (byte) (v >>> 8);
+    }
+
+    public void writeInt(int v) {
+        ensureCapacity(count + 4);
+        buf[count++] = (byte) v;
+        buf[count++] = (byte) (v >>> 8);
+        buf[count++] = (byte) (v >>> 16);
+        buf[count++] = (byte) (v >>> 24);
+    }
+
+    public void writeLong(long v) {
+        ensureCapacity(count + 8);
+        for (int i = 0; i < 8; i++) {
+            buf[count++] = (byte) (v >>> (i << 3));
+        }
+    }
+
+    public void writeBytes(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    /** 写入LEB128编码的无符号整数，用于字符串长度 */
+    public void writeVarInt(long v) {
+        do {
+            int b = (int) (v & 0x7F);
+            v >>>= 7;
+            writeByte(v != 0 ? b | 0x80 : b);
+        } while (v != 0);
+    }
+
+    public void writeString(byte[] b) {
+        writeVarInt(b.length);
+        writeBytes(b, 0, b.length);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, minCapacity));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /** 回退到指定位置，用于丢弃编码失败的一行 */
+    public void truncate(int size) {
+        count = size;
+    }
+
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * 以当前缓冲区内容构建请求体，压缩时在发送过程中流式gzip，不额外复制数据
+     *
+     * @param compress 是否gzip压缩
+     * @return http请求体
+     */
+    public HttpEntity toEntity(boolean compress) {
+        AbstractHttpEntity entity =
+                new AbstractHttpEntity() {
+                    @Override
+                    public boolean isRepeatable() {
+                        return true;
+                    }
+
+                    @Override
+                    public long getContentLength() {
+                        return compress ? -1 : count;
+                    }
+
+                    @Override
+                    public InputStream getContent() {
+                        return new ByteArrayInputStream(buf, 0, count);
+                    }
+
+                    @Override
+                    public void writeTo(OutputStream out) throws IOException {
+                        if (compress) {
+                            GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+                            gzip.write(buf, 0, count);
+                            gzip.finish();
+                        } else {
+                            out.write(buf, 0, count);
+                        }
+                        out.flush();
+                    }
+
+                    @Override
+                    public boolean isStreaming() {
+                        return false;
+                    }
+                };
+        if (compress) {
+            entity.setContentEncoding("gzip");
+            entity.setChunked(true);
+        }
+        return entity;
+    }
+}
@@ -20,6 +20,7 @@ package com.dtstack.chunjun.connector.doris;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.net.ConnectException;
 import java.util.Collections;
 import java.util.List;
 
@@ -88,6 +89,10 @@ public class DorisUtil {
     }
 
     private static boolean needRetry(Exception exception) {
+        // 请求BE失败时更换BE后重试，同一批次的label不变，不会重复导入
+        if (exception instanceof ConnectException) {
+            return true;
+        }
         if (exception != null) {
             String errorMessage = exception.getMessage();
             return StringUtils.isNotEmpty(errorMessage) && errorMessage.contains("err=-235");
@@ -24,6 +24,8 @@ import com.dtstack.chunjun.util.GsonUtil;
 import com.dtstack.chunjun.util.MapUtil;
 import com.dtstack.chunjun.util.StringUtil;
 
+import org.apache.flink.util.Preconditions;
+
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
@@ -62,6 +64,19 @@ public class DorisConf extends JdbcConf {
 
     private Properties loadProperties;
 
+    /** stream load的数据格式，json或csv */
+    private String loadFormat = DorisKeys.DORIS_LOAD_FORMAT_DEFAULT;
+    /** csv格式的字段分隔符 */
+    private String fieldDelimiter = DorisKeys.FIELD_DELIMITER;
+    /** csv格式的行分隔符 */
+    private String lineDelimiter = DorisKeys.LINE_DELIMITER;
+    /** 一个批次中不同表并发导入的最大数量 */
+    private int loadParallelism = DorisKeys.DORIS_LOAD_PARALLELISM_DEFAULT;
+    /** stream load label前缀 */
+    private String labelPrefix = DorisKeys.DORIS_LABEL_PREFIX_DEFAULT;
+    /** doris group commit模式，off_mode、sync_mode、async_mode，为空时不开启 */
+    private String groupCommit;
+
     public long getWaitRetryMills() {
         return waitRetryMills;
     }
@@ -150,6 +165,55 @@ public class DorisConf extends JdbcConf {
         this.nameMapped = nameMapped;
     }
 
+    public String getLoadFormat() {
+        return loadFormat;
+    }
+
+    public void setLoadFormat(String loadFormat) {
+        this.loadFormat = loadFormat;
+    }
+
+    public String getFieldDelimiter() {
+        return fieldDelimiter;
+    }
+
+    public void setFieldDelimiter(String fieldDelimiter) {
+        this.fieldDelimiter = fieldDelimiter;
+    }
+
+    public String getLineDelimiter() {
+        return lineDelimiter;
+    }
+
+    public void setLineDelimiter(String lineDelimiter) {
+        this.lineDelimiter = lineDelimiter;
+    }
+
+    public int getLoadParallelism() {
+        return loadParallelism;
+    }
+
+    public void setLoadParallelism(int loadParallelism) {
+        Preconditions.checkArgument(loadParallelism > 0, "loadParallelism must be > 0");
+        this.loadParallelism = loadParallelism;
+    }
+
+    public String getLabelPrefix() {
+        return labelPrefix;
+    }
+
+    public void setLabelPrefix(String labelPrefix) {
+        this.labelPrefix = labelPrefix;
+    }
+
+    public String getGroupCommit() {
+        return groupCommit;
+    }
+
+    public void setGroupCommit(String groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
     public String getUrl() {
         return url;
     }
@@ -98,6 +98,36 @@ public class DorisConfBuilder {
         return this;
     }
 
+    public DorisConfBuilder setLoadFormat(String loadFormat) {
+        this.dorisConf.setLoadFormat(loadFormat);
+        return this;
+    }
+
+    public DorisConfBuilder setFieldDelimiter(String fieldDelimiter) {
+        this.dorisConf.setFieldDelimiter(fieldDelimiter);
+        return this;
+    }
+
+    public DorisConfBuilder setLineDelimiter(String lineDelimiter) {
+        this.dorisConf.setLineDelimiter(lineDelimiter);
+        return this;
+    }
+
+    public DorisConfBuilder setLoadParallelism(int loadParallelism) {
+        this.dorisConf.setLoadParallelism(loadParallelism);
+        return this;
+    }
+
+    public DorisConfBuilder setLabelPrefix(String labelPrefix) {
+        this.dorisConf.setLabelPrefix(labelPrefix);
+        return this;
+    }
+
+    public DorisConfBuilder setGroupCommit(String groupCommit) {
+        this.dorisConf.setGroupCommit(groupCommit);
+        return this;
+    }
+
     public DorisConf build() {
         StringJoiner errorMessage = new StringJoiner("\n");
 
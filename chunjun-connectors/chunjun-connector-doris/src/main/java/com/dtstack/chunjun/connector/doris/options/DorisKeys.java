@@ -74,6 +74,14 @@ public final class DorisKeys {
 
     public static final String WRITE_MODE_KEY = "writeMode";
 
+    public static final String LOAD_FORMAT_KEY = "loadFormat";
+
+    public static final String LOAD_PARALLELISM_KEY = "loadParallelism";
+
+    public static final String LABEL_PREFIX_KEY = "labelPrefix";
+
+    public static final String GROUP_COMMIT_KEY = "groupCommit";
+
     public static final String FIELD_DELIMITER = "\t";
 
     public static final String LINE_DELIMITER = "\n";
@@ -86,6 +94,12 @@ public final class DorisKeys {
 
     public static final String DORIS_WRITE_MODE_DEFAULT = "APPEND";
 
+    public static final String DORIS_LOAD_FORMAT_DEFAULT = "json";
+
+    public static final Integer DORIS_LOAD_PARALLELISM_DEFAULT = 4;
+
+    public static final String DORIS_LABEL_PREFIX_DEFAULT = "chunjun";
+
     public static final Integer DORIS_REQUEST_CONNECT_TIMEOUT_MS_DEFAULT = 30 * 1000;
 
     public static final Integer DORIS_REQUEST_READ_TIMEOUT_MS_DEFAULT = 30 * 1000;
@@ -156,4 +156,29 @@ public class DorisOptions {
                     .intType()
                     .defaultValue(DorisKeys.DORIS_BATCH_SIZE_DEFAULT)
                     .withDescription("");
+
+    public static final ConfigOption<String> LOAD_FORMAT =
+            ConfigOptions.key("loadFormat")
+                    .stringType()
+                    .defaultValue(DorisKeys.DORIS_LOAD_FORMAT_DEFAULT)
+                    .withDescription("the data format of stream load, json or csv.");
+
+    public static final ConfigOption<Integer> LOAD_PARALLELISM =
+            ConfigOptions.key("loadParallelism")
+                    .intType()
+                    .defaultValue(DorisKeys.DORIS_LOAD_PARALLELISM_DEFAULT)
+                    .withDescription("the max number of tables loaded concurrently in a batch.");
+
+    public static final ConfigOption<String> LABEL_PREFIX =
+            ConfigOptions.key("labelPrefix")
+                    .stringType()
+                    .defaultValue(DorisKeys.DORIS_LABEL_PREFIX_DEFAULT)
+                    .withDescription("the label prefix of stream load.");
+
+    public static final ConfigOption<String> GROUP_COMMIT =
+            ConfigOptions.key("groupCommit")
+                    .stringType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "the group commit mode of doris, off_mode, sync_mode or async_mode.");
 }
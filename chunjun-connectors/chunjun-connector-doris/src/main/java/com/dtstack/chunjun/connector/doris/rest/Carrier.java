@@ -1,36 +1,43 @@
 package com.dtstack.chunjun.connector.doris.rest;
 
+import com.dtstack.chunjun.connector.doris.rest.module.RespContent;
+
+import org.apache.flink.table.data.RowData;
+
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.Serializable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.StringJoiner;
-import java.util.stream.IntStream;
 
 /**
  * Company：www.dtstack.com.
  *
+ * <p>一张表一个批次的数据。插入数据在加入时直接序列化到可复用的{@link StreamLoadBuffer}中，导入完成后调用{@link #reset()}复用。
+ *
  * @author shitou
  * @date 2022/1/17
  */
-public class Carrier implements Serializable {
-    private static final long serialVersionUID = 1L;
-    private final List<Map<String, Object>> insertContent;
-    private final StringJoiner deleteContent;
+public class Carrier {
+    private final DorisRecordSerializer serializer;
+    private final StreamLoadBuffer insertContent = new StreamLoadBuffer();
+    private StringJoiner deleteContent = new StringJoiner(" OR ");
     private int batch = 0;
+    private int insertRows = 0;
     private String database;
     private String table;
     private List<String> columns;
-    private final Set<Integer> rowDataIndexes = new HashSet<>();
+    /** 本批次包含的原始数据，导入失败时作为脏数据记录 */
+    private final List<RowData> rowDataList = new ArrayList<>();
+    /** 本批次导入使用的label，重试时保持不变，由doris保证同一label只导入一次 */
+    private String label;
+    /** 本批次导入的响应 */
+    private RespContent respContent;
 
-    public Carrier() {
-        insertContent = new ArrayList<>();
-        deleteContent = new StringJoiner(" OR ");
+    public Carrier(DorisRecordSerializer serializer) {
+        this.serializer = serializer;
     }
 
     public String getDatabase() {
@@ -49,7 +56,7 @@ public class Carrier implements Serializable {
         this.table = table;
     }
 
-    public List<Map<String, Object>> getInsertContent() {
+    public StreamLoadBuffer getInsertContent() {
         return insertContent;
     }
 
@@ -65,34 +72,51 @@ public class Carrier implements Serializable {
         this.columns = columns;
     }
 
-    public Set<Integer> getRowDataIndexes() {
-        return rowDataIndexes;
+    public DorisRecordSerializer getSerializer() {
+        return serializer;
+    }
+
+    public List<RowData> getRowDataList() {
+        return rowDataList;
+    }
+
+    public void addRowData(RowData rowData) {
+        rowDataList.add(rowData);
+    }
+
+    public String getLabel() {
+        return label;
     }
 
-    public void addRowDataIndex(int index) {
-        rowDataIndexes.add(index);
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public RespContent getRespContent() {
+        return respContent;
+    }
+
+    public void setRespContent(RespContent respContent) {
+        this.respContent = respContent;
+    }
+
+    public boolean isEmpty() {
+        return insertRows == 0;
     }
 
     public void addInsertContent(List<String> insertV) {
         if (!insertV.isEmpty()) {
-            if (insertV.size() > columns.size()) {
-                // It is certain that in this case, the size
-                // of insertV is twice the size of column
-                List<String> forward = insertV.subList(0, columns.size());
-                final Map<String, Object> forwardV = new HashMap<>(columns.size());
-                IntStream.range(0, columns.size())
-                        .forEach(i -> forwardV.put(columns.get(i), forward.get(i)));
-                insertContent.add(forwardV);
-                List<String> behind = insertV.subList(columns.size(), insertV.size());
-                final Map<String, Object> behindV = new HashMap<>(columns.size());
-                IntStream.range(0, columns.size())
-                        .forEach(i -> behindV.put(columns.get(i), behind.get(i)));
-                insertContent.add(behindV);
-            } else {
-                final Map<String, Object> values = new HashMap<>(columns.size());
-                IntStream.range(0, columns.size())
-                        .forEach(i -> values.put(columns.get(i), insertV.get(i)));
-                insertContent.add(values);
+            try {
+                serializer.serialize(columns, insertV, 0, insertContent);
+                insertRows++;
+                if (insertV.size() > columns.size()) {
+                    // It is certain that in this case, the size
+                    // of insertV is twice the size of column
+                    serializer.serialize(columns, insertV, columns.size(), insertContent);
+                    insertRows++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
     }
@@ -108,6 +132,17 @@ public class Carrier implements Serializable {
         batch++;
     }
 
+    /** 导入完成后清空数据，保留已分配的缓冲区 */
+    public void reset() {
+        insertContent.reset();
+        deleteContent = new StringJoiner(" OR ");
+        rowDataList.clear();
+        batch = 0;
+        insertRows = 0;
+        label = null;
+        respContent = null;
+    }
+
     /**
      * Construct the Doris delete on condition, which only takes effect in the merge http request.
      *
@@ -143,12 +178,16 @@ public class Carrier implements Serializable {
             }
             sb.append(columns.get(i));
         }
-        sb.append("], insert_value:");
-        sb.append(insertContent);
+        sb.append("], insert_rows:");
+        sb.append(insertRows);
+        sb.append(", insert_bytes:");
+        sb.append(insertContent.size());
         sb.append(", delete_value:");
         sb.append(deleteContent);
         sb.append(", batch:");
         sb.append(batch);
+        sb.append(", label:");
+        sb.append(label);
         sb.append("}");
         return sb.toString();
     }
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.doris.rest;
+
+import org.apache.http.client.methods.HttpPut;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV格式，空值写为\N。字段值中包含分隔符时会导致列错位，此时应使用json格式或更换分隔符。
+ *
+ * @author tudou
+ */
+public class CsvRecordSerializer extends DorisRecordSerializer {
+    private static final long serialVersionUID = 1L;
+
+    private static final byte[] NULL_VALUE = "\\N".getBytes(StandardCharsets.UTF_8);
+    private static final String DEFAULT_LINE_DELIMITER = "\n";
+    private static final String HEX_PREFIX = "\\x";
+
+    private final String fieldDelimiter;
+    private final String lineDelimiter;
+    private final byte[] fieldDelimiterBytes;
+    private final byte[] lineDelimiterBytes;
+
+    public CsvRecordSerializer(String fieldDelimiter, String lineDelimiter) {
+        this.fieldDelimiter = fieldDelimiter;
+        this.lineDelimiter = lineDelimiter;
+        this.fieldDelimiterBytes = fieldDelimiter.getBytes(StandardCharsets.UTF_8);
+        this.lineDelimiterBytes = lineDelimiter.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void serialize(List<String> columns, List<String> values, int offset, OutputStream out)
+            throws IOException {
+        for (int i = 0, size = columns.size(); i < size; i++) {
+            if (i > 0) {
+                out.write(fieldDelimiterBytes);
+            }
+            String value = values.get(offset + i);
+            out.write(value == null ? NULL_VALUE : value.getBytes(StandardCharsets.UTF_8));
+        }
+        out.write(lineDelimiterBytes);
+    }
+
+    @Override
+    public void setHeaders(HttpPut httpPut) {
+        httpPut.setHeader("format", FORMAT_CSV);
+        httpPut.setHeader("column_separator", toHeaderValue(fieldDelimiter));
+        if (!DEFAULT_LINE_DELIMITER.equals(lineDelimiter)) {
+            httpPut.setHeader("line_delimiter", toHeaderValue(lineDelimiter));
+        }
+    }
+
+    /** 不可见字符不能直接放在请求头中，按doris的约定转为\x开头的十六进制 */
+    private String toHeaderValue(String delimiter) {
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (Character.isISOControl(delimiter.charAt(i))) {
+                StringBuilder sb = new StringBuilder(HEX_PREFIX);
+                for (byte b : delimiter.getBytes(StandardCharsets.UTF_8)) {
+                    sb.append(String.format("%02x", b));
+                }
+                return sb.toString();
+            }
+        }
+        return delimiter;
+    }
+}
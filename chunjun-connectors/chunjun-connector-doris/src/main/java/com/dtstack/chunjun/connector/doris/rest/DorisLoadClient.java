@@ -23,7 +23,6 @@ package com.dtstack.chunjun.connector.doris.rest;
 import com.dtstack.chunjun.conf.FieldConf;
 import com.dtstack.chunjun.connector.doris.DorisUtil;
 import com.dtstack.chunjun.connector.doris.options.DorisConf;
-import com.dtstack.chunjun.converter.AbstractRowConverter;
 import com.dtstack.chunjun.element.ColumnRowData;
 import com.dtstack.chunjun.throwable.WriteRecordException;
 
@@ -38,7 +37,6 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 
 import java.io.Serializable;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -46,7 +44,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.StringJoiner;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -72,73 +69,31 @@ public class DorisLoadClient implements Serializable {
     private final DorisStreamLoad dorisStreamLoad;
     private final boolean nameMapped;
     private final DorisConf conf;
+    private final DorisRecordSerializer serializer;
 
     public DorisLoadClient(DorisStreamLoad dorisStreamLoad, DorisConf conf) {
         this.dorisStreamLoad = dorisStreamLoad;
         this.conf = conf;
+        this.serializer = DorisRecordSerializer.create(conf);
         this.nameMapped = conf.isNameMapped();
     }
     /**
-     * Each time a RowData is processed, a Carrier is obtained and then returned.
+     * Each time a RowData is processed, its values are serialized into the cached carrier of its
+     * table, and the RowData is recorded for dirty data.
      *
      * @param value RowData
-     * @return Carrier
-     */
-    public void process(RowData value, List<String> columns, AbstractRowConverter converter)
-            throws Exception {
-        String schema;
-        String table;
-        List<String> insertV = new LinkedList<>();
-        List<String> deleteV = new LinkedList<>();
-        // sync job.
-        if (value instanceof ColumnRowData) {
-            List<String> columnsFromValue = new LinkedList<>();
-            Map<String, String> identityMap = new HashMap<>(2);
-            wrap((ColumnRowData) value, columnsFromValue, insertV, deleteV, identityMap);
-            schema = MapUtils.getString(identityMap, KEY_SCHEMA, conf.getDatabase());
-            table = MapUtils.getString(identityMap, KEY_TABLE, conf.getTable());
-            Carrier carrier = initCarrier(columnsFromValue, insertV, deleteV, schema, table);
-            flush(carrier);
-        }
-
-        if (value instanceof GenericRowData) {
-            schema = conf.getDatabase();
-            table = conf.getTable();
-            StringJoiner joiner = new StringJoiner(",");
-            if (RowKind.INSERT.equals(value.getRowKind())) {
-                Object toExternal = converter.toExternal(value, joiner);
-                String[] split = String.valueOf(toExternal).split(",");
-                insertV.addAll(Arrays.asList(split));
-            }
-            Carrier carrier = initCarrier(columns, insertV, deleteV, schema, table);
-            flush(carrier);
-        }
-    }
-
-    /**
-     * Each time a RowData is processed, after a Carrier is obtained , it is added to the cache ,
-     * and the position of each RowData is recorded.
-     *
-     * @param value RowData
-     * @param index RowData index
      * @param carrierMap A batch of data is cached
+     * @param columns column names of sql job
      */
-    public void process(
-            RowData value,
-            int index,
-            Map<String, Carrier> carrierMap,
-            List<String> columns,
-            AbstractRowConverter converter)
-            throws Exception {
+    public void process(RowData value, Map<String, Carrier> carrierMap, List<String> columns) {
         List<String> insertV = new LinkedList<>();
         List<String> deleteV = new LinkedList<>();
         if (value instanceof ColumnRowData) {
-            processWithColumnRowData(value, index, carrierMap, deleteV, insertV);
+            processWithColumnRowData(value, carrierMap, deleteV, insertV);
         }
 
         if (value instanceof GenericRowData) {
-            processWithGenericRowData(
-                    value, index, carrierMap, deleteV, insertV, columns, converter);
+            processWithGenericRowData(value, carrierMap, deleteV, insertV, columns);
         }
     }
 
@@ -146,14 +101,12 @@ public class DorisLoadClient implements Serializable {
      * process column row data.
      *
      * @param value row data
-     * @param index index
      * @param carrierMap carrier map
      * @param deleteV delete value.
      * @param insertV insert value.
      */
     private void processWithColumnRowData(
             RowData value,
-            int index,
             Map<String, Carrier> carrierMap,
             List<String> deleteV,
             List<String> insertV) {
@@ -162,49 +115,53 @@ public class DorisLoadClient implements Serializable {
         wrap((ColumnRowData) value, columns, insertV, deleteV, identityMap);
         String schema = MapUtils.getString(identityMap, KEY_SCHEMA, conf.getDatabase());
         String table = MapUtils.getString(identityMap, KEY_TABLE, conf.getTable());
-        String key = schema + KEY_POINT + table;
-        if (carrierMap.containsKey(key)) {
-            Carrier carrier = carrierMap.get(key);
-            carrier.addInsertContent(insertV);
-            carrier.addDeleteContent(deleteV);
-            carrier.addRowDataIndex(index);
-            carrier.updateBatch();
-        } else {
-            Carrier carrier = initCarrier(columns, insertV, deleteV, schema, table);
-            carrier.addRowDataIndex(index);
-            carrierMap.put(key, carrier);
-        }
+        addToCarrier(value, carrierMap, columns, insertV, deleteV, schema, table);
     }
 
     private void processWithGenericRowData(
             RowData value,
-            int index,
             Map<String, Carrier> carrierMap,
             List<String> deleteV,
             List<String> insertV,
-            List<String> columns,
-            AbstractRowConverter converter)
-            throws Exception {
+            List<String> columns) {
         String schema = conf.getDatabase();
         String table = conf.getTable();
-        StringJoiner joiner = new StringJoiner(",");
         if (RowKind.INSERT.equals(value.getRowKind())) {
-            Object toExternal = converter.toExternal(value, joiner);
-            String[] split = String.valueOf(toExternal).split(",");
-            insertV.addAll(Arrays.asList(split));
+            // 直接取字段值，不再拼接成字符串后按逗号拆分，避免字段值中的逗号导致列错位
+            GenericRowData genericRowData = (GenericRowData) value;
+            for (int i = 0; i < genericRowData.getArity(); i++) {
+                Object field = genericRowData.getField(i);
+                insertV.add(
+                        (field == null || "".equals(field.toString())) ? null : field.toString());
+            }
         }
+        addToCarrier(value, carrierMap, columns, insertV, deleteV, schema, table);
+    }
+
+    private void addToCarrier(
+            RowData value,
+            Map<String, Carrier> carrierMap,
+            List<String> columns,
+            List<String> insertV,
+            List<String> deleteV,
+            String schema,
+            String table) {
         String key = schema + KEY_POINT + table;
-        if (carrierMap.containsKey(key)) {
-            Carrier carrier = carrierMap.get(key);
-            carrier.addInsertContent(insertV);
-            carrier.addDeleteContent(deleteV);
-            carrier.addRowDataIndex(index);
-            carrier.updateBatch();
-        } else {
-            Carrier carrier = initCarrier(columns, insertV, deleteV, schema, table);
-            carrier.addRowDataIndex(index);
+        Carrier carrier = carrierMap.get(key);
+        if (carrier == null) {
+            carrier = new Carrier(serializer);
+            carrier.setDatabase(schema);
+            carrier.setTable(table);
             carrierMap.put(key, carrier);
         }
+        if (carrier.getRowDataList().isEmpty()) {
+            // carrier在批次之间复用，字段以每个批次的第一条数据为准
+            carrier.setColumns(columns);
+        }
+        carrier.addInsertContent(insertV);
+        carrier.addDeleteContent(deleteV);
+        carrier.addRowData(value);
+        carrier.updateBatch();
     }
 
     /**
@@ -214,6 +171,10 @@ public class DorisLoadClient implements Serializable {
      * @throws WriteRecordException
      */
     public void flush(final Carrier carrier) throws WriteRecordException {
+        if (carrier.getLabel() == null) {
+            // 重试时使用同一个label，由doris保证不会重复导入
+            carrier.setLabel(dorisStreamLoad.generateLabel());
+        }
         try {
             DorisUtil.doRetry(
                     dorisStreamLoad::load,
@@ -352,22 +313,6 @@ public class DorisLoadClient implements Serializable {
         }
     }
 
-    private Carrier initCarrier(
-            List<String> columns,
-            List<String> insertV,
-            List<String> deleteV,
-            String schema,
-            String table) {
-        Carrier carrier = new Carrier();
-        carrier.setColumns(columns);
-        carrier.setDatabase(schema);
-        carrier.setTable(table);
-        carrier.addInsertContent(insertV);
-        carrier.addDeleteContent(deleteV);
-        carrier.updateBatch();
-        return carrier;
-    }
-
     private void wrap(
             ColumnRowData value,
             List<String> columns,
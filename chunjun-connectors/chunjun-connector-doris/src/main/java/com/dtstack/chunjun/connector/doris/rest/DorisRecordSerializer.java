@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.doris.rest;
+
+import com.dtstack.chunjun.connector.doris.options.DorisConf;
+
+import org.apache.http.client.methods.HttpPut;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 将一行数据直接序列化为stream load请求体，并设置对应格式的请求头
+ *
+ * @author tudou
+ */
+public abstract class DorisRecordSerializer implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_JSON = "json";
+
+    /**
+     * 序列化values中从offset开始、与columns一一对应的值，一次调用写出一行
+     *
+     * @param columns 字段名
+     * @param values 字段值，null表示空值
+     * @param offset 起始下标
+     * @param out 输出缓冲区
+     * @throws IOException 写出异常
+     */
+    public abstract void serialize(
+            List<String> columns, List<String> values, int offset, OutputStream out)
+            throws IOException;
+
+    /**
+     * 设置数据格式相关的stream load请求头
+     *
+     * @param httpPut stream load请求
+     */
+    public abstract void setHeaders(HttpPut httpPut);
+
+    public static DorisRecordSerializer create(DorisConf conf) {
+        String format = conf.getLoadFormat();
+        if (FORMAT_CSV.equalsIgnoreCase(format)) {
+            return new CsvRecordSerializer(conf.getFieldDelimiter(), conf.getLineDelimiter());
+        } else if (FORMAT_JSON.equalsIgnoreCase(format)) {
+            return new JsonRecordSerializer();
+        }
+        throw new IllegalArgumentException(
+                "unsupported doris load format: " + format + ", only support csv and json.");
+    }
+}
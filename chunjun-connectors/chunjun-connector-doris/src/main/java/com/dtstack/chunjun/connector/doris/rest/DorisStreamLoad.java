@@ -19,19 +19,23 @@
 package com.dtstack.chunjun.connector.doris.rest;
 
 import com.dtstack.chunjun.connector.doris.options.DorisConf;
+import com.dtstack.chunjun.connector.doris.options.LoadConf;
+import com.dtstack.chunjun.connector.doris.rest.module.DorisTransaction;
 import com.dtstack.chunjun.connector.doris.rest.module.RespContent;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.config.ConnectionConfig;
-import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,18 +43,16 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.ConnectException;
-import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -58,16 +60,31 @@ import java.util.stream.Collectors;
  * @since 08/10/2021 Friday
  */
 public class DorisStreamLoad implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     private static final Logger LOG = LoggerFactory.getLogger(DorisStreamLoad.class);
     private static final ObjectMapper OM = new ObjectMapper();
     private static final List<String> DORIS_SUCCESS_STATUS =
             new ArrayList<>(Arrays.asList("Success", "Publish Timeout"));
+    private static final String LABEL_ALREADY_EXISTS = "Label Already Exists";
+    private static final String JOB_STATUS_FINISHED = "FINISHED";
     private static final String LOAD_URL_PATTERN = "http://%s/api/%s/%s/_stream_load?";
-    private String authEncoding;
-    private Properties streamLoadProp;
-    private String hostPort;
+    private static final String LOAD_2PC_URL_PATTERN = "http://%s/api/%s/_stream_load_2pc";
+    private static final String LABEL_KEY = "label";
+    private static final String GROUP_COMMIT_OFF = "off_mode";
+    private static final String TXN_COMMIT = "commit";
+    private static final String TXN_ABORT = "abort";
+
+    private final String authEncoding;
+    private final Properties streamLoadProp;
+    private volatile String hostPort;
     private DorisConf options;
+    /** 是否使用两阶段提交，导入后事务处于PRECOMMITTED状态，需要调用{@link #commit(DorisTransaction)}提交 */
+    private boolean twoPhaseCommit;
+
+    private String labelPrefix;
+    private final AtomicLong labelSequence = new AtomicLong();
+    private transient CloseableHttpClient httpClient;
 
     public DorisStreamLoad(DorisConf options) {
         this.options = options;
@@ -76,7 +93,47 @@ public class DorisStreamLoad implements Serializable {
                         .encodeToString(
                                 String.format("%s:%s", options.getUsername(), options.getPassword())
                                         .getBytes(StandardCharsets.UTF_8));
-        this.streamLoadProp = options.getLoadProperties();
+        this.streamLoadProp =
+                options.getLoadProperties() == null
+                        ? new Properties()
+                        : options.getLoadProperties();
+    }
+
+    /**
+     * 创建连接池。连接数与并发导入的表数量一致，另外预留一个连接用于获取错误日志及提交事务
+     *
+     * @param jobId flink job id
+     * @param taskNumber 子任务索引
+     */
+    public void open(String jobId, int taskNumber) {
+        int maxConnections = options.getLoadParallelism() + 1;
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setDefaultConnectionConfig(
+                ConnectionConfig.custom().setCharset(StandardCharsets.UTF_8).build());
+
+        RequestConfig.Builder requestConfig = RequestConfig.custom();
+        LoadConf loadConf = options.getLoadConf();
+        if (loadConf != null && loadConf.getRequestConnectTimeoutMs() != null) {
+            requestConfig.setConnectTimeout(loadConf.getRequestConnectTimeoutMs());
+        }
+        this.httpClient =
+                HttpClients.custom()
+                        .setConnectionManager(connectionManager)
+                        .setDefaultRequestConfig(requestConfig.build())
+                        .build();
+
+        // label在整个doris库内唯一，加入随机串避免任务重启后与已导入的label冲突
+        String prefix = streamLoadProp.getProperty(LABEL_KEY, options.getLabelPrefix());
+        this.labelPrefix =
+                String.format(
+                        "%s_%s_%s_%s",
+                        prefix,
+                        StringUtils.isBlank(jobId) ? "job" : jobId,
+                        taskNumber,
+                        UUID.randomUUID().toString().replaceAll("-", ""));
     }
 
     public void setHostPort(String hostPort) {
@@ -87,43 +144,65 @@ public class DorisStreamLoad implements Serializable {
         this.options = options;
     }
 
+    public void setTwoPhaseCommit(boolean twoPhaseCommit) {
+        this.twoPhaseCommit = twoPhaseCommit;
+    }
+
+    public boolean isTwoPhaseCommit() {
+        return twoPhaseCommit;
+    }
+
+    /**
+     * 开启group commit时由doris合并导入，不能再指定label
+     *
+     * @param options doris配置
+     * @return 是否开启group commit
+     */
+    public static boolean isGroupCommit(DorisConf options) {
+        String groupCommit = options.getGroupCommit();
+        return StringUtils.isNotBlank(groupCommit) && !GROUP_COMMIT_OFF.equals(groupCommit);
+    }
+
     /**
      * Generate Http Put request.
      *
-     * @param columnNames doris table column names.
+     * @param carrier data carrier.
      * @param urlStr doris put url.
-     * @param label the label of doris stream load.
-     * @param mergeConditions the merge conditions of doris stream load.
      * @return http put request of doris stream load.
      */
-    private HttpPut generatePut(
-            List<String> columnNames, String urlStr, String label, String mergeConditions) {
+    private HttpPut generatePut(Carrier carrier, String urlStr) {
 
         HttpPut httpPut = new HttpPut(urlStr);
         httpPut.setHeader("Authorization", "Basic " + authEncoding);
         httpPut.setHeader("Expect", "100-continue");
         httpPut.setHeader("Content-Type", "text/plain; charset=UTF-8");
-        httpPut.setHeader("label", label);
-        httpPut.setHeader("format", "json");
-        // if body is list type ,strip_outer_array should be true
-        httpPut.setHeader("strip_outer_array", "true");
+        if (isGroupCommit(options)) {
+            httpPut.setHeader("group_commit", options.getGroupCommit());
+        } else {
+            httpPut.setHeader(LABEL_KEY, carrier.getLabel());
+        }
+        if (twoPhaseCommit) {
+            httpPut.setHeader("two_phase_commit", "true");
+        }
+        carrier.getSerializer().setHeaders(httpPut);
         List<String> columns =
-                columnNames.stream()
+                carrier.getColumns().stream()
                         .map(this::quoteColumn)
                         .collect(Collectors.toCollection(LinkedList::new));
         httpPut.setHeader("columns", StringUtils.join(columns, ","));
+        String mergeConditions = carrier.getDeleteContent();
         if (StringUtils.isNotBlank(mergeConditions)) {
             httpPut.setHeader("merge_type", "MERGE");
             httpPut.setHeader("delete", mergeConditions);
         } else {
             httpPut.setHeader("merge_type", "APPEND");
         }
-        // httpPut.setHeader("column_separator", fieldDelimiter);
-        // if (!"\n".equals(lineDelimiter)) {
-        //    httpPut.setHeader("line_delimiter", lineDelimiter);
-        // }
         for (Map.Entry<Object, Object> entry : streamLoadProp.entrySet()) {
-            httpPut.setHeader(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+            String key = String.valueOf(entry.getKey());
+            // label在loadProperties中作为前缀使用，每个批次的label由generateLabel生成
+            if (!LABEL_KEY.equals(key)) {
+                httpPut.setHeader(key, String.valueOf(entry.getValue()));
+            }
         }
         return httpPut;
     }
@@ -167,50 +246,48 @@ public class DorisStreamLoad implements Serializable {
     }
 
     /**
-     * Doris load data via stream.
+     * Doris load data via stream. The body is sent from the carrier's buffer with chunked transfer
+     * encoding, and the response is saved into the carrier.
      *
      * @param carrier data carrier.
      * @throws IOException io exception.
      */
     public void load(Carrier carrier) throws IOException {
-        List<String> columnNames = carrier.getColumns();
         String loadUrlStr =
                 String.format(
                         LOAD_URL_PATTERN, hostPort, carrier.getDatabase(), carrier.getTable());
-        String json = OM.writeValueAsString(carrier.getInsertContent());
-        String mergeConditions = carrier.getDeleteContent();
-        LoadResponse loadResponse = loadBatch(columnNames, json, mergeConditions, loadUrlStr);
+        HttpPut httpPut = generatePut(carrier, loadUrlStr);
+        httpPut.setEntity(carrier.getInsertContent().toEntity());
+        LoadResponse loadResponse = execute(httpPut);
         LOG.debug("StreamLoad Response:{}", loadResponse);
         if (loadResponse.status != 200) {
             throw new ConnectException("stream load error, detail : " + loadResponse);
+        }
+        RespContent respContent = OM.readValue(loadResponse.respContent, RespContent.class);
+        if (DORIS_SUCCESS_STATUS.contains(respContent.getStatus())) {
+            carrier.setRespContent(respContent);
+        } else if (!twoPhaseCommit
+                && LABEL_ALREADY_EXISTS.equals(respContent.getStatus())
+                && JOB_STATUS_FINISHED.equals(respContent.getExistingJobStatus())) {
+            // 上一次请求已经导入成功，只是没有收到响应
+            LOG.info("label {} has already been loaded, skip it.", carrier.getLabel());
+            carrier.setRespContent(respContent);
         } else {
-            RespContent respContent = OM.readValue(loadResponse.respContent, RespContent.class);
-            if (!DORIS_SUCCESS_STATUS.contains(respContent.getStatus())) {
-                throw new IOException("stream load error: " + getDetailErrorLog(respContent));
-            }
+            throw new IOException("stream load error: " + getDetailErrorLog(respContent));
         }
     }
 
-    private LoadResponse loadBatch(
-            List<String> columnNames, String value, String mergeConditions, String loadUrlStr) {
-        String label = generateLabel();
-
-        final ConnectionConfig connectionConfig =
-                ConnectionConfig.custom().setCharset(Charset.defaultCharset()).build();
-        try (CloseableHttpClient httpclient =
-                HttpClientBuilder.create().setDefaultConnectionConfig(connectionConfig).build()) {
-            // build request and send to new be location
-            HttpPut httpPut = generatePut(columnNames, loadUrlStr, label, mergeConditions);
-            httpPut.setEntity(new ByteArrayEntity(value.getBytes()));
-
-            HttpResponse response = httpclient.execute(httpPut);
+    private LoadResponse execute(HttpPut httpPut) throws ConnectException {
+        try (CloseableHttpResponse response = httpClient.execute(httpPut)) {
             int status = response.getStatusLine().getStatusCode();
             HttpEntity entity = response.getEntity();
             return new LoadResponse(status, entity != null ? EntityUtils.toString(entity) : "");
-        } catch (Exception e) {
-            String err = "failed to load audit via AuditLoader plugin with label: " + label;
-            LOG.warn(err, e);
-            return new LoadResponse(-1, err);
+        } catch (IOException e) {
+            ConnectException exception =
+                    new ConnectException(
+                            "failed to execute stream load request, url: " + httpPut.getURI());
+            exception.initCause(e);
+            throw exception;
         }
     }
 
@@ -219,17 +296,53 @@ public class DorisStreamLoad implements Serializable {
      *
      * @return doris label
      */
-    private String generateLabel() {
-        String label = streamLoadProp.getProperty("label");
-        if (StringUtils.isBlank(label)) {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss");
-            String formatDate = sdf.format(new Date());
-            label =
+    public String generateLabel() {
+        return labelPrefix + "_" + labelSequence.incrementAndGet();
+    }
+
+    /**
+     * 提交两阶段提交模式下预提交的事务
+     *
+     * @param transaction 事务
+     * @throws IOException 提交失败
+     */
+    public void commit(DorisTransaction transaction) throws IOException {
+        operateTransaction(transaction, TXN_COMMIT);
+    }
+
+    /**
+     * 回滚两阶段提交模式下预提交的事务
+     *
+     * @param transaction 事务
+     * @throws IOException 回滚失败
+     */
+    public void abort(DorisTransaction transaction) throws IOException {
+        operateTransaction(transaction, TXN_ABORT);
+    }
+
+    private void operateTransaction(DorisTransaction transaction, String operation)
+            throws IOException {
+        HttpPut httpPut =
+                new HttpPut(
+                        String.format(LOAD_2PC_URL_PATTERN, hostPort, transaction.getDatabase()));
+        httpPut.setHeader("Authorization", "Basic " + authEncoding);
+        httpPut.setHeader("txn_id", String.valueOf(transaction.getTxnId()));
+        httpPut.setHeader("txn_operation", operation);
+        LoadResponse loadResponse = execute(httpPut);
+        if (loadResponse.status != 200) {
+            throw new IOException(
+                    String.format(
+                            "%s %s failed, detail: %s", operation, transaction, loadResponse));
+        }
+        JsonNode result = OM.readTree(loadResponse.respContent);
+        JsonNode status = result.get("status");
+        if (status == null || !"Success".equalsIgnoreCase(status.asText())) {
+            throw new IOException(
                     String.format(
-                            "chunjun_connector_%s_%s",
-                            formatDate, UUID.randomUUID().toString().replaceAll("-", ""));
+                            "%s %s failed, detail: %s",
+                            operation, transaction, loadResponse.respContent));
         }
-        return label;
+        LOG.info("{} {} successfully.", operation, transaction);
     }
 
     /**
@@ -239,18 +352,22 @@ public class DorisStreamLoad implements Serializable {
      * @return the detailed error log
      */
     public String getDetailErrorLog(RespContent respContent) {
-        try (CloseableHttpClient httpclient = HttpClientBuilder.create().build()) {
-            if (StringUtils.isNotBlank(respContent.getErrorURL())) {
-                HttpGet httpget = new HttpGet(respContent.getErrorURL());
-                HttpResponse response = httpclient.execute(httpget);
-                HttpEntity entity = response.getEntity();
-                return EntityUtils.toString(entity);
-            } else {
-                return respContent.toString();
-            }
+        if (StringUtils.isBlank(respContent.getErrorURL())) {
+            return respContent.toString();
+        }
+        HttpGet httpget = new HttpGet(respContent.getErrorURL());
+        try (CloseableHttpResponse response = httpClient.execute(httpget)) {
+            HttpEntity entity = response.getEntity();
+            return EntityUtils.toString(entity);
         } catch (IOException e) {
             LOG.warn("Get detail error message failed. Error Url: " + respContent.getErrorURL());
             return respContent.getMessage();
         }
     }
+
+    public void close() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.doris.rest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.http.client.methods.HttpPut;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 按行分隔的JSON格式(read_json_by_line)，每行一个JSON对象，字段值均以字符串写出。
+ *
+ * @author tudou
+ */
+public class JsonRecordSerializer extends DorisRecordSerializer {
+    private static final long serialVersionUID = 1L;
+
+    private static final JsonFactory JSON_FACTORY =
+            new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final int LINE_DELIMITER = '\n';
+
+    @Override
+    public void serialize(List<String> columns, List<String> values, int offset, OutputStream out)
+            throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            for (int i = 0, size = columns.size(); i < size; i++) {
+                String value = values.get(offset + i);
+                if (value == null) {
+                    generator.writeNullField(columns.get(i));
+                } else {
+                    generator.writeStringField(columns.get(i), value);
+                }
+            }
+            generator.writeEndObject();
+        }
+        out.write(LINE_DELIMITER);
+    }
+
+    @Override
+    public void setHeaders(HttpPut httpPut) {
+        httpPut.setHeader("format", FORMAT_JSON);
+        httpPut.setHeader("read_json_by_line", "true");
+    }
+}
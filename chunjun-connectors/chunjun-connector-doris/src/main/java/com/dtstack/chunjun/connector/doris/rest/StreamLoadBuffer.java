@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.doris.rest;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * stream load的请求体缓冲区。
+ *
+ * <p>数据在写入时直接序列化为CSV或JSON行追加到该缓冲区，导入时以chunked方式发送，不再经过中间集合及字符串拼接。导入结束后调用{@link
+ * #reset()}，底层数组在后续批次中复用。
+ *
+ * @author tudou
+ */
+public class StreamLoadBuffer extends OutputStream {
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    /** 每次写入socket的数据块大小 */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private byte[] buf = new byte[INITIAL_CAPACITY];
+    private int count;
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buf.length) {
+            int newCapacity = Math.max(buf.length << 1, minCapacity);
+            buf = Arrays.copyOf(buf, newCapacity);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /** 清空数据，保留底层数组 */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * 以当前缓冲区内容构建chunked请求体，请求体可重复发送，用于失败重试
+     *
+     * @return http请求体
+     */
+    public HttpEntity toEntity() {
+        AbstractHttpEntity entity =
+                new AbstractHttpEntity() {
+                    @Override
+                    public boolean isRepeatable() {
+                        return true;
+                    }
+
+                    @Override
+                    public long getContentLength() {
+                        return -1;
+                    }
+
+                    @Override
+                    public InputStream getContent() {
+                        return new ByteArrayInputStream(buf, 0, count);
+                    }
+
+                    @Override
+                    public void writeTo(OutputStream out) throws IOException {
+                        for (int off = 0; off < count; off += CHUNK_SIZE) {
+                            out.write(buf, off, Math.min(CHUNK_SIZE, count - off));
+                        }
+                        out.flush();
+                    }
+
+                    @Override
+                    public boolean isStreaming() {
+                        return false;
+                    }
+                };
+        entity.setChunked(true);
+        return entity;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.doris.rest.module;
+
+import java.io.Serializable;
+
+/**
+ * 两阶段提交模式下已预提交的stream load事务，checkpoint完成后通过_stream_load_2pc接口提交
+ *
+ * @author tudou
+ */
+public class DorisTransaction implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String database;
+    private final long txnId;
+    private final String label;
+
+    public DorisTransaction(String database, long txnId, String label) {
+        this.database = database;
+        this.txnId = txnId;
+        this.label = label;
+    }
+
+    public String getDatabase() {
+        return database;
+    }
+
+    public long getTxnId() {
+        return txnId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return "DorisTransaction{"
+                + "database='"
+                + database
+                + '\''
+                + ", txnId="
+                + txnId
+                + ", label='"
+                + label
+                + '\''
+                + '}';
+    }
+}
@@ -31,7 +31,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class RespContent {
 
     @JsonProperty(value = "TxnId")
-    private int TxnId;
+    private long TxnId;
 
     @JsonProperty(value = "Label")
     private String Label;
@@ -81,10 +81,26 @@ public class RespContent {
     @JsonProperty(value = "ErrorURL")
     private String ErrorURL;
 
+    public long getTxnId() {
+        return TxnId;
+    }
+
+    public String getLabel() {
+        return Label;
+    }
+
     public String getStatus() {
         return Status;
     }
 
+    public String getExistingJobStatus() {
+        return ExistingJobStatus;
+    }
+
+    public long getNumberLoadedRows() {
+        return NumberLoadedRows;
+    }
+
     public String getMessage() {
         return Message;
     }
@@ -18,34 +18,60 @@
 
 package com.dtstack.chunjun.connector.doris.sink;
 
+import com.dtstack.chunjun.connector.doris.DorisUtil;
 import com.dtstack.chunjun.connector.doris.options.DorisConf;
 import com.dtstack.chunjun.connector.doris.rest.Carrier;
 import com.dtstack.chunjun.connector.doris.rest.DorisLoadClient;
 import com.dtstack.chunjun.connector.doris.rest.DorisStreamLoad;
-import com.dtstack.chunjun.connector.doris.rest.FeRestService;
+import com.dtstack.chunjun.connector.doris.rest.module.DorisTransaction;
+import com.dtstack.chunjun.enums.Semantic;
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+import com.dtstack.chunjun.restore.FormatState;
 import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
+import com.dtstack.chunjun.throwable.ChunJunRuntimeException;
 import com.dtstack.chunjun.throwable.WriteRecordException;
+import com.dtstack.chunjun.util.ExceptionUtil;
 
 import org.apache.flink.table.data.RowData;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * use DorisStreamLoad to write data into doris
  *
+ * <p>一个批次内的数据按表分组，直接序列化到每张表可复用的缓冲区中，不同表的导入在有界线程池中并发执行。导入失败时整批数据记为脏数据，不会退化为逐条导入。
+ *
+ * <p>exactly-once语义下使用doris两阶段提交：批次导入后事务处于PRECOMMITTED状态，随checkpoint保存，checkpoint完成后提交。
+ *
  * @author tiezhu@dtstack
  * @date 2021/9/16 星期四
  */
 public class DorisHttpOutputFormat extends BaseRichOutputFormat {
     private DorisConf options;
-    private DorisLoadClient client;
-    /** cache carriers * */
-    private final Map<String, Carrier> carrierMap = new HashMap<>();
+    private transient DorisStreamLoad dorisStreamLoad;
+    private transient DorisLoadClient client;
+    /** cache carriers, reused between batches * */
+    private transient Map<String, Carrier> carrierMap;
+    /** 多表并发导入的线程池，loadParallelism为1时为null */
+    private transient ExecutorService loadExecutor;
+
+    private boolean twoPhaseCommit;
+    /** 上一次checkpoint之后预提交的事务 */
+    private transient List<DorisTransaction> preparedTransactions;
+    /** 已随checkpoint保存，等待checkpoint完成后提交的事务 */
+    private transient List<DorisTransaction> pendingTransactions;
+    /** checkpoint时刷新数据或提交事务失败的异常 */
+    private transient volatile Exception transactionException;
 
     private List<String> columns;
 
@@ -53,85 +79,275 @@ public class DorisHttpOutputFormat extends BaseRichOutputFormat {
         this.options = options;
     }
 
-    public void setColumns(List<String> columns) {
-        this.columns = columns;
+    public DorisConf getOptions() {
+        return options;
     }
 
-    private String getBackend() throws IOException {
-        try {
-            // get be url from fe
-            return FeRestService.randomBackend(options);
-        } catch (IOException e) {
-            LOG.error("get backends info fail");
-            throw new IOException(e);
-        }
+    public void setColumns(List<String> columns) {
+        this.columns = columns;
     }
 
     @Override
-    public void open(int taskNumber, int numTasks) throws IOException {
-        DorisStreamLoad dorisStreamLoad = new DorisStreamLoad(options);
+    protected void openInternal(int taskNumber, int numTasks) throws IOException {
+        twoPhaseCommit = Semantic.EXACTLY_ONCE == semantic;
+        dorisStreamLoad = new DorisStreamLoad(options);
+        dorisStreamLoad.setTwoPhaseCommit(twoPhaseCommit);
+        dorisStreamLoad.open(jobId, taskNumber);
         dorisStreamLoad.replaceBackend();
         client = new DorisLoadClient(dorisStreamLoad, options);
-        super.open(taskNumber, numTasks);
+        carrierMap = new LinkedHashMap<>();
+        preparedTransactions = new ArrayList<>();
+        pendingTransactions = new ArrayList<>();
+        if (options.getLoadParallelism() > 1) {
+            loadExecutor =
+                    Executors.newFixedThreadPool(
+                            options.getLoadParallelism(),
+                            new ChunJunThreadFactory("doris-stream-load", true));
+        }
+        if (twoPhaseCommit) {
+            restoreTransactions();
+        }
+        LOG.info(
+                "task number : {} , number task : {}, loadFormat : {}, loadParallelism : {}, twoPhaseCommit : {}",
+                taskNumber,
+                numTasks,
+                options.getLoadFormat(),
+                options.getLoadParallelism(),
+                twoPhaseCommit);
     }
 
-    @Override
-    protected void openInternal(int taskNumber, int numTasks) throws IOException {
-        LOG.info("task number : {} , number task : {}", taskNumber, numTasks);
+    /** 提交从checkpoint恢复的事务，checkpoint完成后任务可能在提交之前失败 */
+    @SuppressWarnings("unchecked")
+    private void restoreTransactions() {
+        Object state = formatState.getState();
+        if (!(state instanceof List)) {
+            return;
+        }
+        for (DorisTransaction transaction : (List<DorisTransaction>) state) {
+            try {
+                dorisStreamLoad.commit(transaction);
+            } catch (IOException e) {
+                // 事务可能在任务失败前已经提交
+                LOG.warn(
+                        "commit restored transaction {} failed, e = {}",
+                        transaction,
+                        ExceptionUtil.getErrorMessage(e));
+            }
+        }
     }
 
     @Override
-    protected void closeInternal() throws IOException {}
+    public synchronized void writeRecord(RowData rowData) {
+        if (transactionException != null) {
+            throw new ChunJunRuntimeException(
+                    "doris transaction failed, the job will restore from the last checkpoint.",
+                    transactionException);
+        }
+        super.writeRecord(rowData);
+    }
 
     @Override
     protected void writeSingleRecordInternal(RowData rowData) throws WriteRecordException {
         try {
-            client.process(rowData, columns, rowConverter);
+            client.process(rowData, carrierMap, columns);
+            Map<Carrier, Exception> errors = loadCarriers();
+            if (!errors.isEmpty()) {
+                throw errors.values().iterator().next();
+            }
         } catch (Exception e) {
             throw new WriteRecordException("", e, 0, rowData);
+        } finally {
+            carrierMap.values().forEach(Carrier::reset);
         }
     }
 
     @Override
     protected void writeMultipleRecordsInternal() throws Exception {
-        int size = rows.size();
-        for (int i = 0; i < size; i++) {
-            client.process(rows.get(i), i, carrierMap, columns, rowConverter);
+        for (RowData row : rows) {
+            try {
+                client.process(row, carrierMap, columns);
+            } catch (Exception e) {
+                dirtyManager.collect(row, e, null);
+            }
         }
-        if (!carrierMap.isEmpty()) {
-            Set<String> keys = carrierMap.keySet();
-            for (String key : keys) {
-                try {
-                    Carrier carrier = carrierMap.get(key);
-                    client.flush(carrier);
-                    Set<Integer> indexes = carrier.getRowDataIndexes();
-                    List<RowData> removeList = new ArrayList<>(indexes.size());
+        try {
+            Map<Carrier, Exception> errors = loadCarriers();
+            for (Carrier carrier : carrierMap.values()) {
+                Exception e = errors.get(carrier);
+                if (e == null) {
                     // Add the amount of data written successfully.
-                    numWriteCounter.add(indexes.size());
-                    for (int index : indexes) {
-                        removeList.add(rows.get(index));
+                    numWriteCounter.add(carrier.getRowDataList().size());
+                } else if (twoPhaseCommit) {
+                    throw e;
+                } else {
+                    // 整批导入失败，记为脏数据，不再逐条重试
+                    for (RowData rowData : carrier.getRowDataList()) {
+                        dirtyManager.collect(rowData, e, null);
                     }
-                    // Remove RowData from rows after a successful write
-                    // to prevent multiple writes.
-                    rows.removeAll(removeList);
-                } finally {
-                    carrierMap.remove(key);
+                }
+            }
+        } finally {
+            carrierMap.values().forEach(Carrier::reset);
+        }
+    }
+
+    /**
+     * 导入所有非空的carrier，多张表时并发导入
+     *
+     * @return 导入失败的carrier及对应异常
+     */
+    private Map<Carrier, Exception> loadCarriers() throws InterruptedException {
+        List<Carrier> carriers = new ArrayList<>(carrierMap.size());
+        for (Carrier carrier : carrierMap.values()) {
+            if (!carrier.isEmpty()) {
+                carriers.add(carrier);
+            }
+        }
+        Map<Carrier, Exception> errors = new IdentityHashMap<>();
+        if (loadExecutor == null || carriers.size() == 1) {
+            for (Carrier carrier : carriers) {
+                try {
+                    client.flush(carrier);
+                } catch (Exception e) {
+                    errors.put(carrier, e);
+                }
+            }
+        } else {
+            List<Future<?>> futures = new ArrayList<>(carriers.size());
+            for (Carrier carrier : carriers) {
+                futures.add(
+                        loadExecutor.submit(
+                                () -> {
+                                    client.flush(carrier);
+                                    return null;
+                                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    errors.put(carriers.get(i), cause instanceof Exception ? (Exception) cause : e);
                 }
             }
         }
+        if (twoPhaseCommit) {
+            for (Carrier carrier : carriers) {
+                if (!errors.containsKey(carrier)) {
+                    preparedTransactions.add(
+                            new DorisTransaction(
+                                    carrier.getDatabase(),
+                                    carrier.getRespContent().getTxnId(),
+                                    carrier.getLabel()));
+                }
+            }
+        }
+        return errors;
     }
 
     @Override
-    protected synchronized void writeRecordInternal() {
-        if (flushEnable.get()) {
-            try {
+    protected boolean isWriteCountedBySink() {
+        return true;
+    }
+
+    @Override
+    protected boolean fallbackToSingleWrite() {
+        return false;
+    }
+
+    @Override
+    public synchronized FormatState getFormatState() throws Exception {
+        transactionException = null;
+        FormatState state = super.getFormatState();
+        if (transactionException != null) {
+            // 预提交失败时不能让checkpoint成功，否则失败的数据不会再被重放
+            throw transactionException;
+        }
+        return state;
+    }
+
+    @Override
+    protected void preCommit() throws Exception {
+        try {
+            if (!rows.isEmpty()) {
                 writeMultipleRecordsInternal();
+            }
+        } catch (Exception e) {
+            transactionException = e;
+            throw e;
+        } finally {
+            rows.clear();
+        }
+        pendingTransactions.addAll(preparedTransactions);
+        preparedTransactions.clear();
+        formatState.setState(new ArrayList<>(pendingTransactions));
+    }
+
+    @Override
+    public void commit(long checkpointId) throws Exception {
+        commitTransactions(pendingTransactions);
+    }
+
+    private void commitTransactions(List<DorisTransaction> transactions) throws Exception {
+        Iterator<DorisTransaction> iterator = transactions.iterator();
+        while (iterator.hasNext()) {
+            DorisTransaction transaction = iterator.next();
+            try {
+                DorisUtil.doRetry(
+                        dorisStreamLoad::commit,
+                        dorisStreamLoad::replaceBackend,
+                        transaction,
+                        options.getMaxRetries(),
+                        options.getWaitRetryMills());
+                iterator.remove();
             } catch (Exception e) {
-                // 批量写异常转为单条写
-                rows.forEach(item -> writeSingleRecord(item, numWriteCounter));
-            } finally {
-                // Data is either recorded dirty data or written normally
-                rows.clear();
+                // 已保存在checkpoint中，任务从checkpoint恢复后重新提交
+                transactionException = e;
+                throw e;
+            }
+        }
+    }
+
+    private void abortTransactions(List<DorisTransaction> transactions) {
+        for (DorisTransaction transaction : transactions) {
+            try {
+                dorisStreamLoad.abort(transaction);
+            } catch (IOException e) {
+                // 回滚失败的事务由doris在超时后自动回滚
+                LOG.warn(
+                        "abort transaction {} failed, e = {}",
+                        transaction,
+                        ExceptionUtil.getErrorMessage(e));
+            }
+        }
+        transactions.clear();
+    }
+
+    @Override
+    public void rollback(long checkpointId) {
+        // 不回滚已预提交的事务，其数据已不会再被重放，随下一次checkpoint一起提交
+        LOG.info(
+                "checkpoint {} aborted, {} transactions will be committed with the next checkpoint.",
+                checkpointId,
+                pendingTransactions.size());
+    }
+
+    /**
+     * 两阶段提交时只在checkpoint完成后提交事务。关闭时回滚没有被任何checkpoint保存的事务，其数据会在任务恢复后重放；
+     * 已随checkpoint保存的事务保持预提交状态，从该checkpoint恢复时提交
+     */
+    @Override
+    protected void closeInternal() throws IOException {
+        try {
+            if (twoPhaseCommit && preparedTransactions != null) {
+                abortTransactions(preparedTransactions);
+            }
+        } finally {
+            if (loadExecutor != null) {
+                loadExecutor.shutdownNow();
+            }
+            if (dorisStreamLoad != null) {
+                dorisStreamLoad.close();
             }
         }
     }
@@ -19,7 +19,9 @@
 package com.dtstack.chunjun.connector.doris.sink;
 
 import com.dtstack.chunjun.connector.doris.options.DorisConf;
-import com.dtstack.chunjun.connector.jdbc.conf.JdbcConf;
+import com.dtstack.chunjun.connector.doris.rest.DorisRecordSerializer;
+import com.dtstack.chunjun.connector.doris.rest.DorisStreamLoad;
+import com.dtstack.chunjun.enums.Semantic;
 import com.dtstack.chunjun.sink.format.BaseRichOutputFormatBuilder;
 
 import java.util.List;
@@ -39,9 +41,9 @@ public class DorisHttpOutputFormatBuilder extends BaseRichOutputFormatBuilder {
     }
 
     public void setDorisOptions(DorisConf options) {
-        JdbcConf jdbcConf = options.setToJdbcConf();
+        // DorisConf中已包含batchSize、semantic等通用配置，转为JdbcConf会丢失这些配置导致逐条导入
         format.setOptions(options);
-        format.setConfig(jdbcConf);
+        format.setConfig(options);
     }
 
     public void setColumns(List<String> columns) {
@@ -49,5 +51,19 @@ public class DorisHttpOutputFormatBuilder extends BaseRichOutputFormatBuilder {
     }
 
     @Override
-    protected void checkFormat() {}
+    protected void checkFormat() {
+        DorisConf options = format.getOptions();
+        StringBuilder sb = new StringBuilder(256);
+        if (!DorisRecordSerializer.FORMAT_JSON.equalsIgnoreCase(options.getLoadFormat())
+                && !DorisRecordSerializer.FORMAT_CSV.equalsIgnoreCase(options.getLoadFormat())) {
+            sb.append("loadFormat only support json and csv;\n");
+        }
+        if (Semantic.EXACTLY_ONCE == Semantic.getByName(options.getSemantic())
+                && DorisStreamLoad.isGroupCommit(options)) {
+            sb.append("groupCommit can not be used with exactly-once semantic;\n");
+        }
+        if (sb.length() > 0) {
+            throw new IllegalArgumentException(sb.toString());
+        }
+    }
 }
@@ -43,6 +43,9 @@ import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_BATCH_
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_DESERIALIZE_ARROW_ASYNC_DEFAULT;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_DESERIALIZE_QUEUE_SIZE_DEFAULT;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_EXEC_MEM_LIMIT_DEFAULT;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_LABEL_PREFIX_DEFAULT;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_LOAD_FORMAT_DEFAULT;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_LOAD_PARALLELISM_DEFAULT;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_REQUEST_CONNECT_TIMEOUT_MS_DEFAULT;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_REQUEST_QUERY_TIMEOUT_S_DEFAULT;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_REQUEST_READ_TIMEOUT_MS_DEFAULT;
@@ -50,8 +53,16 @@ import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_REQUES
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.DORIS_WRITE_MODE_DEFAULT;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.EXEC_MEM_LIMIT_KEY;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.FE_NODES_KEY;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.FIELD_DELIMITER;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.FIELD_DELIMITER_KEY;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.FLUSH_INTERNAL_MS_KEY;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.GROUP_COMMIT_KEY;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.LABEL_PREFIX_KEY;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.LINE_DELIMITER;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.LINE_DELIMITER_KEY;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.LOAD_FORMAT_KEY;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.LOAD_OPTIONS_KEY;
+import static com.dtstack.chunjun.connector.doris.options.DorisKeys.LOAD_PARALLELISM_KEY;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.LOAD_PROPERTIES_KEY;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.MAX_RETRIES_KEY;
 import static com.dtstack.chunjun.connector.doris.options.DorisKeys.PASSWORD_KEY;
@@ -149,6 +160,19 @@ public class DorisSinkFactory extends SinkFactory {
                         .setFlushIntervalMills(parameter.getLongVal(FLUSH_INTERNAL_MS_KEY, 10000L))
                         .setMaxRetries(parameter.getIntVal(MAX_RETRIES_KEY, 1))
                         .setWaitRetryMills(parameter.getLongVal(WAITRETRIES_MS_KEY, 18000L))
+                        .setLoadFormat(
+                                parameter.getStringVal(LOAD_FORMAT_KEY, DORIS_LOAD_FORMAT_DEFAULT))
+                        .setFieldDelimiter(
+                                parameter.getStringVal(FIELD_DELIMITER_KEY, FIELD_DELIMITER))
+                        .setLineDelimiter(
+                                parameter.getStringVal(LINE_DELIMITER_KEY, LINE_DELIMITER))
+                        .setLoadParallelism(
+                                parameter.getIntVal(
+                                        LOAD_PARALLELISM_KEY, DORIS_LOAD_PARALLELISM_DEFAULT))
+                        .setLabelPrefix(
+                                parameter.getStringVal(
+                                        LABEL_PREFIX_KEY, DORIS_LABEL_PREFIX_DEFAULT))
+                        .setGroupCommit(parameter.getStringVal(GROUP_COMMIT_KEY))
                         .build();
         options.setColumn(syncConf.getWriter().getFieldList());
         super.initCommonConf(options);
@@ -28,6 +28,7 @@ import com.dtstack.chunjun.connector.doris.source.DorisInputFormat;
 import com.dtstack.chunjun.connector.doris.source.DorisInputFormatBuilder;
 import com.dtstack.chunjun.connector.jdbc.conf.JdbcConf;
 import com.dtstack.chunjun.connector.jdbc.dialect.JdbcDialect;
+import com.dtstack.chunjun.connector.jdbc.options.JdbcSinkOptions;
 import com.dtstack.chunjun.connector.jdbc.source.JdbcDynamicTableSource;
 import com.dtstack.chunjun.connector.jdbc.source.JdbcInputFormatBuilder;
 import com.dtstack.chunjun.connector.jdbc.table.JdbcDynamicTableFactory;
@@ -187,6 +188,13 @@ public class DorisDynamicTableFactory extends JdbcDynamicTableFactory
         dorisConf.setMaxRetries(config.get(DorisOptions.MAX_RETRIES));
         dorisConf.setWriteMode(config.get(DorisOptions.WRITE_MODE));
         dorisConf.setBatchSize(config.get(DorisOptions.BATCH_SIZE));
+        dorisConf.setSemantic(config.get(JdbcSinkOptions.SINK_SEMANTIC));
+        dorisConf.setLoadFormat(config.get(DorisOptions.LOAD_FORMAT));
+        dorisConf.setFieldDelimiter(config.get(DorisOptions.FIELD_DELIMITER));
+        dorisConf.setLineDelimiter(config.get(DorisOptions.LINE_DELIMITER));
+        dorisConf.setLoadParallelism(config.get(DorisOptions.LOAD_PARALLELISM));
+        dorisConf.setLabelPrefix(config.get(DorisOptions.LABEL_PREFIX));
+        dorisConf.setGroupCommit(config.get(DorisOptions.GROUP_COMMIT));
 
         return dorisConf;
     }
@@ -245,7 +253,11 @@ public class DorisDynamicTableFactory extends JdbcDynamicTableFactory
                                 DorisOptions.LINE_DELIMITER,
                                 DorisOptions.MAX_RETRIES,
                                 DorisOptions.WRITE_MODE,
-                                DorisOptions.BATCH_SIZE)
+                                DorisOptions.BATCH_SIZE,
+                                DorisOptions.LOAD_FORMAT,
+                                DorisOptions.LOAD_PARALLELISM,
+                                DorisOptions.LABEL_PREFIX,
+                                DorisOptions.GROUP_COMMIT)
                         .collect(Collectors.toSet());
 
         options.addAll(optionalOptions);
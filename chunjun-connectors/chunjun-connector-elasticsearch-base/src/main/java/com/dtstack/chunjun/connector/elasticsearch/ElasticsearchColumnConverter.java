@@ -18,6 +18,7 @@
 
 package com.dtstack.chunjun.connector.elasticsearch;
 
+import com.dtstack.chunjun.connector.elasticsearch.source.FieldsConverter;
 import com.dtstack.chunjun.converter.AbstractRowConverter;
 import com.dtstack.chunjun.converter.IDeserializationConverter;
 import com.dtstack.chunjun.converter.ISerializationConverter;
@@ -63,8 +64,8 @@ import scala.Tuple3;
  * @create: 2021/06/27 13:23
  */
 public class ElasticsearchColumnConverter
-        extends AbstractRowConverter<
-                Map<String, Object>, Object, Map<String, Object>, LogicalType> {
+        extends AbstractRowConverter<Map<String, Object>, Object, Map<String, Object>, LogicalType>
+        implements FieldsConverter {
 
     private static final long serialVersionUID = 2L;
     private static ObjectMapper objectMapper = new ObjectMapper();
@@ -133,6 +134,16 @@ public class ElasticsearchColumnConverter
         return columnRowData;
     }
 
+    @Override
+    public RowData fieldsToInternal(Object[] fields) throws Exception {
+        ColumnRowData columnRowData = new ColumnRowData(rowType.getFieldCount());
+        for (int i = 0; i < toInternalConverters.size(); i++) {
+            columnRowData.addField(
+                    (AbstractBaseColumn) toInternalConverters.get(i).deserialize(fields[i]));
+        }
+        return columnRowData;
+    }
+
     @Override
     public Map<String, Object> toExternal(RowData rowData, Map<String, Object> output)
             throws Exception {
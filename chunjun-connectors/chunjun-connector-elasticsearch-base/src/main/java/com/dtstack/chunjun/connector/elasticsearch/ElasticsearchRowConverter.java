@@ -18,6 +18,7 @@
 
 package com.dtstack.chunjun.connector.elasticsearch;
 
+import com.dtstack.chunjun.connector.elasticsearch.source.FieldsConverter;
 import com.dtstack.chunjun.converter.AbstractRowConverter;
 import com.dtstack.chunjun.converter.IDeserializationConverter;
 import com.dtstack.chunjun.converter.ISerializationConverter;
@@ -59,7 +60,8 @@ import scala.Tuple3;
  */
 public class ElasticsearchRowConverter
         extends AbstractRowConverter<
-                Map<String, Object>, Map<String, Object>, Map<String, Object>, LogicalType> {
+                Map<String, Object>, Map<String, Object>, Map<String, Object>, LogicalType>
+        implements FieldsConverter {
 
     private static final long serialVersionUID = 1L;
     private final Logger LOG = LoggerFactory.getLogger(ElasticsearchRowConverter.class);
@@ -126,6 +128,17 @@ public class ElasticsearchRowConverter
         return genericRowData;
     }
 
+    @Override
+    public RowData fieldsToInternal(Object[] fields) throws Exception {
+        GenericRowData genericRowData = new GenericRowData(rowType.getFieldCount());
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                genericRowData.setField(i, toInternalConverters.get(i).deserialize(fields[i]));
+            }
+        }
+        return genericRowData;
+    }
+
     @Override
     public Map<String, Object> toExternal(RowData rowData, Map<String, Object> output)
             throws Exception {
@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.elasticsearch.sink;
+
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.table.data.RowData;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步流水线式的bulk写入，与具体的elasticsearch版本无关，由{@link BulkClient}适配各版本的客户端。
+ *
+ * <p>数据按文档id的hash分到concurrentRequests个通道，每个通道按条数或字节数攒批后异步发送，且同时只有一个bulk请求在途，
+ * 通道的请求未完成时写入线程阻塞等待。同一文档的写请求总在同一通道中按顺序发送，并发请求及重试都不会打乱其顺序。
+ *
+ * <p>只有被拒绝(429/EsRejectedExecutionException)的条目按指数退避重试，重试期间继续占用所在通道，其余失败的条目记为脏数据，不会退化为逐条写入。
+ *
+ * <p>写入结果在回调线程中汇总，由写入线程调用{@link #drain(FailureHandler, LongCounter)}统一处理，因此脏数据及指标只在写入线程中更新。
+ * checkpoint时调用{@link #flush()}等待所有在途请求及重试完成。
+ *
+ * @param <R> 各版本的写请求类型
+ * @author tudou
+ */
+public class BulkPipeline<R> {
+    private static final Logger LOG = LoggerFactory.getLogger(BulkPipeline.class);
+
+    /** 退避时间上限 */
+    private static final long MAX_BACKOFF_MILLS = 60 * 1000L;
+
+    /** 适配各版本elasticsearch客户端的bulk请求 */
+    public interface BulkClient<R> {
+
+        /**
+         * 异步发送bulk请求，请求完成或失败后必须调用且只调用一次callback
+         *
+         * @param requests 写请求
+         * @param callback 回调
+         */
+        void bulkAsync(List<R> requests, BulkCallback callback);
+
+        /**
+         * 估算写请求的字节数，用于按大小刷新
+         *
+         * @param request 写请求
+         * @return 字节数
+         */
+        long estimateSize(R request);
+
+        /**
+         * 获取写请求的文档id，同一id的请求分到同一通道以保证顺序
+         *
+         * @param request 写请求
+         * @return 文档id，由elasticsearch生成id时返回null
+         */
+        String getId(R request);
+    }
+
+    /** bulk请求的回调 */
+    public interface BulkCallback {
+
+        /**
+         * bulk请求返回
+         *
+         * @param failures 与请求一一对应，null表示该条目写入成功
+         * @param retryable 与请求一一对应，失败的条目是否因为被拒绝而可以重试
+         */
+        void onResponse(Throwable[] failures, boolean[] retryable);
+
+        /**
+         * 整个bulk请求失败
+         *
+         * @param failure 异常
+         * @param retryable 是否因为被拒绝而可以重试
+         */
+        void onFailure(Throwable failure, boolean retryable);
+    }
+
+    /** 处理最终写入失败的数据 */
+    @FunctionalInterface
+    public interface FailureHandler {
+        void onFailure(RowData rowData, Throwable failure);
+    }
+
+    private static class Item<R> {
+        private final RowData rowData;
+        private final R request;
+        private final long size;
+        private int attempt;
+
+        private Item(RowData rowData, R request, long size) {
+            this.rowData = rowData;
+            this.request = request;
+            this.size = size;
+        }
+    }
+
+    /** 写入通道，同时只有一个bulk请求在途 */
+    private static class Lane<R> {
+        private final Semaphore permit = new Semaphore(1);
+        private List<Item<R>> batch = new ArrayList<>();
+        private long batchBytes;
+    }
+
+    private static class Failure {
+        private final RowData rowData;
+        private final Throwable cause;
+
+        private Failure(RowData rowData, Throwable cause) {
+            this.rowData = rowData;
+            this.cause = cause;
+        }
+    }
+
+    private final BulkClient<R> client;
+    private final int maxActions;
+    private final long maxSizeBytes;
+    private final int maxRetries;
+    private final long backoffMills;
+
+    private final List<Lane<R>> lanes;
+    /** 没有文档id的请求轮流分配通道 */
+    private int nextLane;
+
+    private final ScheduledExecutorService retryScheduler;
+    private final Object lock = new Object();
+    /** 在途的bulk请求及等待重试的批次数 */
+    private int outstanding;
+
+    private final Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicLong succeeded = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * @param client 各版本的bulk客户端
+     * @param concurrentRequests 通道数，即最大在途bulk请求数
+     * @param maxActions 单个bulk请求的最大条数
+     * @param maxSizeBytes 单个bulk请求的最大字节数，小于等于0时不按大小刷新
+     * @param maxRetries 被拒绝的条目的最大重试次数
+     * @param backoffMills 首次重试的等待时间，之后每次翻倍
+     */
+    public BulkPipeline(
+            BulkClient<R> client,
+            int concurrentRequests,
+            int maxActions,
+            long maxSizeBytes,
+            int maxRetries,
+            long backoffMills) {
+        this.client = client;
+        this.maxActions = Math.max(1, maxActions);
+        this.maxSizeBytes = maxSizeBytes;
+        this.maxRetries = maxRetries;
+        this.backoffMills = backoffMills;
+        int numLanes = Math.max(1, concurrentRequests);
+        this.lanes = new ArrayList<>(numLanes);
+        for (int i = 0; i < numLanes; i++) {
+            lanes.add(new Lane<>());
+        }
+        ScheduledThreadPoolExecutor scheduler =
+                new ScheduledThreadPoolExecutor(1, new ChunJunThreadFactory("es-bulk-retry", true));
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.retryScheduler = scheduler;
+    }
+
+    /**
+     * 加入一条写请求，达到条数或字节数上限时异步发送
+     *
+     * @param rowData 原始数据，最终写入失败时作为脏数据
+     * @param request 写请求
+     * @throws InterruptedException 等待在途请求时被中断
+     */
+    public void add(RowData rowData, R request) throws InterruptedException {
+        long size = client.estimateSize(request);
+        Lane<R> lane = selectLane(client.getId(request));
+        lane.batch.add(new Item<>(rowData, request, size));
+        lane.batchBytes += size;
+        if (lane.batch.size() >= maxActions
+                || (maxSizeBytes > 0 && lane.batchBytes >= maxSizeBytes)) {
+            sendBatch(lane);
+        }
+    }
+
+    private Lane<R> selectLane(String id) {
+        if (lanes.size() == 1) {
+            return lanes.get(0);
+        }
+        if (id == null) {
+            nextLane = (nextLane + 1) % lanes.size();
+            return lanes.get(nextLane);
+        }
+        return lanes.get(Math.floorMod(id.hashCode(), lanes.size()));
+    }
+
+    private void sendBatch(Lane<R> lane) throws InterruptedException {
+        if (lane.batch.isEmpty()) {
+            return;
+        }
+        List<Item<R>> items = lane.batch;
+        lane.batch = new ArrayList<>();
+        lane.batchBytes = 0;
+        // 通道上一个请求(包括其重试)未完成时阻塞写入线程，形成背压
+        lane.permit.acquire();
+        send(items, lane.permit);
+    }
+
+    /** 发送bulk请求，permit为所在通道的名额，请求及其重试全部完成后释放 */
+    private void send(List<Item<R>> items, Semaphore permit) {
+        synchronized (lock) {
+            outstanding++;
+        }
+        List<R> requests = new ArrayList<>(items.size());
+        for (Item<R> item : items) {
+            requests.add(item.request);
+        }
+        BulkCallback callback =
+                new BulkCallback() {
+                    @Override
+                    public void onResponse(Throwable[] itemFailures, boolean[] retryable) {
+                        List<Item<R>> retries = new ArrayList<>();
+                        for (int i = 0; i < items.size(); i++) {
+                            Item<R> item = items.get(i);
+                            if (itemFailures[i] == null) {
+                                succeeded.incrementAndGet();
+                            } else {
+                                handleFailure(item, itemFailures[i], retryable[i], retries);
+                            }
+                        }
+                        complete(retries, permit);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable failure, boolean retryable) {
+                        List<Item<R>> retries = new ArrayList<>();
+                        for (Item<R> item : items) {
+                            handleFailure(item, failure, retryable, retries);
+                        }
+                        complete(retries, permit);
+                    }
+                };
+        try {
+            client.bulkAsync(requests, callback);
+        } catch (Throwable t) {
+            callback.onFailure(t, false);
+        }
+    }
+
+    private void handleFailure(
+            Item<R> item, Throwable failure, boolean retryable, List<Item<R>> retries) {
+        if (retryable && item.attempt < maxRetries && !closed) {
+            item.attempt++;
+            retries.add(item);
+        } else {
+            failures.add(new Failure(item.rowData, failure));
+        }
+    }
+
+    private void complete(List<Item<R>> retries, Semaphore permit) {
+        if (retries.isEmpty()) {
+            permit.release();
+        } else {
+            // 重试完成前不释放通道，避免之后的请求先于被拒绝的条目写入
+            scheduleRetry(retries, permit);
+        }
+        synchronized (lock) {
+            outstanding--;
+            lock.notifyAll();
+        }
+    }
+
+    /** 在调度线程中延迟重试，避免在回调线程中阻塞 */
+    private void scheduleRetry(List<Item<R>> retries, Semaphore permit) {
+        int attempt = retries.get(0).attempt;
+        long delay = Math.min(backoffMills << Math.min(attempt - 1, 20), MAX_BACKOFF_MILLS);
+        synchronized (lock) {
+            outstanding++;
+        }
+        LOG.warn(
+                "{} bulk items were rejected, retry after {} ms, attempt = {}",
+                retries.size(),
+                delay,
+                attempt);
+        try {
+            retryScheduler.schedule(
+                    () -> {
+                        send(retries, permit);
+                        releaseOutstanding();
+                    },
+                    delay,
+                    TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            for (Item<R> item : retries) {
+                failures.add(new Failure(item.rowData, e));
+            }
+            permit.release();
+            releaseOutstanding();
+        }
+    }
+
+    private void releaseOutstanding() {
+        synchronized (lock) {
+            outstanding--;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * 发送当前批次，并等待所有在途请求及重试完成
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void flush() throws InterruptedException {
+        for (Lane<R> lane : lanes) {
+            sendBatch(lane);
+        }
+        synchronized (lock) {
+            while (outstanding > 0) {
+                lock.wait(100L);
+            }
+        }
+    }
+
+    /**
+     * 在写入线程中处理已完成的写入结果
+     *
+     * @param failureHandler 处理写入失败的数据
+     * @param numWriteCounter 写入成功的条数
+     */
+    public void drain(FailureHandler failureHandler, LongCounter numWriteCounter) {
+        long count = succeeded.getAndSet(0);
+        if (count > 0) {
+            numWriteCounter.add(count);
+        }
+        Failure failure;
+        while ((failure = failures.poll()) != null) {
+            failureHandler.onFailure(failure.rowData, failure.cause);
+        }
+    }
+
+    /** 当前批次中尚未发送的条数 */
+    public int getBufferedActions() {
+        int count = 0;
+        for (Lane<R> lane : lanes) {
+            count += lane.batch.size();
+        }
+        return count;
+    }
+
+    /**
+     * 等待所有请求完成后关闭，关闭后被拒绝的条目不再重试
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void close() throws InterruptedException {
+        try {
+            flush();
+        } finally {
+            closed = true;
+            retryScheduler.shutdownNow();
+        }
+    }
+}
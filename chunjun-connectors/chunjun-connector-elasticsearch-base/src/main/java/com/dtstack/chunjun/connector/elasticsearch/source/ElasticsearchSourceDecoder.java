@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.elasticsearch.source;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 直接从_source的原始json字节中解析出需要的字段，不构建整个文档的Map。
+ *
+ * <p>只解析第一层中配置的字段，其余字段直接跳过。标量的取值与{@code SearchHit#getSourceAsMap}保持一致：
+ * 字符串、布尔原样返回，数值返回原始文本以免精度丢失，对象及数组解析为Map/List。返回数组的下标与构造时的字段顺序一致，缺失的字段为null。
+ *
+ * @author tudou
+ */
+public class ElasticsearchSourceDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(JSON_FACTORY);
+
+    private final int fieldCount;
+    private final Map<String, Integer> fieldIndex;
+
+    public ElasticsearchSourceDecoder(String[] fieldNames) {
+        this.fieldCount = fieldNames.length;
+        this.fieldIndex = new HashMap<>(fieldNames.length * 2);
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldIndex.putIfAbsent(fieldNames[i], i);
+        }
+    }
+
+    /**
+     * 解析_source
+     *
+     * @param bytes _source所在的字节数组
+     * @param offset 起始位置
+     * @param length 长度，为0时表示没有_source
+     * @return 按字段顺序排列的字段值
+     * @throws IOException json格式错误
+     */
+    public Object[] decode(byte[] bytes, int offset, int length) throws IOException {
+        Object[] fields = new Object[fieldCount];
+        if (bytes == null || length == 0) {
+            return fields;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("_source is not a json object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Integer index = fieldIndex.get(parser.getCurrentName());
+                JsonToken token = parser.nextToken();
+                if (index == null) {
+                    parser.skipChildren();
+                } else {
+                    fields[index] = readValue(parser, token);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getText();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                return OBJECT_MAPPER.readValue(parser, Object.class);
+        }
+    }
+}
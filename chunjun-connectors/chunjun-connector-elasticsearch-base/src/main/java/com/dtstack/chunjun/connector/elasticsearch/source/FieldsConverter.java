@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.elasticsearch.source;
+
+import org.apache.flink.table.data.RowData;
+
+/**
+ * 将{@link ElasticsearchSourceDecoder}解析出的字段值转换为RowData
+ *
+ * @author tudou
+ */
+public interface FieldsConverter {
+
+    /**
+     * 转换字段值
+     *
+     * @param fields 按字段顺序排列的字段值
+     * @return RowData
+     * @throws Exception 类型转换失败
+     */
+    RowData fieldsToInternal(Object[] fields) throws Exception;
+}
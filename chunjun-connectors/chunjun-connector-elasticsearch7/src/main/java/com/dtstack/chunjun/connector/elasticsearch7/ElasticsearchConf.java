@@ -69,6 +69,27 @@ public class ElasticsearchConf extends ChunJunCommonConf implements Serializable
     /** Assigns maximum connection per route value. */
     private int maxConnPerRoute = 10;
 
+    /** 同时在途的bulk请求数，大于1时按文档id分通道发送，同一文档的请求保持顺序 */
+    private int bulkConcurrentRequests = 1;
+
+    /** 单个bulk请求的最大字节数，小于等于0时只按batchSize刷新 */
+    private long bulkFlushMaxSizeBytes = 5 * 1024 * 1024L;
+
+    /** 被拒绝(429)的条目的最大重试次数 */
+    private int bulkMaxRetries = 3;
+
+    /** 首次重试的等待时间，之后每次翻倍 */
+    private long bulkBackoffMills = 100L;
+
+    /** 读取方式，scroll或pit(point in time + search_after，需要7.10及以上版本) */
+    private String readMode = "scroll";
+
+    /** slice个数，大于并行度时由各个subtask动态领取，小于等于并行度时与并行度一致 */
+    private int sliceNum;
+
+    /** pit读取时search_after使用的排序字段 */
+    private String pitSortField = "_shard_doc";
+
     /** table field names */
     private String[] fieldNames;
 
@@ -190,6 +211,62 @@ public class ElasticsearchConf extends ChunJunCommonConf implements Serializable
         this.sslConfig = sslConfig;
     }
 
+    public int getBulkConcurrentRequests() {
+        return bulkConcurrentRequests;
+    }
+
+    public void setBulkConcurrentRequests(int bulkConcurrentRequests) {
+        this.bulkConcurrentRequests = bulkConcurrentRequests;
+    }
+
+    public long getBulkFlushMaxSizeBytes() {
+        return bulkFlushMaxSizeBytes;
+    }
+
+    public void setBulkFlushMaxSizeBytes(long bulkFlushMaxSizeBytes) {
+        this.bulkFlushMaxSizeBytes = bulkFlushMaxSizeBytes;
+    }
+
+    public int getBulkMaxRetries() {
+        return bulkMaxRetries;
+    }
+
+    public void setBulkMaxRetries(int bulkMaxRetries) {
+        this.bulkMaxRetries = bulkMaxRetries;
+    }
+
+    public long getBulkBackoffMills() {
+        return bulkBackoffMills;
+    }
+
+    public void setBulkBackoffMills(long bulkBackoffMills) {
+        this.bulkBackoffMills = bulkBackoffMills;
+    }
+
+    public String getReadMode() {
+        return readMode;
+    }
+
+    public void setReadMode(String readMode) {
+        this.readMode = readMode;
+    }
+
+    public int getSliceNum() {
+        return sliceNum;
+    }
+
+    public void setSliceNum(int sliceNum) {
+        this.sliceNum = sliceNum;
+    }
+
+    public String getPitSortField() {
+        return pitSortField;
+    }
+
+    public void setPitSortField(String pitSortField) {
+        this.pitSortField = pitSortField;
+    }
+
     public Map getQuery() {
         return query;
     }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.elasticsearch7.sink;
+
+import com.dtstack.chunjun.connector.elasticsearch.sink.BulkPipeline;
+
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
+
+import java.util.List;
+
+/**
+ * 基于RestHighLevelClient.bulkAsync的{@link BulkPipeline.BulkClient}
+ *
+ * @author tudou
+ */
+public class Elasticsearch7BulkClient implements BulkPipeline.BulkClient<DocWriteRequest<?>> {
+
+    /** delete请求及bulk中每个条目的元数据的估算大小 */
+    private static final long REQUEST_OVERHEAD = 50L;
+
+    private final RestHighLevelClient client;
+
+    public Elasticsearch7BulkClient(RestHighLevelClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public void bulkAsync(List<DocWriteRequest<?>> requests, BulkPipeline.BulkCallback callback) {
+        BulkRequest bulkRequest = new BulkRequest();
+        for (DocWriteRequest<?> request : requests) {
+            bulkRequest.add(request);
+        }
+        client.bulkAsync(
+                bulkRequest,
+                RequestOptions.DEFAULT,
+                new ActionListener<BulkResponse>() {
+                    @Override
+                    public void onResponse(BulkResponse response) {
+                        BulkItemResponse[] items = response.getItems();
+                        Throwable[] failures = new Throwable[items.length];
+                        boolean[] retryable = new boolean[items.length];
+                        if (response.hasFailures()) {
+                            for (int i = 0; i < items.length; i++) {
+                                BulkItemResponse.Failure failure = items[i].getFailure();
+                                if (failure != null) {
+                                    failures[i] = failure.getCause();
+                                    retryable[i] =
+                                            failure.getStatus() == RestStatus.TOO_MANY_REQUESTS
+                                                    || isRejected(failure.getCause());
+                                }
+                            }
+                        }
+                        callback.onResponse(failures, retryable);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onFailure(e, isRejected(e));
+                    }
+                });
+    }
+
+    private static boolean isRejected(Throwable t) {
+        return ExceptionsHelper.unwrap(t, EsRejectedExecutionException.class) != null
+                || ExceptionsHelper.status(t) == RestStatus.TOO_MANY_REQUESTS;
+    }
+
+    @Override
+    public long estimateSize(DocWriteRequest<?> request) {
+        if (request instanceof IndexRequest) {
+            IndexRequest indexRequest = (IndexRequest) request;
+            return REQUEST_OVERHEAD
+                    + (indexRequest.source() == null ? 0 : indexRequest.source().length());
+        } else if (request instanceof UpdateRequest) {
+            IndexRequest doc = ((UpdateRequest) request).doc();
+            return REQUEST_OVERHEAD
+                    + (doc == null || doc.source() == null ? 0 : doc.source().length());
+        }
+        return REQUEST_OVERHEAD;
+    }
+
+    @Override
+    public String getId(DocWriteRequest<?> request) {
+        return request.id();
+    }
+}
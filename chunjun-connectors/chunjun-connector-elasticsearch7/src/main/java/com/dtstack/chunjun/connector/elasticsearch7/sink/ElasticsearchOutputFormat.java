@@ -1,19 +1,18 @@
 package com.dtstack.chunjun.connector.elasticsearch7.sink;
 
 import com.dtstack.chunjun.connector.elasticsearch.KeyExtractor;
+import com.dtstack.chunjun.connector.elasticsearch.sink.BulkPipeline;
 import com.dtstack.chunjun.connector.elasticsearch.table.IndexGenerator;
 import com.dtstack.chunjun.connector.elasticsearch7.Elasticsearch7ClientFactory;
 import com.dtstack.chunjun.connector.elasticsearch7.Elasticsearch7RequestFactory;
 import com.dtstack.chunjun.connector.elasticsearch7.ElasticsearchConf;
+import com.dtstack.chunjun.restore.FormatState;
 import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
 import com.dtstack.chunjun.throwable.WriteRecordException;
 
 import org.apache.flink.table.data.RowData;
 
 import org.elasticsearch.action.DocWriteRequest;
-import org.elasticsearch.action.bulk.BulkItemResponse;
-import org.elasticsearch.action.bulk.BulkRequest;
-import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
@@ -38,7 +37,7 @@ public class ElasticsearchOutputFormat extends BaseRichOutputFormat {
     /** Elasticsearch High Level Client */
     private transient RestHighLevelClient rhlClient;
 
-    private transient BulkRequest bulkRequest;
+    private transient BulkPipeline<DocWriteRequest<?>> bulkPipeline;
 
     private final IndexGenerator indexGenerator;
 
@@ -78,47 +77,70 @@ public class ElasticsearchOutputFormat extends BaseRichOutputFormat {
 
     @Override
     protected void writeMultipleRecordsInternal() throws Exception {
-        bulkRequest = new BulkRequest();
         for (RowData rowData : rows) {
-            DocWriteRequest docWriteRequest;
-            switch (rowData.getRowKind()) {
-                case INSERT:
-                case UPDATE_AFTER:
-                    docWriteRequest = processUpsert(rowData);
-                    bulkRequest.add(docWriteRequest);
-                    break;
-                case DELETE:
-                case UPDATE_BEFORE:
-                    docWriteRequest = processDelete(rowData);
-                    bulkRequest.add(docWriteRequest);
-                    break;
-                default:
-                    throw new RuntimeException("Unsupported row kind.");
+            DocWriteRequest<?> docWriteRequest;
+            try {
+                docWriteRequest = processRequest(rowData);
+            } catch (Exception e) {
+                dirtyManager.collect(rowData, e, null);
+                continue;
             }
+            bulkPipeline.add(rowData, docWriteRequest);
         }
-        BulkResponse response = rhlClient.bulk(bulkRequest, RequestOptions.DEFAULT);
-        if (response.hasFailures()) {
-            processFailResponse(response);
+        // 只处理已经返回的结果，不等待在途的请求
+        bulkPipeline.drain(this::collectDirty, numWriteCounter);
+    }
+
+    private DocWriteRequest<?> processRequest(RowData rowData) throws Exception {
+        switch (rowData.getRowKind()) {
+            case INSERT:
+            case UPDATE_AFTER:
+                return processUpsert(rowData);
+            case DELETE:
+            case UPDATE_BEFORE:
+                return processDelete(rowData);
+            default:
+                throw new RuntimeException("Unsupported row kind.");
         }
     }
 
-    private void processFailResponse(BulkResponse response) {
-        BulkItemResponse[] itemResponses = response.getItems();
-        WriteRecordException exception;
-        for (int i = 0; i < itemResponses.length; i++) {
-            if (itemResponses[i].isFailed()) {
-                if (dirtyDataManager != null) {
-                    exception =
-                            new WriteRecordException(
-                                    itemResponses[i].getFailureMessage(),
-                                    itemResponses[i].getFailure().getCause());
-                    dirtyDataManager.writeData(rows.get(i), exception);
-                }
-
-                if (errCounter != null) {
-                    errCounter.add(1);
-                }
-            }
+    private void collectDirty(RowData rowData, Throwable failure) {
+        dirtyManager.collect(rowData, failure, null);
+    }
+
+    /** 数据交给bulk pipeline后，成功条数在请求返回后累加 */
+    @Override
+    protected boolean isWriteCountedBySink() {
+        return true;
+    }
+
+    @Override
+    protected boolean fallbackToSingleWrite() {
+        return false;
+    }
+
+    /** checkpoint之前等待所有在途的bulk请求完成，保证checkpoint之前的数据都已写入 */
+    @Override
+    public synchronized FormatState getFormatState() throws Exception {
+        FormatState state = super.getFormatState();
+        flushPipeline();
+        state.setNumberWrite(numWriteCounter.getLocalValue());
+        return state;
+    }
+
+    @Override
+    protected void preCommit() throws Exception {
+        try {
+            writeMultipleRecordsInternal();
+        } finally {
+            rows.clear();
+        }
+    }
+
+    private void flushPipeline() throws InterruptedException {
+        if (bulkPipeline != null) {
+            bulkPipeline.flush();
+            bulkPipeline.drain(this::collectDirty, numWriteCounter);
         }
     }
 
@@ -127,11 +149,28 @@ public class ElasticsearchOutputFormat extends BaseRichOutputFormat {
         rhlClient =
                 Elasticsearch7ClientFactory.createClient(
                         elasticsearchConf, getRuntimeContext().getDistributedCache());
+        bulkPipeline =
+                new BulkPipeline<>(
+                        new Elasticsearch7BulkClient(rhlClient),
+                        elasticsearchConf.getBulkConcurrentRequests(),
+                        elasticsearchConf.getBatchSize(),
+                        elasticsearchConf.getBulkFlushMaxSizeBytes(),
+                        elasticsearchConf.getBulkMaxRetries(),
+                        elasticsearchConf.getBulkBackoffMills());
         indexGenerator.open();
     }
 
     @Override
     protected void closeInternal() throws IOException {
+        if (bulkPipeline != null) {
+            try {
+                bulkPipeline.close();
+                bulkPipeline.drain(this::collectDirty, numWriteCounter);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("close elasticsearch bulk pipeline interrupted.", e);
+            }
+        }
         if (rhlClient != null) {
             rhlClient.close();
         }
@@ -50,6 +50,13 @@ public class ElasticsearchOutputFormatBuilder extends BaseRichOutputFormatBuilde
         Preconditions.checkNotNull(esConf.getHosts(), "elasticsearch7 type of address is required");
         Preconditions.checkNotNull(esConf.getIndex(), "elasticsearch7 type of index is required");
 
+        Preconditions.checkArgument(
+                esConf.getBulkConcurrentRequests() > 0,
+                "bulkConcurrentRequests must be greater than 0");
+        Preconditions.checkArgument(
+                esConf.getBulkMaxRetries() >= 0,
+                "bulkMaxRetries must be greater than or equal to 0");
+
         if (esConf.getUsername() != null) {
             Preconditions.checkNotNull(
                     esConf.getPassword(), "When set the username option, password is required");
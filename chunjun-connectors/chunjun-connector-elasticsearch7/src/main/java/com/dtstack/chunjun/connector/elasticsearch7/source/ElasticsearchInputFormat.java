@@ -18,6 +18,8 @@
 
 package com.dtstack.chunjun.connector.elasticsearch7.source;
 
+import com.dtstack.chunjun.connector.elasticsearch.source.ElasticsearchSourceDecoder;
+import com.dtstack.chunjun.connector.elasticsearch.source.FieldsConverter;
 import com.dtstack.chunjun.connector.elasticsearch7.Elasticsearch7ClientFactory;
 import com.dtstack.chunjun.connector.elasticsearch7.Elasticsearch7RequestFactory;
 import com.dtstack.chunjun.connector.elasticsearch7.ElasticsearchConf;
@@ -29,41 +31,76 @@ import org.apache.flink.core.io.GenericInputSplit;
 import org.apache.flink.core.io.InputSplit;
 import org.apache.flink.table.data.RowData;
 
-import com.google.common.collect.Lists;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.util.EntityUtils;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.action.search.ClearScrollRequest;
 import org.elasticsearch.action.search.ClearScrollResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.Scroll;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 
 import java.io.IOException;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
+ * 读取elasticsearch，支持两种方式：
+ *
+ * <ul>
+ *   <li>scroll：每个分片使用一个sliced scroll
+ *   <li>pit：每个分片打开一个point in time，使用search_after翻页，需要7.10及以上版本
+ * </ul>
+ *
+ * <p>分片个数为sliceNum与并行度中的较大值，分片多于并行度时由各个subtask动态领取，避免数据倾斜时个别slice拖慢整个任务。
+ * 查询只返回配置的字段，命中的文档直接从_source的原始字节解析为RowData，不构建中间的Map。
+ *
  * @description:
  * @program chunjun
  * @author: lany
  * @create: 2021/06/27 17:25
  */
 public class ElasticsearchInputFormat extends BaseRichInputFormat {
+    public static final String READ_MODE_SCROLL = "scroll";
+    public static final String READ_MODE_PIT = "pit";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     protected long keepAlive = 1;
     /** Elasticsearch Configuration */
     private ElasticsearchConf elasticsearchConf;
     /** Elasticsearch High Level Client */
     private transient RestHighLevelClient rhlClient;
 
-    private Iterator<Map<String, Object>> iterator;
+    private transient ElasticsearchSourceDecoder sourceDecoder;
+
+    /** 当前页中各文档的_source */
+    private transient List<BytesRef> sources;
+
+    private int position;
+
+    private transient SearchSourceBuilder searchSourceBuilder;
 
     private transient SearchRequest searchRequest;
 
@@ -71,27 +108,45 @@ public class ElasticsearchInputFormat extends BaseRichInputFormat {
 
     private String scrollId;
 
+    private String pitId;
+
+    /** 当前页最后一条文档的排序值，下一页search_after的参数 */
+    private Object[] searchAfter;
+
+    private boolean lastPage;
+
     @Override
     protected InputSplit[] createInputSplitsInternal(int minNumSplits) throws Exception {
-        InputSplit[] splits = new InputSplit[minNumSplits];
-        for (int i = 0; i < minNumSplits; i++) {
-            splits[i] = new GenericInputSplit(i, minNumSplits);
+        int sliceNum = Math.max(minNumSplits, elasticsearchConf.getSliceNum());
+        InputSplit[] splits = new InputSplit[sliceNum];
+        for (int i = 0; i < sliceNum; i++) {
+            splits[i] = new GenericInputSplit(i, sliceNum);
         }
         return splits;
     }
 
     @Override
     protected void openInternal(InputSplit inputSplit) throws IOException {
-        super.openInputFormat();
         GenericInputSplit genericInputSplit = (GenericInputSplit) inputSplit;
 
-        rhlClient =
-                Elasticsearch7ClientFactory.createClient(
-                        elasticsearchConf, getRuntimeContext().getDistributedCache());
-        scroll = new Scroll(TimeValue.timeValueMinutes(keepAlive));
+        // 一个subtask可能依次读取多个分片，客户端在分片之间复用
+        if (rhlClient == null) {
+            rhlClient =
+                    Elasticsearch7ClientFactory.createClient(
+                            elasticsearchConf, getRuntimeContext().getDistributedCache());
+        }
+        if (sourceDecoder == null) {
+            sourceDecoder = new ElasticsearchSourceDecoder(elasticsearchConf.getFieldNames());
+        }
+        sources = new ArrayList<>(0);
+        position = 0;
+        scrollId = null;
+        pitId = null;
+        searchAfter = null;
+        lastPage = false;
 
         String[] fieldsNames = elasticsearchConf.getFieldNames();
-        SearchSourceBuilder searchSourceBuilder =
+        searchSourceBuilder =
                 Elasticsearch7RequestFactory.createSourceBuilder(fieldsNames, null, null);
         searchSourceBuilder.size(elasticsearchConf.getBatchSize());
 
@@ -107,17 +162,26 @@ public class ElasticsearchInputFormat extends BaseRichInputFormat {
                             genericInputSplit.getTotalNumberOfSplits()));
         }
 
-        searchRequest =
-                Elasticsearch7RequestFactory.createSearchRequest(
-                        elasticsearchConf.getIndex(), scroll, searchSourceBuilder);
+        if (isPitMode()) {
+            searchSourceBuilder.sort(elasticsearchConf.getPitSortField(), SortOrder.ASC);
+            searchSourceBuilder.trackTotalHits(false);
+            pitId = openPointInTime();
+        } else {
+            scroll = new Scroll(TimeValue.timeValueMinutes(keepAlive));
+            searchRequest =
+                    Elasticsearch7RequestFactory.createSearchRequest(
+                            elasticsearchConf.getIndex(), scroll, searchSourceBuilder);
+        }
     }
 
     @Override
     protected RowData nextRecordInternal(RowData rowData) throws ReadRecordException {
+        BytesRef source = sources.get(position++);
         try {
-            rowData = rowConverter.toInternal(iterator.next());
+            Object[] fields = sourceDecoder.decode(source.bytes, source.offset, source.length);
+            rowData = ((FieldsConverter) rowConverter).fieldsToInternal(fields);
         } catch (Exception e) {
-            throw new ReadRecordException("", e, 0, rowData);
+            throw new ReadRecordException(source.utf8ToString(), e, 0, rowData);
         }
         return rowData;
     }
@@ -126,8 +190,21 @@ public class ElasticsearchInputFormat extends BaseRichInputFormat {
     protected void closeInternal() throws IOException {
         if (rhlClient != null) {
             clearScroll();
+            closePointInTime();
+        }
+        sources = null;
+    }
 
-            rhlClient.close();
+    @Override
+    public void closeInputFormat() {
+        super.closeInputFormat();
+
+        if (rhlClient != null) {
+            try {
+                rhlClient.close();
+            } catch (IOException e) {
+                LOG.warn("close elasticsearch client error", e);
+            }
             rhlClient = null;
         }
     }
@@ -143,40 +220,168 @@ public class ElasticsearchInputFormat extends BaseRichInputFormat {
                 rhlClient.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
         boolean succeeded = clearScrollResponse.isSucceeded();
         LOG.info("Clear scroll response:{}", succeeded);
+        scrollId = null;
     }
 
     @Override
     public boolean reachedEnd() throws IOException {
-        if (iterator != null && iterator.hasNext()) {
+        if (position < sources.size()) {
             return false;
+        }
+        if (lastPage) {
+            return true;
+        }
+        if (isPitMode()) {
+            searchAfter();
         } else {
-            return searchScroll();
+            searchScroll();
         }
+        return sources.isEmpty();
     }
 
-    private boolean searchScroll() throws IOException {
-        SearchHit[] searchHits;
+    private void searchScroll() throws IOException {
+        SearchResponse searchResponse;
         if (scrollId == null) {
-            SearchResponse searchResponse = rhlClient.search(searchRequest, RequestOptions.DEFAULT);
-            scrollId = searchResponse.getScrollId();
-            searchHits = searchResponse.getHits().getHits();
+            searchResponse = rhlClient.search(searchRequest, RequestOptions.DEFAULT);
         } else {
             SearchScrollRequest scrollRequest = new SearchScrollRequest(scrollId);
             scrollRequest.scroll(scroll);
-            SearchResponse searchResponse =
-                    rhlClient.searchScroll(scrollRequest, RequestOptions.DEFAULT);
-            scrollId = searchResponse.getScrollId();
-            searchHits = searchResponse.getHits().getHits();
+            searchResponse = rhlClient.searchScroll(scrollRequest, RequestOptions.DEFAULT);
         }
+        scrollId = searchResponse.getScrollId();
 
-        List<Map<String, Object>> resultList = Lists.newArrayList();
+        SearchHit[] searchHits = searchResponse.getHits().getHits();
+        sources = new ArrayList<>(searchHits.length);
         for (SearchHit searchHit : searchHits) {
-            Map<String, Object> source = searchHit.getSourceAsMap();
-            resultList.add(source);
+            BytesReference sourceRef = searchHit.getSourceRef();
+            sources.add(sourceRef == null ? new BytesRef() : sourceRef.toBytesRef());
         }
+        position = 0;
+        lastPage = searchHits.length == 0;
+    }
+
+    /** 使用pit及search_after查询下一页，直接在响应的字节数组上定位各文档的_source */
+    private void searchAfter() throws IOException {
+        if (searchAfter != null) {
+            searchSourceBuilder.searchAfter(searchAfter);
+        }
+        XContentBuilder builder = XContentFactory.jsonBuilder();
+        builder.startObject();
+        builder.startObject("pit")
+                .field("id", pitId)
+                .field("keep_alive", keepAlive + "m")
+                .endObject();
+        searchSourceBuilder.innerToXContent(builder, ToXContent.EMPTY_PARAMS);
+        builder.endObject();
+
+        Request request = new Request("POST", "/_search");
+        request.setJsonEntity(Strings.toString(builder));
+        Response response = rhlClient.getLowLevelClient().performRequest(request);
+        byte[] body = EntityUtils.toByteArray(response.getEntity());
+
+        sources = new ArrayList<>(elasticsearchConf.getBatchSize());
+        position = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                if ("pit_id".equals(name)) {
+                    pitId = parser.getText();
+                } else if ("hits".equals(name)) {
+                    parseHits(parser, body);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        // 最后一页的条数少于batchSize，不再发送一次空查询
+        lastPage = sources.size() < elasticsearchConf.getBatchSize();
+    }
+
+    /** 解析hits.hits，记录各文档_source在响应中的位置及最后一条文档的sort */
+    private void parseHits(JsonParser parser, byte[] body) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if (!"hits".equals(name)) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                BytesRef source = new BytesRef();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("_source".equals(field)) {
+                        int start = (int) parser.getTokenLocation().getByteOffset();
+                        parser.skipChildren();
+                        int end = (int) parser.getCurrentLocation().getByteOffset();
+                        source = new BytesRef(body, start, end - start);
+                    } else if ("sort".equals(field)) {
+                        List<Object> sort = new ArrayList<>(2);
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            sort.add(readSortValue(parser));
+                        }
+                        searchAfter = sort.toArray();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                sources.add(source);
+            }
+        }
+    }
+
+    private Object readSortValue(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                return parser.getText();
+        }
+    }
+
+    private String openPointInTime() throws IOException {
+        Request request = new Request("POST", "/" + elasticsearchConf.getIndex() + "/_pit");
+        request.addParameter("keep_alive", keepAlive + "m");
+        Response response = rhlClient.getLowLevelClient().performRequest(request);
+        Map<String, Object> result =
+                JsonUtil.toObject(EntityUtils.toString(response.getEntity()), Map.class);
+        String id = MapUtils.getString(result, "id");
+        if (StringUtils.isBlank(id)) {
+            throw new IOException("open point in time failed, response = " + result);
+        }
+        return id;
+    }
+
+    private void closePointInTime() {
+        if (pitId == null) {
+            return;
+        }
+        try {
+            XContentBuilder builder = XContentFactory.jsonBuilder();
+            builder.startObject().field("id", pitId).endObject();
+            Request request = new Request("DELETE", "/_pit");
+            request.setJsonEntity(Strings.toString(builder));
+            rhlClient.getLowLevelClient().performRequest(request);
+        } catch (IOException e) {
+            // pit过期后会被自动清理
+            LOG.warn("close point in time error, pitId = {}", pitId, e);
+        }
+        pitId = null;
+    }
 
-        iterator = resultList.iterator();
-        return !iterator.hasNext();
+    private boolean isPitMode() {
+        return READ_MODE_PIT.equalsIgnoreCase(elasticsearchConf.getReadMode());
     }
 
     public ElasticsearchConf getElasticsearchConf() {
@@ -51,5 +51,13 @@ public class ElasticsearchInputFormatBuilder
             Preconditions.checkNotNull(
                     esConf.getPassword(), "When set the username option, password is required");
         }
+
+        Preconditions.checkArgument(
+                ElasticsearchInputFormat.READ_MODE_SCROLL.equalsIgnoreCase(esConf.getReadMode())
+                        || ElasticsearchInputFormat.READ_MODE_PIT.equalsIgnoreCase(
+                                esConf.getReadMode()),
+                "elasticsearch7 readMode must be scroll or pit");
+        Preconditions.checkArgument(
+                esConf.getSliceNum() >= 0, "elasticsearch7 sliceNum must not be negative");
     }
 }
@@ -37,6 +37,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.dtstack.chunjun.connector.elasticsearch7.table.Elasticsearch7Options.BULK_FLUSH_CONCURRENT_REQUESTS_OPTION;
 import static com.dtstack.chunjun.connector.elasticsearch7.table.Elasticsearch7Options.CLIENT_CONNECT_TIMEOUT_OPTION;
 import static com.dtstack.chunjun.connector.elasticsearch7.table.Elasticsearch7Options.CLIENT_KEEPALIVE_TIME_OPTION;
 import static com.dtstack.chunjun.connector.elasticsearch7.table.Elasticsearch7Options.CLIENT_MAX_CONNECTION_PER_ROUTE_OPTION;
@@ -135,6 +136,16 @@ public class Elasticsearch7DynamicTableFactory extends ElasticsearchDynamicTable
         elasticsearchConf.setType(readableConfig.get(DOCUMENT_TYPE_OPTION));
         elasticsearchConf.setKeyDelimiter(readableConfig.get(KEY_DELIMITER_OPTION));
         elasticsearchConf.setBatchSize(readableConfig.get(BULK_FLUSH_MAX_ACTIONS_OPTION));
+        elasticsearchConf.setBulkFlushMaxSizeBytes(
+                readableConfig.get(BULK_FLASH_MAX_SIZE_OPTION).getBytes());
+        elasticsearchConf.setBulkConcurrentRequests(
+                readableConfig.get(BULK_FLUSH_CONCURRENT_REQUESTS_OPTION));
+        readableConfig
+                .getOptional(BULK_FLUSH_BACKOFF_MAX_RETRIES_OPTION)
+                .ifPresent(elasticsearchConf::setBulkMaxRetries);
+        readableConfig
+                .getOptional(BULK_FLUSH_BACKOFF_DELAY_OPTION)
+                .ifPresent(delay -> elasticsearchConf.setBulkBackoffMills(delay.toMillis()));
         elasticsearchConf.setParallelism(readableConfig.get(SINK_PARALLELISM));
 
         elasticsearchConf.setUsername(readableConfig.get(USERNAME_OPTION));
@@ -183,6 +194,7 @@ public class Elasticsearch7DynamicTableFactory extends ElasticsearchDynamicTable
                         BULK_FLUSH_BACKOFF_TYPE_OPTION,
                         BULK_FLUSH_BACKOFF_MAX_RETRIES_OPTION,
                         BULK_FLUSH_BACKOFF_DELAY_OPTION,
+                        BULK_FLUSH_CONCURRENT_REQUESTS_OPTION,
                         CONNECTION_MAX_RETRY_TIMEOUT_OPTION,
                         CONNECTION_PATH_PREFIX,
                         FORMAT_OPTION,
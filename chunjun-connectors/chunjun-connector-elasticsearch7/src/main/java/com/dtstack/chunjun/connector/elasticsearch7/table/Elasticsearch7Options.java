@@ -62,4 +62,11 @@ public class Elasticsearch7Options {
                     .defaultValue(10)
                     .withDescription(
                             "Elasticsearch client connection assigns maximum connection per route value. default:10");
+
+    public static final ConfigOption<Integer> BULK_FLUSH_CONCURRENT_REQUESTS_OPTION =
+            ConfigOptions.key("sink.bulk-flush.concurrent-requests")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "Maximum number of in-flight bulk requests per sink task, requests of the same document id are always sent in order. default:1");
 }
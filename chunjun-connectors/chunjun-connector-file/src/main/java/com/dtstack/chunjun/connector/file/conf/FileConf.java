@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.file.conf;
+
+import com.dtstack.chunjun.conf.BaseFileConf;
+
+/** file source 配置 */
+public class FileConf extends BaseFileConf {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 单个文件按字节范围切分的大小，0表示不切分 */
+    private long splitSize = 0;
+
+    public long getSplitSize() {
+        return splitSize;
+    }
+
+    public void setSplitSize(long splitSize) {
+        this.splitSize = splitSize;
+    }
+
+    @Override
+    public String toString() {
+        return "FileConf{" + "splitSize=" + splitSize + '}' + super.toString();
+    }
+}
@@ -15,18 +15,28 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.dtstack.chunjun.connector.file.source;
 
-import com.dtstack.chunjun.conf.BaseFileConf;
+import com.dtstack.chunjun.connector.file.conf.FileConf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * @program chunjun
@@ -35,20 +45,83 @@ import java.util.List;
  */
 public class FileInputBufferedReader {
 
-    private Iterator<String> pathIterator;
+    /** 每次映射的最大字节数 */
+    private static final int MAP_SIZE = 64 * 1024 * 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileInputBufferedReader.class);
+
+    private static final Object UNSAFE;
+    /** jdk9 及以上版本通过 Unsafe.invokeCleaner 释放映射 */
+    private static final Method UNSAFE_INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+        } catch (Exception e) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        UNSAFE_INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private Iterator<FileRange> rangeIterator;
 
     private LineNumberReader lr;
 
-    private BaseFileConf fileConf;
+    private FileConf fileConf;
 
     private boolean hasNext = true;
 
-    public FileInputBufferedReader(List<String> paths, BaseFileConf fileConf) {
+    /** 换行符是否为单字节，为 true 时通过内存映射按字节扫描 */
+    private final boolean byteScannable;
+
+    private final Charset charset;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+    /** buffer 第一个字节在文件中的位置 */
+    private long bufferOffset;
+
+    private long fileSize;
+    /** 下一行在文件中的起始位置 */
+    private long position;
+    /** 当前范围的结束位置，起始位置不小于该值的行不再读取 */
+    private long rangeEnd;
+
+    private byte[] lineBytes = new byte[1024];
+
+    public FileInputBufferedReader(List<FileRange> ranges, FileConf fileConf) {
         this.fileConf = fileConf;
-        pathIterator = paths.iterator();
+        this.rangeIterator = ranges.iterator();
+        this.byteScannable = isByteScannable(fileConf.getEncoding());
+        this.charset = Charset.forName(fileConf.getEncoding());
+    }
+
+    /**
+     * UTF-16、UTF-32 编码中换行符不是单独的一个字节，不能按字节查找行边界
+     *
+     * @param encoding 文件编码
+     * @return 是否可以按字节查找行边界
+     */
+    public static boolean isByteScannable(String encoding) {
+        String name = Charset.forName(encoding).name().toUpperCase(Locale.ENGLISH);
+        return !name.startsWith("UTF-16") && !name.startsWith("UTF-32");
     }
 
     public String readLine() throws IOException {
+        if (byteScannable) {
+            return readMappedLine();
+        }
 
         String line = null;
         if (lr == null) {
@@ -77,8 +150,8 @@ public class FileInputBufferedReader {
     }
 
     public void nextFileStream() throws IOException {
-        if (pathIterator.hasNext()) {
-            String filePath = pathIterator.next();
+        if (rangeIterator.hasNext()) {
+            String filePath = rangeIterator.next().getPath();
             String encoding = fileConf.getEncoding();
             InputStreamReader isr =
                     new InputStreamReader(new FileInputStream(new File(filePath)), encoding);
@@ -89,10 +162,139 @@ public class FileInputBufferedReader {
         }
     }
 
+    private String readMappedLine() throws IOException {
+        while (hasNext) {
+            if (channel == null) {
+                nextRange();
+                continue;
+            }
+            if (position < rangeEnd && position < fileSize) {
+                return scanLine(true);
+            }
+            close();
+        }
+        return null;
+    }
+
+    /** 打开下一个范围，跳过不属于该范围的第一行不完整数据或者表头 */
+    private void nextRange() throws IOException {
+        if (!rangeIterator.hasNext()) {
+            hasNext = false;
+            return;
+        }
+        FileRange range = rangeIterator.next();
+        channel = new RandomAccessFile(range.getPath(), "r").getChannel();
+        fileSize = channel.size();
+        rangeEnd = Math.min(range.getEnd(), fileSize);
+        buffer = null;
+        if (range.getStart() > 0) {
+            // 从前一个字节开始，起始位置恰好是行首时只会跳过前一行的换行符
+            position = range.getStart() - 1;
+            if (position < fileSize) {
+                scanLine(false);
+            }
+        } else {
+            position = 0;
+            for (int i = 1; i < fileConf.getFromLine() && position < fileSize; i++) {
+                scanLine(false);
+            }
+        }
+    }
+
+    /**
+     * 从 position 开始查找换行符，读取一整行
+     *
+     * @param decode 是否需要解码，跳过的行不解码
+     * @return 去掉行尾换行符的数据
+     */
+    private String scanLine(boolean decode) throws IOException {
+        long lineStart = position;
+        long p = position;
+        ensureMapped(lineStart, 1);
+        while (p < fileSize) {
+            if (p >= bufferOffset + buffer.limit()) {
+                // 行跨过了映射的末尾，从行首重新映射，保证整行在同一个映射中
+                ensureMapped(lineStart, Math.min((p - lineStart) << 1, fileSize - lineStart));
+            }
+            int index = (int) (p - bufferOffset);
+            int limit = buffer.limit();
+            while (index < limit && buffer.get(index) != LINE_FEED) {
+                index++;
+            }
+            p = bufferOffset + index;
+            if (index < limit) {
+                break;
+            }
+        }
+        position = p < fileSize ? p + 1 : p;
+        if (!decode) {
+            return null;
+        }
+        int length = (int) (p - lineStart);
+        if (length > 0 && buffer.get((int) (p - 1 - bufferOffset)) == CARRIAGE_RETURN) {
+            length--;
+        }
+        if (lineBytes.length < length) {
+            lineBytes = new byte[Math.max(length, lineBytes.length << 1)];
+        }
+        buffer.position((int) (lineStart - bufferOffset));
+        buffer.get(lineBytes, 0, length);
+        return new String(lineBytes, 0, length, charset);
+    }
+
+    /**
+     * 保证 [offset, offset + needed) 已经被映射，否则从 offset 开始重新映射
+     *
+     * @param offset 起始位置
+     * @param needed 需要映射的字节数
+     */
+    private void ensureMapped(long offset, long needed) throws IOException {
+        if (buffer != null
+                && offset >= bufferOffset
+                && offset + needed <= bufferOffset + buffer.limit()) {
+            return;
+        }
+        if (needed > Integer.MAX_VALUE) {
+            throw new IOException("line is too long, position = " + offset);
+        }
+        long size = Math.min(Math.max(MAP_SIZE, needed), fileSize - offset);
+        unmap();
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        bufferOffset = offset;
+    }
+
+    /** 映射只有在 GC 时才会释放，文件较多时需要主动释放，避免映射数量超过系统限制 */
+    private void unmap() {
+        if (buffer == null) {
+            return;
+        }
+        MappedByteBuffer mapped = buffer;
+        buffer = null;
+        try {
+            if (UNSAFE_INVOKE_CLEANER != null) {
+                UNSAFE_INVOKE_CLEANER.invoke(UNSAFE, mapped);
+            } else {
+                Method cleanerMethod = mapped.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(mapped);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (Exception e) {
+            LOG.debug("unmap buffer failed, it will be released by gc", e);
+        }
+    }
+
     public void close() throws IOException {
         if (lr != null) {
             lr.close();
             lr = null;
         }
+        if (channel != null) {
+            unmap();
+            channel.close();
+            channel = null;
+        }
     }
 }
@@ -18,7 +18,7 @@
 
 package com.dtstack.chunjun.connector.file.source;
 
-import com.dtstack.chunjun.conf.BaseFileConf;
+import com.dtstack.chunjun.connector.file.conf.FileConf;
 import com.dtstack.chunjun.source.format.BaseRichInputFormat;
 import com.dtstack.chunjun.throwable.ReadRecordException;
 import com.dtstack.chunjun.util.GsonUtil;
@@ -30,7 +30,9 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
 
 /**
@@ -40,7 +42,7 @@ import java.util.stream.Collectors;
  */
 public class FileInputFormat extends BaseRichInputFormat {
 
-    private BaseFileConf fileConf;
+    private FileConf fileConf;
 
     private FileInputBufferedReader fbr;
 
@@ -70,25 +72,73 @@ public class FileInputFormat extends BaseRichInputFormat {
             }
         }
         LOG.info("files = {}", GsonUtil.GSON.toJson(inputFiles));
-        int numSplits = (Math.min(inputFiles.size(), minNumSplits));
+        List<FileRange> ranges = createRanges(inputFiles);
+        int numSplits = (Math.min(ranges.size(), minNumSplits));
         FileInputSplit[] fileInputSplits = new FileInputSplit[numSplits];
+        if (numSplits == 0) {
+            return fileInputSplits;
+        }
+        PriorityQueue<FileInputSplit> splitQueue =
+                new PriorityQueue<>(
+                        numSplits,
+                        Comparator.comparingLong(FileInputSplit::getTotalBytes)
+                                .thenComparingInt(FileInputSplit::getSplitNumber));
         for (int index = 0; index < numSplits; ++index) {
             fileInputSplits[index] = new FileInputSplit(index);
+            splitQueue.add(fileInputSplits[index]);
         }
 
-        for (int i = 0; i < inputFiles.size(); ++i) {
-            fileInputSplits[i % numSplits].getPaths().add(inputFiles.get(i));
+        // 按字节数从大到小，依次分配给当前字节数最少的分片
+        ranges.sort(Comparator.comparingLong(FileRange::getLength).reversed());
+        for (FileRange range : ranges) {
+            FileInputSplit split = splitQueue.poll();
+            split.addRange(range);
+            splitQueue.add(split);
+        }
+        for (FileInputSplit split : fileInputSplits) {
+            split.getRanges()
+                    .sort(
+                            Comparator.comparing(FileRange::getPath)
+                                    .thenComparingLong(FileRange::getStart));
+            LOG.info(
+                    "split [{}] read {} bytes, ranges = {}",
+                    split.getSplitNumber(),
+                    split.getTotalBytes(),
+                    split.getRanges());
         }
         return fileInputSplits;
     }
 
+    /**
+     * 大于 splitSize 的文件按字节切分为多个范围，其余文件整个作为一个范围
+     *
+     * @param inputFiles 文件列表
+     * @return 范围列表
+     */
+    private List<FileRange> createRanges(List<String> inputFiles) {
+        long splitSize = fileConf.getSplitSize();
+        boolean splittable =
+                splitSize > 0 && FileInputBufferedReader.isByteScannable(fileConf.getEncoding());
+        List<FileRange> ranges = new ArrayList<>(inputFiles.size());
+        for (String inputFile : inputFiles) {
+            long fileSize = new File(inputFile).length();
+            if (!splittable || fileSize <= splitSize) {
+                ranges.add(new FileRange(inputFile, 0, fileSize));
+                continue;
+            }
+            for (long start = 0; start < fileSize; start += splitSize) {
+                ranges.add(new FileRange(inputFile, start, Math.min(start + splitSize, fileSize)));
+            }
+        }
+        return ranges;
+    }
+
     @Override
     protected void openInternal(InputSplit inputSplit) throws IOException {
         super.openInputFormat();
 
         FileInputSplit fileInputSplit = (FileInputSplit) inputSplit;
-        List<String> paths = fileInputSplit.getPaths();
-        fbr = new FileInputBufferedReader(paths, fileConf);
+        fbr = new FileInputBufferedReader(fileInputSplit.getRanges(), fileConf);
     }
 
     @Override
@@ -114,11 +164,11 @@ public class FileInputFormat extends BaseRichInputFormat {
         return this.line == null;
     }
 
-    public BaseFileConf getFileConf() {
+    public FileConf getFileConf() {
         return fileConf;
     }
 
-    public void setFileConf(BaseFileConf fileConf) {
+    public void setFileConf(FileConf fileConf) {
         this.fileConf = fileConf;
     }
 }
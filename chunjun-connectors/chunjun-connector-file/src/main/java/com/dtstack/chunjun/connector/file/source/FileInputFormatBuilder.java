@@ -18,7 +18,7 @@
 
 package com.dtstack.chunjun.connector.file.source;
 
-import com.dtstack.chunjun.conf.BaseFileConf;
+import com.dtstack.chunjun.connector.file.conf.FileConf;
 import com.dtstack.chunjun.source.format.BaseRichInputFormatBuilder;
 
 import org.apache.commons.lang3.StringUtils;
@@ -34,7 +34,7 @@ public class FileInputFormatBuilder extends BaseRichInputFormatBuilder<FileInput
         super(new FileInputFormat());
     }
 
-    public void setFileConf(BaseFileConf fileConf) {
+    public void setFileConf(FileConf fileConf) {
         super.setConfig(fileConf);
         format.setFileConf(fileConf);
     }
@@ -42,7 +42,7 @@ public class FileInputFormatBuilder extends BaseRichInputFormatBuilder<FileInput
     @Override
     protected void checkFormat() {
 
-        BaseFileConf fileConf = format.getFileConf();
+        FileConf fileConf = format.getFileConf();
         if (StringUtils.isBlank(fileConf.getPath())) {
             throw new IllegalArgumentException("file path cannot be blank");
         }
@@ -31,7 +31,9 @@ import java.util.List;
 public class FileInputSplit implements InputSplit {
 
     private int splitNumber;
-    private List<String> paths = new ArrayList<>();
+    private List<FileRange> ranges = new ArrayList<>();
+    /** 所有范围的字节数之和 */
+    private long totalBytes;
 
     public FileInputSplit(int splitNumber) {
         this.splitNumber = splitNumber;
@@ -42,11 +44,20 @@ public class FileInputSplit implements InputSplit {
         return splitNumber;
     }
 
-    public List<String> getPaths() {
-        return paths;
+    public List<FileRange> getRanges() {
+        return ranges;
     }
 
-    public void setPaths(List<String> paths) {
-        this.paths = paths;
+    public void setRanges(List<FileRange> ranges) {
+        this.ranges = ranges;
+    }
+
+    public void addRange(FileRange range) {
+        ranges.add(range);
+        totalBytes += range.getLength();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
     }
 }
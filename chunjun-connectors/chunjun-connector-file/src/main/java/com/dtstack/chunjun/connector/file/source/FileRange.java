@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.file.source;
+
+import java.io.Serializable;
+
+/** 文件中的一段字节范围 [start, end)，范围内开始的每一行都由该范围读取 */
+public class FileRange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String path;
+    private final long start;
+    private final long end;
+
+    public FileRange(String path, long start, long end) {
+        this.path = path;
+        this.start = start;
+        this.end = end;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start;
+    }
+
+    @Override
+    public String toString() {
+        return "FileRange{" + "path='" + path + '\'' + ", start=" + start + ", end=" + end + '}';
+    }
+}
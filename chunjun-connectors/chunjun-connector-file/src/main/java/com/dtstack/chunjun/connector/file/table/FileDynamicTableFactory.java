@@ -18,7 +18,7 @@
 
 package com.dtstack.chunjun.connector.file.table;
 
-import com.dtstack.chunjun.conf.BaseFileConf;
+import com.dtstack.chunjun.connector.file.conf.FileConf;
 
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.configuration.ConfigOption;
@@ -58,15 +58,16 @@ public class FileDynamicTableFactory implements DynamicTableSourceFactory {
         final DecodingFormat<DeserializationSchema<RowData>> decodingFormat =
                 getDecodingFormat(helper);
 
-        BaseFileConf fileConf = getFileConfByOptions(config);
+        FileConf fileConf = getFileConfByOptions(config);
         return new FileDynamicTableSource(physicalSchema, fileConf, decodingFormat);
     }
 
-    private BaseFileConf getFileConfByOptions(ReadableConfig config) {
-        BaseFileConf fileConf = new BaseFileConf();
+    private FileConf getFileConfByOptions(ReadableConfig config) {
+        FileConf fileConf = new FileConf();
         fileConf.setPath(config.get(FileOptions.PATH));
         fileConf.setEncoding(config.get(FileOptions.ENCODING));
         fileConf.setFromLine(config.get(FileOptions.SCAN_LINE));
+        fileConf.setSplitSize(config.get(FileOptions.SCAN_SPLIT_SIZE));
         return fileConf;
     }
 
@@ -93,6 +94,7 @@ public class FileDynamicTableFactory implements DynamicTableSourceFactory {
         Set<ConfigOption<?>> options = new HashSet<>();
         options.add(FileOptions.FORMAT);
         options.add(FileOptions.ENCODING);
+        options.add(FileOptions.SCAN_SPLIT_SIZE);
         return options;
     }
 }
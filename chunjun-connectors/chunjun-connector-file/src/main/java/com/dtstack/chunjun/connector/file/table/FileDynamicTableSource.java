@@ -18,7 +18,7 @@
 
 package com.dtstack.chunjun.connector.file.table;
 
-import com.dtstack.chunjun.conf.BaseFileConf;
+import com.dtstack.chunjun.connector.file.conf.FileConf;
 import com.dtstack.chunjun.connector.file.converter.FileRowConverter;
 import com.dtstack.chunjun.connector.file.source.FileInputFormatBuilder;
 import com.dtstack.chunjun.source.DtInputFormatSourceFunction;
@@ -43,12 +43,12 @@ import org.apache.flink.table.types.logical.RowType;
 public class FileDynamicTableSource implements ScanTableSource {
 
     private TableSchema schema;
-    private BaseFileConf fileConf;
+    private FileConf fileConf;
     private DecodingFormat<DeserializationSchema<RowData>> decodingFormat;
 
     public FileDynamicTableSource(
             TableSchema schema,
-            BaseFileConf fileConf,
+            FileConf fileConf,
             DecodingFormat<DeserializationSchema<RowData>> decodingFormat) {
         this.schema = schema;
         this.fileConf = fileConf;
@@ -43,4 +43,11 @@ public class FileOptions extends BaseFileOptions {
                     .intType()
                     .defaultValue(1)
                     .withDescription("file read from line number");
+
+    public static final ConfigOption<Long> SCAN_SPLIT_SIZE =
+            ConfigOptions.key("scan.split-size")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription(
+                            "split files larger than this size into byte ranges, 0 means no split");
 }
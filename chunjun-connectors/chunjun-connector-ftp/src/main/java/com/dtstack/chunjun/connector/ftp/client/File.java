@@ -33,6 +33,10 @@ public class File implements Serializable {
     private String fileName;
     /** 压缩类型* */
     private String compressType;
+    /** 按字节范围读取时的起始位置* */
+    private long startOffset = 0;
+    /** 按字节范围读取时的结束位置(不包含)，-1表示读取整个文件* */
+    private long endOffset = -1;
 
     public File(
             String fileCompressPath,
@@ -77,6 +81,39 @@ public class File implements Serializable {
         this.fileName = fileName;
     }
 
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    public void setStartOffset(long startOffset) {
+        this.startOffset = startOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    public void setEndOffset(long endOffset) {
+        this.endOffset = endOffset;
+    }
+
+    /** 是否只读取文件的一段字节范围* */
+    public boolean isRange() {
+        return endOffset >= 0;
+    }
+
+    /**
+     * 是否为同一个文件的同一段数据
+     *
+     * @param other 另一个文件
+     * @return true:相同
+     */
+    public boolean isSameRange(File other) {
+        return other != null
+                && fileAbsolutePath.equals(other.getFileAbsolutePath())
+                && startOffset == other.getStartOffset();
+    }
+
     @Override
     public String toString() {
         return "File{"
@@ -92,6 +129,10 @@ public class File implements Serializable {
                 + ", compressType='"
                 + compressType
                 + '\''
+                + ", startOffset="
+                + startOffset
+                + ", endOffset="
+                + endOffset
                 + '}';
     }
 }
@@ -61,6 +61,9 @@ public class FtpConfig extends BaseFileConf {
     /** 压缩格式 * */
     public String compressType;
 
+    /** 单个文件按字节范围切分的大小，0表示不切分 * */
+    private long splitSize = 0;
+
     public String getUsername() {
         return username;
     }
@@ -215,6 +218,14 @@ public class FtpConfig extends BaseFileConf {
         this.encoding = encoding;
     }
 
+    public long getSplitSize() {
+        return splitSize;
+    }
+
+    public void setSplitSize(long splitSize) {
+        this.splitSize = splitSize;
+    }
+
     public Object getNullIsReplacedWithValue() {
         return nullIsReplacedWithValue;
     }
@@ -274,6 +285,8 @@ public class FtpConfig extends BaseFileConf {
                 + ", compressType='"
                 + compressType
                 + '\''
+                + ", splitSize="
+                + splitSize
                 + '}'
                 + super.toString();
     }
@@ -364,6 +364,8 @@ public class FtpHandler implements IFtpHandler {
     public InputStream getInputStream(String filePath) {
         try {
             ftpClient.enterLocalPassiveMode();
+            // 传输类型在同一连接的多次读取间保留，整文件读取显式使用FTPClient默认的ASCII类型，不受之前范围读取的影响
+            ftpClient.setFileType(FTP.ASCII_FILE_TYPE);
             InputStream is = ftpClient.retrieveFileStream(encodePath(filePath));
             return is;
         } catch (IOException e) {
@@ -374,6 +376,24 @@ public class FtpHandler implements IFtpHandler {
         }
     }
 
+    @Override
+    public InputStream getInputStream(String filePath, long startPosition) {
+        try {
+            ftpClient.enterLocalPassiveMode();
+            // 范围的偏移量按文件字节数计算，所有范围读取(包括从0开始的第一个范围)都使用二进制传输
+            ftpClient.setFileType(FTP.BINARY_FILE_TYPE);
+            ftpClient.setRestartOffset(startPosition);
+            return ftpClient.retrieveFileStream(encodePath(filePath));
+        } catch (IOException e) {
+            String message =
+                    String.format(
+                            "从位置 [%s] 读取文件 : [%s] 时出错,请确认文件：[%s]存在且配置的用户有权限读取",
+                            startPosition, filePath, filePath);
+            LOG.error(message);
+            throw new RuntimeException(message, e);
+        }
+    }
+
     @Override
     public List<String> listDirs(String path) {
         List<String> sources = new ArrayList<>();
@@ -72,6 +72,15 @@ public interface IFtpHandler {
      */
     InputStream getInputStream(String filePath);
 
+    /**
+     * 从指定的字节位置开始获取文件输入流
+     *
+     * @param filePath 文件路径
+     * @param startPosition 起始字节位置
+     * @return 数据流
+     */
+    InputStream getInputStream(String filePath, long startPosition);
+
     /**
      * 列出指定路径下的目录
      *
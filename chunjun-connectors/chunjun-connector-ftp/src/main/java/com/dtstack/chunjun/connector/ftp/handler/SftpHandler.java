@@ -206,6 +206,20 @@ public class SftpHandler implements IFtpHandler {
         }
     }
 
+    @Override
+    public InputStream getInputStream(String filePath, long startPosition) {
+        try {
+            return channelSftp.get(filePath, null, startPosition);
+        } catch (SftpException e) {
+            String message =
+                    String.format(
+                            "从位置 [%s] 读取文件 : [%s] 时出错,请确认文件：[%s]存在且配置的用户有权限读取",
+                            startPosition, filePath, filePath);
+            LOG.error(message);
+            throw new RuntimeException(message, e);
+        }
+    }
+
     @Override
     public List<String> listDirs(String path) {
         if (StringUtils.isBlank(path)) {
@@ -77,4 +77,11 @@ public class FtpOptions extends BaseFileOptions {
                     .stringType()
                     .defaultValue("PASV")
                     .withDescription("ftp connectPattern");
+
+    public static final ConfigOption<Long> SPLIT_SIZE =
+            ConfigOptions.key("split-size")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription(
+                            "split text files larger than this size into byte ranges, 0 means no split");
 }
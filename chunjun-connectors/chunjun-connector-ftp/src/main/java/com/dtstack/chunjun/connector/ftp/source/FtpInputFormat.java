@@ -45,10 +45,10 @@ import org.apache.commons.lang.StringUtils;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * The InputFormat class of Ftp
@@ -112,14 +112,21 @@ public class FtpInputFormat extends BaseRichInputFormat {
         if (CollectionUtils.isEmpty(fileList)) {
             throw new RuntimeException("There are no readable files  in directory " + path);
         }
+        int numFiles = files.size();
+        if (isRangeSplitSupported()) {
+            fileList = splitByRange(ftpHandler, fileList);
+            numFiles = fileList.size();
+        }
         LOG.info("FTP files = {}", GsonUtil.GSON.toJson(fileList));
-        int numSplits = (Math.min(files.size(), minNumSplits));
+        int numSplits = (Math.min(numFiles, minNumSplits));
         FtpInputSplit[] ftpInputSplits = new FtpInputSplit[numSplits];
         for (int index = 0; index < numSplits; ++index) {
             ftpInputSplits[index] = new FtpInputSplit();
         }
 
-        Collections.sort(fileList, Comparator.comparing(File::getFileAbsolutePath));
+        fileList.sort(
+                Comparator.comparing(File::getFileAbsolutePath)
+                        .thenComparingLong(File::getStartOffset));
 
         for (int i = 0; i < fileList.size(); ++i) {
             ftpInputSplits[i % numSplits].getPaths().add(fileList.get(i));
@@ -129,6 +136,69 @@ public class FtpInputFormat extends BaseRichInputFormat {
         return ftpInputSplits;
     }
 
+    /**
+     * 只有未压缩的TXT文件可以按字节范围切分，且换行符不能出现在多字节字符中。CSV的引号字段中可以包含换行符，按换行符切分会拆开一条记录，因此不切分
+     *
+     * @return 是否按字节范围切分
+     */
+    private boolean isRangeSplitSupported() {
+        if (ftpConfig.getSplitSize() <= 0 || StringUtils.isNotBlank(ftpConfig.getCompressType())) {
+            return false;
+        }
+        String fileType = ftpConfig.getFileType();
+        if (StringUtils.isNotBlank(fileType) && FileType.fromString(fileType) != FileType.TXT) {
+            return false;
+        }
+        String encoding = ftpConfig.getEncoding().toUpperCase(Locale.ENGLISH);
+        return !encoding.startsWith("UTF-16") && !encoding.startsWith("UTF-32");
+    }
+
+    /**
+     * 将大于 splitSize 的文件切分为多个字节范围，每个范围由独立的数据流读取
+     *
+     * @param ftpHandler ftpHandler
+     * @param fileList 文件列表
+     * @return 切分后的文件列表
+     */
+    private List<File> splitByRange(IFtpHandler ftpHandler, List<File> fileList)
+            throws IOException {
+        long splitSize = ftpConfig.getSplitSize();
+        List<File> rangeList = new ArrayList<>(fileList.size());
+        for (File file : fileList) {
+            String fileName = file.getFileName();
+            // 未指定文件类型时与 FileReadClientFactory 一样按后缀名判断
+            String suffix = StringUtils.substringAfterLast(fileName, ".");
+            if (StringUtils.isBlank(ftpConfig.getFileType())
+                    && (FileType.EXCEL.name().equalsIgnoreCase(suffix)
+                            || FileType.CSV.name().equalsIgnoreCase(suffix))) {
+                rangeList.add(file);
+                continue;
+            }
+            long fileSize = ftpHandler.getFileSize(file.getFileAbsolutePath());
+            if (fileSize <= splitSize) {
+                rangeList.add(file);
+                continue;
+            }
+            for (long start = 0; start < fileSize; start += splitSize) {
+                File range =
+                        new File(
+                                file.getFileCompressPath(),
+                                file.getFileAbsolutePath(),
+                                fileName,
+                                file.getCompressType());
+                range.setStartOffset(start);
+                range.setEndOffset(Math.min(start + splitSize, fileSize));
+                rangeList.add(range);
+            }
+            LOG.info(
+                    "split file [{}] of {} bytes into {} ranges",
+                    file.getFileAbsolutePath(),
+                    fileSize,
+                    (fileSize + splitSize - 1) / splitSize);
+        }
+        return rangeList;
+    }
+
     @Override
     public void openInternal(InputSplit split) throws IOException {
         FtpInputSplit inputSplit = (FtpInputSplit) split;
@@ -245,7 +315,7 @@ public class FtpInputFormat extends BaseRichInputFormat {
             Iterator<File> iterator = files.iterator();
             while (iterator.hasNext()) {
                 File next = iterator.next();
-                if (!state.getFile().getFileAbsolutePath().equals(next.getFileAbsolutePath())) {
+                if (!state.getFile().isSameRange(next)) {
                     LOG.info("skip file {} when recovery from state", next.getFileAbsolutePath());
                     iterator.remove();
                 } else {
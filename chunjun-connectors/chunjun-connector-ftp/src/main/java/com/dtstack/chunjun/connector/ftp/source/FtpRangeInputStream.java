@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.ftp.source;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 读取文件中 [startOffset, endOffset) 字节范围内开始的完整行。
+ *
+ * <p>底层流需要从 max(startOffset - 1, 0) 开始读取：startOffset 大于0时先丢弃到第一个换行符为止的内容，这部分由前一个范围读取； 读到行首且位置已经不小于
+ * endOffset 时结束，最后一行会越过 endOffset 读取完整。相邻范围按此规则读取，每一行恰好被读取一次。
+ */
+public class FtpRangeInputStream extends InputStream {
+
+    private static final int LINE_FEED = '\n';
+
+    private final InputStream in;
+    private final long endOffset;
+    /** 下一个字节在文件中的位置 */
+    private long position;
+    /** 是否需要丢弃第一行不完整的数据 */
+    private boolean skipFirstLine;
+    /** 下一个字节是否为行首 */
+    private boolean lineStart = true;
+
+    private boolean finished;
+
+    public FtpRangeInputStream(InputStream in, long startOffset, long endOffset) {
+        this.in = new BufferedInputStream(in);
+        this.endOffset = endOffset;
+        this.skipFirstLine = startOffset > 0;
+        this.position = streamOffset(startOffset);
+    }
+
+    /**
+     * 底层流应该开始读取的位置
+     *
+     * @param startOffset 范围的起始位置
+     * @return 底层流的起始位置
+     */
+    public static long streamOffset(long startOffset) {
+        return startOffset > 0 ? startOffset - 1 : 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (reachedEnd()) {
+            return -1;
+        }
+        int b = in.read();
+        if (b == -1) {
+            finished = true;
+            return -1;
+        }
+        position++;
+        lineStart = b == LINE_FEED;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (reachedEnd()) {
+            return -1;
+        }
+        int n = in.read(b, off, len);
+        if (n == -1) {
+            finished = true;
+            return -1;
+        }
+        if (position + n <= endOffset) {
+            position += n;
+            lineStart = b[off + n - 1] == LINE_FEED;
+            return n;
+        }
+        // 跨过了 endOffset，只保留到 endOffset 之后的第一个行首为止
+        int i = (int) Math.max(0, endOffset - position);
+        if (i > 0) {
+            lineStart = b[off + i - 1] == LINE_FEED;
+        }
+        while (i < n && !lineStart) {
+            lineStart = b[off + i] == LINE_FEED;
+            i++;
+        }
+        if (lineStart && i < n) {
+            finished = true;
+        }
+        position += i;
+        return i == 0 ? -1 : i;
+    }
+
+    private boolean reachedEnd() throws IOException {
+        if (skipFirstLine) {
+            skipFirstLine = false;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b == LINE_FEED) {
+                    break;
+                }
+            }
+            if (b == -1) {
+                finished = true;
+            }
+        }
+        if (!finished && lineStart && position >= endOffset) {
+            finished = true;
+        }
+        return finished;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
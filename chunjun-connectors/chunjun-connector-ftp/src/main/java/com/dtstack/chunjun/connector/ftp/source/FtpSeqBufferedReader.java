@@ -98,6 +98,14 @@ public class FtpSeqBufferedReader {
             InputStream in = null;
             if (file.getFileCompressPath() != null) {
                 in = ftpHandler.getInputStream(file.getFileCompressPath());
+            } else if (file.isRange()) {
+                in =
+                        ftpHandler.getInputStream(
+                                file.getFileAbsolutePath(),
+                                FtpRangeInputStream.streamOffset(file.getStartOffset()));
+                if (in != null) {
+                    in = new FtpRangeInputStream(in, file.getStartOffset(), file.getEndOffset());
+                }
             } else {
                 in = ftpHandler.getInputStream(file.getFileAbsolutePath());
             }
@@ -115,7 +123,9 @@ public class FtpSeqBufferedReader {
             fileReadClient.open(file, in, ftpConfig);
             currentFile = file;
             currentFileReadLineNum = 0L;
-            for (int i = 0; i < fromLine; i++) {
+            // 表头只在文件的第一个范围中
+            int skipLine = file.getStartOffset() > 0 ? 0 : fromLine;
+            for (int i = 0; i < skipLine; i++) {
                 if (fileReadClient.hasNext()) {
                     String[] strings = fileReadClient.nextRecord();
                     LOG.info("Skip line:{}", Arrays.toString(strings));
@@ -127,10 +137,7 @@ public class FtpSeqBufferedReader {
             // 从续跑时恢复需要过滤已经读取的数据
             if (startPosition != null
                     && startPosition.getLine() > 0
-                    && startPosition
-                            .getFile()
-                            .getFileAbsolutePath()
-                            .equals(file.getFileAbsolutePath())) {
+                    && startPosition.getFile().isSameRange(file)) {
                 LOG.info("start skip  [{}]  number line", startPosition.getLine());
                 for (int i = 0; i < startPosition.getLine(); i++) {
                     if (fileReadClient.hasNext()) {
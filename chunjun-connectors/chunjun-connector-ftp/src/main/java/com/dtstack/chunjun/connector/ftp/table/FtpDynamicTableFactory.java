@@ -61,6 +61,7 @@ public class FtpDynamicTableFactory implements DynamicTableSourceFactory, Dynami
         ftpConfig.setPassword(config.get(FtpOptions.PASSWORD));
 
         ftpConfig.setEncoding(config.get(FtpOptions.ENCODING));
+        ftpConfig.setSplitSize(config.get(FtpOptions.SPLIT_SIZE));
 
         if (config.get(FtpOptions.TIMEOUT) != null) {
             ftpConfig.setTimeout(config.get(FtpOptions.TIMEOUT));
@@ -147,6 +148,7 @@ public class FtpDynamicTableFactory implements DynamicTableSourceFactory, Dynami
         options.add(FtpOptions.ENCODING);
         options.add(FtpOptions.MAX_FILE_SIZE);
         options.add(FtpOptions.FORMAT);
+        options.add(FtpOptions.SPLIT_SIZE);
         return options;
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.ftp.source;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class FtpRangeInputStreamTest {
+
+    private static final String CONTENT = "a\nbb\n\nccc\ndddd\nee\nf";
+
+    @Test
+    public void testRangesReadEveryLineOnce() throws IOException {
+        byte[] content = CONTENT.getBytes(StandardCharsets.UTF_8);
+        for (int splitSize = 1; splitSize <= content.length + 1; splitSize++) {
+            Assert.assertEquals(
+                    "splitSize = " + splitSize, CONTENT, readRanges(content, splitSize, false));
+            Assert.assertEquals(
+                    "splitSize = " + splitSize, CONTENT, readRanges(content, splitSize, true));
+        }
+    }
+
+    @Test
+    public void testRangeEndingAtLineStart() throws IOException {
+        byte[] content = "ab\ncd\n".getBytes(StandardCharsets.UTF_8);
+        // 第一个范围[0, 3)刚好在行首结束，第二个范围从第二行开始
+        Assert.assertEquals("ab\n", read(content, 0, 3, true));
+        Assert.assertEquals("cd\n", read(content, 3, 6, true));
+    }
+
+    private static String readRanges(byte[] content, int splitSize, boolean bulk)
+            throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int start = 0; start < content.length; start += splitSize) {
+            sb.append(read(content, start, Math.min(start + splitSize, content.length), bulk));
+        }
+        return sb.toString();
+    }
+
+    private static String read(byte[] content, long start, long end, boolean bulk)
+            throws IOException {
+        int offset = (int) FtpRangeInputStream.streamOffset(start);
+        InputStream in =
+                new FtpRangeInputStream(
+                        new ByteArrayInputStream(content, offset, content.length - offset),
+                        start,
+                        end);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (bulk) {
+            byte[] buffer = new byte[3];
+            int n;
+            while ((n = in.read(buffer, 0, buffer.length)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        } else {
+            int b;
+            while ((b = in.read()) != -1) {
+                out.write(b);
+            }
+        }
+        in.close();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
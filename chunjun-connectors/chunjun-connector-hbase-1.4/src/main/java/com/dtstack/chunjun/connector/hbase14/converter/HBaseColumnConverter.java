@@ -23,6 +23,7 @@ import com.dtstack.chunjun.connector.hbase.FunctionParser;
 import com.dtstack.chunjun.connector.hbase.FunctionTree;
 import com.dtstack.chunjun.connector.hbase.conf.HBaseConf;
 import com.dtstack.chunjun.connector.hbase.converter.type.BINARYSTRING;
+import com.dtstack.chunjun.connector.hbase.util.HBaseBytesUtil;
 import com.dtstack.chunjun.constants.ConstantValue;
 import com.dtstack.chunjun.converter.AbstractRowConverter;
 import com.dtstack.chunjun.converter.IDeserializationConverter;
@@ -75,6 +76,13 @@ public class HBaseColumnConverter
     // qualifier keys
     private final byte[][][] familyAndQualifier;
     private final String encoding;
+    /** 数值字符与ASCII相同时直接在字节上解析文本形式的数值 */
+    private final boolean asciiCompatible;
+    /** 常量列，不从hbase读取 */
+    private final boolean[] constantColumns;
+    /** rowkey列 */
+    private final boolean[] rowKeyFlags;
+
     private final String nullMode;
     private List<Integer> rowKeyColumnIndex;
     private List<String> rowKeyColumns;
@@ -90,6 +98,9 @@ public class HBaseColumnConverter
         this.hBaseConf = hBaseConf;
         this.fieldList = hBaseConf.getColumn();
         this.encoding = hBaseConf.getEncoding();
+        this.asciiCompatible = HBaseBytesUtil.isAsciiCompatible(encoding);
+        this.constantColumns = new boolean[hBaseConf.getColumn().size()];
+        this.rowKeyFlags = new boolean[hBaseConf.getColumn().size()];
         this.nullMode = hBaseConf.getNullMode();
         this.versionColumnIndex = hBaseConf.getVersionColumnIndex();
         this.versionColumnValue = hBaseConf.getVersionColumnValue();
@@ -99,6 +110,8 @@ public class HBaseColumnConverter
         for (int i = 0; i < hBaseConf.getColumn().size(); i++) {
             String name = hBaseConf.getColumn().get(i).getName();
             columnNames.add(name);
+            constantColumns[i] = StringUtils.isNotBlank(hBaseConf.getColumn().get(i).getValue());
+            rowKeyFlags[i] = KEY_ROW_KEY.equals(name);
             String[] cfAndQualifier = name.split(":");
             if (cfAndQualifier.length == 2
                     && org.apache.commons.lang.StringUtils.isNotBlank(cfAndQualifier[0])
@@ -158,9 +171,9 @@ public class HBaseColumnConverter
         ColumnRowData result = new ColumnRowData(fieldList.size());
         for (int i = 0; i < fieldList.size(); i++) {
             AbstractBaseColumn baseColumn = null;
-            if (StringUtils.isBlank(fieldList.get(i).getValue())) {
+            if (!constantColumns[i]) {
                 byte[] bytes;
-                if (KEY_ROW_KEY.equals(fieldList.get(i).getName())) {
+                if (rowKeyFlags[i]) {
                     bytes = input.getRow();
                 } else {
                     bytes = input.getValue(familyAndQualifier[i][0], familyAndQualifier[i][1]);
@@ -218,13 +231,11 @@ public class HBaseColumnConverter
                     if (((byte[]) val).length == 1) {
                         return new BooleanColumn(((byte[]) val)[0] != 0);
                     } else {
-                        return new BooleanColumn(Boolean.parseBoolean(val.toString()));
+                        return new BooleanColumn(HBaseBytesUtil.parseBoolean((byte[]) val));
                     }
                 };
             case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
-                return val ->
-                        new TimestampColumn(
-                                new BigDecimal(new String((byte[]) val, encoding)).longValue());
+                return val -> new TimestampColumn(parseText((byte[]) val).longValue());
             case DECIMAL:
             case INTEGER:
             case INTERVAL_YEAR_MONTH:
@@ -232,19 +243,20 @@ public class HBaseColumnConverter
             case FLOAT:
             case DOUBLE:
                 return val -> {
-                    try {
-                        return new BigDecimalColumn(Bytes.toDouble((byte[]) val));
-                    } catch (Exception e) {
-                        return new BigDecimalColumn(new String((byte[]) val, encoding));
+                    byte[] bytes = (byte[]) val;
+                    // 8字节按double解析，否则为文本形式的数值
+                    if (bytes.length >= Bytes.SIZEOF_DOUBLE) {
+                        return new BigDecimalColumn(Bytes.toDouble(bytes));
                     }
+                    return new BigDecimalColumn(parseText(bytes));
                 };
             case BIGINT:
                 return val -> {
-                    try {
-                        return new BigDecimalColumn(Bytes.toLong((byte[]) val));
-                    } catch (Exception e) {
-                        return new BigDecimalColumn(new String((byte[]) val, encoding));
+                    byte[] bytes = (byte[]) val;
+                    if (bytes.length >= Bytes.SIZEOF_LONG) {
+                        return new BigDecimalColumn(Bytes.toLong(bytes));
                     }
+                    return new BigDecimalColumn(parseText(bytes));
                 };
             case TINYINT:
                 return val -> new BigDecimalColumn(((byte[]) val)[0]);
@@ -279,6 +291,13 @@ public class HBaseColumnConverter
         }
     }
 
+    private BigDecimal parseText(byte[] bytes) throws Exception {
+        if (asciiCompatible) {
+            return HBaseBytesUtil.parseBigDecimal(bytes);
+        }
+        return new BigDecimal(new String(bytes, encoding));
+    }
+
     /**
      * 将flink内部的数据类型转换为外部数据库系统类型
      *
@@ -82,6 +82,9 @@ public class HBase14SinkFactory extends SinkFactory {
         builder.setHbaseConfig(hbaseConf.getHbaseConfig());
         builder.setTableName(hbaseConf.getTable());
         builder.setWriteBufferSize(hbaseConf.getWriteBufferSize());
+        builder.setWriteMode(hbaseConf.getWriteMode());
+        builder.setMaxOutstandingBytes(hbaseConf.getMaxOutstandingBytes());
+        builder.setWriteThreads(hbaseConf.getWriteThreads());
         AbstractRowConverter rowConverter;
         if (useAbstractBaseColumn) {
             final RowType rowType =
@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.hbase14.sink;
+
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+import org.apache.flink.table.data.RowData;
+
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按region server分组的异步写入。
+ *
+ * <p>每批数据先通过{@link RegionLocator}(使用连接中缓存的region位置)按所在的region server分组，每组作为一个任务提交到线程池， 不同region
+ * server的写入互不阻塞。同一region server同时只有一组在途，后一组在前一组完成后才发送，因此同一rowkey的put和delete不会被并发的批次打乱顺序。
+ * 在途的mutation按heapSize累计，超过maxOutstandingBytes时写入线程阻塞等待。
+ *
+ * <p>单条mutation的失败由hbase客户端按hbase.client.retries.number只重试失败的部分，重试耗尽后仍失败的数据交给{@link
+ * FailureHandler}记为脏数据。写入结果在线程池中汇总，由写入线程调用{@link #drain(FailureHandler, LongCounter)}统一处理。
+ *
+ * @author tudou
+ */
+public class HBaseAsyncWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(HBaseAsyncWriter.class);
+
+    private static final int LATENCY_WINDOW_SIZE = 1000;
+
+    /** 处理最终失败的数据 */
+    public interface FailureHandler {
+
+        /**
+         * 处理写入失败的数据
+         *
+         * @param row 原始数据
+         * @param cause 失败原因
+         */
+        void onFailure(RowData row, Throwable cause);
+    }
+
+    private final Connection connection;
+    private final TableName tableName;
+    private final RegionLocator regionLocator;
+    private final ExecutorService executor;
+    private final long maxOutstandingBytes;
+    private final MetricGroup metricGroup;
+
+    /** region server -> 该server最后提交的一组写入，只在写入线程中访问 */
+    private final Map<ServerName, CompletableFuture<Void>> tails = new HashMap<>();
+
+    /** region server -> 写入耗时(毫秒) */
+    private final Map<ServerName, Histogram> latencies = new HashMap<>();
+
+    private final Object lock = new Object();
+    private long outstandingBytes;
+    private int outstandingRequests;
+
+    private final Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicLong succeeded = new AtomicLong();
+
+    public HBaseAsyncWriter(
+            Connection connection,
+            TableName tableName,
+            int writeThreads,
+            long maxOutstandingBytes,
+            MetricGroup metricGroup)
+            throws IOException {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.regionLocator = connection.getRegionLocator(tableName);
+        this.maxOutstandingBytes = maxOutstandingBytes;
+        this.metricGroup = metricGroup;
+        this.executor =
+                new ThreadPoolExecutor(
+                        writeThreads,
+                        writeThreads,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(),
+                        new ChunJunThreadFactory("hbase-async-writer", true));
+    }
+
+    /**
+     * 按region server分组后异步写入，在途数据超过上限时阻塞
+     *
+     * @param rows 原始数据
+     * @param mutations 与rows一一对应的mutation
+     */
+    public void write(List<RowData> rows, List<Mutation> mutations)
+            throws IOException, InterruptedException {
+        Map<ServerName, Batch> batches = new HashMap<>();
+        for (int i = 0; i < mutations.size(); i++) {
+            Mutation mutation = mutations.get(i);
+            HRegionLocation location = regionLocator.getRegionLocation(mutation.getRow());
+            batches.computeIfAbsent(location.getServerName(), Batch::new)
+                    .add(rows.get(i), mutation);
+        }
+        for (Batch batch : batches.values()) {
+            acquire(batch.bytes);
+            submit(batch, latencyOf(batch.serverName));
+        }
+    }
+
+    /** 排在同一region server上一组写入之后执行 */
+    private void submit(Batch batch, Histogram latency) {
+        CompletableFuture<Void> tail =
+                tails.getOrDefault(batch.serverName, CompletableFuture.completedFuture(null));
+        Runnable task =
+                () -> {
+                    try {
+                        execute(batch, latency);
+                    } finally {
+                        release(batch.bytes);
+                    }
+                };
+        // 前一组异常结束时也要继续执行后一组
+        tails.put(batch.serverName, tail.exceptionally(t -> null).thenRunAsync(task, executor));
+    }
+
+    private void execute(Batch batch, Histogram latency) {
+        Object[] results = new Object[batch.mutations.size()];
+        Throwable error = null;
+        long start = System.currentTimeMillis();
+        try (Table table = connection.getTable(tableName)) {
+            table.batch(batch.mutations, results);
+        } catch (Throwable t) {
+            // RetriesExhaustedWithDetailsException时失败的条目已写入results
+            error = t;
+        } finally {
+            latency.update(System.currentTimeMillis() - start);
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null || results[i] instanceof Throwable) {
+                Throwable cause = results[i] instanceof Throwable ? (Throwable) results[i] : error;
+                if (cause == null) {
+                    cause = new IOException("no result returned for mutation");
+                }
+                failures.add(new Failure(batch.rows.get(i), cause));
+            } else {
+                succeeded.incrementAndGet();
+            }
+        }
+        if (error != null) {
+            LOG.warn(
+                    "write to region server {} failed, rows = {}",
+                    batch.serverName,
+                    batch.rows.size(),
+                    error);
+        }
+    }
+
+    private Histogram latencyOf(ServerName serverName) {
+        return latencies.computeIfAbsent(
+                serverName,
+                k ->
+                        metricGroup
+                                .addGroup("regionServer", k.getHostAndPort())
+                                .histogram(
+                                        "writeLatencyMills",
+                                        new DescriptiveStatisticsHistogram(LATENCY_WINDOW_SIZE)));
+    }
+
+    private void acquire(long bytes) throws InterruptedException {
+        synchronized (lock) {
+            // 单批超过上限时只要没有在途的请求就放行，避免死锁
+            while (outstandingRequests > 0 && outstandingBytes + bytes > maxOutstandingBytes) {
+                lock.wait();
+            }
+            outstandingBytes += bytes;
+            outstandingRequests++;
+        }
+    }
+
+    private void release(long bytes) {
+        synchronized (lock) {
+            outstandingBytes -= bytes;
+            outstandingRequests--;
+            lock.notifyAll();
+        }
+    }
+
+    /** 等待所有在途的写入完成 */
+    public void flush() throws InterruptedException {
+        synchronized (lock) {
+            while (outstandingRequests > 0) {
+                lock.wait();
+            }
+        }
+    }
+
+    /**
+     * 处理已完成的写入结果，只在写入线程中调用
+     *
+     * @param failureHandler 处理失败的数据
+     * @param numWriteCounter 写入成功的条数
+     */
+    public void drain(FailureHandler failureHandler, LongCounter numWriteCounter) {
+        numWriteCounter.add(succeeded.getAndSet(0L));
+        Failure failure;
+        while ((failure = failures.poll()) != null) {
+            failureHandler.onFailure(failure.row, failure.cause);
+        }
+    }
+
+    public void close() throws InterruptedException {
+        try {
+            flush();
+        } finally {
+            executor.shutdownNow();
+            try {
+                regionLocator.close();
+            } catch (IOException e) {
+                LOG.warn("close region locator failed", e);
+            }
+        }
+    }
+
+    private static class Batch {
+        private final ServerName serverName;
+        private final List<RowData> rows = new ArrayList<>();
+        private final List<Mutation> mutations = new ArrayList<>();
+        private long bytes;
+
+        private Batch(ServerName serverName) {
+            this.serverName = serverName;
+        }
+
+        private void add(RowData row, Mutation mutation) {
+            rows.add(row);
+            mutations.add(mutation);
+            bytes += mutation.heapSize();
+        }
+    }
+
+    private static class Failure {
+        private final RowData row;
+        private final Throwable cause;
+
+        private Failure(RowData row, Throwable cause) {
+            this.row = row;
+            this.cause = cause;
+        }
+    }
+}
@@ -19,8 +19,10 @@
 package com.dtstack.chunjun.connector.hbase14.sink;
 
 import com.dtstack.chunjun.connector.hbase.conf.HBaseConf;
+import com.dtstack.chunjun.connector.hbase.conf.HBaseConfigConstants;
 import com.dtstack.chunjun.connector.hbase.util.HBaseConfigUtils;
 import com.dtstack.chunjun.connector.hbase14.util.HBaseHelper;
+import com.dtstack.chunjun.restore.FormatState;
 import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
 import com.dtstack.chunjun.throwable.WriteRecordException;
 
@@ -58,12 +60,17 @@ public class HBaseOutputFormat extends BaseRichOutputFormat {
 
     private String tableName;
     private long writeBufferSize;
+    private String writeMode = HBaseConfigConstants.WRITE_MODE_BATCH;
+    private long maxOutstandingBytes;
+    private int writeThreads;
 
     private transient Connection connection;
     private transient BufferedMutator bufferedMutator;
 
     private transient Table table;
 
+    private transient HBaseAsyncWriter asyncWriter;
+
     @Override
     public void configure(Configuration parameters) {}
 
@@ -114,6 +121,15 @@ public class HBaseOutputFormat extends BaseRichOutputFormat {
                                     .pool(HTable.getDefaultExecutor(hConfiguration))
                                     .writeBufferSize(writeBufferSize));
             table = connection.getTable(TableName.valueOf(tableName));
+            if (isAsyncWrite()) {
+                asyncWriter =
+                        new HBaseAsyncWriter(
+                                connection,
+                                TableName.valueOf(tableName),
+                                writeThreads,
+                                maxOutstandingBytes,
+                                getRuntimeContext().getMetricGroup().addGroup("hbase"));
+            }
         } catch (Exception e) {
             HBaseHelper.closeBufferedMutator(bufferedMutator);
             HBaseHelper.closeConnection(connection);
@@ -125,6 +141,10 @@ public class HBaseOutputFormat extends BaseRichOutputFormat {
 
     @Override
     protected void writeMultipleRecordsInternal() throws Exception {
+        if (isAsyncWrite()) {
+            writeAsync();
+            return;
+        }
         Object[] results = new Object[0];
         try {
             List<Mutation> mutations = new ArrayList<>();
@@ -145,8 +165,64 @@ public class HBaseOutputFormat extends BaseRichOutputFormat {
         }
     }
 
+    private void writeAsync() throws Exception {
+        List<RowData> converted = new ArrayList<>(rows.size());
+        List<Mutation> mutations = new ArrayList<>(rows.size());
+        for (RowData record : rows) {
+            try {
+                mutations.add((Mutation) rowConverter.toExternal(record, null));
+                converted.add(record);
+            } catch (Exception e) {
+                dirtyManager.collect(record, e, null);
+            }
+        }
+        asyncWriter.write(converted, mutations);
+        // 只处理已经完成的写入，不等待在途的请求
+        asyncWriter.drain(this::collectDirty, numWriteCounter);
+    }
+
+    private void collectDirty(RowData rowData, Throwable cause) {
+        dirtyManager.collect(rowData, cause, null);
+    }
+
+    /** 异步写入时数据交给asyncWriter，成功条数在写入完成后累加，写入失败的数据记为脏数据 */
+    @Override
+    protected boolean isWriteCountedBySink() {
+        return isAsyncWrite();
+    }
+
+    @Override
+    protected boolean fallbackToSingleWrite() {
+        return !isAsyncWrite();
+    }
+
+    /** checkpoint之前等待所有在途的写入完成，保证checkpoint之前的数据都已写入 */
+    @Override
+    public synchronized FormatState getFormatState() throws Exception {
+        FormatState state = super.getFormatState();
+        if (asyncWriter != null) {
+            asyncWriter.flush();
+            asyncWriter.drain(this::collectDirty, numWriteCounter);
+            state.setNumberWrite(numWriteCounter.getLocalValue());
+        }
+        return state;
+    }
+
+    private boolean isAsyncWrite() {
+        return HBaseConfigConstants.WRITE_MODE_ASYNC.equalsIgnoreCase(writeMode);
+    }
+
     @Override
     public void closeInternal() throws IOException {
+        if (asyncWriter != null) {
+            try {
+                asyncWriter.close();
+                asyncWriter.drain(this::collectDirty, numWriteCounter);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("close hbase async writer interrupted.", e);
+            }
+        }
 
         HBaseHelper.closeBufferedMutator(bufferedMutator);
         HBaseHelper.closeConnection(connection);
@@ -164,6 +240,26 @@ public class HBaseOutputFormat extends BaseRichOutputFormat {
         this.writeBufferSize = writeBufferSize;
     }
 
+    public void setWriteMode(String writeMode) {
+        this.writeMode = writeMode;
+    }
+
+    public void setMaxOutstandingBytes(long maxOutstandingBytes) {
+        this.maxOutstandingBytes = maxOutstandingBytes;
+    }
+
+    public void setWriteThreads(int writeThreads) {
+        this.writeThreads = writeThreads;
+    }
+
+    public String getWriteMode() {
+        return writeMode;
+    }
+
+    public int getWriteThreads() {
+        return writeThreads;
+    }
+
     public String getTableName() {
         return tableName;
     }
@@ -62,9 +62,32 @@ public class HBaseOutputFormatBuilder extends BaseRichOutputFormatBuilder {
         }
     }
 
+    public void setWriteMode(String writeMode) {
+        if (StringUtils.isNotBlank(writeMode)) {
+            format.setWriteMode(writeMode);
+        }
+    }
+
+    public void setMaxOutstandingBytes(long maxOutstandingBytes) {
+        format.setMaxOutstandingBytes(maxOutstandingBytes);
+    }
+
+    public void setWriteThreads(int writeThreads) {
+        format.setWriteThreads(writeThreads);
+    }
+
     @Override
     protected void checkFormat() {
         Preconditions.checkArgument(StringUtils.isNotEmpty(format.getTableName()));
         Preconditions.checkNotNull(format.getHbaseConfig());
+        Preconditions.checkArgument(
+                HBaseConfigConstants.WRITE_MODE_BATCH.equalsIgnoreCase(format.getWriteMode())
+                        || HBaseConfigConstants.WRITE_MODE_ASYNC.equalsIgnoreCase(
+                                format.getWriteMode()),
+                "hbase writeMode must be batch or async");
+        if (HBaseConfigConstants.WRITE_MODE_ASYNC.equalsIgnoreCase(format.getWriteMode())) {
+            Preconditions.checkArgument(
+                    format.getWriteThreads() > 0, "hbase writeThreads must be greater than 0");
+        }
     }
 }
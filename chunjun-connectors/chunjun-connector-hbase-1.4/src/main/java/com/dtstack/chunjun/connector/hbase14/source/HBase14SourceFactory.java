@@ -95,6 +95,7 @@ public class HBase14SourceFactory extends SourceFactory {
             HBaseTableSchema hbaseSchema = HBaseTableSchema.fromTableSchema(tableSchema);
             String nullStringLiteral = config.getNullStringLiteral();
             rowConverter = new HbaseRowConverter(hbaseSchema, nullStringLiteral);
+            builder.setHbaseSchema(hbaseSchema);
         }
 
         builder.setRowConverter(rowConverter, useAbstractBaseColumn);
@@ -18,8 +18,11 @@
 
 package com.dtstack.chunjun.connector.hbase14.source;
 
+import com.dtstack.chunjun.conf.FieldConf;
+import com.dtstack.chunjun.connector.hbase.HBaseTableSchema;
 import com.dtstack.chunjun.connector.hbase.conf.HBaseConf;
 import com.dtstack.chunjun.connector.hbase.util.HBaseConfigUtils;
+import com.dtstack.chunjun.connector.hbase14.converter.HBaseColumnConverter;
 import com.dtstack.chunjun.connector.hbase14.util.HBaseHelper;
 import com.dtstack.chunjun.source.format.BaseRichInputFormat;
 import com.dtstack.chunjun.throwable.ReadRecordException;
@@ -27,14 +30,15 @@ import com.dtstack.chunjun.throwable.ReadRecordException;
 import org.apache.flink.core.io.InputSplit;
 import org.apache.flink.table.data.RowData;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Result;
-import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.security.UserGroupInformation;
@@ -56,11 +60,13 @@ public class HBaseInputFormat extends BaseRichInputFormat {
 
     protected Map<String, Object> hbaseConfig;
     protected HBaseConf hBaseConf;
+    /** sql及非AbstractBaseColumn模式下的表结构，为空时按column配置投影 */
+    protected HBaseTableSchema hbaseSchema;
 
     private transient Connection connection;
-    private transient Scan scan;
     private transient Table table;
-    private transient ResultScanner resultScanner;
+    private transient HBaseRowScanner rowScanner;
+    private transient HBaseParallelScanner parallelScanner;
     private transient Result next;
 
     @Override
@@ -76,6 +82,36 @@ public class HBaseInputFormat extends BaseRichInputFormat {
 
     @Override
     public InputSplit[] createInputSplitsInternal(int minNumSplits) throws IOException {
+        HBaseInputSplit[] regionSplits = createRegionSplits();
+        int scanParallelism = hBaseConf.getScanParallelism();
+        if (scanParallelism <= 1 || regionSplits.length <= minNumSplits) {
+            return regionSplits;
+        }
+        // 每个分片最多包含scanParallelism个region，并且分片数不少于并行度。region轮流分配，相邻的region通常位于不同的region server
+        int splitNum =
+                Math.max(
+                        minNumSplits,
+                        (regionSplits.length + scanParallelism - 1) / scanParallelism);
+        List<List<HBaseInputSplit>> groups = new ArrayList<>(splitNum);
+        for (int i = 0; i < splitNum; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < regionSplits.length; i++) {
+            groups.get(i % splitNum).add(regionSplits[i]);
+        }
+        InputSplit[] splits = new InputSplit[splitNum];
+        for (int i = 0; i < splitNum; i++) {
+            splits[i] = new HBaseMultiRegionInputSplit(i, groups.get(i));
+        }
+        LOG.info(
+                "group {} regions into {} splits, scanParallelism = {}",
+                regionSplits.length,
+                splitNum,
+                scanParallelism);
+        return splits;
+    }
+
+    private HBaseInputSplit[] createRegionSplits() throws IOException {
         try (Connection connection = HBaseHelper.getHbaseConnection(hbaseConfig)) {
             if (HBaseConfigUtils.isEnableKerberos(hbaseConfig)) {
                 UserGroupInformation ugi = HBaseHelper.getUgi(hbaseConfig);
@@ -101,25 +137,89 @@ public class HBaseInputFormat extends BaseRichInputFormat {
 
     @Override
     public void openInternal(InputSplit inputSplit) throws IOException {
-        HBaseInputSplit hbaseInputSplit = (HBaseInputSplit) inputSplit;
-        byte[] startRow = Bytes.toBytesBinary(hbaseInputSplit.getStartkey());
-        byte[] stopRow = Bytes.toBytesBinary(hbaseInputSplit.getEndKey());
-
         if (null == connection || connection.isClosed()) {
             connection = HBaseHelper.getHbaseConnection(hbaseConfig);
         }
 
-        table = connection.getTable(TableName.valueOf(hBaseConf.getTable()));
-        scan = new Scan();
-        scan.setStartRow(startRow);
-        scan.setStopRow(stopRow);
+        TableName tableName = TableName.valueOf(hBaseConf.getTable());
+        boolean mergeBatches = hBaseConf.getScanBatchSize() > 0;
+        if (inputSplit instanceof HBaseMultiRegionInputSplit) {
+            List<HBaseInputSplit> regions = ((HBaseMultiRegionInputSplit) inputSplit).getRegions();
+            List<Scan> scans = new ArrayList<>(regions.size());
+            for (HBaseInputSplit region : regions) {
+                scans.add(createScan(region));
+            }
+            parallelScanner =
+                    new HBaseParallelScanner(
+                            connection,
+                            tableName,
+                            scans,
+                            mergeBatches,
+                            hBaseConf.getScanCacheSize() * regions.size());
+        } else {
+            table = connection.getTable(tableName);
+            rowScanner =
+                    new HBaseRowScanner(
+                            table.getScanner(createScan((HBaseInputSplit) inputSplit)),
+                            mergeBatches);
+        }
+    }
+
+    private Scan createScan(HBaseInputSplit hbaseInputSplit) {
+        Scan scan = new Scan();
+        scan.setStartRow(Bytes.toBytesBinary(hbaseInputSplit.getStartkey()));
+        scan.setStopRow(Bytes.toBytesBinary(hbaseInputSplit.getEndKey()));
         scan.setCaching(hBaseConf.getScanCacheSize());
-        resultScanner = table.getScanner(scan);
+        if (hBaseConf.getScanBatchSize() > 0) {
+            scan.setBatch(hBaseConf.getScanBatchSize());
+        }
+        if (hBaseConf.getScanMaxResultSize() > 0) {
+            scan.setMaxResultSize(hBaseConf.getScanMaxResultSize());
+        }
+        scan.setCacheBlocks(hBaseConf.isScanCacheBlocks());
+        if (!addProjection(scan)) {
+            // 只读取rowkey或常量时每行只返回第一个cell
+            scan.setFilter(new FirstKeyOnlyFilter());
+        }
+        return scan;
+    }
+
+    /**
+     * 只扫描需要的列
+     *
+     * @return 是否需要读取列
+     */
+    private boolean addProjection(Scan scan) {
+        boolean projected = false;
+        if (hbaseSchema != null) {
+            byte[][] familyKeys = hbaseSchema.getFamilyKeys();
+            String[] familyNames = hbaseSchema.getFamilyNames();
+            for (int i = 0; i < familyNames.length; i++) {
+                for (byte[] qualifier : hbaseSchema.getQualifierKeys(familyNames[i])) {
+                    scan.addColumn(familyKeys[i], qualifier);
+                    projected = true;
+                }
+            }
+            return projected;
+        }
+        for (FieldConf field : hBaseConf.getColumn()) {
+            if (StringUtils.isNotBlank(field.getValue())
+                    || HBaseColumnConverter.KEY_ROW_KEY.equals(field.getName())) {
+                continue;
+            }
+            String[] familyAndQualifier = field.getName().split(":");
+            if (familyAndQualifier.length == 2) {
+                scan.addColumn(
+                        Bytes.toBytes(familyAndQualifier[0]), Bytes.toBytes(familyAndQualifier[1]));
+                projected = true;
+            }
+        }
+        return projected;
     }
 
     @Override
     public boolean reachedEnd() throws IOException {
-        next = resultScanner.next();
+        next = parallelScanner != null ? parallelScanner.next() : rowScanner.next();
         return next == null;
     }
 
@@ -135,6 +235,18 @@ public class HBaseInputFormat extends BaseRichInputFormat {
 
     @Override
     public void closeInternal() throws IOException {
+        if (parallelScanner != null) {
+            parallelScanner.close();
+            parallelScanner = null;
+        }
+        if (rowScanner != null) {
+            rowScanner.close();
+            rowScanner = null;
+        }
+        if (table != null) {
+            table.close();
+            table = null;
+        }
         HBaseHelper.closeConnection(connection);
     }
 
@@ -17,6 +17,7 @@
  */
 package com.dtstack.chunjun.connector.hbase14.source;
 
+import com.dtstack.chunjun.connector.hbase.HBaseTableSchema;
 import com.dtstack.chunjun.connector.hbase.conf.HBaseConf;
 import com.dtstack.chunjun.connector.hbase.conf.HBaseConfigConstants;
 import com.dtstack.chunjun.source.format.BaseRichInputFormatBuilder;
@@ -46,8 +47,15 @@ public class HBaseInputFormatBuilder extends BaseRichInputFormatBuilder {
         ((HBaseInputFormat) format).hBaseConf = hBaseConf;
     }
 
+    public void setHbaseSchema(HBaseTableSchema hbaseSchema) {
+        ((HBaseInputFormat) format).hbaseSchema = hbaseSchema;
+    }
+
     @Override
     protected void checkFormat() {
+        Preconditions.checkArgument(
+                ((HBaseInputFormat) format).hBaseConf.getScanParallelism() > 0,
+                "scanParallelism should be greater than 0");
         Preconditions.checkArgument(
                 ((HBaseInputFormat) format).hBaseConf.getScanCacheSize()
                                 <= HBaseConfigConstants.MAX_SCAN_CACHE_SIZE
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.hbase14.source;
+
+import org.apache.flink.core.io.InputSplit;
+
+import java.util.List;
+
+/**
+ * 包含多个region的分片，由一个subtask并行扫描
+ *
+ * @author tudou
+ */
+public class HBaseMultiRegionInputSplit implements InputSplit {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int splitNumber;
+    private final List<HBaseInputSplit> regions;
+
+    public HBaseMultiRegionInputSplit(int splitNumber, List<HBaseInputSplit> regions) {
+        this.splitNumber = splitNumber;
+        this.regions = regions;
+    }
+
+    public List<HBaseInputSplit> getRegions() {
+        return regions;
+    }
+
+    @Override
+    public int getSplitNumber() {
+        return splitNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "HBaseMultiRegionInputSplit{"
+                + "splitNumber="
+                + splitNumber
+                + ", regions="
+                + regions.size()
+                + '}';
+    }
+}
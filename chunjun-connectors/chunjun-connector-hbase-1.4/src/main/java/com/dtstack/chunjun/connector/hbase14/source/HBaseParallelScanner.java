@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.hbase14.source;
+
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 并行扫描多个region。每个region由一个线程扫描，结果放入有界队列，读取线程从队列中获取。
+ *
+ * <p>不同region的数据交错返回，同一region内的数据保持rowkey顺序。任一线程扫描失败时读取线程抛出异常。
+ *
+ * @author tudou
+ */
+public class HBaseParallelScanner implements Closeable {
+
+    /** 标记一个region扫描结束 */
+    private static final Result END_OF_REGION = new Result();
+
+    private final Connection connection;
+    private final TableName tableName;
+    private final BlockingQueue<Result> queue;
+    private final ExecutorService executor;
+    private final int regionCount;
+
+    private int finishedRegions;
+    private volatile Throwable error;
+
+    public HBaseParallelScanner(
+            Connection connection,
+            TableName tableName,
+            List<Scan> scans,
+            boolean mergeBatches,
+            int queueSize) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.regionCount = scans.size();
+        this.executor =
+                Executors.newFixedThreadPool(
+                        scans.size(), new ChunJunThreadFactory("hbase-parallel-scan", true));
+        for (Scan scan : scans) {
+            executor.execute(() -> scanRegion(scan, mergeBatches));
+        }
+    }
+
+    private void scanRegion(Scan scan, boolean mergeBatches) {
+        try (Table table = connection.getTable(tableName);
+                HBaseRowScanner scanner =
+                        new HBaseRowScanner(table.getScanner(scan), mergeBatches)) {
+            Result result;
+            while ((result = scanner.next()) != null) {
+                queue.put(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Throwable t) {
+            error = t;
+        }
+        try {
+            queue.put(END_OF_REGION);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 读取下一行
+     *
+     * @return 下一行，所有region都扫描结束时返回null
+     */
+    public Result next() throws IOException {
+        while (finishedRegions < regionCount) {
+            Result result;
+            try {
+                result = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while scanning hbase regions", e);
+            }
+            if (error != null) {
+                throw new IOException("scan hbase region failed", error);
+            }
+            if (result == END_OF_REGION) {
+                finishedRegions++;
+            } else {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
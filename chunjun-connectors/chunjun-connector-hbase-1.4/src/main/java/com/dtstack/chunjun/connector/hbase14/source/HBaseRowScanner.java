@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.hbase14.source;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按行读取ResultScanner。设置了Scan#setBatch时同一行会被拆分为多个Result，这里合并为一个完整的Result。
+ *
+ * @author tudou
+ */
+public class HBaseRowScanner implements Closeable {
+
+    private final ResultScanner scanner;
+    private final boolean mergeBatches;
+    /** 预读的下一行的第一个Result */
+    private Result pending;
+
+    public HBaseRowScanner(ResultScanner scanner, boolean mergeBatches) {
+        this.scanner = scanner;
+        this.mergeBatches = mergeBatches;
+    }
+
+    /**
+     * 读取下一行
+     *
+     * @return 完整的一行，没有数据时返回null
+     */
+    public Result next() throws IOException {
+        Result first = pending != null ? pending : scanner.next();
+        pending = null;
+        if (first == null || !mergeBatches) {
+            return first;
+        }
+
+        List<Cell> cells = null;
+        Result result;
+        while ((result = scanner.next()) != null && Bytes.equals(result.getRow(), first.getRow())) {
+            if (cells == null) {
+                cells = new ArrayList<>(first.size() * 2);
+                Collections.addAll(cells, first.rawCells());
+            }
+            Collections.addAll(cells, result.rawCells());
+        }
+        pending = result;
+        return cells == null ? first : Result.create(cells);
+    }
+
+    @Override
+    public void close() {
+        scanner.close();
+    }
+}
@@ -87,6 +87,9 @@ public class HBaseDynamicTableSink implements DynamicTableSink {
         builder.setTableName(conf.getTable());
 
         builder.setWriteBufferSize(conf.getWriteBufferSize());
+        builder.setWriteMode(conf.getWriteMode());
+        builder.setMaxOutstandingBytes(conf.getMaxOutstandingBytes());
+        builder.setWriteThreads(conf.getWriteThreads());
         String nullStringLiteral = conf.getNullStringLiteral();
 
         AbstractRowConverter rowConverter = new HbaseRowConverter(hbaseSchema, nullStringLiteral);
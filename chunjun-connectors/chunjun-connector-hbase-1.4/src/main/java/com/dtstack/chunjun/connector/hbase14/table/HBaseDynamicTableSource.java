@@ -59,6 +59,7 @@ public class HBaseDynamicTableSource extends BaseHBaseDynamicTableSource {
         builder.setConfig(hBaseConf);
         builder.setHbaseConfig(hBaseConf.getHbaseConfig());
         builder.sethHBaseConf(hBaseConf);
+        builder.setHbaseSchema(hbaseSchema);
 
         AbstractRowConverter rowConverter =
                 new HbaseRowConverter(hbaseSchema, hBaseConf.getNullStringLiteral());
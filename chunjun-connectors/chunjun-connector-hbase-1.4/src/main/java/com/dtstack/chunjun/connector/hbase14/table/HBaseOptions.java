@@ -66,4 +66,23 @@ public class HBaseOptions extends BaseFileOptions {
                     .defaultValue(Duration.ofSeconds(1L))
                     .withDescription(
                             "Writing option, the interval to flush any buffered rows. This can improve performance for writing data to HBase database, but may increase the latency. Can be set to '0' to disable it. Note, both 'sink.buffer-flush.max-size' and 'sink.buffer-flush.max-rows' can be set to '0' with the flush interval set allowing for complete async processing of buffered actions.");
+
+    public static final ConfigOption<String> SINK_WRITE_MODE =
+            ConfigOptions.key("sink.write-mode")
+                    .stringType()
+                    .defaultValue("batch")
+                    .withDescription(
+                            "Writing option, 'batch' writes each batch synchronously, 'async' groups mutations by region server and writes them asynchronously.");
+    public static final ConfigOption<MemorySize> SINK_ASYNC_MAX_OUTSTANDING_SIZE =
+            ConfigOptions.key("sink.async.max-outstanding-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("64mb"))
+                    .withDescription(
+                            "Writing option, maximum size of in-flight mutations when 'sink.write-mode' is 'async'.");
+    public static final ConfigOption<Integer> SINK_ASYNC_THREADS =
+            ConfigOptions.key("sink.async.threads")
+                    .intType()
+                    .defaultValue(4)
+                    .withDescription(
+                            "Writing option, number of threads writing to region servers when 'sink.write-mode' is 'async'.");
 }
@@ -37,9 +37,12 @@ import java.util.Map;
 import java.util.Set;
 
 import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.NULL_STRING_LITERAL;
+import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.SINK_ASYNC_MAX_OUTSTANDING_SIZE;
+import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.SINK_ASYNC_THREADS;
 import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.SINK_BUFFER_FLUSH_INTERVAL;
 import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.SINK_BUFFER_FLUSH_MAX_ROWS;
 import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.SINK_BUFFER_FLUSH_MAX_SIZE;
+import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.SINK_WRITE_MODE;
 import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.TABLE_NAME;
 import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.ZOOKEEPER_QUORUM;
 import static com.dtstack.chunjun.connector.hbase14.table.HBaseOptions.ZOOKEEPER_ZNODE_PARENT;
@@ -86,6 +89,9 @@ public class Hbase14DynamicTableFactory
         set.add(SINK_BUFFER_FLUSH_INTERVAL);
         set.add(SINK_BUFFER_FLUSH_MAX_ROWS);
         set.add(SINK_PARALLELISM);
+        set.add(SINK_WRITE_MODE);
+        set.add(SINK_ASYNC_MAX_OUTSTANDING_SIZE);
+        set.add(SINK_ASYNC_THREADS);
 
         set.add(LOOKUP_CACHE_PERIOD);
         set.add(LOOKUP_CACHE_MAX_ROWS);
@@ -212,6 +218,9 @@ public class Hbase14DynamicTableFactory
         conf.setFlushIntervalMills(millis);
         long bufferFlushMaxSizeInBytes = config.get(SINK_BUFFER_FLUSH_MAX_SIZE).getBytes();
         conf.setWriteBufferSize(bufferFlushMaxSizeInBytes);
+        conf.setWriteMode(config.get(SINK_WRITE_MODE));
+        conf.setMaxOutstandingBytes(config.get(SINK_ASYNC_MAX_OUTSTANDING_SIZE).getBytes());
+        conf.setWriteThreads(config.get(SINK_ASYNC_THREADS));
 
         return new HBaseDynamicTableSink(conf, physicalSchema, hbaseSchema);
     }
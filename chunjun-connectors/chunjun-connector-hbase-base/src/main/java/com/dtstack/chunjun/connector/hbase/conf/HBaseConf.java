@@ -29,6 +29,14 @@ public class HBaseConf extends ChunJunCommonConf {
     private boolean isBinaryRowkey;
     private String table;
     private int scanCacheSize = 1000;
+    /** 每个Result中最多的列数，大于0时生效，同一行被拆分的多个Result会重新合并 */
+    private int scanBatchSize;
+    /** 一次RPC返回的最大字节数，大于0时生效 */
+    private long scanMaxResultSize;
+    /** 扫描的数据是否放入block cache，全表扫描时关闭以免挤出热点数据 */
+    private boolean scanCacheBlocks;
+    /** 每个subtask同时扫描的region数 */
+    private int scanParallelism = 1;
 
     // writer
     private String nullMode;
@@ -38,6 +46,12 @@ public class HBaseConf extends ChunJunCommonConf {
     private String rowkeyExpress;
     private Integer versionColumnIndex;
     private String versionColumnValue;
+    /** 写入方式，batch：同步批量写入；async：按region server分组异步写入 */
+    private String writeMode = HBaseConfigConstants.WRITE_MODE_BATCH;
+    /** async写入时在途数据的最大字节数 */
+    private long maxOutstandingBytes = 64 * 1024 * 1024L;
+    /** async写入的线程数 */
+    private int writeThreads = 4;
 
     public String getEncoding() {
         return encoding;
@@ -95,6 +109,38 @@ public class HBaseConf extends ChunJunCommonConf {
         this.scanCacheSize = scanCacheSize;
     }
 
+    public int getScanBatchSize() {
+        return scanBatchSize;
+    }
+
+    public void setScanBatchSize(int scanBatchSize) {
+        this.scanBatchSize = scanBatchSize;
+    }
+
+    public long getScanMaxResultSize() {
+        return scanMaxResultSize;
+    }
+
+    public void setScanMaxResultSize(long scanMaxResultSize) {
+        this.scanMaxResultSize = scanMaxResultSize;
+    }
+
+    public boolean isScanCacheBlocks() {
+        return scanCacheBlocks;
+    }
+
+    public void setScanCacheBlocks(boolean scanCacheBlocks) {
+        this.scanCacheBlocks = scanCacheBlocks;
+    }
+
+    public int getScanParallelism() {
+        return scanParallelism;
+    }
+
+    public void setScanParallelism(int scanParallelism) {
+        this.scanParallelism = scanParallelism;
+    }
+
     public String getNullMode() {
         return nullMode;
     }
@@ -150,4 +196,28 @@ public class HBaseConf extends ChunJunCommonConf {
     public void setNullStringLiteral(String nullStringLiteral) {
         this.nullStringLiteral = nullStringLiteral;
     }
+
+    public String getWriteMode() {
+        return writeMode;
+    }
+
+    public void setWriteMode(String writeMode) {
+        this.writeMode = writeMode;
+    }
+
+    public long getMaxOutstandingBytes() {
+        return maxOutstandingBytes;
+    }
+
+    public void setMaxOutstandingBytes(long maxOutstandingBytes) {
+        this.maxOutstandingBytes = maxOutstandingBytes;
+    }
+
+    public int getWriteThreads() {
+        return writeThreads;
+    }
+
+    public void setWriteThreads(int writeThreads) {
+        this.writeThreads = writeThreads;
+    }
 }
@@ -42,4 +42,8 @@ public class HBaseConfigConstants {
     public static final long DEFAULT_WRITE_BUFFER_SIZE = 8 * 1024 * 1024L;
 
     public static final boolean DEFAULT_WAL_FLAG = false;
+
+    public static final String WRITE_MODE_BATCH = "batch";
+
+    public static final String WRITE_MODE_ASYNC = "async";
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.hbase.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 直接在字节上解析以文本形式存储的数值及布尔值，避免先按编码构造String。
+ *
+ * <p>只适用于与ASCII兼容的编码(UTF-8、GBK、ISO-8859-1等)，数值文本中只有ASCII字符。
+ *
+ * @author tudou
+ */
+public class HBaseBytesUtil {
+
+    private static final byte[] NUMERIC_CHARS =
+            "0123456789+-.eE".getBytes(StandardCharsets.US_ASCII);
+
+    private HBaseBytesUtil() {}
+
+    /**
+     * 编码中数值字符是否与ASCII相同
+     *
+     * @param encoding 编码
+     * @return 是否可以直接按字节解析
+     */
+    public static boolean isAsciiCompatible(String encoding) {
+        return Arrays.equals(NUMERIC_CHARS, "0123456789+-.eE".getBytes(Charset.forName(encoding)));
+    }
+
+    /**
+     * 解析文本形式的数值
+     *
+     * @param bytes 文本字节
+     * @return 数值
+     * @throws NumberFormatException 不是合法的数值
+     */
+    public static BigDecimal parseBigDecimal(byte[] bytes) {
+        char[] chars = new char[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] < 0) {
+                throw new NumberFormatException("not a number: " + new String(bytes));
+            }
+            chars[i] = (char) bytes[i];
+        }
+        return new BigDecimal(chars);
+    }
+
+    /**
+     * 按{@link Boolean#parseBoolean(String)}的规则解析，只有忽略大小写的true为true
+     *
+     * @param bytes 文本字节
+     * @return 布尔值
+     */
+    public static boolean parseBoolean(byte[] bytes) {
+        return bytes.length == 4
+                && (bytes[0] | 0x20) == 't'
+                && (bytes[1] | 0x20) == 'r'
+                && (bytes[2] | 0x20) == 'u'
+                && (bytes[3] | 0x20) == 'e';
+    }
+}
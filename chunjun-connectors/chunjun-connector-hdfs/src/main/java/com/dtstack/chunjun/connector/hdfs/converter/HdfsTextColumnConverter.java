@@ -74,11 +74,7 @@ public class HdfsTextColumnConverter
         if (input instanceof GenericRowData) {
             GenericRowData genericRowData = (GenericRowData) input;
             for (int i = 0; i < input.getArity(); i++) {
-                row.addField(
-                        (AbstractBaseColumn)
-                                toInternalConverters
-                                        .get(i)
-                                        .deserialize(genericRowData.getField(i)));
+                row.addField(toInternalField(i, genericRowData.getField(i)));
             }
         } else {
             throw new ChunJunRuntimeException(
@@ -89,6 +85,18 @@ public class HdfsTextColumnConverter
         return row;
     }
 
+    /**
+     * 将单个字段转换为 AbstractBaseColumn
+     *
+     * @param pos 字段下标
+     * @param field 字段值
+     * @return 转换后的字段
+     */
+    @SuppressWarnings("unchecked")
+    public AbstractBaseColumn toInternalField(int pos, Object field) throws Exception {
+        return (AbstractBaseColumn) toInternalConverters.get(pos).deserialize(field);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public String[] toExternal(RowData rowData, String[] data) throws Exception {
@@ -19,10 +19,13 @@ package com.dtstack.chunjun.connector.hdfs.source;
 
 import com.dtstack.chunjun.conf.FieldConf;
 import com.dtstack.chunjun.connector.hdfs.InputSplit.HdfsTextInputSplit;
+import com.dtstack.chunjun.connector.hdfs.converter.HdfsTextColumnConverter;
 import com.dtstack.chunjun.connector.hdfs.util.HdfsUtil;
 import com.dtstack.chunjun.constants.ConstantValue;
+import com.dtstack.chunjun.element.ColumnRowData;
 import com.dtstack.chunjun.throwable.ChunJunRuntimeException;
 import com.dtstack.chunjun.throwable.ReadRecordException;
+import com.dtstack.chunjun.util.DelimitedTextScanner;
 
 import org.apache.flink.core.io.InputSplit;
 import org.apache.flink.table.data.GenericRowData;
@@ -37,6 +40,7 @@ import org.apache.hadoop.mapred.Reporter;
 import org.apache.hadoop.mapred.TextInputFormat;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.security.PrivilegedAction;
 import java.util.List;
 
@@ -47,6 +51,9 @@ import java.util.List;
  */
 public class HdfsTextInputFormat extends BaseHdfsInputFormat {
 
+    /** 直接在字节上切分字段，只解码需要读取的字段，不支持时为 null */
+    private transient DelimitedTextScanner textScanner;
+
     @Override
     public InputSplit[] createHdfsSplit(int minNumSplits) throws IOException {
         super.initHadoopJobConf();
@@ -110,11 +117,36 @@ public class HdfsTextInputFormat extends BaseHdfsInputFormat {
                 super.inputFormat.getRecordReader(fileSplit, super.hadoopJobConf, Reporter.NULL);
         super.key = new LongWritable();
         super.value = new Text();
+        initTextScanner();
+    }
+
+    /** 同步任务且分隔符可以在字节上匹配时，使用 DelimitedTextScanner 读取需要的字段 */
+    private void initTextScanner() {
+        List<FieldConf> fieldConfList = hdfsConf.getColumn();
+        Charset charset = Charset.forName(hdfsConf.getEncoding());
+        if (!(rowConverter instanceof HdfsTextColumnConverter)
+                || (fieldConfList.size() == 1
+                        && ConstantValue.STAR_SYMBOL.equals(fieldConfList.get(0).getName()))
+                || !DelimitedTextScanner.isSupported(hdfsConf.getFieldDelimiter(), charset)) {
+            return;
+        }
+        int maxIndex = -1;
+        for (FieldConf fieldConf : fieldConfList) {
+            if (fieldConf.getValue() == null && fieldConf.getIndex() != null) {
+                maxIndex = Math.max(maxIndex, fieldConf.getIndex());
+            }
+        }
+        textScanner =
+                DelimitedTextScanner.ofSeparatorChars(hdfsConf.getFieldDelimiter(), charset)
+                        .withMaxIndex(maxIndex);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public RowData nextRecordInternal(RowData rowData) throws ReadRecordException {
+        if (textScanner != null) {
+            return nextScannedRecord(rowData);
+        }
         try {
             String line =
                     new String(
@@ -156,4 +188,36 @@ public class HdfsTextInputFormat extends BaseHdfsInputFormat {
             throw new ReadRecordException("", e, 0, rowData);
         }
     }
+
+    /**
+     * 在 Text 的字节上切分字段，只解码配置中读取的字段并直接转换为 ColumnRowData
+     *
+     * @param rowData rowData
+     * @return ColumnRowData
+     */
+    private RowData nextScannedRecord(RowData rowData) throws ReadRecordException {
+        try {
+            Text text = (Text) value;
+            int fieldCount = textScanner.scan(text.getBytes(), 0, text.getLength());
+            HdfsTextColumnConverter converter = (HdfsTextColumnConverter) rowConverter;
+            List<FieldConf> fieldConfList = hdfsConf.getColumn();
+            ColumnRowData columnRowData = new ColumnRowData(fieldConfList.size());
+            for (int i = 0; i < fieldConfList.size(); i++) {
+                FieldConf fieldConf = fieldConfList.get(i);
+                Object value = null;
+                if (fieldConf.getValue() != null) {
+                    value = fieldConf.getValue();
+                } else if (fieldConf.getIndex() != null && fieldConf.getIndex() < fieldCount) {
+                    String strVal = textScanner.getString(fieldConf.getIndex());
+                    if (!HdfsUtil.NULL_VALUE.equals(strVal)) {
+                        value = strVal;
+                    }
+                }
+                columnRowData.addField(converter.toInternalField(i, value));
+            }
+            return columnRowData;
+        } catch (Exception e) {
+            throw new ReadRecordException("", e, 0, rowData);
+        }
+    }
 }
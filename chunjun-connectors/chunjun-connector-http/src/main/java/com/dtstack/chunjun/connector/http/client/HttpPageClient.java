@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.http.client;
+
+import com.dtstack.chunjun.connector.http.common.ConstantValue;
+import com.dtstack.chunjun.connector.http.common.HttpRestConfig;
+import com.dtstack.chunjun.connector.http.common.HttpUtil;
+import com.dtstack.chunjun.connector.http.common.MetaParam;
+import com.dtstack.chunjun.connector.http.common.ParamType;
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+import com.dtstack.chunjun.util.ExceptionUtil;
+import com.dtstack.chunjun.util.GsonUtil;
+import com.dtstack.chunjun.util.ThreadUtil;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 分页读取的 httpClient
+ *
+ * <p>第k页(从0开始)的分页参数值为 pageStart + k * pageStep，按 k % totalSplits 分配到各个并行度上； 每个并行度同时预取 prefetchPages
+ * 页，按页的顺序返回数据
+ */
+public class HttpPageClient {
+    private static final Logger LOG = LoggerFactory.getLogger(HttpPageClient.class);
+
+    private static final String THREAD_NAME = "restApiPageReader-thread";
+
+    /** 等待一页返回的最长时间，超时后释放checkpoint锁再继续等待 */
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+    private final HttpRestConfig restConfig;
+
+    private final RestHandler restHandler;
+
+    private final CloseableHttpClient httpClient;
+
+    private final ExecutorService executorService;
+
+    /** origin body */
+    private final List<MetaParam> originalBodyList;
+
+    /** origin param */
+    private final List<MetaParam> originalParamList;
+
+    /** origin header */
+    private final List<MetaParam> originalHeaderList;
+
+    private final List<MetaParam> allMetaParam = new ArrayList<>(32);
+
+    /** 分页参数 */
+    private final MetaParam pageMetaParam;
+
+    private final int splitNumber;
+
+    private final int totalSplits;
+
+    /** 预取中的页，按页的顺序排列 */
+    private final Deque<Future<ResponseValue>> prefetchQueue = new ArrayDeque<>();
+
+    /** 下一次提交请求的页在本并行度中的序号 */
+    private long nextPageIndex;
+
+    /** 是否已经没有需要请求的页 */
+    private boolean exhausted;
+
+    public HttpPageClient(
+            HttpRestConfig httpRestConfig,
+            List<MetaParam> originalBodyList,
+            List<MetaParam> originalParamList,
+            List<MetaParam> originalHeaderList,
+            int splitNumber,
+            int totalSplits) {
+        this.restConfig = httpRestConfig;
+        this.originalHeaderList = originalHeaderList;
+        this.originalBodyList = originalBodyList;
+        this.originalParamList = originalParamList;
+        allMetaParam.addAll(originalHeaderList);
+        allMetaParam.addAll(originalBodyList);
+        allMetaParam.addAll(originalParamList);
+        this.splitNumber = splitNumber;
+        this.totalSplits = totalSplits;
+
+        this.pageMetaParam =
+                new MetaParam(
+                        httpRestConfig.getPageParamName(),
+                        null,
+                        ParamType.valueOf(
+                                httpRestConfig.getPageParamType().toUpperCase(Locale.ENGLISH)),
+                        false);
+        this.httpClient = HttpUtil.getHttpsClient();
+        this.restHandler = new DefaultRestHandler();
+        this.executorService =
+                Executors.newFixedThreadPool(
+                        httpRestConfig.getPrefetchPages(),
+                        new ChunJunThreadFactory(THREAD_NAME, true));
+    }
+
+    /**
+     * 从checkpoint恢复时，从上一次读取的页的下一页开始读取
+     *
+     * @param requestParam 上一次读取的页的请求参数
+     */
+    public void initPosition(HttpRequestParam requestParam) {
+        Object pageValue = requestParam.getValue(pageMetaParam, restConfig.getFieldDelimiter());
+        long page =
+                (new BigDecimal(String.valueOf(pageValue)).longValue() - restConfig.getPageStart())
+                        / restConfig.getPageStep();
+        nextPageIndex = (page - splitNumber) / totalSplits + 1;
+    }
+
+    public void start() {
+        for (int i = 0; i < restConfig.getPrefetchPages(); i++) {
+            submitNextPage();
+        }
+    }
+
+    /**
+     * 获取下一页的数据，未返回时等待一段时间后返回null
+     *
+     * @return 下一页的数据；null 代表暂未返回或者已经读取结束，通过 {@link #isFinished()} 区分
+     */
+    public ResponseValue takeEvent() {
+        Future<ResponseValue> future = prefetchQueue.peek();
+        if (future == null) {
+            return null;
+        }
+        ResponseValue value;
+        try {
+            value = future.get(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            value =
+                    new ResponseValue(
+                            -1, null, ExceptionUtil.getErrorMessage(e.getCause()), null, null);
+        }
+        prefetchQueue.poll();
+
+        if (value.isNormal() && value.getStatus() != 0) {
+            submitNextPage();
+        } else {
+            // 触发了stop策略或者请求异常，后面的页不再读取
+            exhausted = true;
+            cancelPrefetch();
+        }
+        return value;
+    }
+
+    /** 是否所有的页都已经读取完成 */
+    public boolean isFinished() {
+        return exhausted && prefetchQueue.isEmpty();
+    }
+
+    private void submitNextPage() {
+        if (exhausted) {
+            return;
+        }
+        long page = splitNumber + nextPageIndex * totalSplits;
+        if (restConfig.getPageCount() > 0 && page >= restConfig.getPageCount()) {
+            exhausted = true;
+            return;
+        }
+        nextPageIndex++;
+        long pageValue = restConfig.getPageStart() + page * restConfig.getPageStep();
+        prefetchQueue.add(executorService.submit(() -> fetchPage(pageValue)));
+    }
+
+    private ResponseValue fetchPage(long pageValue) {
+        HttpRequestParam requestParam;
+        try {
+            // 分页读取时每一页的请求相互独立，不依赖上一次的请求和返回值
+            requestParam =
+                    restHandler.buildRequestParam(
+                            originalParamList,
+                            originalBodyList,
+                            originalHeaderList,
+                            null,
+                            null,
+                            restConfig,
+                            true);
+            requestParam.putValue(pageMetaParam, restConfig.getFieldDelimiter(), pageValue);
+        } catch (Exception e) {
+            return new ResponseValue(-1, null, ExceptionUtil.getErrorMessage(e), null, null);
+        }
+
+        LOG.debug("request page {}, param is {}", pageValue, requestParam);
+        String errorMsg = null;
+        for (int retryTime = 0; retryTime <= ConstantValue.REQUEST_RETRY_TIME; retryTime++) {
+            if (retryTime > 0) {
+                ThreadUtil.sleepMilliseconds(restConfig.getIntervalTime());
+            }
+            String responseValue;
+            try {
+                HttpUriRequest request =
+                        HttpUtil.getRequest(
+                                restConfig.getRequestMode(),
+                                requestParam.getBody(),
+                                requestParam.getParam(),
+                                requestParam.getHeader(),
+                                restConfig.getUrl());
+                try (CloseableHttpResponse httpResponse = httpClient.execute(request)) {
+                    int statusCode = httpResponse.getStatusLine().getStatusCode();
+                    if (statusCode != HttpStatus.SC_OK) {
+                        EntityUtils.consumeQuietly(httpResponse.getEntity());
+                        errorMsg = "httpStatus is " + statusCode + " and is not 200";
+                        LOG.warn("request page {} failed, {}, try retry", pageValue, errorMsg);
+                        continue;
+                    }
+                    responseValue = EntityUtils.toString(httpResponse.getEntity());
+                }
+            } catch (Throwable e) {
+                errorMsg = ExceptionUtil.getErrorMessage(e);
+                LOG.warn("request page {} failed, error info is {}", pageValue, errorMsg);
+                continue;
+            }
+
+            try {
+                Strategy strategy =
+                        restHandler.chooseStrategy(
+                                restConfig.getStrategy(),
+                                restConfig.isJsonDecode()
+                                        ? GsonUtil.GSON.fromJson(
+                                                responseValue, GsonUtil.gsonMapTypeToken)
+                                        : null,
+                                restConfig,
+                                HttpRequestParam.copy(requestParam),
+                                allMetaParam);
+                if (strategy != null && ConstantValue.STRATEGY_RETRY.equals(strategy.getHandle())) {
+                    errorMsg = "the strategy [" + strategy + "] is triggered";
+                    continue;
+                }
+
+                ResponseValue value =
+                        restHandler.buildResponseValue(
+                                restConfig.getDecode(),
+                                responseValue,
+                                restConfig.getFields(),
+                                HttpRequestParam.copy(requestParam));
+                if (strategy != null && ConstantValue.STRATEGY_STOP.equals(strategy.getHandle())) {
+                    // 触发stop策略的页代表已经超过最后一页
+                    value.setStatus(0);
+                    value.setErrorMsg(strategy.toString());
+                }
+                return value;
+            } catch (Throwable e) {
+                return new ResponseValue(
+                        -1,
+                        null,
+                        "page "
+                                + pageValue
+                                + " response value is "
+                                + responseValue
+                                + " exception "
+                                + ExceptionUtil.getErrorMessage(e),
+                        null,
+                        null);
+            }
+        }
+        return new ResponseValue(
+                -1,
+                null,
+                "the maximum number of retries has been reached when request page "
+                        + pageValue
+                        + ", error info is "
+                        + errorMsg,
+                null,
+                null);
+    }
+
+    private void cancelPrefetch() {
+        Future<ResponseValue> future;
+        while ((future = prefetchQueue.poll()) != null) {
+            future.cancel(true);
+        }
+    }
+
+    public void close() {
+        try {
+            cancelPrefetch();
+            executorService.shutdownNow();
+            HttpUtil.closeClient(httpClient);
+        } catch (Exception e) {
+            LOG.warn("close resource error,msg is " + ExceptionUtil.getErrorMessage(e));
+        }
+    }
+}
@@ -20,6 +20,8 @@ package com.dtstack.chunjun.connector.http.common;
 import com.dtstack.chunjun.conf.ChunJunCommonConf;
 import com.dtstack.chunjun.connector.http.client.Strategy;
 
+import org.apache.commons.lang3.StringUtils;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -67,6 +69,24 @@ public class HttpRestConfig extends ChunJunCommonConf {
     /** 返回结果的处理策略 */
     protected List<Strategy> strategy = new ArrayList<>(2);
 
+    /** 分页参数名，配置后按页切分到各个并行度上读取 */
+    private String pageParamName;
+
+    /** 分页参数位置 param/body */
+    private String pageParamType = "param";
+
+    /** 第一页的分页参数值 */
+    private long pageStart = 1L;
+
+    /** 相邻两页分页参数值的差，按页码分页时为1，按偏移量分页时为每页条数 */
+    private long pageStep = 1L;
+
+    /** 总页数，小于等于0时由stop策略判断读取结束 */
+    private long pageCount;
+
+    /** 每个并行度同时预取的页数 */
+    private int prefetchPages = 1;
+
     public String getFieldTypes() {
         return fieldTypes;
     }
@@ -79,6 +99,58 @@ public class HttpRestConfig extends ChunJunCommonConf {
         return getDecode().equalsIgnoreCase(ConstantValue.DEFAULT_DECODE);
     }
 
+    public boolean isPaging() {
+        return StringUtils.isNotBlank(pageParamName);
+    }
+
+    public String getPageParamName() {
+        return pageParamName;
+    }
+
+    public void setPageParamName(String pageParamName) {
+        this.pageParamName = pageParamName;
+    }
+
+    public String getPageParamType() {
+        return pageParamType;
+    }
+
+    public void setPageParamType(String pageParamType) {
+        this.pageParamType = pageParamType;
+    }
+
+    public long getPageStart() {
+        return pageStart;
+    }
+
+    public void setPageStart(long pageStart) {
+        this.pageStart = pageStart;
+    }
+
+    public long getPageStep() {
+        return pageStep;
+    }
+
+    public void setPageStep(long pageStep) {
+        this.pageStep = pageStep;
+    }
+
+    public long getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(long pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    public void setPrefetchPages(int prefetchPages) {
+        this.prefetchPages = prefetchPages;
+    }
+
     public String getProtocol() {
         return protocol;
     }
@@ -197,6 +269,20 @@ public class HttpRestConfig extends ChunJunCommonConf {
                 + body
                 + ", strategy="
                 + strategy
+                + ", pageParamName='"
+                + pageParamName
+                + '\''
+                + ", pageParamType='"
+                + pageParamType
+                + '\''
+                + ", pageStart="
+                + pageStart
+                + ", pageStep="
+                + pageStep
+                + ", pageCount="
+                + pageCount
+                + ", prefetchPages="
+                + prefetchPages
                 + '}';
     }
 }
@@ -109,11 +109,33 @@ public class HttpUtil {
                 .setConnectionManager(pcm);
     }
 
+    /**
+     * 获取连接池复用连接的 HttpClient，不在 client 内部重试，由调用方控制重试
+     *
+     * @param maxConnections 单个地址的最大连接数
+     * @param timeout 超时时间，单位毫秒
+     * @return HttpClient
+     */
+    public static CloseableHttpClient getPooledHttpClient(int maxConnections, int timeout) {
+        RequestConfig requestConfig =
+                RequestConfig.custom()
+                        .setConnectTimeout(timeout)
+                        .setConnectionRequestTimeout(timeout)
+                        .setSocketTimeout(timeout)
+                        .build();
+        PoolingHttpClientConnectionManager pcm = new PoolingHttpClientConnectionManager();
+        pcm.setDefaultMaxPerRoute(Math.max(COUNT, maxConnections));
+        pcm.setMaxTotal(Math.max(TOTAL_COUNT, maxConnections));
+
+        return HttpClientBuilder.create()
+                .setDefaultRequestConfig(requestConfig)
+                .setConnectionManager(pcm)
+                .disableAutomaticRetries()
+                .build();
+    }
+
     public static HttpRequestBase getRequest(
-            String method,
-            Map<String, Object> requestBody,
-            Map<String, String> header,
-            String url) {
+            String method, Object requestBody, Map<String, String> header, String url) {
         LOG.debug("current request url: {}  current method:{} \n", url, method);
         HttpRequestBase request;
 
@@ -194,7 +216,7 @@ public class HttpUtil {
         }
     }
 
-    public static StringEntity getEntityData(Map<String, Object> body) {
+    public static StringEntity getEntityData(Object body) {
         StringEntity stringEntity = new StringEntity(gson.toJson(body), StandardCharsets.UTF_8);
         stringEntity.setContentEncoding(StandardCharsets.UTF_8.name());
         return stringEntity;
@@ -47,6 +47,39 @@ public class HttpWriterConfig extends ChunJunCommonConf {
 
     protected Map<String, Object> formatBody = Maps.newHashMap();
 
+    /** 批量写入时同时发送中的最大请求数，不大于1时同步发送 */
+    protected int maxInFlightRequests = 1;
+
+    /** 请求失败后的最大重试次数 */
+    protected int maxRetries = 4;
+
+    /** 重试间隔，单位毫秒，第n次重试等待n倍的间隔 */
+    protected long retryInterval = 1000L;
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryInterval() {
+        return retryInterval;
+    }
+
+    public void setRetryInterval(long retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
     public int getDelay() {
         return delay;
     }
@@ -18,6 +18,7 @@
 package com.dtstack.chunjun.connector.http.inputformat;
 
 import com.dtstack.chunjun.connector.http.client.HttpClient;
+import com.dtstack.chunjun.connector.http.client.HttpPageClient;
 import com.dtstack.chunjun.connector.http.client.HttpRequestParam;
 import com.dtstack.chunjun.connector.http.client.ResponseValue;
 import com.dtstack.chunjun.connector.http.common.HttpRestConfig;
@@ -45,6 +46,9 @@ public class HttpInputFormat extends BaseRichInputFormat {
     /** 执行请求客户端 */
     protected HttpClient myHttpClient;
 
+    /** 分页读取时的请求客户端 */
+    protected HttpPageClient pageClient;
+
     protected HttpRestConfig httpRestConfig;
 
     /** 原始请求参数body */
@@ -69,6 +73,22 @@ public class HttpInputFormat extends BaseRichInputFormat {
     @Override
     @SuppressWarnings("unchecked")
     protected void openInternal(InputSplit inputSplit) {
+        if (httpRestConfig.isPaging()) {
+            GenericInputSplit split = (GenericInputSplit) inputSplit;
+            pageClient =
+                    new HttpPageClient(
+                            httpRestConfig,
+                            metaBodys,
+                            metaParams,
+                            metaHeaders,
+                            split.getSplitNumber(),
+                            split.getTotalNumberOfSplits());
+            if (state != null) {
+                pageClient.initPosition(state.getRequestParam());
+            }
+            pageClient.start();
+            return;
+        }
         myHttpClient = new HttpClient(httpRestConfig, metaBodys, metaParams, metaHeaders);
         if (state != null) {
             myHttpClient.initPosition(state.getRequestParam(), state.getOriginResponseValue());
@@ -79,6 +99,9 @@ public class HttpInputFormat extends BaseRichInputFormat {
 
     @Override
     protected RowData nextRecordInternal(RowData rowData) throws ReadRecordException {
+        if (pageClient != null) {
+            return nextPageRecord();
+        }
         ResponseValue value = myHttpClient.takeEvent();
         if (null == value) {
             return null;
@@ -112,6 +135,36 @@ public class HttpInputFormat extends BaseRichInputFormat {
         }
     }
 
+    /** 分页读取时，触发stop策略的页以及超过总页数代表本并行度读取结束 */
+    private RowData nextPageRecord() throws ReadRecordException {
+        ResponseValue value = pageClient.takeEvent();
+        if (null == value) {
+            reachEnd = pageClient.isFinished();
+            return null;
+        }
+        if (!value.isNormal()) {
+            throw new RuntimeException("request data error,msg is " + value.getErrorMsg());
+        }
+        if (value.getStatus() == 0) {
+            LOG.info(
+                    "the strategy [{}] is triggered by request param [{}], read finished",
+                    value.getErrorMsg(),
+                    value.getRequestParam());
+            reachEnd = true;
+            return null;
+        }
+        state =
+                new ResponseValue(
+                        "",
+                        HttpRequestParam.copy(value.getRequestParam()),
+                        value.getOriginResponseValue());
+        try {
+            return rowConverter.toInternal(value.getData());
+        } catch (Exception e) {
+            throw new ReadRecordException(e.getMessage(), e);
+        }
+    }
+
     @Override
     protected InputSplit[] createInputSplitsInternal(int minNumSplits) {
         InputSplit[] inputSplits = new InputSplit[minNumSplits];
@@ -140,7 +193,12 @@ public class HttpInputFormat extends BaseRichInputFormat {
 
     @Override
     protected void closeInternal() {
-        myHttpClient.close();
+        if (pageClient != null) {
+            pageClient.close();
+        }
+        if (myHttpClient != null) {
+            myHttpClient.close();
+        }
     }
 
     @Override
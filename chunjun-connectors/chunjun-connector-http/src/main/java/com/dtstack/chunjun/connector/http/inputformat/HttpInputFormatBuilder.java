@@ -111,6 +111,34 @@ public class HttpInputFormatBuilder extends BaseRichInputFormatBuilder<HttpInput
                     .append("\n");
         }
 
+        if (format.httpRestConfig.isPaging()) {
+            String pageParamType = format.httpRestConfig.getPageParamType();
+            if (!ParamType.PARAM.name().equalsIgnoreCase(pageParamType)
+                    && !ParamType.BODY.name().equalsIgnoreCase(pageParamType)) {
+                errorMsg.append("pageParamType just support param and body,we not support ")
+                        .append(pageParamType)
+                        .append(" \n");
+            }
+            if (format.httpRestConfig.getPageStep() <= 0) {
+                errorMsg.append("param 【pageStep】must more than 0 \n");
+            }
+            if (format.httpRestConfig.getPrefetchPages() <= 0) {
+                errorMsg.append("param 【prefetchPages】must more than 0 \n");
+            }
+            // 没有总页数也没有stop策略时无法判断最后一页，任务永远不会结束
+            List<Strategy> strategies = format.httpRestConfig.getStrategy();
+            if (format.httpRestConfig.getPageCount() <= 0
+                    && (CollectionUtils.isEmpty(strategies)
+                            || strategies.stream()
+                                    .noneMatch(
+                                            i ->
+                                                    ConstantValue.STRATEGY_STOP.equals(
+                                                            i.getHandle())))) {
+                errorMsg.append(
+                        "param 【pageCount】must more than 0 when no stop strategy is configured \n");
+            }
+        }
+
         if (errorMsg.length() > 0) {
             throw new IllegalArgumentException(errorMsg.toString());
         }
@@ -21,6 +21,8 @@ import com.dtstack.chunjun.conf.FieldConf;
 import com.dtstack.chunjun.connector.http.common.HttpUtil;
 import com.dtstack.chunjun.connector.http.common.HttpWriterConfig;
 import com.dtstack.chunjun.element.ColumnRowData;
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+import com.dtstack.chunjun.restore.FormatState;
 import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
 import com.dtstack.chunjun.throwable.ChunJunRuntimeException;
 import com.dtstack.chunjun.throwable.WriteRecordException;
@@ -34,10 +36,10 @@ import com.google.common.collect.Maps;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import org.apache.http.HttpStatus;
-import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -45,6 +47,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static com.dtstack.chunjun.connector.http.common.HttpKeys.KEY_BATCH;
 
@@ -58,13 +66,24 @@ public class HttpOutputFormat extends BaseRichOutputFormat {
 
     protected static final int DEFAULT_TIME_OUT = 300000;
 
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
     protected Gson gson;
 
-    @Override
-    protected void preCommit() {}
+    /** 整个任务共用的连接池 client，连接保持长连接复用 */
+    protected transient CloseableHttpClient httpClient;
+
+    /** 异步发送批量请求的线程池，maxInFlightRequests不大于1时为空，同步发送 */
+    private transient ExecutorService requestExecutor;
+
+    /** 发送中的请求许可，许可用完时阻塞写入，形成背压 */
+    private transient Semaphore inFlightPermits;
+
+    /** 已完成的异步请求，由写入线程统一处理指标和脏数据 */
+    private transient ConcurrentLinkedQueue<BatchResult> completedBatches;
 
     @Override
-    protected void closeInternal() {}
+    protected void preCommit() {}
 
     @Override
     public void rollback(long checkpointId) {}
@@ -76,6 +95,33 @@ public class HttpOutputFormat extends BaseRichOutputFormat {
     protected void openInternal(int taskNumber, int numTasks) {
         httpWriterConfig.getParams().put("threadId", UUID.randomUUID().toString().substring(0, 8));
         gson = new GsonBuilder().serializeNulls().create();
+
+        int maxInFlightRequests = Math.max(1, httpWriterConfig.getMaxInFlightRequests());
+        httpClient = HttpUtil.getPooledHttpClient(maxInFlightRequests, DEFAULT_TIME_OUT);
+        completedBatches = new ConcurrentLinkedQueue<>();
+        if (batchSize > 1 && maxInFlightRequests > 1) {
+            inFlightPermits = new Semaphore(maxInFlightRequests);
+            requestExecutor =
+                    new ThreadPoolExecutor(
+                            maxInFlightRequests,
+                            maxInFlightRequests,
+                            0L,
+                            TimeUnit.MILLISECONDS,
+                            new LinkedBlockingQueue<>(),
+                            new ChunJunThreadFactory("http-sink-request", true));
+        }
+    }
+
+    @Override
+    protected void closeInternal() {
+        try {
+            waitForInFlightRequests();
+        } finally {
+            if (requestExecutor != null) {
+                requestExecutor.shutdownNow();
+            }
+            HttpUtil.closeClient(httpClient);
+        }
     }
 
     @Override
@@ -89,28 +135,18 @@ public class HttpOutputFormat extends BaseRichOutputFormat {
     }
 
     private void httpRequest(RowData row) throws WriteRecordException {
-        LOG.info("start write single record");
-        CloseableHttpClient httpClient = HttpUtil.getHttpClient();
         Map<String, Object> mapData = getMapDataFromRow(row, httpWriterConfig.getColumn());
         try {
-            sendRequest(
-                    httpClient,
-                    mapData,
-                    httpWriterConfig.getMethod(),
-                    httpWriterConfig.getHeader(),
-                    httpWriterConfig.getUrl());
-            ThreadUtil.sleepMilliseconds(httpWriterConfig.getDelay());
+            sendWithRetry(mapData, httpWriterConfig.getHeader());
         } catch (IOException e) {
-            throw new ChunJunRuntimeException(e);
-        } finally {
-            HttpUtil.closeClient(httpClient);
+            throw new WriteRecordException(e.getMessage(), e, -1, row);
         }
+        sleepDelay();
     }
 
     /** only for data assert */
     private void httpRequestForAssert() {
         try {
-            CloseableHttpClient httpClient = HttpUtil.getHttpClient();
             List<Object> dataRow = new ArrayList<>();
             Map<String, Object> requestBody = Maps.newHashMap();
             for (RowData row : rows) {
@@ -127,24 +163,142 @@ public class HttpOutputFormat extends BaseRichOutputFormat {
             httpWriterConfig.getFormatBody().put("data", dataRow);
             requestBody.put("json", httpWriterConfig.getFormatBody());
             LOG.info("this batch size = {}, send data:{}", rows.size(), gson.toJson(requestBody));
-            sendRequest(
-                    httpClient,
-                    requestBody,
-                    httpWriterConfig.getMethod(),
-                    httpWriterConfig.getFormatHeader(),
-                    httpWriterConfig.getUrl());
+            sendWithRetry(requestBody, httpWriterConfig.getFormatHeader());
         } catch (Exception e) {
             LOG.error(ExceptionUtil.getErrorMessage(e));
             throw new RuntimeException(e);
         }
     }
 
-    // only for data assert batch commit
+    /**
+     * 请求结果由本类自行计入指标或脏数据，不再回退为单条写
+     *
+     * <p>data assert 模式保持父类的处理方式
+     */
+    @Override
+    protected boolean isWriteCountedBySink() {
+        return !httpWriterConfig.getAssert();
+    }
+
+    @Override
+    protected boolean fallbackToSingleWrite() {
+        return httpWriterConfig.getAssert();
+    }
+
     @Override
     protected void writeMultipleRecordsInternal() {
-        LOG.info("start write multiple records");
         if (httpWriterConfig.getAssert()) {
             httpRequestForAssert();
+            return;
+        }
+        drainCompletedBatches();
+        if (rows.isEmpty()) {
+            return;
+        }
+        writeBatch(new ArrayList<>(rows));
+    }
+
+    /** 将一批数据以json数组作为请求体发送，配置了maxInFlightRequests时异步发送， 发送中的请求数达到上限时阻塞等待 */
+    private void writeBatch(List<RowData> batch) {
+        List<RowData> convertedRows = new ArrayList<>(batch.size());
+        List<Map<String, Object>> body = new ArrayList<>(batch.size());
+        for (RowData row : batch) {
+            try {
+                body.add(getMapDataFromRow(row, httpWriterConfig.getColumn()));
+                convertedRows.add(row);
+            } catch (WriteRecordException e) {
+                dirtyManager.collect(row, e, null);
+            }
+        }
+        if (body.isEmpty()) {
+            return;
+        }
+
+        if (requestExecutor == null) {
+            handleBatchResult(sendBatch(convertedRows, body));
+        } else {
+            try {
+                inFlightPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChunJunRuntimeException("interrupted while waiting for http request", e);
+            }
+            try {
+                requestExecutor.execute(
+                        () -> {
+                            try {
+                                completedBatches.add(sendBatch(convertedRows, body));
+                            } finally {
+                                inFlightPermits.release();
+                            }
+                        });
+            } catch (RuntimeException e) {
+                inFlightPermits.release();
+                throw e;
+            }
+            drainCompletedBatches();
+        }
+        sleepDelay();
+    }
+
+    private BatchResult sendBatch(List<RowData> batch, List<Map<String, Object>> body) {
+        try {
+            sendWithRetry(body, httpWriterConfig.getHeader());
+            return new BatchResult(batch, null);
+        } catch (Exception e) {
+            return new BatchResult(batch, e);
+        }
+    }
+
+    private void handleBatchResult(BatchResult result) {
+        if (result.error == null) {
+            numWriteCounter.add(result.rows.size());
+            return;
+        }
+        LOG.error(
+                "send {} records failed, {}",
+                result.rows.size(),
+                ExceptionUtil.getErrorMessage(result.error));
+        for (RowData row : result.rows) {
+            dirtyManager.collect(row, result.error, null);
+        }
+    }
+
+    private void drainCompletedBatches() {
+        BatchResult result;
+        while ((result = completedBatches.poll()) != null) {
+            handleBatchResult(result);
+        }
+    }
+
+    /** 等待所有发送中的请求完成并处理结果 */
+    private void waitForInFlightRequests() {
+        if (inFlightPermits != null) {
+            int maxInFlightRequests = httpWriterConfig.getMaxInFlightRequests();
+            try {
+                inFlightPermits.acquire(maxInFlightRequests);
+                inFlightPermits.release(maxInFlightRequests);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChunJunRuntimeException("interrupted while waiting for http request", e);
+            }
+        }
+        if (completedBatches != null) {
+            drainCompletedBatches();
+        }
+    }
+
+    @Override
+    public synchronized FormatState getFormatState() throws Exception {
+        // checkpoint前刷出缓存数据并等待发送中的请求完成，保证写出指标准确
+        writeRecordInternal();
+        waitForInFlightRequests();
+        return super.getFormatState();
+    }
+
+    private void sleepDelay() {
+        if (httpWriterConfig.getDelay() > 0) {
+            ThreadUtil.sleepMilliseconds(httpWriterConfig.getDelay());
         }
     }
 
@@ -175,7 +329,7 @@ public class HttpOutputFormat extends BaseRichOutputFormat {
         try {
             rowData = (RowData) rowConverter.toExternal(row, new GenericRowData(row.getArity()));
         } catch (Exception e) {
-            throw new WriteRecordException(e.getMessage(), e);
+            throw new WriteRecordException(e.getMessage(), e, -1, row);
         }
         Map<String, Object> columnData = Maps.newHashMap();
         int index = 0;
@@ -195,26 +349,54 @@ public class HttpOutputFormat extends BaseRichOutputFormat {
         return columnData;
     }
 
-    private void sendRequest(
-            CloseableHttpClient httpClient,
-            Map<String, Object> requestBody,
-            String method,
-            Map<String, String> header,
-            String url)
-            throws IOException {
-        LOG.debug("send data:{}", gson.toJson(requestBody));
-        HttpRequestBase request = HttpUtil.getRequest(method, requestBody, header, url);
-        // set request timeout
-        RequestConfig requestConfig =
-                RequestConfig.custom()
-                        .setConnectTimeout(DEFAULT_TIME_OUT)
-                        .setConnectionRequestTimeout(DEFAULT_TIME_OUT)
-                        .setSocketTimeout(DEFAULT_TIME_OUT)
-                        .build();
-        request.setConfig(requestConfig);
-        CloseableHttpResponse httpResponse = httpClient.execute(request);
-        if (httpResponse.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
-            LOG.warn("request retry code is " + httpResponse.getStatusLine().getStatusCode());
+    /** 发送请求，2xx视为成功；网络异常、5xx以及429按maxRetries重试，其余状态码直接失败。 响应体总是被读完并关闭，连接归还连接池复用 */
+    private void sendWithRetry(Object requestBody, Map<String, String> header) throws IOException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("send data:{}", gson.toJson(requestBody));
+        }
+        int maxRetries = Math.max(0, httpWriterConfig.getMaxRetries());
+        for (int attempt = 0; ; attempt++) {
+            HttpRequestBase request =
+                    HttpUtil.getRequest(
+                            httpWriterConfig.getMethod(),
+                            requestBody,
+                            header,
+                            httpWriterConfig.getUrl());
+            IOException error;
+            boolean retryable = true;
+            try (CloseableHttpResponse httpResponse = httpClient.execute(request)) {
+                int statusCode = httpResponse.getStatusLine().getStatusCode();
+                EntityUtils.consumeQuietly(httpResponse.getEntity());
+                if (statusCode >= HttpStatus.SC_OK && statusCode < HttpStatus.SC_MULTIPLE_CHOICES) {
+                    return;
+                }
+                error = new IOException("request failed, response code is " + statusCode);
+                retryable =
+                        statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR
+                                || statusCode == SC_TOO_MANY_REQUESTS;
+            } catch (IOException e) {
+                error = e;
+            }
+            if (!retryable || attempt >= maxRetries) {
+                throw error;
+            }
+            LOG.warn(
+                    "request {} failed, retry {}/{}, {}",
+                    httpWriterConfig.getUrl(),
+                    attempt + 1,
+                    maxRetries,
+                    error.getMessage());
+            ThreadUtil.sleepMilliseconds(httpWriterConfig.getRetryInterval() * (attempt + 1));
+        }
+    }
+
+    private static class BatchResult {
+        private final List<RowData> rows;
+        private final Exception error;
+
+        private BatchResult(List<RowData> rows, Exception error) {
+            this.rows = rows;
+            this.error = error;
         }
     }
 }
@@ -21,11 +21,14 @@ import com.dtstack.chunjun.conf.FieldConf;
 import com.dtstack.chunjun.connector.http.common.HttpRestConfig;
 import com.dtstack.chunjun.connector.http.common.HttpWriterConfig;
 import com.dtstack.chunjun.connector.http.common.MetaParam;
+import com.dtstack.chunjun.source.options.SourceOptions;
+import com.dtstack.chunjun.table.options.SinkOptions;
 import com.dtstack.chunjun.util.GsonUtil;
 
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.table.api.TableSchema;
+import org.apache.flink.table.api.ValidationException;
 import org.apache.flink.table.connector.sink.DynamicTableSink;
 import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.factories.DynamicTableSinkFactory;
@@ -72,6 +75,18 @@ public class HttpDynamicTableFactory implements DynamicTableSourceFactory, Dynam
         options.add(HttpOptions.INTERVALTIME);
         options.add(HttpOptions.COLUMN);
         options.add(HttpOptions.DELAY);
+        options.add(SinkOptions.SINK_BUFFER_FLUSH_MAX_ROWS);
+        options.add(SinkOptions.SINK_BUFFER_FLUSH_INTERVAL);
+        options.add(HttpOptions.SINK_MAX_IN_FLIGHT_REQUESTS);
+        options.add(HttpOptions.SINK_MAX_RETRIES);
+        options.add(HttpOptions.SINK_RETRY_INTERVAL);
+        options.add(HttpOptions.SCAN_PAGE_PARAM_NAME);
+        options.add(HttpOptions.SCAN_PAGE_PARAM_TYPE);
+        options.add(HttpOptions.SCAN_PAGE_START);
+        options.add(HttpOptions.SCAN_PAGE_STEP);
+        options.add(HttpOptions.SCAN_PAGE_COUNT);
+        options.add(HttpOptions.SCAN_PREFETCH_PAGES);
+        options.add(SourceOptions.SCAN_PARALLELISM);
 
         return options;
     }
@@ -108,6 +123,14 @@ public class HttpDynamicTableFactory implements DynamicTableSourceFactory, Dynam
         TableSchema physicalSchema =
                 TableSchemaUtils.getPhysicalSchema(context.getCatalogTable().getSchema());
         HttpRestConfig httpRestConfig = getRestapiConf(config);
+        // sql中无法配置stop策略，分页读取时只能由总页数判断结束
+        if (httpRestConfig.isPaging() && httpRestConfig.getPageCount() <= 0) {
+            throw new ValidationException(
+                    String.format(
+                            "'%s' must be greater than 0 when '%s' is set, otherwise the source never finishes",
+                            HttpOptions.SCAN_PAGE_COUNT.key(),
+                            HttpOptions.SCAN_PAGE_PARAM_NAME.key()));
+        }
 
         return new HttpDynamicTableSource(physicalSchema, httpRestConfig);
     }
@@ -126,6 +149,15 @@ public class HttpDynamicTableFactory implements DynamicTableSourceFactory, Dynam
                         config.get(HttpOptions.COLUMN),
                         new TypeToken<List<FieldConf>>() {}.getType()));
         httpWriterConfig.setDelay(config.get(HttpOptions.DELAY));
+        // 未配置时保持逐条发送，请求体格式不变
+        config.getOptional(SinkOptions.SINK_BUFFER_FLUSH_MAX_ROWS)
+                .ifPresent(httpWriterConfig::setBatchSize);
+        config.getOptional(SinkOptions.SINK_BUFFER_FLUSH_INTERVAL)
+                .ifPresent(httpWriterConfig::setFlushIntervalMills);
+        httpWriterConfig.setMaxInFlightRequests(
+                config.get(HttpOptions.SINK_MAX_IN_FLIGHT_REQUESTS));
+        httpWriterConfig.setMaxRetries(config.get(HttpOptions.SINK_MAX_RETRIES));
+        httpWriterConfig.setRetryInterval(config.get(HttpOptions.SINK_RETRY_INTERVAL));
         return httpWriterConfig;
     }
 
@@ -158,6 +190,13 @@ public class HttpDynamicTableFactory implements DynamicTableSourceFactory, Dynam
                 gson.fromJson(
                         config.get(HttpOptions.COLUMN),
                         new TypeToken<List<FieldConf>>() {}.getType()));
+        httpRestConfig.setPageParamName(config.get(HttpOptions.SCAN_PAGE_PARAM_NAME));
+        httpRestConfig.setPageParamType(config.get(HttpOptions.SCAN_PAGE_PARAM_TYPE));
+        httpRestConfig.setPageStart(config.get(HttpOptions.SCAN_PAGE_START));
+        httpRestConfig.setPageStep(config.get(HttpOptions.SCAN_PAGE_STEP));
+        httpRestConfig.setPageCount(config.get(HttpOptions.SCAN_PAGE_COUNT));
+        httpRestConfig.setPrefetchPages(config.get(HttpOptions.SCAN_PREFETCH_PAGES));
+        httpRestConfig.setParallelism(config.get(SourceOptions.SCAN_PARALLELISM));
         return httpRestConfig;
     }
 }
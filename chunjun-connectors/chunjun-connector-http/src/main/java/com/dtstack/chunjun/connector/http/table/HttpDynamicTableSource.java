@@ -98,8 +98,12 @@ public class HttpDynamicTableSource implements ScanTableSource {
         MetaParam.initTimeFormat(httpRestConfig.getBody());
         MetaParam.initTimeFormat(httpRestConfig.getParam());
         MetaParam.initTimeFormat(httpRestConfig.getHeader());
+        // 只有分页读取时各个并行度读取不同的数据
+        int parallelism = httpRestConfig.isPaging() ? httpRestConfig.getParallelism() : 1;
         return ParallelSourceFunctionProvider.of(
-                new DtInputFormatSourceFunction<>(builder.finish(), typeInformation), false, 1);
+                new DtInputFormatSourceFunction<>(builder.finish(), typeInformation),
+                false,
+                parallelism);
     }
 
     @Override
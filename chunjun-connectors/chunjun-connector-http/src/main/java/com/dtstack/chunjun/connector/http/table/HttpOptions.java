@@ -64,4 +64,62 @@ public class HttpOptions {
 
     public static final ConfigOption<Integer> DELAY =
             ConfigOptions.key("delay").intType().defaultValue(30).withDescription("request delay");
+
+    public static final ConfigOption<Integer> SINK_MAX_IN_FLIGHT_REQUESTS =
+            ConfigOptions.key("sink.max-in-flight-requests")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "max number of batch requests sent asynchronously at the same time");
+
+    public static final ConfigOption<Integer> SINK_MAX_RETRIES =
+            ConfigOptions.key("sink.max-retries")
+                    .intType()
+                    .defaultValue(4)
+                    .withDescription("max retries of a failed request");
+
+    public static final ConfigOption<Long> SINK_RETRY_INTERVAL =
+            ConfigOptions.key("sink.retry-interval")
+                    .longType()
+                    .defaultValue(1000L)
+                    .withDescription("retry interval of a failed request in milliseconds");
+
+    public static final ConfigOption<String> SCAN_PAGE_PARAM_NAME =
+            ConfigOptions.key("scan.page-param-name")
+                    .stringType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "name of the page number or offset parameter, pages are split across subtasks when set");
+
+    public static final ConfigOption<String> SCAN_PAGE_PARAM_TYPE =
+            ConfigOptions.key("scan.page-param-type")
+                    .stringType()
+                    .defaultValue("param")
+                    .withDescription("where the page parameter is put, param or body");
+
+    public static final ConfigOption<Long> SCAN_PAGE_START =
+            ConfigOptions.key("scan.page-start")
+                    .longType()
+                    .defaultValue(1L)
+                    .withDescription("page parameter value of the first page");
+
+    public static final ConfigOption<Long> SCAN_PAGE_STEP =
+            ConfigOptions.key("scan.page-step")
+                    .longType()
+                    .defaultValue(1L)
+                    .withDescription(
+                            "increment of the page parameter, 1 for page numbers or the page size for offsets");
+
+    public static final ConfigOption<Long> SCAN_PAGE_COUNT =
+            ConfigOptions.key("scan.page-count")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription(
+                            "total number of pages, reading ends on the stop strategy when not positive");
+
+    public static final ConfigOption<Integer> SCAN_PREFETCH_PAGES =
+            ConfigOptions.key("scan.prefetch-pages")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription("number of pages requested concurrently by each subtask");
 }
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.http.client;
+
+import com.dtstack.chunjun.connector.http.common.ConstantValue;
+import com.dtstack.chunjun.connector.http.common.HttpRestConfig;
+import com.dtstack.chunjun.connector.http.common.MetaParam;
+import com.dtstack.chunjun.connector.http.common.ParamType;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class HttpPageClientTest {
+
+    private HttpServer server;
+    /** 收到的分页参数值 */
+    private final Queue<Long> requestedPages = new ConcurrentLinkedQueue<>();
+    /** 分页参数值不小于该值时返回end为true */
+    private volatile long endPageValue = Long.MAX_VALUE;
+    /** 分页参数值越小返回越慢，用于验证预取的页乱序返回时仍按页的顺序输出 */
+    private volatile boolean slowerFirstPages;
+
+    private HttpPageClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/page",
+                exchange -> {
+                    long page = Long.parseLong(exchange.getRequestURI().getQuery().split("=")[1]);
+                    requestedPages.add(page);
+                    if (slowerFirstPages) {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(Math.max(0L, 200L - page * 20L));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    boolean end = page >= endPageValue;
+                    byte[] response =
+                            ("{\"page\":\"" + page + "\",\"end\":\"" + end + "\"}")
+                                    .getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, response.length);
+                    exchange.getResponseBody().write(response);
+                    exchange.close();
+                });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void testPagesAreAssignedBySplit() throws Exception {
+        HttpRestConfig config = newConfig(1L, 1L, 10L, 2);
+        client = newClient(config, 1, 3);
+        client.start();
+
+        // 第k页(从0开始)分配到 k % 3 == 1 的并行度上，分页参数值为 1 + k
+        Assert.assertEquals(Arrays.asList(2L, 5L, 8L), readAll(client));
+        Assert.assertEquals(
+                new TreeSet<>(Arrays.asList(2L, 5L, 8L)), new TreeSet<>(requestedPages));
+    }
+
+    @Test
+    public void testPrefetchedPagesAreEmittedInOrder() throws Exception {
+        slowerFirstPages = true;
+        HttpRestConfig config = newConfig(1L, 1L, 8L, 4);
+        client = newClient(config, 0, 1);
+        client.start();
+
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), readAll(client));
+    }
+
+    @Test
+    public void testStopStrategyFinishesSplit() throws Exception {
+        // 按偏移量分页，偏移量60及之后没有数据
+        endPageValue = 60L;
+        HttpRestConfig config = newConfig(0L, 10L, 0L, 3);
+        config.setStrategy(Collections.singletonList(newStopStrategy()));
+        client = newClient(config, 0, 2);
+        client.start();
+
+        Assert.assertEquals(Arrays.asList(0L, 20L, 40L), readAll(client));
+        // 触发stop策略之后不再提交新的请求
+        for (Long page : requestedPages) {
+            Assert.assertTrue(page <= 60L + 2 * 2 * 10L);
+        }
+    }
+
+    @Test
+    public void testPageCountFinishesSplit() throws Exception {
+        HttpRestConfig config = newConfig(1L, 1L, 5L, 4);
+        client = newClient(config, 1, 2);
+        client.start();
+
+        Assert.assertEquals(Arrays.asList(2L, 4L), readAll(client));
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(2L, 4L)), new TreeSet<>(requestedPages));
+    }
+
+    @Test
+    public void testInitPositionResumesAfterLastPage() throws Exception {
+        HttpRestConfig config = newConfig(100L, 10L, 12L, 2);
+        client = newClient(config, 1, 3);
+        // 上一次输出的是第4页，分页参数值为 100 + 4 * 10，checkpoint中的值经过序列化后可能是小数
+        HttpRequestParam lastParam = new HttpRequestParam();
+        lastParam.putValue(
+                new MetaParam("page", null, ParamType.PARAM, false),
+                config.getFieldDelimiter(),
+                140.0D);
+        client.initPosition(lastParam);
+        client.start();
+
+        Assert.assertEquals(Arrays.asList(170L, 200L), readAll(client));
+        Assert.assertEquals(
+                new TreeSet<>(Arrays.asList(170L, 200L)), new TreeSet<>(requestedPages));
+    }
+
+    private HttpRestConfig newConfig(long pageStart, long pageStep, long pageCount, int prefetch) {
+        HttpRestConfig config = new HttpRestConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/page");
+        config.setRequestMode("GET");
+        config.setDecode(ConstantValue.DEFAULT_DECODE);
+        config.setIntervalTime(10L);
+        config.setPageParamName("page");
+        config.setPageStart(pageStart);
+        config.setPageStep(pageStep);
+        config.setPageCount(pageCount);
+        config.setPrefetchPages(prefetch);
+        return config;
+    }
+
+    private static Strategy newStopStrategy() {
+        Strategy strategy = new Strategy();
+        strategy.setKey("${response.end}");
+        strategy.setValue("true");
+        strategy.setHandle(ConstantValue.STRATEGY_STOP);
+        return strategy;
+    }
+
+    private static HttpPageClient newClient(HttpRestConfig config, int split, int totalSplits) {
+        return new HttpPageClient(
+                config,
+                new ArrayList<>(),
+                new ArrayList<>(),
+                new ArrayList<>(),
+                split,
+                totalSplits);
+    }
+
+    /** 读取到结束为止，返回输出数据中的分页参数值 */
+    private static List<Long> readAll(HttpPageClient client) throws Exception {
+        List<Long> pages = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!client.isFinished()) {
+            Assert.assertTrue("read timeout", System.currentTimeMillis() < deadline);
+            ResponseValue value = client.takeEvent();
+            if (value == null) {
+                continue;
+            }
+            Assert.assertTrue(value.getErrorMsg(), value.isNormal());
+            if (value.getStatus() != 0) {
+                Map<?, ?> data = new Gson().fromJson(value.getData(), Map.class);
+                pages.add(Long.parseLong((String) data.get("page")));
+            }
+        }
+        return pages;
+    }
+}
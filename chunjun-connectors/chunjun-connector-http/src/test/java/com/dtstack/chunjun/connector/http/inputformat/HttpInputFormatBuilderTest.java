@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.http.inputformat;
+
+import com.dtstack.chunjun.connector.http.client.Strategy;
+import com.dtstack.chunjun.connector.http.common.ConstantValue;
+import com.dtstack.chunjun.connector.http.common.HttpRestConfig;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+public class HttpInputFormatBuilderTest {
+
+    @Test
+    public void testPagingWithoutEndIsRejected() {
+        HttpInputFormatBuilder builder = newBuilder(newPagingConfig(0L));
+        try {
+            builder.finish();
+            Assert.fail("paging without pageCount and stop strategy should be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("pageCount"));
+        }
+    }
+
+    @Test
+    public void testPagingWithPageCountOrStopStrategy() {
+        newBuilder(newPagingConfig(10L)).finish();
+
+        HttpRestConfig config = newPagingConfig(0L);
+        Strategy strategy = new Strategy();
+        strategy.setKey("${response.end}");
+        strategy.setValue("true");
+        strategy.setHandle(ConstantValue.STRATEGY_STOP);
+        config.setStrategy(Collections.singletonList(strategy));
+        newBuilder(config).finish();
+    }
+
+    private static HttpRestConfig newPagingConfig(long pageCount) {
+        HttpRestConfig config = new HttpRestConfig();
+        config.setUrl("http://127.0.0.1/page");
+        config.setRequestMode("GET");
+        config.setDecode(ConstantValue.DEFAULT_DECODE);
+        config.setIntervalTime(10L);
+        config.setPageParamName("page");
+        config.setPageCount(pageCount);
+        return config;
+    }
+
+    private static HttpInputFormatBuilder newBuilder(HttpRestConfig config) {
+        HttpInputFormatBuilder builder = new HttpInputFormatBuilder();
+        builder.setHttpRestConfig(config);
+        builder.setMetaParams(new ArrayList<>());
+        builder.setMetaBodys(new ArrayList<>());
+        builder.setMetaHeaders(new ArrayList<>());
+        return builder;
+    }
+}
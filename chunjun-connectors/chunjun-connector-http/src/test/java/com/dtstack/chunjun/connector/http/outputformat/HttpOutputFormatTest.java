@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.http.outputformat;
+
+import com.dtstack.chunjun.conf.FieldConf;
+import com.dtstack.chunjun.connector.http.common.HttpWriterConfig;
+import com.dtstack.chunjun.converter.AbstractRowConverter;
+import com.dtstack.chunjun.dirty.manager.DirtyManager;
+import com.dtstack.chunjun.metrics.BaseMetric;
+import com.dtstack.chunjun.restore.FormatState;
+
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class HttpOutputFormatTest {
+
+    private HttpServer server;
+    /** 依次返回的状态码，为空时返回200 */
+    private final Queue<Integer> statusCodes = new ConcurrentLinkedQueue<>();
+    /** 收到的请求体 */
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    /** 为0之前请求被阻塞 */
+    private volatile CountDownLatch responseLatch = new CountDownLatch(0);
+
+    private DirtyManager dirtyManager;
+    private LongCounter numWriteCounter;
+    private List<RowData> rows;
+    private HttpOutputFormat outputFormat;
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/sink",
+                exchange -> {
+                    requests.add(
+                            IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+                    try {
+                        responseLatch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    Integer statusCode = statusCodes.poll();
+                    exchange.sendResponseHeaders(statusCode == null ? 200 : statusCode, -1);
+                    exchange.close();
+                });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        responseLatch.countDown();
+        if (outputFormat != null) {
+            outputFormat.closeInternal();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void testBatchIsSentAsJsonArray() throws Exception {
+        open(1, 0);
+        rows.add(GenericRowData.of(1, "a"));
+        rows.add(GenericRowData.of(2, "b"));
+        Whitebox.invokeMethod(outputFormat, "writeRecordInternal");
+
+        Assert.assertEquals(1, requests.size());
+        List<?> body = new Gson().fromJson(requests.poll(), List.class);
+        Assert.assertEquals(2, body.size());
+        Assert.assertEquals(1.0, ((Map<?, ?>) body.get(0)).get("id"));
+        Assert.assertEquals("b", ((Map<?, ?>) body.get(1)).get("name"));
+        Assert.assertEquals(2, numWriteCounter.getLocalValue().longValue());
+        Assert.assertTrue(rows.isEmpty());
+    }
+
+    @Test
+    public void testRetryOnServerErrorAndTooManyRequests() throws Exception {
+        open(1, 3);
+        statusCodes.addAll(Arrays.asList(500, 429, 503));
+        rows.add(GenericRowData.of(1, "a"));
+        Whitebox.invokeMethod(outputFormat, "writeRecordInternal");
+
+        Assert.assertEquals(4, requests.size());
+        Assert.assertEquals(1, numWriteCounter.getLocalValue().longValue());
+        verify(dirtyManager, never()).collect(any(), any(), any());
+    }
+
+    @Test
+    public void testClientErrorFailsWithoutRetry() throws Exception {
+        open(1, 3);
+        statusCodes.add(400);
+        rows.add(GenericRowData.of(1, "a"));
+        rows.add(GenericRowData.of(2, "b"));
+        Whitebox.invokeMethod(outputFormat, "writeRecordInternal");
+
+        Assert.assertEquals(1, requests.size());
+        Assert.assertEquals(0, numWriteCounter.getLocalValue().longValue());
+        verify(dirtyManager, times(2)).collect(any(), any(), isNull());
+    }
+
+    @Test
+    public void testRetriesExhausted() throws Exception {
+        open(1, 1);
+        statusCodes.addAll(Arrays.asList(500, 500));
+        RowData row = GenericRowData.of(1, "a");
+        rows.add(row);
+        Whitebox.invokeMethod(outputFormat, "writeRecordInternal");
+
+        Assert.assertEquals(2, requests.size());
+        verify(dirtyManager).collect(eq(row), any(), isNull());
+    }
+
+    @Test
+    public void testInFlightRequestsBlockWriter() throws Exception {
+        open(2, 0);
+        responseLatch = new CountDownLatch(1);
+        writeBatch(1);
+        writeBatch(2);
+        waitForRequests(2);
+
+        // 两个请求都在发送中，第三批数据的写入被阻塞
+        Future<?> third =
+                Executors.newSingleThreadExecutor()
+                        .submit(
+                                () -> {
+                                    writeBatch(3);
+                                    return null;
+                                });
+        try {
+            third.get(300, TimeUnit.MILLISECONDS);
+            Assert.fail("writer should be blocked by in-flight requests");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        responseLatch.countDown();
+        third.get(10, TimeUnit.SECONDS);
+        outputFormat.closeInternal();
+        Assert.assertEquals(3, requests.size());
+        Assert.assertEquals(6, numWriteCounter.getLocalValue().longValue());
+    }
+
+    @Test
+    public void testGetFormatStateWaitsForInFlightRequests() throws Exception {
+        open(2, 0);
+        Whitebox.setInternalState(outputFormat, "formatState", new FormatState(0, null));
+        Whitebox.setInternalState(outputFormat, "outputMetric", Mockito.mock(BaseMetric.class));
+        responseLatch = new CountDownLatch(1);
+        writeBatch(1);
+        waitForRequests(1);
+        Assert.assertEquals(0, numWriteCounter.getLocalValue().longValue());
+
+        Future<FormatState> state =
+                Executors.newSingleThreadExecutor().submit(outputFormat::getFormatState);
+        try {
+            state.get(300, TimeUnit.MILLISECONDS);
+            Assert.fail("getFormatState should wait for in-flight requests");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        responseLatch.countDown();
+        Assert.assertEquals(2, state.get(10, TimeUnit.SECONDS).getNumberWrite());
+    }
+
+    private void open(int maxInFlightRequests, int maxRetries) throws Exception {
+        HttpWriterConfig config = new HttpWriterConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/sink");
+        config.setMethod("post");
+        config.setHeader(Collections.emptyMap());
+        config.setMaxInFlightRequests(maxInFlightRequests);
+        config.setMaxRetries(maxRetries);
+        config.setRetryInterval(1L);
+        config.setColumn(Arrays.asList(field("id"), field("name")));
+
+        AbstractRowConverter rowConverter = Mockito.mock(AbstractRowConverter.class);
+        Mockito.when(rowConverter.toExternal(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        dirtyManager = Mockito.mock(DirtyManager.class);
+        numWriteCounter = new LongCounter();
+        rows = new ArrayList<>();
+
+        outputFormat = new HttpOutputFormat();
+        outputFormat.httpWriterConfig = config;
+        outputFormat.setRowConverter(rowConverter);
+        outputFormat.setDirtyManager(dirtyManager);
+        Whitebox.setInternalState(outputFormat, "batchSize", 2);
+        Whitebox.setInternalState(outputFormat, "rows", rows);
+        Whitebox.setInternalState(outputFormat, "numWriteCounter", numWriteCounter);
+        Whitebox.setInternalState(outputFormat, "flushEnable", new AtomicBoolean(true));
+        outputFormat.openInternal(0, 1);
+    }
+
+    private void writeBatch(int id) throws Exception {
+        synchronized (outputFormat) {
+            rows.add(GenericRowData.of(id, "a"));
+            rows.add(GenericRowData.of(id, "b"));
+        }
+        Whitebox.invokeMethod(outputFormat, "writeRecordInternal");
+    }
+
+    private void waitForRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000L;
+        while (requests.size() < count && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Assert.assertEquals(count, requests.size());
+    }
+
+    private static FieldConf field(String name) {
+        FieldConf fieldConf = new FieldConf();
+        fieldConf.setName(name);
+        return fieldConf;
+    }
+}
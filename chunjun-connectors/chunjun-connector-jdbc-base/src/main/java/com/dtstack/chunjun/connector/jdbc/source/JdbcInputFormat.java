@@ -780,33 +780,15 @@ public class JdbcInputFormat extends BaseRichInputFormat {
 
     protected List<JdbcInputSplit> createRangeSplits(
             BigDecimal left, BigDecimal right, int minNumSplits) {
-        BigDecimal endAndStartGap = right.subtract(left);
-        if (endAndStartGap.compareTo(BigDecimal.ZERO) < 0) return new ArrayList<>();
-        JdbcInputSplit[] splits;
+        BigDecimal[] boundaries = JdbcUtil.splitRange(left, right, minNumSplits);
+        if (boundaries.length == 0) return new ArrayList<>();
         LOG.info("create splitsInternal,the splitKey range is {} --> {}", left, right);
-        BigDecimal remainder = endAndStartGap.remainder(new BigDecimal(minNumSplits));
-        endAndStartGap = endAndStartGap.subtract(remainder);
-        BigDecimal step = endAndStartGap.divide(new BigDecimal(minNumSplits));
-
-        if (step.compareTo(BigDecimal.ZERO) == 0) {
-            // if left = right，step and remainder is 0
-            if (remainder.compareTo(BigDecimal.ZERO) == 0) {
-                minNumSplits = 1;
-            } else {
-                minNumSplits = remainder.intValue();
-            }
-        }
+        minNumSplits = boundaries.length - 1;
 
-        splits = new JdbcInputSplit[minNumSplits];
-        BigDecimal start;
-        BigDecimal end = left;
+        JdbcInputSplit[] splits = new JdbcInputSplit[minNumSplits];
         for (int i = 0; i < minNumSplits; i++) {
-            start = end;
-            end = start.add(step);
-            if (remainder.compareTo(BigDecimal.ZERO) > 0) {
-                end = end.add(BigDecimal.ONE);
-                remainder = remainder.subtract(BigDecimal.ONE);
-            }
+            BigDecimal start = boundaries[i];
+            BigDecimal end = boundaries[i + 1];
             // incrementalMode,The final rangeSplit scope is splitPk >= start
             // pollingMode,The final rangeSplit scope is splitPk >= start and splitPk < =end
             if (i == minNumSplits - 1) {
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.jdbc.source.snapshot;
+
+import java.math.BigDecimal;
+
+/**
+ * 全量快照阶段的一个数据块，对应一张表在切分字段上的一个区间[start, end)。
+ *
+ * <p>splitPk为空时表示整张表作为一个数据块读取。
+ */
+public class SnapshotChunk {
+
+    /** schema.table */
+    private final String tableId;
+    /** 切分字段，为空时不切分 */
+    private final String splitPk;
+    /** 区间下界(包含)，为null表示无下界 */
+    private final BigDecimal start;
+    /** 区间上界(不包含)，为null表示无上界 */
+    private final BigDecimal end;
+    /** 读取该数据块时记录的水位，具体含义由数据源决定，如PostgreSQL的事务快照 */
+    private volatile Object watermark;
+
+    public SnapshotChunk(String tableId, String splitPk, BigDecimal start, BigDecimal end) {
+        this.tableId = tableId;
+        this.splitPk = splitPk;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * 判断切分字段的值是否落在当前数据块内
+     *
+     * @param key 切分字段的值
+     * @return 是否在区间内
+     */
+    public boolean contains(BigDecimal key) {
+        if (splitPk == null) {
+            return true;
+        }
+        if (key == null) {
+            return false;
+        }
+        return (start == null || start.compareTo(key) <= 0)
+                && (end == null || end.compareTo(key) > 0);
+    }
+
+    public String getTableId() {
+        return tableId;
+    }
+
+    public String getSplitPk() {
+        return splitPk;
+    }
+
+    public BigDecimal getStart() {
+        return start;
+    }
+
+    public BigDecimal getEnd() {
+        return end;
+    }
+
+    public Object getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(Object watermark) {
+        this.watermark = watermark;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotChunk{"
+                + "tableId='"
+                + tableId
+                + '\''
+                + ", splitPk='"
+                + splitPk
+                + '\''
+                + ", start="
+                + start
+                + ", end="
+                + end
+                + '}';
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.jdbc.source.snapshot;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** 按表及切分字段的值查找数据块，用于增量阶段与全量数据块的水位对账 */
+public class SnapshotChunkIndex {
+
+    private static final Comparator<SnapshotChunk> START_COMPARATOR =
+            Comparator.comparing(
+                    SnapshotChunk::getStart, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<String, List<SnapshotChunk>> chunkMap = new HashMap<>();
+
+    public SnapshotChunkIndex(Collection<SnapshotChunk> chunks) {
+        for (SnapshotChunk chunk : chunks) {
+            chunkMap.computeIfAbsent(chunk.getTableId(), k -> new ArrayList<>()).add(chunk);
+        }
+        chunkMap.values().forEach(list -> list.sort(START_COMPARATOR));
+    }
+
+    /**
+     * 查找切分字段的值所在的数据块
+     *
+     * @param tableId schema.table
+     * @param key 切分字段的值，表未切分时可以为null
+     * @return 数据块，不存在时返回null
+     */
+    public SnapshotChunk find(String tableId, BigDecimal key) {
+        List<SnapshotChunk> chunks = chunkMap.get(tableId);
+        if (chunks == null) {
+            return null;
+        }
+        if (key == null) {
+            SnapshotChunk chunk = chunks.get(0);
+            return chunk.getSplitPk() == null ? chunk : null;
+        }
+        // 二分查找最后一个下界不大于key的数据块
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            BigDecimal start = chunks.get(mid).getStart();
+            if (start == null || start.compareTo(key) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        SnapshotChunk chunk = chunks.get(low);
+        return chunk.contains(key) ? chunk : null;
+    }
+
+    public boolean containsTable(String tableId) {
+        return chunkMap.containsKey(tableId);
+    }
+
+    /** @return 表对应的切分字段，表未切分或不存在时返回null */
+    public String getSplitPk(String tableId) {
+        List<SnapshotChunk> chunks = chunkMap.get(tableId);
+        return chunks == null ? null : chunks.get(0).getSplitPk();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.jdbc.source.snapshot;
+
+import com.dtstack.chunjun.connector.jdbc.util.JdbcUtil;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按切分字段的取值范围将表切分为多个{@link SnapshotChunk}，切分方式与{@code JdbcInputFormat}的range切分一致。
+ *
+ * <p>只查询切分字段的最大最小值，不加锁，数据块之间互不重叠，第一个数据块没有下界，最后一个数据块没有上界。
+ */
+public class SnapshotChunkSplitter {
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotChunkSplitter.class);
+
+    private static final String QUERY_SPLIT_RANGE_SQL =
+            "SELECT max(%s) as max_value, min(%s) as min_value FROM %s";
+
+    private SnapshotChunkSplitter() {}
+
+    /**
+     * 切分数据块
+     *
+     * @param conn 数据库连接
+     * @param tableId schema.table
+     * @param quotedTable 转义后的表名
+     * @param splitPk 切分字段，为空时整张表作为一个数据块
+     * @param quotedSplitPk 转义后的切分字段
+     * @param chunkSize 每个数据块在切分字段上的跨度
+     * @return 按区间升序排列的数据块
+     * @throws SQLException 查询切分范围失败
+     */
+    public static List<SnapshotChunk> split(
+            Connection conn,
+            String tableId,
+            String quotedTable,
+            String splitPk,
+            String quotedSplitPk,
+            long chunkSize)
+            throws SQLException {
+        if (StringUtils.isBlank(splitPk)) {
+            return Collections.singletonList(new SnapshotChunk(tableId, null, null, null));
+        }
+
+        String sql =
+                String.format(QUERY_SPLIT_RANGE_SQL, quotedSplitPk, quotedSplitPk, quotedTable);
+        Object min;
+        Object max;
+        try (Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            min = rs.getObject("min_value");
+            max = rs.getObject("max_value");
+        }
+        if (min == null || max == null) {
+            return Collections.singletonList(new SnapshotChunk(tableId, splitPk, null, null));
+        }
+
+        BigDecimal left = new BigDecimal(min.toString());
+        BigDecimal right = new BigDecimal(max.toString());
+        BigDecimal numChunks =
+                right.subtract(left)
+                        .add(BigDecimal.ONE)
+                        .divide(
+                                BigDecimal.valueOf(Math.max(1L, chunkSize)),
+                                0,
+                                RoundingMode.CEILING)
+                        .max(BigDecimal.ONE)
+                        .min(BigDecimal.valueOf(Integer.MAX_VALUE));
+        BigDecimal[] boundaries = JdbcUtil.splitRange(left, right, numChunks.intValue());
+
+        int size = boundaries.length - 1;
+        List<SnapshotChunk> chunks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            chunks.add(
+                    new SnapshotChunk(
+                            tableId,
+                            splitPk,
+                            i == 0 ? null : boundaries[i],
+                            i == size - 1 ? null : boundaries[i + 1]));
+        }
+        LOG.info(
+                "split table {} by {} into {} chunks, range is {} --> {}",
+                tableId,
+                splitPk,
+                chunks.size(),
+                left,
+                right);
+        return chunks;
+    }
+
+    /**
+     * 构建读取数据块的sql
+     *
+     * @param chunk 数据块
+     * @param quotedTable 转义后的表名
+     * @param quotedSplitPk 转义后的切分字段
+     * @return 查询sql
+     */
+    public static String buildQuerySql(
+            SnapshotChunk chunk, String quotedTable, String quotedSplitPk) {
+        StringBuilder sql = new StringBuilder(128).append("SELECT * FROM ").append(quotedTable);
+        List<String> whereList = new ArrayList<>(2);
+        if (chunk.getStart() != null) {
+            whereList.add(quotedSplitPk + " >= " + chunk.getStart().toPlainString());
+        }
+        if (chunk.getEnd() != null) {
+            whereList.add(quotedSplitPk + " < " + chunk.getEnd().toPlainString());
+        }
+        if (!whereList.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", whereList));
+        }
+        return sql.toString();
+    }
+}
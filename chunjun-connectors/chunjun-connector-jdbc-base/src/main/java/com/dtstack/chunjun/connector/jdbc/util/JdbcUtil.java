@@ -38,6 +38,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.DriverManager;
@@ -120,6 +122,46 @@ public class JdbcUtil {
         return getConnection(conf, new JdbcDialectWrapper(dialect));
     }
 
+    /**
+     * 将[left, right]均分为多个区间，余数依次分摊到前面的区间上
+     *
+     * @param left 区间下界
+     * @param right 区间上界
+     * @param numSplits 期望的区间数量，区间长度不足时会减少
+     * @return 区间边界，第i个区间为[boundaries[i], boundaries[i + 1])，right小于left时返回空数组
+     */
+    public static BigDecimal[] splitRange(BigDecimal left, BigDecimal right, int numSplits) {
+        BigDecimal endAndStartGap = right.subtract(left);
+        if (endAndStartGap.compareTo(BigDecimal.ZERO) < 0) {
+            return new BigDecimal[0];
+        }
+        BigDecimal remainder = endAndStartGap.remainder(new BigDecimal(numSplits));
+        endAndStartGap = endAndStartGap.subtract(remainder);
+        BigDecimal step = endAndStartGap.divide(new BigDecimal(numSplits));
+
+        if (step.compareTo(BigDecimal.ZERO) == 0) {
+            // if left = right，step and remainder is 0
+            if (remainder.compareTo(BigDecimal.ZERO) == 0) {
+                numSplits = 1;
+            } else {
+                // 小数区间的余数可能小于1，向上取整保证至少有一个区间覆盖[left, right]
+                numSplits = Math.max(1, remainder.setScale(0, RoundingMode.CEILING).intValue());
+            }
+        }
+
+        BigDecimal[] boundaries = new BigDecimal[numSplits + 1];
+        boundaries[0] = left;
+        for (int i = 0; i < numSplits; i++) {
+            BigDecimal end = boundaries[i].add(step);
+            if (remainder.compareTo(BigDecimal.ZERO) > 0) {
+                end = end.add(BigDecimal.ONE);
+                remainder = remainder.subtract(BigDecimal.ONE);
+            }
+            boundaries[i + 1] = end;
+        }
+        return boundaries;
+    }
+
     /**
      * get full column name and type from database
      *
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.jdbc.source.snapshot;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public class SnapshotChunkIndexTest {
+
+    @Test
+    public void testFind() {
+        SnapshotChunk first = new SnapshotChunk("public.t", "id", null, BigDecimal.valueOf(10));
+        SnapshotChunk second =
+                new SnapshotChunk("public.t", "id", BigDecimal.valueOf(10), BigDecimal.valueOf(20));
+        SnapshotChunk last = new SnapshotChunk("public.t", "id", BigDecimal.valueOf(20), null);
+        SnapshotChunk whole = new SnapshotChunk("public.t2", null, null, null);
+        SnapshotChunkIndex index =
+                new SnapshotChunkIndex(Arrays.asList(last, whole, second, first));
+
+        Assert.assertSame(first, index.find("public.t", BigDecimal.valueOf(-5)));
+        Assert.assertSame(second, index.find("public.t", BigDecimal.valueOf(10)));
+        Assert.assertSame(second, index.find("public.t", new BigDecimal("19.5")));
+        Assert.assertSame(last, index.find("public.t", BigDecimal.valueOf(1000)));
+        Assert.assertNull(index.find("public.t", null));
+        Assert.assertSame(whole, index.find("public.t2", null));
+        Assert.assertNull(index.find("public.t3", BigDecimal.ONE));
+        Assert.assertEquals("id", index.getSplitPk("public.t"));
+    }
+
+    @Test
+    public void testBuildQuerySql() {
+        SnapshotChunk chunk =
+                new SnapshotChunk("public.t", "id", BigDecimal.valueOf(10), BigDecimal.valueOf(20));
+        Assert.assertEquals(
+                "SELECT * FROM \"public\".\"t\" WHERE \"id\" >= 10 AND \"id\" < 20",
+                SnapshotChunkSplitter.buildQuerySql(chunk, "\"public\".\"t\"", "\"id\""));
+        Assert.assertEquals(
+                "SELECT * FROM t",
+                SnapshotChunkSplitter.buildQuerySql(
+                        new SnapshotChunk("t", null, null, null), "t", "id"));
+    }
+}
@@ -26,6 +26,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.math.BigDecimal;
 import java.util.Collections;
 
 /** @author dujie */
@@ -103,4 +104,36 @@ public class JdbcUtilTest {
         Assert.assertEquals("[sche.ma]", jdbcConf.getSchema());
         Assert.assertEquals("table", jdbcConf.getTable());
     }
+
+    @Test
+    public void testSplitRange() {
+        BigDecimal[] boundaries =
+                JdbcUtil.splitRange(BigDecimal.valueOf(1), BigDecimal.valueOf(11), 3);
+        Assert.assertArrayEquals(
+                new BigDecimal[] {
+                    BigDecimal.valueOf(1),
+                    BigDecimal.valueOf(5),
+                    BigDecimal.valueOf(8),
+                    BigDecimal.valueOf(11)
+                },
+                boundaries);
+
+        Assert.assertEquals(
+                2, JdbcUtil.splitRange(BigDecimal.valueOf(5), BigDecimal.valueOf(5), 3).length);
+        Assert.assertEquals(
+                0, JdbcUtil.splitRange(BigDecimal.valueOf(5), BigDecimal.valueOf(1), 3).length);
+    }
+
+    @Test
+    public void testSplitFractionalRange() {
+        BigDecimal[] boundaries =
+                JdbcUtil.splitRange(new BigDecimal("0.5"), new BigDecimal("0.7"), 3);
+        Assert.assertEquals(2, boundaries.length);
+        Assert.assertEquals(new BigDecimal("0.5"), boundaries[0]);
+        Assert.assertTrue(boundaries[1].compareTo(new BigDecimal("0.7")) > 0);
+
+        boundaries = JdbcUtil.splitRange(new BigDecimal("1"), new BigDecimal("3.5"), 4);
+        Assert.assertEquals(4, boundaries.length);
+        Assert.assertTrue(boundaries[3].compareTo(new BigDecimal("3.5")) > 0);
+    }
 }
@@ -76,6 +76,8 @@ public class KafkaColumnConverter extends AbstractRowConverter<String, Object, b
     private final KafkaConf kafkaConf;
     /** kafka sink out fields */
     private List<String> outList;
+    /** 按 tableFields 直接写出 json，字段名重复时为 null */
+    private KafkaJsonRowWriter jsonRowWriter;
 
     public KafkaColumnConverter(KafkaConf kafkaConf, List<String> keyTypeList) {
         this.kafkaConf = kafkaConf;
@@ -86,6 +88,7 @@ public class KafkaColumnConverter extends AbstractRowConverter<String, Object, b
         } else {
             this.decode = new TextDecoder();
         }
+        initJsonRowWriter();
     }
 
     public KafkaColumnConverter(KafkaConf kafkaConf) {
@@ -110,6 +113,13 @@ public class KafkaColumnConverter extends AbstractRowConverter<String, Object, b
                         wrapIntoNullableInternalConverter(createInternalConverter(s)));
             }
         }
+        initJsonRowWriter();
+    }
+
+    private void initJsonRowWriter() {
+        if (KafkaJsonRowWriter.isSupported(kafkaConf.getTableFields())) {
+            this.jsonRowWriter = new KafkaJsonRowWriter(kafkaConf.getTableFields(), outList);
+        }
     }
 
     @Override
@@ -142,6 +152,10 @@ public class KafkaColumnConverter extends AbstractRowConverter<String, Object, b
         if (kafkaConf.getTableFields() != null
                 && kafkaConf.getTableFields().size() >= arity
                 && !(row.getField(0) instanceof MapColumn)) {
+            if (jsonRowWriter != null) {
+                // 字段名与分区字段下标已预先计算，直接写出 json 字节
+                return jsonRowWriter.write(row);
+            }
             map = new LinkedHashMap<>((arity << 2) / 3);
             for (int i = 0; i < arity; i++) {
                 Object object = row.getField(i);
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.kafka.converter;
+
+import com.dtstack.chunjun.element.AbstractBaseColumn;
+import com.dtstack.chunjun.element.ColumnRowData;
+import com.dtstack.chunjun.element.column.TimestampColumn;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 将 {@link ColumnRowData} 直接序列化为 json 字节，跳过中间 Map 与 Jackson，输出与 {@link KafkaColumnConverter} 原有的
+ * tableFields 路径逐字节一致：所有字段以字符串写出，java null 写为 "null"， TimestampColumn 按精度格式化。
+ *
+ * <p>字段名在构造时预先编码为 {@code "name":} 形式的字节，分区字段下标也在构造时确定；每行数据写入线程本地的可扩容缓冲区，最后只拷贝一次。
+ */
+public class KafkaJsonRowWriter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    /** 超过该大小的缓冲区在使用后不再保留，避免单条大消息长期占用内存 */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL_LITERAL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL_STRING = "\"null\"".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<GrowableBuffer> BUFFER =
+            ThreadLocal.withInitial(() -> new GrowableBuffer(INITIAL_BUFFER_SIZE));
+
+    /** 按 tableFields 下标预编码的 {@code "name":} 字节 */
+    private final byte[][] fieldTokens;
+    /** 参与输出的字段下标，按 tableFields 顺序排列 */
+    private final int[] fieldIndexes;
+
+    /**
+     * @param tableFields 字段名列表
+     * @param includeFields 只输出这些字段，为空时输出全部字段
+     */
+    public KafkaJsonRowWriter(List<String> tableFields, List<String> includeFields) {
+        this.fieldTokens = new byte[tableFields.size()][];
+        int[] indexes = new int[tableFields.size()];
+        int count = 0;
+        for (int i = 0; i < tableFields.size(); i++) {
+            GrowableBuffer buffer = new GrowableBuffer(tableFields.get(i).length() + 8);
+            writeString(buffer, tableFields.get(i));
+            buffer.write((byte) ':');
+            fieldTokens[i] = buffer.toByteArray();
+            if (includeFields == null
+                    || includeFields.isEmpty()
+                    || includeFields.contains(tableFields.get(i))) {
+                indexes[count++] = i;
+            }
+        }
+        this.fieldIndexes = Arrays.copyOf(indexes, count);
+    }
+
+    /**
+     * 字段名重复时原有 Map 路径会合并同名字段，此时不能使用本类
+     *
+     * @param tableFields 字段名列表
+     * @return 是否可以直接写出
+     */
+    public static boolean isSupported(List<String> tableFields) {
+        if (tableFields == null || tableFields.isEmpty()) {
+            return false;
+        }
+        Set<String> names = new HashSet<>(tableFields);
+        return names.size() == tableFields.size() && !names.contains(null);
+    }
+
+    /**
+     * 将一行数据写为 json 对象，只处理前 arity 个字段
+     *
+     * @param row 数据
+     * @return json 字节
+     */
+    public byte[] write(ColumnRowData row) {
+        GrowableBuffer buffer = BUFFER.get();
+        buffer.reset();
+        int arity = row.getArity();
+        boolean first = true;
+        buffer.write((byte) '{');
+        for (int index : fieldIndexes) {
+            if (index >= arity) {
+                break;
+            }
+            if (!first) {
+                buffer.write((byte) ',');
+            }
+            first = false;
+            buffer.write(fieldTokens[index]);
+            writeColumn(buffer, row.getField(index));
+        }
+        buffer.write((byte) '}');
+        byte[] result = buffer.toByteArray();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    private static void writeColumn(GrowableBuffer buffer, AbstractBaseColumn column) {
+        if (column == null) {
+            buffer.write(NULL_STRING);
+            return;
+        }
+        String value;
+        if (column instanceof TimestampColumn) {
+            value = column.asTimestampStr();
+        } else {
+            value = column.toString();
+        }
+        if (value == null) {
+            buffer.write(NULL_LITERAL);
+        } else {
+            writeString(buffer, value);
+        }
+    }
+
+    /** 写出带引号的 json 字符串，转义规则与 Jackson 默认配置保持一致 */
+    static void writeString(GrowableBuffer buffer, String value) {
+        int length = value.length();
+        buffer.ensureRemaining(length + 2);
+        buffer.write((byte) '"');
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buffer.write((byte) c);
+                } else {
+                    writeEscaped(buffer, c);
+                }
+            } else if (c < 0x800) {
+                buffer.ensureRemaining(2);
+                buffer.write((byte) (0xC0 | (c >> 6)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.ensureRemaining(4);
+                buffer.write((byte) (0xF0 | (codePoint >> 18)));
+                buffer.write((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // 与 String.getBytes(UTF_8) 一致，落单的代理字符替换为 '?'
+                buffer.write((byte) '?');
+            } else {
+                buffer.ensureRemaining(3);
+                buffer.write((byte) (0xE0 | (c >> 12)));
+                buffer.write((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static void writeEscaped(GrowableBuffer buffer, char c) {
+        buffer.ensureRemaining(6);
+        buffer.write((byte) '\\');
+        switch (c) {
+            case '"':
+            case '\\':
+                buffer.write((byte) c);
+                break;
+            case '\b':
+                buffer.write((byte) 'b');
+                break;
+            case '\t':
+                buffer.write((byte) 't');
+                break;
+            case '\n':
+                buffer.write((byte) 'n');
+                break;
+            case '\f':
+                buffer.write((byte) 'f');
+                break;
+            case '\r':
+                buffer.write((byte) 'r');
+                break;
+            default:
+                buffer.write((byte) 'u');
+                buffer.write((byte) '0');
+                buffer.write((byte) '0');
+                buffer.write(HEX[c >> 4]);
+                buffer.write(HEX[c & 0xF]);
+        }
+    }
+
+    /** 可扩容的字节缓冲区 */
+    static final class GrowableBuffer {
+        private byte[] bytes;
+        private int position;
+
+        GrowableBuffer(int initialSize) {
+            this.bytes = new byte[initialSize];
+        }
+
+        void reset() {
+            position = 0;
+        }
+
+        int capacity() {
+            return bytes.length;
+        }
+
+        void ensureRemaining(int size) {
+            if (position + size > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, position + size));
+            }
+        }
+
+        void write(byte b) {
+            if (position == bytes.length) {
+                ensureRemaining(1);
+            }
+            bytes[position++] = b;
+        }
+
+        void write(byte[] src) {
+            ensureRemaining(src.length);
+            System.arraycopy(src, 0, bytes, position, src.length);
+            position += src.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, position);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.kafka.converter;
+
+import com.dtstack.chunjun.element.ColumnRowData;
+import com.dtstack.chunjun.element.column.BigDecimalColumn;
+import com.dtstack.chunjun.element.column.BooleanColumn;
+import com.dtstack.chunjun.element.column.NullColumn;
+import com.dtstack.chunjun.element.column.StringColumn;
+import com.dtstack.chunjun.element.column.TimestampColumn;
+import com.dtstack.chunjun.util.MapUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** 与 {@link KafkaColumnConverter} 原有 Map + Jackson 路径逐字节比对 */
+public class KafkaJsonRowWriterTest {
+
+    private static final List<String> FIELDS =
+            Arrays.asList("id", "name", "price", "ts", "flag", "empty", "missing");
+
+    @Test
+    public void testControlCharacters() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (char c = 0; c < 0x20; c++) {
+            builder.append(c);
+        }
+        builder.append("\"\\/\u007f");
+        assertSameAsMapPath(row(new StringColumn(builder.toString())), FIELDS, null);
+        assertSameAsMapPath(row(new StringColumn("a\tb\nc\rd\be\ff\u0000g\u001fh")), FIELDS, null);
+    }
+
+    @Test
+    public void testMultiByteAndNonBmpCodePoints() throws Exception {
+        assertSameAsMapPath(row(new StringColumn("\u00E9\u4E2D\u6587\u20AC\uFFFF")), FIELDS, null);
+        assertSameAsMapPath(
+                row(new StringColumn("\uD83D\uDE00 emoji \uD834\uDD1E \uDBFF\uDFFF")),
+                FIELDS,
+                null);
+        // 落单的代理字符
+        assertSameAsMapPath(row(new StringColumn("a\uD800b\uDC00\uD83D")), FIELDS, null);
+    }
+
+    @Test
+    public void testNulls() throws Exception {
+        ColumnRowData row = new ColumnRowData(FIELDS.size());
+        row.addField(null);
+        row.addField(new NullColumn());
+        row.addField(new StringColumn((String) null));
+        row.addField(new StringColumn("null"));
+        row.addField(new TimestampColumn((Timestamp) null, 3));
+        row.addField(new StringColumn(""));
+        row.addField(null);
+        assertSameAsMapPath(row, FIELDS, null);
+    }
+
+    @Test
+    public void testDecimals() throws Exception {
+        ColumnRowData row = new ColumnRowData(FIELDS.size());
+        row.addField(new BigDecimalColumn(Long.MIN_VALUE));
+        row.addField(new BigDecimalColumn(new BigDecimal("12345.678900")));
+        row.addField(new BigDecimalColumn(new BigDecimal("1E+3")));
+        row.addField(new BigDecimalColumn(0.1d));
+        row.addField(new BigDecimalColumn(-3.4028235E38f));
+        row.addField(new BigDecimalColumn(new BigDecimal("-0.00000001")));
+        row.addField(new BooleanColumn(true));
+        assertSameAsMapPath(row, FIELDS, null);
+    }
+
+    @Test
+    public void testTimestamps() throws Exception {
+        Timestamp timestamp = Timestamp.valueOf("2022-02-28 23:59:59.123456789");
+        ColumnRowData row = new ColumnRowData(FIELDS.size());
+        row.addField(new TimestampColumn(timestamp));
+        row.addField(new TimestampColumn(timestamp, 0));
+        row.addField(new TimestampColumn(timestamp, 3));
+        row.addField(new TimestampColumn(timestamp, 6));
+        row.addField(new TimestampColumn(timestamp, 9));
+        row.addField(new TimestampColumn(0L, 3));
+        row.addField(new StringColumn("2022-02-28 23:59:59"));
+        assertSameAsMapPath(row, FIELDS, null);
+    }
+
+    @Test
+    public void testPartitionFieldsAndShortRow() throws Exception {
+        ColumnRowData row = new ColumnRowData(3);
+        row.addField(new BigDecimalColumn(1));
+        row.addField(new StringColumn("\uD83D\uDE00\n"));
+        row.addField(new BigDecimalColumn(new BigDecimal("9.90")));
+        assertSameAsMapPath(row, FIELDS, null);
+        assertSameAsMapPath(row, FIELDS, Collections.emptyList());
+        assertSameAsMapPath(row, FIELDS, Arrays.asList("price", "id"));
+        assertSameAsMapPath(row, FIELDS, Arrays.asList("ts", "missing"));
+        assertSameAsMapPath(row, Arrays.asList("na\"me\u0001", "\u4E2D", "\uD83D\uDE00"), null);
+    }
+
+    @Test
+    public void testIsSupported() {
+        Assert.assertTrue(KafkaJsonRowWriter.isSupported(FIELDS));
+        Assert.assertFalse(KafkaJsonRowWriter.isSupported(null));
+        Assert.assertFalse(KafkaJsonRowWriter.isSupported(Collections.emptyList()));
+        Assert.assertFalse(KafkaJsonRowWriter.isSupported(Arrays.asList("id", "id")));
+        Assert.assertFalse(KafkaJsonRowWriter.isSupported(Arrays.asList("id", null)));
+    }
+
+    private static ColumnRowData row(StringColumn text) {
+        ColumnRowData row = new ColumnRowData(FIELDS.size());
+        row.addField(new BigDecimalColumn(1));
+        row.addField(text);
+        row.addField(new BigDecimalColumn(new BigDecimal("1.10")));
+        row.addField(new TimestampColumn(Timestamp.valueOf("2022-01-01 00:00:00.5"), 3));
+        row.addField(new BooleanColumn(false));
+        row.addField(text);
+        row.addField(null);
+        return row;
+    }
+
+    private static void assertSameAsMapPath(
+            ColumnRowData row, List<String> tableFields, List<String> includeFields)
+            throws Exception {
+        byte[] expected = writeByMap(row, tableFields, includeFields);
+        byte[] actual = new KafkaJsonRowWriter(tableFields, includeFields).write(row);
+        Assert.assertArrayEquals(
+                new String(expected, StandardCharsets.UTF_8)
+                        + " != "
+                        + new String(actual, StandardCharsets.UTF_8),
+                expected,
+                actual);
+    }
+
+    /** KafkaColumnConverter 中 tableFields 路径原有的实现 */
+    private static byte[] writeByMap(
+            ColumnRowData row, List<String> tableFields, List<String> includeFields)
+            throws Exception {
+        int arity = row.getArity();
+        Map<String, Object> map = new LinkedHashMap<>((arity << 2) / 3);
+        for (int i = 0; i < arity; i++) {
+            Object object = row.getField(i);
+            Object value;
+            if (object instanceof TimestampColumn) {
+                value = ((TimestampColumn) object).asTimestampStr();
+            } else {
+                value = org.apache.flink.util.StringUtils.arrayAwareToString(row.getField(i));
+            }
+            map.put(tableFields.get(i), value);
+        }
+        if (includeFields != null && !includeFields.isEmpty()) {
+            Map<String, Object> keyPartitionMap = new LinkedHashMap<>((arity << 2) / 3);
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                if (includeFields.contains(entry.getKey())) {
+                    keyPartitionMap.put(entry.getKey(), entry.getValue());
+                }
+            }
+            map = keyPartitionMap;
+        }
+        return MapUtil.writeValueAsString(map).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import java.util.Locale;
 
+import static com.dtstack.chunjun.connector.kudu.table.KuduOptions.ASYNC_FLUSH;
 import static com.dtstack.chunjun.connector.kudu.table.KuduOptions.FLUSH_MODE;
 import static com.dtstack.chunjun.connector.kudu.table.KuduOptions.MUTATION_BUFFER_SPACE;
 import static com.dtstack.chunjun.connector.kudu.table.KuduOptions.WRITE_MODE;
@@ -47,6 +48,9 @@ public class KuduSinkConf extends KuduCommonConf {
 
     private long flushInterval = 10 * 1000;
 
+    /** 批量写入时是否异步flush，flush 与下一批数据的转换并行执行 */
+    private boolean asyncFlush = false;
+
     public static KuduSinkConf from(ReadableConfig readableConfig) {
         KuduSinkConf conf = (KuduSinkConf) KuduCommonConf.from(readableConfig, new KuduSinkConf());
 
@@ -56,6 +60,7 @@ public class KuduSinkConf extends KuduCommonConf {
         conf.setMaxBufferSize(readableConfig.get(MUTATION_BUFFER_SPACE));
         conf.setFlushMode(readableConfig.get(FLUSH_MODE));
         conf.setFlushInterval(readableConfig.get(SINK_BUFFER_FLUSH_INTERVAL));
+        conf.setAsyncFlush(readableConfig.get(ASYNC_FLUSH));
 
         return conf;
     }
@@ -104,12 +109,21 @@ public class KuduSinkConf extends KuduCommonConf {
         this.flushInterval = flushInterval;
     }
 
+    public boolean isAsyncFlush() {
+        return asyncFlush;
+    }
+
+    public void setAsyncFlush(boolean asyncFlush) {
+        this.asyncFlush = asyncFlush;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
                 .append("masters", masters)
                 .append("flush-mode", flushMode)
                 .append("flush-interval", flushInterval)
+                .append("async-flush", asyncFlush)
                 .append("write-mode", writeMode)
                 .toString();
     }
@@ -20,6 +20,7 @@ package com.dtstack.chunjun.connector.kudu.sink;
 
 import com.dtstack.chunjun.connector.kudu.conf.KuduSinkConf;
 import com.dtstack.chunjun.connector.kudu.util.KuduUtil;
+import com.dtstack.chunjun.restore.FormatState;
 import com.dtstack.chunjun.sink.WriteMode;
 import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
 import com.dtstack.chunjun.throwable.ChunJunRuntimeException;
@@ -28,19 +29,27 @@ import com.dtstack.chunjun.throwable.WriteRecordException;
 
 import org.apache.flink.table.data.RowData;
 
+import com.stumbleupon.async.Deferred;
+import org.apache.kudu.client.AsyncKuduClient;
+import org.apache.kudu.client.AsyncKuduSession;
 import org.apache.kudu.client.KuduClient;
 import org.apache.kudu.client.KuduException;
 import org.apache.kudu.client.KuduSession;
 import org.apache.kudu.client.KuduTable;
 import org.apache.kudu.client.Operation;
 import org.apache.kudu.client.OperationResponse;
+import org.apache.kudu.client.PleaseThrottleException;
 import org.apache.kudu.client.RowError;
+import org.apache.kudu.client.RowErrorsAndOverflowStatus;
 import org.apache.kudu.client.SessionConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * @author tiezhu
@@ -64,6 +73,15 @@ public class KuduOutputFormat extends BaseRichOutputFormat {
 
     private SessionConfiguration.FlushMode flushMode;
 
+    /** 异步flush时使用的 session，只在 asyncFlush 且 batchSize 大于1时创建 */
+    private transient AsyncKuduSession asyncSession;
+
+    /** 正在flush的批次 */
+    private transient Deferred<List<OperationResponse>> pendingFlush;
+
+    /** 正在flush的批次中 operation 对应的原始数据，用于记录脏数据 */
+    private transient Map<Operation, RowData> pendingRows;
+
     @Override
     @SuppressWarnings("unchecked")
     protected void writeSingleRecordInternal(RowData rowData) throws WriteRecordException {
@@ -104,18 +122,146 @@ public class KuduOutputFormat extends BaseRichOutputFormat {
     @Override
     @SuppressWarnings("unchecked")
     protected void writeMultipleRecordsInternal() throws Exception {
+        if (asyncSession != null) {
+            writeAsync();
+            return;
+        }
         for (RowData rowData : rows) {
             Operation operation = toOperation(writeMode);
             rowConverter.toExternal(rowData, operation);
             applyOperation(operation);
         }
-        session.flush().forEach(this::dealResponse);
+        if (flushMode == SessionConfiguration.FlushMode.AUTO_FLUSH_BACKGROUND) {
+            // 后台flush由session按缓存大小以及flushInterval触发，这里只收集已经返回的错误数据
+            collectPendingErrors();
+        } else {
+            session.flush().forEach(this::dealResponse);
+        }
+    }
+
+    /**
+     * 异步写入：转换当前批次并放入 session 的缓存，等待上一批flush完成后再异步flush当前批次， flush
+     * 期间可以继续转换下一批数据。写入失败的数据记为脏数据，不影响整个批次
+     */
+    @SuppressWarnings("unchecked")
+    private void writeAsync() throws Exception {
+        Map<Operation, RowData> batch = new IdentityHashMap<>(rows.size());
+        for (RowData rowData : rows) {
+            Operation operation;
+            try {
+                operation = toOperation(writeMode);
+                rowConverter.toExternal(rowData, operation);
+            } catch (Exception e) {
+                dirtyManager.collect(rowData, e, null);
+                continue;
+            }
+            applyAsync(operation);
+            batch.put(operation, rowData);
+        }
+
+        waitPendingFlush();
+        if (!batch.isEmpty()) {
+            pendingRows = batch;
+            pendingFlush = asyncSession.flush();
+        }
+    }
+
+    private void applyAsync(Operation operation) throws Exception {
+        while (true) {
+            try {
+                asyncSession.apply(operation);
+                return;
+            } catch (PleaseThrottleException e) {
+                // 两个缓存都在flush中，等待其中一个完成
+                e.getDeferred().join();
+            }
+        }
+    }
+
+    /** 等待正在flush的批次完成，并处理写入失败的数据 */
+    private void waitPendingFlush() throws Exception {
+        if (pendingFlush == null) {
+            return;
+        }
+        Deferred<List<OperationResponse>> flush = pendingFlush;
+        Map<Operation, RowData> batch = pendingRows;
+        pendingFlush = null;
+        pendingRows = null;
+
+        int errorCount = 0;
+        for (OperationResponse response : flush.join()) {
+            if (response.hasRowError()) {
+                RowError error = response.getRowError();
+                RowData rowData = batch.get(error.getOperation());
+                dirtyManager.collect(
+                        rowData == null ? error.getOperation().getRow().toString() : rowData,
+                        new ChunJunRuntimeException(error.toString()),
+                        null);
+                errorCount++;
+            }
+        }
+        numWriteCounter.add(batch.size() - errorCount);
+    }
+
+    /**
+     * 收集 AUTO_FLUSH_BACKGROUND 模式下后台flush失败的数据，记为脏数据。这些数据在放入 session 时已经计入写入条数，需要从中扣除；
+     * 错误缓存溢出时被丢弃的错误无法获取，其数据仍计为写入成功
+     */
+    private void collectPendingErrors() {
+        if (session.countPendingErrors() == 0) {
+            return;
+        }
+        RowErrorsAndOverflowStatus pendingErrors = session.getPendingErrors();
+        if (pendingErrors.isOverflowed()) {
+            LOG.warn("Kudu session error buffer overflowed, some row errors have been discarded.");
+        }
+        RowError[] rowErrors = pendingErrors.getRowErrors();
+        for (RowError error : rowErrors) {
+            dirtyManager.collect(
+                    error.getOperation().getRow().toString(),
+                    new ChunJunRuntimeException(error.toString()),
+                    null);
+        }
+        numWriteCounter.add(-rowErrors.length);
+    }
+
+    /** 异步写入时自行统计写入条数，写入失败的数据已记为脏数据，不再转为单条写入 */
+    @Override
+    protected boolean isWriteCountedBySink() {
+        return asyncSession != null;
+    }
+
+    @Override
+    protected boolean fallbackToSingleWrite() {
+        return asyncSession == null;
+    }
+
+    @Override
+    public synchronized FormatState getFormatState() throws Exception {
+        // checkpoint 时保证缓存中的数据都已经写入 kudu
+        writeRecordInternal();
+        flushSession();
+        return super.getFormatState();
+    }
+
+    private void flushSession() throws Exception {
+        if (asyncSession != null) {
+            waitPendingFlush();
+        } else if (session != null
+                && flushMode == SessionConfiguration.FlushMode.AUTO_FLUSH_BACKGROUND) {
+            session.flush();
+            collectPendingErrors();
+        }
     }
 
     @Override
     protected void openInternal(int taskNumber, int numTasks) throws IOException {
         writeMode = sinkConf.getWriteMode();
         flushMode = transformFlushMode(sinkConf.getFlushMode());
+        if (sinkConf.isAsyncFlush() && batchSize > 1) {
+            openAsyncSession();
+            return;
+        }
         try {
             client = KuduUtil.getKuduClient(sinkConf);
         } catch (Exception e) {
@@ -142,6 +288,26 @@ public class KuduOutputFormat extends BaseRichOutputFormat {
         }
     }
 
+    private void openAsyncSession() throws IOException {
+        AsyncKuduClient asyncClient;
+        try {
+            asyncClient = KuduUtil.getAsyncKuduClient(sinkConf);
+        } catch (Exception e) {
+            throw new NoRestartException("Get AsyncKuduClient error", e);
+        }
+        client = asyncClient.syncClient();
+        kuduTable = client.openTable(sinkConf.getTable());
+
+        if (flushMode != SessionConfiguration.FlushMode.MANUAL_FLUSH) {
+            LOG.warn("Flush mode [{}] is replaced by MANUAL_FLUSH at async flush.", flushMode);
+            flushMode = SessionConfiguration.FlushMode.MANUAL_FLUSH;
+        }
+        asyncSession = asyncClient.newSession();
+        asyncSession.setFlushMode(SessionConfiguration.FlushMode.MANUAL_FLUSH);
+        // 一个批次的数据需要全部放入缓存后才flush
+        asyncSession.setMutationBufferSpace(Math.max(sinkConf.getMaxBufferSize(), batchSize));
+    }
+
     private Operation toOperation(WriteMode writeMode) {
         switch (writeMode) {
             case INSERT:
@@ -175,6 +341,22 @@ public class KuduOutputFormat extends BaseRichOutputFormat {
 
     @Override
     protected void closeInternal() throws IOException {
+        try {
+            flushSession();
+        } catch (Exception e) {
+            throw new IOException("Kudu flush failed when close output-format.", e);
+        }
+
+        if (asyncSession != null) {
+            if (!asyncSession.isClosed()) {
+                try {
+                    asyncSession.close().join();
+                } catch (Exception e) {
+                    throw new IOException("Close Kudu async session failed.", e);
+                }
+            }
+            asyncSession = null;
+        }
 
         if (session != null && !session.isClosed()) {
             session.flush();
@@ -36,6 +36,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static com.dtstack.chunjun.connector.kudu.table.KuduOptions.ADMIN_OPERATION_TIMEOUT;
+import static com.dtstack.chunjun.connector.kudu.table.KuduOptions.ASYNC_FLUSH;
 import static com.dtstack.chunjun.connector.kudu.table.KuduOptions.FILTER_EXPRESSION;
 import static com.dtstack.chunjun.connector.kudu.table.KuduOptions.FLUSH_MODE;
 import static com.dtstack.chunjun.connector.kudu.table.KuduOptions.MASTER_ADDRESS;
@@ -139,6 +140,7 @@ public class KuduDynamicTableFactory implements DynamicTableSourceFactory, Dynam
         optionalOptions.add(FLUSH_MODE);
         optionalOptions.add(SCAN_PARALLELISM);
         optionalOptions.add(MUTATION_BUFFER_SPACE);
+        optionalOptions.add(ASYNC_FLUSH);
 
         optionalOptions.add(SCAN_START_LOCATION);
         optionalOptions.add(SCAN_QUERY_TIMEOUT);
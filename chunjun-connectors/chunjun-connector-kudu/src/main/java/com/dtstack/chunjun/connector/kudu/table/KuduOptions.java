@@ -125,4 +125,11 @@ public class KuduOptions {
                     .stringType()
                     .defaultValue(WriteMode.INSERT.name())
                     .withDescription("The mode of Kudu record write-operation.");
+
+    public static final ConfigOption<Boolean> ASYNC_FLUSH =
+            ConfigOptions.key("sink.async-flush")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Flush batches asynchronously in MANUAL_FLUSH mode, overlapping with the next batch.");
 }
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.kudu.sink;
+
+import com.dtstack.chunjun.converter.AbstractRowConverter;
+import com.dtstack.chunjun.dirty.manager.DirtyManager;
+import com.dtstack.chunjun.sink.WriteMode;
+
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+
+import com.stumbleupon.async.Deferred;
+import org.apache.kudu.client.AsyncKuduSession;
+import org.apache.kudu.client.KuduSession;
+import org.apache.kudu.client.KuduTable;
+import org.apache.kudu.client.OperationResponse;
+import org.apache.kudu.client.PartialRow;
+import org.apache.kudu.client.RowError;
+import org.apache.kudu.client.RowErrorsAndOverflowStatus;
+import org.apache.kudu.client.SessionConfiguration;
+import org.apache.kudu.client.Upsert;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KuduOutputFormatTest {
+
+    private KuduTable kuduTable;
+    private DirtyManager dirtyManager;
+    private LongCounter numWriteCounter;
+    private List<RowData> rows;
+    private KuduOutputFormat outputFormat;
+    /** 按创建顺序记录的 operation */
+    private final List<Upsert> operations = new ArrayList<>();
+
+    @Before
+    public void setup() throws Exception {
+        kuduTable = Mockito.mock(KuduTable.class);
+        when(kuduTable.newUpsert())
+                .thenAnswer(
+                        invocation -> {
+                            Upsert upsert = Mockito.mock(Upsert.class);
+                            when(upsert.getRow()).thenReturn(Mockito.mock(PartialRow.class));
+                            operations.add(upsert);
+                            return upsert;
+                        });
+        AbstractRowConverter rowConverter = Mockito.mock(AbstractRowConverter.class);
+        when(rowConverter.toExternal(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        dirtyManager = Mockito.mock(DirtyManager.class);
+        numWriteCounter = new LongCounter();
+        rows = new ArrayList<>();
+
+        outputFormat = new KuduOutputFormat();
+        outputFormat.setRowConverter(rowConverter);
+        outputFormat.setDirtyManager(dirtyManager);
+        Whitebox.setInternalState(outputFormat, "kuduTable", kuduTable);
+        Whitebox.setInternalState(outputFormat, "writeMode", WriteMode.UPSERT);
+        Whitebox.setInternalState(outputFormat, "rows", rows);
+        Whitebox.setInternalState(outputFormat, "numWriteCounter", numWriteCounter);
+        Whitebox.setInternalState(outputFormat, "flushEnable", new AtomicBoolean(true));
+    }
+
+    @Test
+    public void testManualFlush() throws Exception {
+        KuduSession session = useSession(SessionConfiguration.FlushMode.MANUAL_FLUSH);
+        when(session.flush()).thenReturn(Collections.emptyList());
+        rows.add(GenericRowData.of(1));
+        rows.add(GenericRowData.of(2));
+        Whitebox.invokeMethod(outputFormat, "writeRecordInternal");
+
+        verify(session, times(2)).apply(any());
+        verify(session).flush();
+        Assert.assertEquals(2, numWriteCounter.getLocalValue().longValue());
+        Assert.assertTrue(rows.isEmpty());
+    }
+
+    @Test
+    public void testBackgroundFlushErrorsAreNotCountedAsWritten() throws Exception {
+        KuduSession session = useSession(SessionConfiguration.FlushMode.AUTO_FLUSH_BACKGROUND);
+        rows.add(GenericRowData.of(1));
+        rows.add(GenericRowData.of(2));
+        Whitebox.invokeMethod(outputFormat, "writeRecordInternal");
+        Assert.assertEquals(2, numWriteCounter.getLocalValue().longValue());
+
+        // 第一条数据在后台flush时失败
+        RowError rowError = rowError(operations.get(0));
+        RowErrorsAndOverflowStatus pendingErrors = Mockito.mock(RowErrorsAndOverflowStatus.class);
+        when(pendingErrors.getRowErrors()).thenReturn(new RowError[] {rowError});
+        when(session.countPendingErrors()).thenReturn(1);
+        when(session.getPendingErrors()).thenReturn(pendingErrors);
+        rows.add(GenericRowData.of(3));
+        Whitebox.invokeMethod(outputFormat, "writeRecordInternal");
+
+        verify(session, never()).flush();
+        verify(dirtyManager).collect(any(), any(), isNull());
+        Assert.assertEquals(2, numWriteCounter.getLocalValue().longValue());
+    }
+
+    @Test
+    public void testAsyncFlushCollectsRowErrors() throws Exception {
+        AsyncKuduSession asyncSession = Mockito.mock(AsyncKuduSession.class);
+        when(asyncSession.close()).thenReturn(Deferred.fromResult(Collections.emptyList()));
+        Whitebox.setInternalState(outputFormat, "asyncSession", asyncSession);
+        Whitebox.setInternalState(
+                outputFormat, "flushMode", SessionConfiguration.FlushMode.MANUAL_FLUSH);
+
+        RowData failed = GenericRowData.of(2);
+        rows.add(GenericRowData.of(1));
+        rows.add(failed);
+        // 第一批的flush返回前不会统计写入条数
+        OperationResponse success = Mockito.mock(OperationResponse.class);
+        OperationResponse error = Mockito.mock(OperationResponse.class);
+        when(asyncSession.flush())
+                .thenAnswer(
+                        invocation -> {
+                            RowError rowError = rowError(operations.get(1));
+                            when(error.hasRowError()).thenReturn(true);
+                            when(error.getRowError()).thenReturn(rowError);
+                            return Deferred.fromResult(Arrays.asList(success, error));
+                        });
+        Whitebox.invokeMethod(outputFormat, "writeRecordInternal");
+        verify(asyncSession, times(2)).apply(any());
+        Assert.assertEquals(0, numWriteCounter.getLocalValue().longValue());
+
+        outputFormat.closeInternal();
+        verify(dirtyManager).collect(eq(failed), any(), isNull());
+        Assert.assertEquals(1, numWriteCounter.getLocalValue().longValue());
+    }
+
+    private KuduSession useSession(SessionConfiguration.FlushMode flushMode) {
+        KuduSession session = Mockito.mock(KuduSession.class);
+        Whitebox.setInternalState(outputFormat, "session", session);
+        Whitebox.setInternalState(outputFormat, "flushMode", flushMode);
+        return session;
+    }
+
+    private static RowError rowError(Upsert operation) {
+        RowError rowError = Mockito.mock(RowError.class);
+        when(rowError.getOperation()).thenReturn(operation);
+        return rowError;
+    }
+}
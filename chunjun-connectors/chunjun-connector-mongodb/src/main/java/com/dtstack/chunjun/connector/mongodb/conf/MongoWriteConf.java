@@ -27,6 +27,7 @@ public class MongoWriteConf {
     private int parallelism = 1;
     private long flushInterval = 1000L;
     private int flushMaxRows = 1;
+    private int bulkParallelism = 1;
 
     public int getParallelism() {
         return parallelism;
@@ -44,6 +45,14 @@ public class MongoWriteConf {
         this.flushInterval = flushInterval;
     }
 
+    public int getBulkParallelism() {
+        return bulkParallelism;
+    }
+
+    public void setBulkParallelism(int bulkParallelism) {
+        this.bulkParallelism = bulkParallelism;
+    }
+
     public int getFlushMaxRows() {
         return flushMaxRows;
     }
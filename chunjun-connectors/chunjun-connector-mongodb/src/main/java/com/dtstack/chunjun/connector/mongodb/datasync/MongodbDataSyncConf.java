@@ -51,9 +51,14 @@ public class MongodbDataSyncConf extends ChunJunCommonConf implements Serializab
 
     private int fetchSize;
 
+    /** 切分读取时使用的字段，需要有该字段的升序单字段索引 */
+    private String splitKey = "_id";
+
     private String writeMode;
 
     private String replaceKey;
+    /** 批量写入时并发执行bulkWrite的数量 */
+    private int bulkParallelism = 1;
 
     private List<String> monitorDatabases;
 
@@ -179,6 +184,14 @@ public class MongodbDataSyncConf extends ChunJunCommonConf implements Serializab
         this.fetchSize = fetchSize;
     }
 
+    public String getSplitKey() {
+        return splitKey;
+    }
+
+    public void setSplitKey(String splitKey) {
+        this.splitKey = splitKey;
+    }
+
     public String getWriteMode() {
         return writeMode;
     }
@@ -187,6 +200,14 @@ public class MongodbDataSyncConf extends ChunJunCommonConf implements Serializab
         this.writeMode = writeMode;
     }
 
+    public int getBulkParallelism() {
+        return bulkParallelism;
+    }
+
+    public void setBulkParallelism(int bulkParallelism) {
+        this.bulkParallelism = bulkParallelism;
+    }
+
     public String getReplaceKey() {
         return replaceKey;
     }
@@ -232,12 +253,17 @@ public class MongodbDataSyncConf extends ChunJunCommonConf implements Serializab
                 + '\''
                 + ", fetchSize="
                 + fetchSize
+                + ", splitKey='"
+                + splitKey
+                + '\''
                 + ", writeMode='"
                 + writeMode
                 + '\''
                 + ", replaceKey='"
                 + replaceKey
                 + '\''
+                + ", bulkParallelism="
+                + bulkParallelism
                 + ", mongodbConfig="
                 + mongodbConfig
                 + '}';
@@ -20,22 +20,43 @@ package com.dtstack.chunjun.connector.mongodb.sink;
 
 import com.dtstack.chunjun.connector.mongodb.MongoClientFactory;
 import com.dtstack.chunjun.connector.mongodb.conf.MongoClientConf;
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
 import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
-import com.dtstack.chunjun.throwable.ChunJunRuntimeException;
 import com.dtstack.chunjun.throwable.WriteRecordException;
+import com.dtstack.chunjun.util.ExceptionUtil;
 
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.types.RowKind;
 
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import org.apache.commons.lang3.StringUtils;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author Ada Wong
@@ -46,17 +67,26 @@ public class MongodbOutputFormat extends BaseRichOutputFormat {
 
     private static final Logger LOG = LoggerFactory.getLogger(MongodbOutputFormat.class);
 
+    private static final String SET_OPERATOR = "$set";
+
     private final MongoClientConf mongoClientConf;
     private final String key;
     private final WriteMode writeMode;
+    /** 一批数据拆分后并发执行bulkWrite的数量 */
+    private int bulkParallelism = 1;
 
     private transient MongoClient mongoClient;
-    private transient MongoCollection mongoCollection;
-    private transient FindOneAndReplaceOptions options;
+    private transient MongoCollection<Document> mongoCollection;
+    private transient ExecutorService bulkExecutor;
+
+    private static final ReplaceOptions REPLACE_OPTIONS = new ReplaceOptions().upsert(true);
+    private static final UpdateOptions UPDATE_OPTIONS = new UpdateOptions().upsert(true);
+    private static final BulkWriteOptions BULK_WRITE_OPTIONS =
+            new BulkWriteOptions().ordered(false);
 
     public MongodbOutputFormat(MongoClientConf mongoClientConf, String key, WriteMode writeMode) {
         this.mongoClientConf = mongoClientConf;
-        this.key = key;
+        this.key = StringUtils.isBlank(key) ? null : key;
         this.writeMode = writeMode;
     }
 
@@ -65,29 +95,167 @@ public class MongodbOutputFormat extends BaseRichOutputFormat {
         try {
             Document document = new Document();
             rowConverter.toExternal(rowData, document);
-            if (writeMode == WriteMode.UPSERT) {
-                Document filter = new Document(key, document.get(key));
-                mongoCollection.findOneAndReplace(filter, document, options);
-            } else {
-                mongoCollection.insertOne(document);
-            }
+            WriteModel<Document> model = createWriteModel(rowData.getRowKind(), document);
+            mongoCollection.bulkWrite(Collections.singletonList(model));
         } catch (Exception e) {
             throw new WriteRecordException("Writer data to mongodb error", e, 0, rowData);
         }
     }
 
+    @Override
+    protected boolean isWriteCountedBySink() {
+        return true;
+    }
+
+    /**
+     * 一批数据转为{@link WriteModel}后通过unordered bulkWrite写入，INSERT、UPDATE_AFTER按writeMode插入、替换或更新，
+     * DELETE、UPDATE_BEFORE按key删除。
+     *
+     * <p>unordered bulkWrite不保证执行顺序，因此同一批次中同一个key只保留最后一次修改，被覆盖的数据与覆盖它的数据结果一致：
+     * 写入成功时计为写入成功，失败时一并记为脏数据。部分数据写入失败时，根据{@link BulkWriteError#getIndex()}找到对应的数据记为脏数据， 其余数据正常提交。
+     */
     @Override
     protected void writeMultipleRecordsInternal() throws Exception {
-        List<Document> documents = new ArrayList<>(rows.size());
+        List<WriteModel<Document>> models = new ArrayList<>(rows.size());
+        List<RowData> modelRows = new ArrayList<>(rows.size());
+        // 每个model覆盖掉的同key数据，按到达顺序排列，没有时为null
+        List<List<RowData>> supersededRows = new ArrayList<>(rows.size());
+        Map<Object, Integer> keyIndexes = key == null ? null : new HashMap<>(rows.size() * 2);
         for (RowData row : rows) {
             Document document = new Document();
-            rowConverter.toExternal(row, document);
-            documents.add(document);
+            WriteModel<Document> model;
+            Object keyValue;
+            try {
+                rowConverter.toExternal(row, document);
+                // createWriteModel会从UPDATE模式的document中移除key，需要提前取出
+                keyValue = key == null ? null : document.get(key);
+                model = createWriteModel(row.getRowKind(), document);
+            } catch (Exception e) {
+                dirtyManager.collect(row, e, null);
+                continue;
+            }
+            if (keyIndexes != null) {
+                Integer index = keyIndexes.putIfAbsent(keyValue, models.size());
+                if (index != null) {
+                    List<RowData> superseded = supersededRows.get(index);
+                    if (superseded == null) {
+                        superseded = new ArrayList<>(2);
+                        supersededRows.set(index, superseded);
+                    }
+                    superseded.add(modelRows.get(index));
+                    models.set(index, model);
+                    modelRows.set(index, row);
+                    continue;
+                }
+            }
+            models.add(model);
+            modelRows.add(row);
+            supersededRows.add(null);
         }
-        if (writeMode == WriteMode.INSERT) {
-            mongoCollection.insertMany(documents);
+        if (models.isEmpty()) {
+            return;
+        }
+
+        // 同一个key在批次中只出现一次，因此可以任意拆分后并发写入
+        int groupNum = Math.min(bulkParallelism, models.size());
+        int groupSize = (models.size() + groupNum - 1) / groupNum;
+        List<BulkResult> results = new ArrayList<>(groupNum);
+        if (groupNum == 1) {
+            results.add(bulkWrite(models, 0));
         } else {
-            throw new ChunJunRuntimeException("Does not support batch upsert documents");
+            List<Future<BulkResult>> futures = new ArrayList<>(groupNum);
+            for (int from = 0; from < models.size(); from += groupSize) {
+                int start = from;
+                List<WriteModel<Document>> group =
+                        models.subList(start, Math.min(start + groupSize, models.size()));
+                futures.add(bulkExecutor.submit(() -> bulkWrite(group, start)));
+            }
+            for (Future<BulkResult> future : futures) {
+                results.add(future.get());
+            }
+        }
+
+        long success = 0;
+        for (BulkResult result : results) {
+            if (result.failure != null) {
+                LOG.warn(
+                        "bulk write failed, write {} records one by one, e = {}",
+                        result.size,
+                        ExceptionUtil.getErrorMessage(result.failure));
+                for (int i = result.offset; i < result.offset + result.size; i++) {
+                    // 逐条写入时按到达顺序写出被覆盖的数据，保证最终结果一致
+                    List<RowData> superseded = supersededRows.get(i);
+                    if (superseded != null) {
+                        superseded.forEach(row -> writeSingleRecord(row, numWriteCounter));
+                    }
+                    writeSingleRecord(modelRows.get(i), numWriteCounter);
+                }
+                continue;
+            }
+            boolean[] failed = new boolean[result.size];
+            for (BulkWriteError error : result.errors) {
+                int index = result.offset + error.getIndex();
+                failed[error.getIndex()] = true;
+                WriteRecordException exception =
+                        new WriteRecordException(
+                                error.getCode() + ": " + error.getMessage(),
+                                null,
+                                0,
+                                modelRows.get(index));
+                List<RowData> superseded = supersededRows.get(index);
+                if (superseded != null) {
+                    superseded.forEach(row -> dirtyManager.collect(row, exception, null));
+                }
+                dirtyManager.collect(modelRows.get(index), exception, null);
+            }
+            for (int i = 0; i < result.size; i++) {
+                if (!failed[i]) {
+                    List<RowData> superseded = supersededRows.get(result.offset + i);
+                    success += superseded == null ? 1 : superseded.size() + 1;
+                }
+            }
+        }
+        numWriteCounter.add(success);
+    }
+
+    private BulkResult bulkWrite(List<WriteModel<Document>> models, int offset) {
+        BulkResult result = new BulkResult(offset, models.size());
+        try {
+            mongoCollection.bulkWrite(models, BULK_WRITE_OPTIONS);
+        } catch (MongoBulkWriteException e) {
+            result.errors = e.getWriteErrors();
+            if (e.getWriteConcernError() != null) {
+                LOG.warn("bulk write concern error: {}", e.getWriteConcernError());
+            }
+        } catch (MongoException e) {
+            result.failure = e;
+        }
+        return result;
+    }
+
+    private WriteModel<Document> createWriteModel(RowKind rowKind, Document document) {
+        boolean delete = rowKind == RowKind.DELETE || rowKind == RowKind.UPDATE_BEFORE;
+        if (key == null) {
+            if (delete) {
+                throw new IllegalArgumentException(
+                        "can not write " + rowKind + " record without replaceKey");
+            }
+            return new InsertOneModel<>(document);
+        }
+        Bson filter = Filters.eq(key, document.get(key));
+        if (delete) {
+            return new DeleteOneModel<>(filter);
+        }
+        switch (writeMode) {
+            case UPSERT:
+                return new ReplaceOneModel<>(filter, document, REPLACE_OPTIONS);
+            case UPDATE:
+                // upsert时filter中的key会写入新文档，$set中不再包含key
+                document.remove(key);
+                return new UpdateOneModel<>(
+                        filter, new Document(SET_OPERATOR, document), UPDATE_OPTIONS);
+            default:
+                return new InsertOneModel<>(document);
         }
     }
 
@@ -99,11 +267,18 @@ public class MongodbOutputFormat extends BaseRichOutputFormat {
                         mongoClient,
                         mongoClientConf.getDatabase(),
                         mongoClientConf.getCollection());
-        options = new FindOneAndReplaceOptions().upsert(true);
+        if (bulkParallelism > 1) {
+            bulkExecutor =
+                    Executors.newFixedThreadPool(
+                            bulkParallelism, new ChunJunThreadFactory("mongodb-bulk-write", true));
+        }
     }
 
     @Override
     protected void closeInternal() throws IOException {
+        if (bulkExecutor != null) {
+            bulkExecutor.shutdownNow();
+        }
         if (mongoClient != null) {
             LOG.info("Start close mongodb client");
             mongoClient.close();
@@ -111,8 +286,36 @@ public class MongodbOutputFormat extends BaseRichOutputFormat {
         }
     }
 
+    public void setBulkParallelism(int bulkParallelism) {
+        this.bulkParallelism = bulkParallelism;
+    }
+
+    public int getBulkParallelism() {
+        return bulkParallelism;
+    }
+
+    private static class BulkResult {
+        /** 本组第一条数据在批次中的位置 */
+        private final int offset;
+
+        private final int size;
+
+        private List<BulkWriteError> errors = Collections.emptyList();
+        /** 非数据原因导致整组失败，如网络异常 */
+        private MongoException failure;
+
+        private BulkResult(int offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+
     public enum WriteMode {
+        /** 插入 */
         INSERT,
-        UPSERT
+        /** 按key替换整个文档，不存在时插入 */
+        UPSERT,
+        /** 按key更新文档中的字段，不存在时插入 */
+        UPDATE
     }
 }
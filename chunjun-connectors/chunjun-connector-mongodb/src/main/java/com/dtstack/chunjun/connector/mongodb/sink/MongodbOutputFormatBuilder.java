@@ -48,6 +48,7 @@ public class MongodbOutputFormatBuilder extends BaseRichOutputFormatBuilder {
         this.format =
                 new MongodbOutputFormat(
                         mongoClientConf, mongodbDataSyncConf.getReplaceKey(), writeMode);
+        setBulkParallelism(mongodbDataSyncConf.getBulkParallelism());
     }
 
     public MongodbOutputFormatBuilder(
@@ -56,9 +57,16 @@ public class MongodbOutputFormatBuilder extends BaseRichOutputFormatBuilder {
         this.format = new MongodbOutputFormat(mongoClientConf, key, writeMode);
     }
 
+    public void setBulkParallelism(int bulkParallelism) {
+        ((MongodbOutputFormat) format).setBulkParallelism(bulkParallelism);
+    }
+
     @Override
     protected void checkFormat() {
-        if (!StringUtils.isBlank(upsertKey)) {
+        if (((MongodbOutputFormat) format).getBulkParallelism() < 1) {
+            throw new IllegalArgumentException("bulkParallelism must be greater than 0");
+        }
+        if (!StringUtils.isBlank(upsertKey) && mongodbDataSyncConf != null) {
             List<FieldConf> fields = mongodbDataSyncConf.getColumn();
             boolean flag = false;
             for (FieldConf field : fields) {
@@ -77,8 +85,10 @@ public class MongodbOutputFormatBuilder extends BaseRichOutputFormatBuilder {
     }
 
     private MongodbOutputFormat.WriteMode parseWriteMode(String str) {
-        if (WriteMode.REPLACE.getMode().equals(str) || WriteMode.UPDATE.getMode().equals(str)) {
+        if (WriteMode.REPLACE.getMode().equals(str)) {
             return MongodbOutputFormat.WriteMode.UPSERT;
+        } else if (WriteMode.UPDATE.getMode().equals(str)) {
+            return MongodbOutputFormat.WriteMode.UPDATE;
         } else {
             return MongodbOutputFormat.WriteMode.INSERT;
         }
@@ -24,20 +24,34 @@ import com.dtstack.chunjun.source.format.BaseRichInputFormat;
 import com.dtstack.chunjun.throwable.ReadRecordException;
 import com.dtstack.chunjun.util.ExceptionUtil;
 
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.core.io.InputSplit;
 import org.apache.flink.table.data.RowData;
 
 import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonNull;
+import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * @author Ada Wong
@@ -52,6 +66,15 @@ public class MongodbInputFormat extends BaseRichInputFormat {
     private final Bson filter;
     private final int fetchSize;
 
+    /** 每个分片采样的文档数，用于估算分片边界 */
+    private static final int SAMPLES_PER_SPLIT = 32;
+
+    private static final JsonWriterSettings BOUND_JSON_SETTINGS =
+            JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    /** 切分读取时使用的字段 */
+    private String splitKey = "_id";
+
     private transient MongoCursor<Document> cursor;
     private transient MongoClient mongoClient;
 
@@ -61,9 +84,13 @@ public class MongodbInputFormat extends BaseRichInputFormat {
         this.fetchSize = fetchSize;
     }
 
+    /**
+     * 按 splitKey 的范围切分：通过 $sample 采样并排序得到分片边界，每个分片读取 [lowerBound, upperBound) 范围内的数据，读取时通过索引的
+     * min/max 定位，不需要像 skip 一样遍历并丢弃前面的文档。 splitKey 上没有升序单字段索引或者采样失败时，退回到按 skip/limit 切分
+     */
     @Override
     protected InputSplit[] createInputSplitsInternal(int minNumSplits) throws Exception {
-        ArrayList<MongodbInputSplit> splits = new ArrayList<>();
+        List<MongodbInputSplit> splits;
 
         MongoClient client = null;
         try {
@@ -74,20 +101,25 @@ public class MongodbInputFormat extends BaseRichInputFormat {
 
             // 不使用 collection.countDocuments() 获取总数是因为这个方法在大数据量时超时，导致出现超时异常结束任务
             long docNum = collection.estimatedDocumentCount();
-            if (docNum <= minNumSplits) {
-                splits.add(new MongodbInputSplit(0, (int) docNum));
-                return splits.toArray(new MongodbInputSplit[splits.size()]);
-            }
-
-            long size = Math.floorDiv(docNum, minNumSplits);
-            for (int i = 0; i < minNumSplits; i++) {
-                splits.add(new MongodbInputSplit((int) (i * size), (int) size));
-            }
-
-            if (size * minNumSplits < docNum) {
-                splits.add(
-                        new MongodbInputSplit(
-                                (int) (size * minNumSplits), (int) (docNum - size * minNumSplits)));
+            if (minNumSplits <= 1 || docNum <= minNumSplits) {
+                splits = new ArrayList<>();
+                splits.add(new MongodbInputSplit(null, null));
+            } else if (hasSplitKeyIndex(
+                    client.getDatabase(mongoClientConf.getDatabase()), collection)) {
+                try {
+                    splits = createRangeSplits(collection, minNumSplits, docNum);
+                } catch (MongoException e) {
+                    LOG.warn(
+                            "sample split boundaries of [{}] failed, use skip/limit splits instead, e = {}",
+                            splitKey,
+                            ExceptionUtil.getErrorMessage(e));
+                    splits = createSkipSplits(minNumSplits, docNum);
+                }
+            } else {
+                LOG.warn(
+                        "there is no usable ascending single field index on [{}], use skip/limit splits instead",
+                        splitKey);
+                splits = createSkipSplits(minNumSplits, docNum);
             }
         } catch (Exception e) {
             LOG.error("error to create inputSplits, e = {}", ExceptionUtil.getErrorMessage(e));
@@ -96,7 +128,168 @@ public class MongodbInputFormat extends BaseRichInputFormat {
             closeMongo(client, null);
         }
 
-        return splits.toArray(new MongodbInputSplit[splits.size()]);
+        LOG.info("create {} inputSplits: {}", splits.size(), splits);
+        return splits.toArray(new MongodbInputSplit[0]);
+    }
+
+    private boolean hasSplitKeyIndex(MongoDatabase database, MongoCollection<Document> collection) {
+        for (Document index : collection.listIndexes()) {
+            if (!isRangeSplitIndex(index, splitKey)) {
+                continue;
+            }
+            String indexName = index.getString("name");
+            if (isMultiKey(database, collection, indexName)) {
+                LOG.warn("index [{}] on [{}] is multikey, skip it", indexName, splitKey);
+                continue;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 判断索引能否用于范围切分：必须是 splitKey 上的升序单字段索引，且包含全部文档并按默认方式比较。 sparse 及 partial 索引中缺少部分文档，带 collation
+     * 的索引与 min/max 边界的比较方式不一致，都不能使用
+     *
+     * @param index listIndexes 返回的索引信息
+     * @param splitKey 切分字段
+     * @return 是否可以用于范围切分
+     */
+    @VisibleForTesting
+    static boolean isRangeSplitIndex(Document index, String splitKey) {
+        Document key = index.get("key", Document.class);
+        if (key == null || key.size() != 1) {
+            return false;
+        }
+        Object direction = key.get(splitKey);
+        if (!(direction instanceof Number) || ((Number) direction).intValue() != 1) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(index.get("sparse"))
+                || index.containsKey("partialFilterExpression")) {
+            return false;
+        }
+        Document collation = index.get("collation", Document.class);
+        return collation == null || "simple".equals(collation.getString("locale"));
+    }
+
+    /** 通过 explain 的执行计划判断索引是否为 multikey(有文档的 splitKey 为数组)，explain 失败时按 multikey 处理 */
+    private boolean isMultiKey(
+            MongoDatabase database, MongoCollection<Document> collection, String indexName) {
+        Document find =
+                new Document("find", collection.getNamespace().getCollectionName())
+                        .append("filter", new Document())
+                        .append("hint", indexName)
+                        .append("limit", 1);
+        try {
+            return hasMultiKeyStage(
+                    database.runCommand(
+                            new Document("explain", find).append("verbosity", "queryPlanner")));
+        } catch (MongoException e) {
+            LOG.warn(
+                    "explain index [{}] failed, treat it as multikey, e = {}",
+                    indexName,
+                    ExceptionUtil.getErrorMessage(e));
+            return true;
+        }
+    }
+
+    /**
+     * 在 explain 结果中查找 isMultiKey 为 true 的索引扫描，分片集群的结果中每个分片各有一个执行计划
+     *
+     * @param node explain 结果或其中的节点
+     * @return 是否使用了 multikey 索引
+     */
+    @VisibleForTesting
+    static boolean hasMultiKeyStage(Object node) {
+        if (node instanceof Document) {
+            Document document = (Document) node;
+            if (Boolean.TRUE.equals(document.get("isMultiKey"))) {
+                return true;
+            }
+            for (Object value : document.values()) {
+                if (hasMultiKeyStage(value)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List) {
+            for (Object value : (List<?>) node) {
+                if (hasMultiKeyStage(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<MongodbInputSplit> createRangeSplits(
+            MongoCollection<Document> collection, int numSplits, long docNum) {
+        int sampleSize = (int) Math.min(docNum, (long) numSplits * SAMPLES_PER_SPLIT);
+        List<BsonValue> samples = new ArrayList<>(sampleSize);
+        for (BsonDocument document :
+                collection
+                        .aggregate(
+                                Arrays.asList(
+                                        Aggregates.sample(sampleSize),
+                                        Aggregates.project(Projections.include(splitKey)),
+                                        Aggregates.sort(Sorts.ascending(splitKey))),
+                                BsonDocument.class)
+                        .allowDiskUse(true)) {
+            samples.add(getSplitKeyValue(document));
+        }
+
+        // 取采样结果中的等分点作为边界，相同的边界只保留一个
+        List<BsonValue> bounds = new ArrayList<>(numSplits);
+        for (int i = 1; i < numSplits && !samples.isEmpty(); i++) {
+            BsonValue bound = samples.get((int) ((long) i * samples.size() / numSplits));
+            if (bound.isNull()) {
+                // 缺少 splitKey 的文档在索引中为 null，排在最前面，由第一个分片读取
+                continue;
+            }
+            if (bounds.isEmpty() || !bounds.get(bounds.size() - 1).equals(bound)) {
+                bounds.add(bound);
+            }
+        }
+
+        List<MongodbInputSplit> splits = new ArrayList<>(bounds.size() + 1);
+        String lowerBound = null;
+        for (BsonValue bound : bounds) {
+            String upperBound = toBoundJson(bound);
+            splits.add(new MongodbInputSplit(lowerBound, upperBound));
+            lowerBound = upperBound;
+        }
+        splits.add(new MongodbInputSplit(lowerBound, null));
+        return splits;
+    }
+
+    private BsonValue getSplitKeyValue(BsonDocument document) {
+        BsonValue value = document;
+        for (String name : splitKey.split("\\.")) {
+            if (value == null || !value.isDocument()) {
+                return BsonNull.VALUE;
+            }
+            value = value.asDocument().get(name);
+        }
+        return value == null ? BsonNull.VALUE : value;
+    }
+
+    private String toBoundJson(BsonValue bound) {
+        return new BsonDocument(splitKey, bound).toJson(BOUND_JSON_SETTINGS);
+    }
+
+    private List<MongodbInputSplit> createSkipSplits(int minNumSplits, long docNum) {
+        List<MongodbInputSplit> splits = new ArrayList<>();
+        long size = Math.floorDiv(docNum, minNumSplits);
+        for (int i = 0; i < minNumSplits; i++) {
+            splits.add(new MongodbInputSplit((int) (i * size), (int) size));
+        }
+
+        if (size * minNumSplits < docNum) {
+            splits.add(
+                    new MongodbInputSplit(
+                            (int) (size * minNumSplits), (int) (docNum - size * minNumSplits)));
+        }
+        return splits;
     }
 
     @Override
@@ -118,8 +311,21 @@ public class MongodbInputFormat extends BaseRichInputFormat {
             findIterable = collection.find(filter);
         }
 
-        findIterable =
-                findIterable.skip(split.getSkip()).limit(split.getLimit()).batchSize(fetchSize);
+        if (split.isRange()) {
+            if (split.getLowerBound() != null || split.getUpperBound() != null) {
+                findIterable = findIterable.hint(new BsonDocument(splitKey, new BsonInt32(1)));
+            }
+            if (split.getLowerBound() != null) {
+                findIterable = findIterable.min(BsonDocument.parse(split.getLowerBound()));
+            }
+            if (split.getUpperBound() != null) {
+                findIterable = findIterable.max(BsonDocument.parse(split.getUpperBound()));
+            }
+            findIterable = findIterable.batchSize(fetchSize);
+        } else {
+            findIterable =
+                    findIterable.skip(split.getSkip()).limit(split.getLimit()).batchSize(fetchSize);
+        }
         cursor = findIterable.iterator();
     }
 
@@ -152,6 +358,10 @@ public class MongodbInputFormat extends BaseRichInputFormat {
         }
     }
 
+    public void setSplitKey(String splitKey) {
+        this.splitKey = splitKey;
+    }
+
     @Override
     public boolean reachedEnd() throws IOException {
         return !cursor.hasNext();
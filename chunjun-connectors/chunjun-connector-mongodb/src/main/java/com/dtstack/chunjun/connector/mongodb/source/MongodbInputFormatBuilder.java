@@ -38,7 +38,10 @@ public class MongodbInputFormatBuilder extends BaseRichInputFormatBuilder<Mongod
         MongoClientConf clientConf =
                 MongoClientConfFactory.createMongoClientConf(mongodbDataSyncConf);
         Bson filter = parseFilter(mongodbDataSyncConf.getFilter());
-        return newBuild(clientConf, filter, mongodbDataSyncConf.getFetchSize());
+        MongodbInputFormatBuilder builder =
+                newBuild(clientConf, filter, mongodbDataSyncConf.getFetchSize());
+        builder.setSplitKey(mongodbDataSyncConf.getSplitKey());
+        return builder;
     }
 
     public static MongodbInputFormatBuilder newBuild(
@@ -51,6 +54,12 @@ public class MongodbInputFormatBuilder extends BaseRichInputFormatBuilder<Mongod
         super(format);
     }
 
+    public void setSplitKey(String splitKey) {
+        if (StringUtils.isNotBlank(splitKey)) {
+            format.setSplitKey(splitKey);
+        }
+    }
+
     @Override
     protected void checkFormat() {}
 
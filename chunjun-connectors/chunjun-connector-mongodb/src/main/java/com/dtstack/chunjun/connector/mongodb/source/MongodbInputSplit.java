@@ -31,11 +31,26 @@ public class MongodbInputSplit implements InputSplit {
 
     private int limit;
 
+    /** 是否按 splitKey 的范围读取，否则按 skip/limit 读取 */
+    private boolean range;
+
+    /** 范围下界(包含)，extended json 格式，为空时没有下界 */
+    private String lowerBound;
+
+    /** 范围上界(不包含)，extended json 格式，为空时没有上界 */
+    private String upperBound;
+
     public MongodbInputSplit(int skip, int limit) {
         this.skip = skip;
         this.limit = limit;
     }
 
+    public MongodbInputSplit(String lowerBound, String upperBound) {
+        this.range = true;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
     public int getSkip() {
         return skip;
     }
@@ -52,6 +67,18 @@ public class MongodbInputSplit implements InputSplit {
         this.limit = limit;
     }
 
+    public boolean isRange() {
+        return range;
+    }
+
+    public String getLowerBound() {
+        return lowerBound;
+    }
+
+    public String getUpperBound() {
+        return upperBound;
+    }
+
     @Override
     public int getSplitNumber() {
         return 0;
@@ -59,6 +86,14 @@ public class MongodbInputSplit implements InputSplit {
 
     @Override
     public String toString() {
+        if (range) {
+            return "MongodbInputSplit{"
+                    + "lowerBound="
+                    + lowerBound
+                    + ", upperBound="
+                    + upperBound
+                    + '}';
+        }
         return "MongodbInputSplit{" + "skip=" + skip + ", limit=" + limit + '}';
     }
 }
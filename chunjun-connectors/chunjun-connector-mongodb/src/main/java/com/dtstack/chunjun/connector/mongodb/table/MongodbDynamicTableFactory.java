@@ -130,6 +130,7 @@ public class MongodbDynamicTableFactory
         optionalOptions.add(SINK_BUFFER_FLUSH_MAX_ROWS);
         optionalOptions.add(SINK_BUFFER_FLUSH_INTERVAL);
         optionalOptions.add(SINK_PARALLELISM);
+        optionalOptions.add(MongoClientOptions.SINK_BULK_PARALLELISM);
 
         return optionalOptions;
     }
@@ -171,6 +172,7 @@ public class MongodbDynamicTableFactory
         config.getOptional(SINK_PARALLELISM).ifPresent(mongoWriteConf::setParallelism);
         config.getOptional(SINK_BUFFER_FLUSH_MAX_ROWS).ifPresent(mongoWriteConf::setFlushMaxRows);
         config.getOptional(SINK_BUFFER_FLUSH_INTERVAL).ifPresent(mongoWriteConf::setFlushInterval);
+        mongoWriteConf.setBulkParallelism(config.get(MongoClientOptions.SINK_BULK_PARALLELISM));
         return new MongodbDynamicTableSink(mongoClientConf, physicalSchema, mongoWriteConf);
     }
 }
@@ -66,9 +66,21 @@ public class MongodbDynamicTableSink implements DynamicTableSink {
     public SinkRuntimeProvider getSinkRuntimeProvider(Context context) {
         final RowType rowType = (RowType) physicalSchema.toRowDataType().getLogicalType();
         String[] fieldNames = physicalSchema.getFieldNames();
+        // 声明主键时按主键upsert，DELETE数据按主键删除
+        String key =
+                physicalSchema
+                        .getPrimaryKey()
+                        .filter(pk -> pk.getColumns().size() == 1)
+                        .map(pk -> pk.getColumns().get(0))
+                        .orElse(null);
         MongodbOutputFormatBuilder builder =
                 new MongodbOutputFormatBuilder(
-                        mongoClientConf, null, MongodbOutputFormat.WriteMode.INSERT);
+                        mongoClientConf,
+                        key,
+                        key == null
+                                ? MongodbOutputFormat.WriteMode.INSERT
+                                : MongodbOutputFormat.WriteMode.UPSERT);
+        builder.setBulkParallelism(mongoWriteConf.getBulkParallelism());
         ChunJunCommonConf commonConf = new ChunJunCommonConf();
         commonConf.setBatchSize(mongoWriteConf.getFlushMaxRows());
         commonConf.setFlushIntervalMills(mongoWriteConf.getFlushInterval());
@@ -57,6 +57,13 @@ public class MongoClientOptions {
                     .stringType()
                     .noDefaultValue()
                     .withDescription("the MongoDB database.");
+
+    public static final ConfigOption<Integer> SINK_BULK_PARALLELISM =
+            ConfigOptions.key("sink.bulk.parallelism")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "the number of concurrent unordered bulk writes a batch is split into.");
     // Read Only
     public static final ConfigOption<String> FILTER =
             ConfigOptions.key("filter").stringType().noDefaultValue().withDescription("");
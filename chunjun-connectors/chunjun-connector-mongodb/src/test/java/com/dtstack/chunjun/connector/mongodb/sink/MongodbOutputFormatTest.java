@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.mongodb.sink;
+
+import com.dtstack.chunjun.connector.mongodb.conf.MongoClientConf;
+import com.dtstack.chunjun.connector.mongodb.converter.MongodbRowConverter;
+import com.dtstack.chunjun.dirty.manager.DirtyManager;
+
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.types.RowKind;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class MongodbOutputFormatTest {
+
+    private MongoCollection<Document> collection;
+    private DirtyManager dirtyManager;
+    private LongCounter numWriteCounter;
+    private List<RowData> rows;
+    private MongodbOutputFormat outputFormat;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        collection = Mockito.mock(MongoCollection.class);
+        dirtyManager = Mockito.mock(DirtyManager.class);
+        numWriteCounter = new LongCounter();
+        rows = new ArrayList<>();
+
+        RowType rowType =
+                (RowType)
+                        DataTypes.ROW(
+                                        DataTypes.FIELD("id", DataTypes.INT()),
+                                        DataTypes.FIELD("name", DataTypes.STRING()))
+                                .getLogicalType();
+        outputFormat =
+                new MongodbOutputFormat(
+                        new MongoClientConf(), "id", MongodbOutputFormat.WriteMode.UPDATE);
+        outputFormat.setRowConverter(new MongodbRowConverter(rowType, new String[] {"id", "name"}));
+        outputFormat.setDirtyManager(dirtyManager);
+        Whitebox.setInternalState(outputFormat, "mongoCollection", collection);
+        Whitebox.setInternalState(outputFormat, "numWriteCounter", numWriteCounter);
+        Whitebox.setInternalState(outputFormat, "rows", rows);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpdateModeKeepsLastRowOfEachKey() throws Exception {
+        rows.add(row(1, "a"));
+        rows.add(row(2, "b"));
+        rows.add(row(1, "c"));
+        rows.add(row(3, "d"));
+
+        outputFormat.writeMultipleRecordsInternal();
+
+        ArgumentCaptor<List<WriteModel<Document>>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(collection).bulkWrite(captor.capture(), Mockito.any(BulkWriteOptions.class));
+        List<WriteModel<Document>> models = captor.getValue();
+        Assert.assertEquals(3, models.size());
+        Assert.assertEquals("c", updatedName(models.get(0)));
+        Assert.assertEquals("b", updatedName(models.get(1)));
+        Assert.assertEquals("d", updatedName(models.get(2)));
+        Assert.assertEquals(4L, numWriteCounter.getLocalValue().longValue());
+        Mockito.verifyZeroInteractions(dirtyManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSupersededRowsFailWithTheirReplacement() throws Exception {
+        rows.add(row(1, "a"));
+        rows.add(row(2, "b"));
+        rows.add(row(1, "c"));
+
+        MongoBulkWriteException exception = Mockito.mock(MongoBulkWriteException.class);
+        Mockito.when(exception.getWriteErrors())
+                .thenReturn(
+                        Collections.singletonList(
+                                new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0)));
+        Mockito.when(
+                        collection.bulkWrite(
+                                Mockito.any(List.class), Mockito.any(BulkWriteOptions.class)))
+                .thenThrow(exception);
+
+        outputFormat.writeMultipleRecordsInternal();
+
+        Assert.assertEquals(1L, numWriteCounter.getLocalValue().longValue());
+        ArgumentCaptor<RowData> captor = ArgumentCaptor.forClass(RowData.class);
+        Mockito.verify(dirtyManager, Mockito.times(2))
+                .collect(captor.capture(), Mockito.any(Throwable.class), Mockito.isNull());
+        Assert.assertEquals("a", captor.getAllValues().get(0).getString(1).toString());
+        Assert.assertEquals("c", captor.getAllValues().get(1).getString(1).toString());
+    }
+
+    private static RowData row(int id, String name) {
+        GenericRowData row = GenericRowData.of(id, StringData.fromString(name));
+        row.setRowKind(RowKind.INSERT);
+        return row;
+    }
+
+    private static String updatedName(WriteModel<Document> model) {
+        Document update = (Document) ((UpdateOneModel<Document>) model).getUpdate();
+        Document set = (Document) update.get("$set");
+        Assert.assertFalse(set.containsKey("id"));
+        return set.getString("name");
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.mongodb.source;
+
+import org.bson.Document;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class MongodbInputFormatTest {
+
+    @Test
+    public void testRangeSplitIndex() {
+        Assert.assertTrue(MongodbInputFormat.isRangeSplitIndex(index("id", 1), "id"));
+        Assert.assertTrue(
+                MongodbInputFormat.isRangeSplitIndex(
+                        index("id", 1).append("collation", new Document("locale", "simple")),
+                        "id"));
+
+        Assert.assertFalse(MongodbInputFormat.isRangeSplitIndex(index("id", -1), "id"));
+        Assert.assertFalse(MongodbInputFormat.isRangeSplitIndex(index("id", "hashed"), "id"));
+        Assert.assertFalse(MongodbInputFormat.isRangeSplitIndex(index("name", 1), "id"));
+        Assert.assertFalse(
+                MongodbInputFormat.isRangeSplitIndex(
+                        new Document("key", new Document("id", 1).append("name", 1)), "id"));
+        Assert.assertFalse(
+                MongodbInputFormat.isRangeSplitIndex(index("id", 1).append("sparse", true), "id"));
+        Assert.assertFalse(
+                MongodbInputFormat.isRangeSplitIndex(
+                        index("id", 1)
+                                .append(
+                                        "partialFilterExpression",
+                                        new Document("id", new Document("$gt", 0))),
+                        "id"));
+        Assert.assertFalse(
+                MongodbInputFormat.isRangeSplitIndex(
+                        index("id", 1).append("collation", new Document("locale", "en")), "id"));
+    }
+
+    @Test
+    public void testMultiKeyStage() {
+        Document singleKey = explain(false);
+        Assert.assertFalse(MongodbInputFormat.hasMultiKeyStage(singleKey));
+        Assert.assertTrue(MongodbInputFormat.hasMultiKeyStage(explain(true)));
+
+        // 分片集群中任意一个分片的索引为 multikey
+        Document sharded =
+                new Document(
+                        "queryPlanner",
+                        new Document(
+                                "winningPlan",
+                                new Document("stage", "SINGLE_SHARD")
+                                        .append(
+                                                "shards",
+                                                Arrays.asList(
+                                                        singleKey.get("queryPlanner"),
+                                                        explain(true).get("queryPlanner")))));
+        Assert.assertTrue(MongodbInputFormat.hasMultiKeyStage(sharded));
+    }
+
+    private static Document index(String field, Object direction) {
+        return new Document("key", new Document(field, direction)).append("name", field + "_1");
+    }
+
+    private static Document explain(boolean multiKey) {
+        Document indexScan =
+                new Document("stage", "IXSCAN")
+                        .append("keyPattern", new Document("id", 1))
+                        .append("indexName", "id_1")
+                        .append("isMultiKey", multiKey)
+                        .append(
+                                "multiKeyPaths",
+                                new Document(
+                                        "id",
+                                        multiKey
+                                                ? Collections.singletonList("id")
+                                                : Collections.emptyList()));
+        return new Document(
+                "queryPlanner",
+                new Document(
+                        "winningPlan",
+                        new Document("stage", "LIMIT")
+                                .append(
+                                        "inputStage",
+                                        new Document("stage", "FETCH")
+                                                .append("inputStage", indexScan))));
+    }
+}
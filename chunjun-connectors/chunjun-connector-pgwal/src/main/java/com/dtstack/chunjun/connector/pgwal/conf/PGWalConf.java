@@ -58,6 +58,17 @@ public class PGWalConf extends ChunJunCommonConf {
     private Boolean isTemp = false;
 
     private Integer statusInterval = 10;
+    /** 使用pgoutput的binary传输格式，需要PostgreSQL 14及以上版本 */
+    private boolean binary = false;
+    /** 复制流没有数据时的最大等待时间，单位毫秒 */
+    private long pollInterval = 100L;
+    /** 启动复制流之前是否先读取表的全量数据 */
+    private boolean snapshot = false;
+    /** 全量读取时每个数据块在切分字段上的跨度 */
+    private long snapshotChunkSize = 100000L;
+    /** 全量读取的并发线程数 */
+    private int snapshotThreadSize = 4;
+
     private Long lsn = 0L;
     private List<FieldConf> column;
     private boolean slotAvailable;
@@ -159,6 +170,50 @@ public class PGWalConf extends ChunJunCommonConf {
         this.statusInterval = statusInterval;
     }
 
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public long getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(long pollInterval) {
+        Preconditions.checkArgument(pollInterval >= 0, "poll interval is not negative");
+        this.pollInterval = pollInterval;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public long getSnapshotChunkSize() {
+        return snapshotChunkSize;
+    }
+
+    public void setSnapshotChunkSize(long snapshotChunkSize) {
+        Preconditions.checkArgument(snapshotChunkSize > 0, "snapshot chunk size must be positive");
+        this.snapshotChunkSize = snapshotChunkSize;
+    }
+
+    public int getSnapshotThreadSize() {
+        return snapshotThreadSize;
+    }
+
+    public void setSnapshotThreadSize(int snapshotThreadSize) {
+        Preconditions.checkArgument(
+                snapshotThreadSize > 0, "snapshot thread size must be positive");
+        this.snapshotThreadSize = snapshotThreadSize;
+    }
+
     public Long getLsn() {
         return lsn;
     }
@@ -53,6 +53,7 @@ import com.google.common.collect.Lists;
 import org.postgresql.jdbc.PgSQLXML;
 
 import java.lang.reflect.TypeVariable;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.SQLException;
@@ -267,7 +268,8 @@ public class PGWalColumnConverter extends AbstractCDCRowConverter<ChangeLog, Log
     private Map<String, Object> processColumnList(List<ColumnInfo> columnList, Object[] oldData) {
         Map<String, Object> result = new HashMap<>();
         for (int i = 0; i < columnList.size(); i++) {
-            result.put(columnList.get(i).getName(), oldData[i]);
+            Object value = oldData[i];
+            result.put(columnList.get(i).getName(), value == null ? null : value.toString());
         }
         return result;
     }
@@ -293,9 +295,9 @@ public class PGWalColumnConverter extends AbstractCDCRowConverter<ChangeLog, Log
         for (int i = 0; i < entryColumnList.size(); i++) {
             Object entryColumn = entryColumnList.get(i);
             if (entryColumn != null) {
+                // PgDecoder已按列类型解析，值可能是String、Long、Boolean、BigDecimal或时间类型
                 AbstractBaseColumn column =
-                        (AbstractBaseColumn)
-                                converters.get(i).deserialize(entryColumnList.get(i).toString());
+                        (AbstractBaseColumn) converters.get(i).deserialize(entryColumn);
                 columnList.add(column);
                 originList.add(after + headerList.get(i));
             }
@@ -309,30 +311,41 @@ public class PGWalColumnConverter extends AbstractCDCRowConverter<ChangeLog, Log
             case BOOLEAN:
                 //                return (DeserializationConverter<String, Boolean>) (raw, context)
                 // -> null;
-                return val -> new BooleanColumn(Boolean.parseBoolean(val.toString()));
+                return val -> {
+                    if (val instanceof Boolean) {
+                        return new BooleanColumn((Boolean) val);
+                    }
+                    // pg文本格式的布尔值为t/f
+                    String str = val.toString();
+                    return new BooleanColumn("t".equals(str) || Boolean.parseBoolean(str));
+                };
             case TINYINT:
-                return val -> new BigDecimalColumn((String) val);
             case SMALLINT:
             case INTEGER:
-                return val -> new BigDecimalColumn((String) val);
             case FLOAT:
-                return val -> new BigDecimalColumn((String) val);
             case DOUBLE:
-                return val -> new BigDecimalColumn((String) val);
             case BIGINT:
-                return val -> new BigDecimalColumn((String) val);
             case DECIMAL:
-                return val -> new BigDecimalColumn((String) val);
+                return PGWalColumnConverter::toBigDecimalColumn;
             case CHAR:
             case VARCHAR:
-                return val -> new StringColumn((String) val);
+                return val -> new StringColumn(val.toString());
             case DATE:
-                return val -> new SqlDateColumn(Date.valueOf(String.valueOf(val)));
+                return val ->
+                        val instanceof Date
+                                ? new SqlDateColumn((Date) val)
+                                : new SqlDateColumn(Date.valueOf(String.valueOf(val)));
             case TIME_WITHOUT_TIME_ZONE:
-                return val -> new TimeColumn(Time.valueOf(String.valueOf(val)));
+                return val ->
+                        val instanceof Time
+                                ? new TimeColumn((Time) val)
+                                : new TimeColumn(Time.valueOf(String.valueOf(val)));
             case TIMESTAMP_WITH_TIME_ZONE:
             case TIMESTAMP_WITHOUT_TIME_ZONE:
-                return val -> new TimestampColumn(Timestamp.valueOf(String.valueOf(val)), 6);
+                return val ->
+                        val instanceof Timestamp
+                                ? new TimestampColumn((Timestamp) val, 6)
+                                : new TimestampColumn(Timestamp.valueOf(String.valueOf(val)), 6);
             case BINARY:
             case VARBINARY:
                 return val -> new BytesColumn(((String) val).getBytes(StandardCharsets.UTF_8));
@@ -371,6 +384,19 @@ public class PGWalColumnConverter extends AbstractCDCRowConverter<ChangeLog, Log
         }
     }
 
+    private static AbstractBaseColumn toBigDecimalColumn(Object val) {
+        if (val instanceof Long) {
+            return new BigDecimalColumn((long) val);
+        } else if (val instanceof BigDecimal) {
+            return new BigDecimalColumn((BigDecimal) val);
+        } else if (val instanceof Float) {
+            return new BigDecimalColumn((float) val);
+        } else if (val instanceof Double) {
+            return new BigDecimalColumn((double) val);
+        }
+        return new BigDecimalColumn(val.toString());
+    }
+
     static class GenericLogicalType<T> extends org.apache.flink.table.types.logical.LogicalType {
 
         private List<Class> in;
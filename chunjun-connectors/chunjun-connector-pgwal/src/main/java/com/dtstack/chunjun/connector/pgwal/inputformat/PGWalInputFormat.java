@@ -22,6 +22,7 @@ import com.dtstack.chunjun.connector.pgwal.listener.PgWalListener;
 import com.dtstack.chunjun.connector.pgwal.util.PGUtil;
 import com.dtstack.chunjun.connector.pgwal.util.ReplicationSlotInfoWrapper;
 import com.dtstack.chunjun.converter.AbstractCDCRowConverter;
+import com.dtstack.chunjun.converter.CDCEventFilter;
 import com.dtstack.chunjun.element.ErrorMsgRowData;
 import com.dtstack.chunjun.restore.FormatState;
 import com.dtstack.chunjun.source.format.BaseRichInputFormat;
@@ -41,6 +42,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -59,8 +61,13 @@ public class PGWalInputFormat extends BaseRichInputFormat {
     private AbstractCDCRowConverter rowConverter;
     private transient BlockingQueue<RowData> queue;
     private transient ExecutorService executor;
+    private transient CDCEventFilter eventFilter;
     private volatile long startLsn;
     private volatile boolean running = false;
+    /** 是否正在读取全量数据，读取期间不记录位点，任务恢复后重新读取 */
+    private volatile boolean snapshotRunning = false;
+    /** 快照期间队列被取空时唤醒finishSnapshot */
+    private transient Object drainLock;
 
     @Override
     public InputSplit[] createInputSplitsInternal(int minNumSplits) {
@@ -90,6 +97,7 @@ public class PGWalInputFormat extends BaseRichInputFormat {
                             return t;
                         });
         queue = new ArrayBlockingQueue<>(2 << 10);
+        drainLock = new Object();
     }
 
     @Override
@@ -129,25 +137,38 @@ public class PGWalInputFormat extends BaseRichInputFormat {
             startLsn = conf.getLsn();
         } else if (formatState != null && formatState.getState() != null) {
             startLsn = (long) formatState.getState();
+        } else {
+            snapshotRunning = conf.isSnapshot();
         }
 
+        // 表及操作类型的过滤下推到PgDecoder，在解析TupleData之前完成
+        eventFilter =
+                new CDCEventFilter(
+                        conf.getSimpleTables(),
+                        StringUtils.isBlank(conf.getCat())
+                                ? null
+                                : Arrays.asList(conf.getCat().split(",")));
+        initEventFilterMetric(eventFilter);
+
         LOG.info("pg wal openInternal split number:{} start...", inputSplit.getSplitNumber());
         LOG.info("pg wal config:{}", conf.toString());
 
+        // 先置为运行状态，监听线程据此判断是否继续读取
+        running = true;
         try {
             executor.submit(new PgWalListener(this));
         } catch (SQLException e) {
+            running = false;
             throw new RuntimeException(e.getMessage(), e);
         }
         LOG.info("pg cdc started");
-        running = true;
     }
 
     @Override
     public FormatState getFormatState() {
         super.getFormatState();
         if (formatState != null) {
-            formatState.setState(startLsn);
+            formatState.setState(snapshotRunning ? null : startLsn);
         }
         return formatState;
     }
@@ -156,6 +177,11 @@ public class PGWalInputFormat extends BaseRichInputFormat {
     protected RowData nextRecordInternal(RowData row) {
         try {
             RowData rowData = queue.take();
+            if (snapshotRunning && queue.isEmpty()) {
+                synchronized (drainLock) {
+                    drainLock.notifyAll();
+                }
+            }
             //            if (map.size() == 1) {
             //                throw new IOException((String) map.get("e"));
             //            } else {
@@ -174,6 +200,9 @@ public class PGWalInputFormat extends BaseRichInputFormat {
         if (running) {
             executor.shutdownNow();
             running = false;
+            synchronized (drainLock) {
+                drainLock.notifyAll();
+            }
             LOG.warn("shutdown SqlServerCdcListener......");
         }
     }
@@ -199,6 +228,10 @@ public class PGWalInputFormat extends BaseRichInputFormat {
         this.rowConverter = rowConverter;
     }
 
+    public CDCEventFilter getEventFilter() {
+        return eventFilter;
+    }
+
     public boolean isRunning() {
         return running;
     }
@@ -207,11 +240,33 @@ public class PGWalInputFormat extends BaseRichInputFormat {
         return startLsn;
     }
 
+    public boolean isSnapshotRunning() {
+        return snapshotRunning;
+    }
+
+    /**
+     * 全量数据全部被下游取走后再结束快照状态，保证之后的checkpoint中包含全部全量数据
+     *
+     * @throws InterruptedException 等待被中断
+     */
+    public void finishSnapshot() throws InterruptedException {
+        synchronized (drainLock) {
+            while (running && !queue.isEmpty()) {
+                // 限时等待，避免错过唤醒时一直阻塞
+                drainLock.wait(100);
+            }
+        }
+        snapshotRunning = false;
+    }
+
     public void processException(Exception e) {
         queue.add(new ErrorMsgRowData(e.getMessage()));
     }
 
-    public void appendResult(List<RowData> rowData) {
-        queue.addAll(rowData);
+    public void appendResult(List<RowData> rowData) throws InterruptedException {
+        // 队列满时阻塞，形成反压
+        for (RowData data : rowData) {
+            queue.put(data);
+        }
     }
 }
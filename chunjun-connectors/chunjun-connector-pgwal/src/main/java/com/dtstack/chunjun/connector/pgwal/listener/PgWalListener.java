@@ -41,6 +41,7 @@ import org.slf4j.LoggerFactory;
 import java.nio.ByteBuffer;
 import java.sql.SQLException;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /** */
@@ -54,6 +55,7 @@ public class PgWalListener implements Runnable {
     private PGReplicationStream stream;
     private PgDecoder decoder;
     private PGWalColumnConverter converter;
+    private PgWalSnapshotReader snapshotReader;
 
     public PgWalListener(PGWalInputFormat format) throws SQLException {
         this.format = format;
@@ -71,7 +73,9 @@ public class PgWalListener implements Runnable {
                         2000,
                         true);
         converter = new PGWalColumnConverter(conf.pavingData, conf.pavingData);
+        converter.setEventFilter(format.getEventFilter());
         decoder = new PgDecoder(PGUtil.queryTypes(conn), conf);
+        decoder.setRowConverter(converter);
         ChainedLogicalStreamBuilder builder =
                 conn.getReplicationAPI()
                         .replicationStream()
@@ -82,6 +86,19 @@ public class PgWalListener implements Runnable {
                         // 逗号分隔的要订阅的发布名称列表（接收更改）。 单个发布名称被视为标准对象名称，并可根据需要引用
                         .withSlotOption("publication_names", PGUtil.PUBLICATION_NAME)
                         .withStatusInterval(conf.getStatusInterval(), TimeUnit.SECONDS);
+        if (conf.isBinary()) {
+            // PostgreSQL 14+ 支持以各类型的send格式传输列值，省去服务端的文本输出及客户端的文本解析；
+            // 服务端对所有列都使用send格式，存在无法解析的类型时回退为文本格式
+            List<String> unsupportedColumns =
+                    PGUtil.queryBinaryUnsupportedColumns(conn, conf.getTables());
+            if (unsupportedColumns.isEmpty()) {
+                builder.withSlotOption("binary", "true");
+            } else {
+                LOG.warn(
+                        "columns {} can not be decoded from binary format, fall back to text format",
+                        unsupportedColumns);
+            }
+        }
         long lsn = format.getStartLsn();
         if (lsn != 0) {
             builder.withStartPosition(LogSequenceNumber.valueOf(lsn));
@@ -96,24 +113,46 @@ public class PgWalListener implements Runnable {
     public void run() {
         LOG.info("PgWalListener start running.....");
         try {
+            if (format.isSnapshotRunning()) {
+                snapshotReader = new PgWalSnapshotReader(format);
+                snapshotReader.read();
+                format.finishSnapshot();
+            }
             init();
+            long maxIdleWait =
+                    Math.max(
+                            1,
+                            Math.min(
+                                    conf.getPollInterval(),
+                                    TimeUnit.SECONDS.toMillis(conf.getStatusInterval())));
+            long idleWait = 0;
             while (format.isRunning()) {
+                // readPending不阻塞，同时会按statusInterval向服务端发送状态
                 ByteBuffer buffer = stream.readPending();
                 if (buffer == null) {
+                    // 没有数据时指数退避等待，避免空转占满CPU
+                    idleWait = Math.min(Math.max(idleWait * 2, 1), maxIdleWait);
+                    TimeUnit.MILLISECONDS.sleep(idleWait);
                     continue;
                 }
+                idleWait = 0;
                 ChangeLog changeLog = decoder.decode(buffer);
                 if (StringUtils.isBlank(changeLog.getId())) {
                     continue;
                 }
-                String type = changeLog.getType().name().toLowerCase();
-                if (!conf.getCat().contains(type)) {
-                    continue;
+                if (snapshotReader != null) {
+                    if (changeLog.getCurrentLsn() >= snapshotReader.getEndLsn()) {
+                        LOG.info(
+                                "snapshot reconciliation finished, filtered {} changes",
+                                snapshotReader.getFilteredCount());
+                        snapshotReader = null;
+                    } else if (snapshotReader.isReflected(changeLog)) {
+                        continue;
+                    }
                 }
-                if (!conf.getSimpleTables().contains(changeLog.getTable())) {
-                    continue;
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("table = {}", gson.toJson(changeLog));
                 }
-                LOG.trace("table = {}", gson.toJson(changeLog));
                 LinkedList<RowData> rowData = converter.toInternal(changeLog);
                 format.appendResult(rowData);
             }
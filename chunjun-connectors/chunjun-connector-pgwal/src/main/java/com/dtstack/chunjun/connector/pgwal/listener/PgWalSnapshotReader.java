@@ -0,0 +1,392 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.pgwal.listener;
+
+import com.dtstack.chunjun.connector.jdbc.source.snapshot.SnapshotChunk;
+import com.dtstack.chunjun.connector.jdbc.source.snapshot.SnapshotChunkIndex;
+import com.dtstack.chunjun.connector.jdbc.source.snapshot.SnapshotChunkSplitter;
+import com.dtstack.chunjun.connector.pgwal.conf.PGWalConf;
+import com.dtstack.chunjun.connector.pgwal.converter.PGWalColumnConverter;
+import com.dtstack.chunjun.connector.pgwal.inputformat.PGWalInputFormat;
+import com.dtstack.chunjun.connector.pgwal.util.ChangeLog;
+import com.dtstack.chunjun.connector.pgwal.util.ColumnInfo;
+import com.dtstack.chunjun.connector.pgwal.util.PGUtil;
+import com.dtstack.chunjun.connector.pgwal.util.PgMessageTypeEnum;
+import com.dtstack.chunjun.connector.pgwal.util.PgTxidSnapshot;
+import com.dtstack.chunjun.constants.ConstantValue;
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+import com.dtstack.chunjun.util.ExceptionUtil;
+
+import org.postgresql.replication.LogSequenceNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 启动复制流之前读取表的全量数据。
+ *
+ * <p>每张表按单列数值主键切分为多个数据块，由多个线程各自使用独立的连接并发读取。每个数据块在REPEATABLE READ事务中读取，
+ * 读取前记录txid_current_snapshot()作为该数据块的水位，不加锁。全部数据块读取完成后记录当前的WAL位置作为快照结束位置。
+ *
+ * <p>复制流中提交位置早于快照结束位置的变更，如果其事务对所在数据块的水位可见，说明变更已经包含在全量数据中，直接丢弃；
+ * 否则正常输出。因此按主键upsert写入时，全量与增量衔接处的数据既不丢失也不回退。
+ *
+ * @author tudou
+ */
+public class PgWalSnapshotReader {
+    private static final Logger LOG = LoggerFactory.getLogger(PgWalSnapshotReader.class);
+
+    private static final String DEFAULT_SCHEMA = "public";
+    /** 游标方式读取，避免整个数据块加载到内存 */
+    private static final int FETCH_SIZE = 1024;
+
+    private final PGWalInputFormat format;
+    private final PGWalConf conf;
+    private final AtomicLong snapshotCount = new AtomicLong();
+    private long filteredCount;
+
+    private SnapshotChunkIndex chunkIndex;
+    /** 快照结束时的WAL位置，提交位置不小于该值的变更不需要对账 */
+    private long endLsn;
+
+    public PgWalSnapshotReader(PGWalInputFormat format) {
+        this.format = format;
+        this.conf = format.getConf();
+    }
+
+    /**
+     * 并发读取全部数据块，阻塞直到读取完成
+     *
+     * @throws Exception 读取失败
+     */
+    public void read() throws Exception {
+        List<SnapshotChunk> chunks = new ArrayList<>();
+        try (Connection conn = createConnection()) {
+            for (String table : conf.getTables()) {
+                String schemaName = DEFAULT_SCHEMA;
+                String tableName = table;
+                int index = table.lastIndexOf(ConstantValue.POINT_SYMBOL);
+                if (index > 0) {
+                    schemaName = table.substring(0, index);
+                    tableName = table.substring(index + 1);
+                }
+                String splitPk = querySplitPk(conn, schemaName, tableName);
+                chunks.addAll(
+                        SnapshotChunkSplitter.split(
+                                conn,
+                                PGUtil.formatTableName(schemaName, tableName),
+                                quoteTable(schemaName, tableName),
+                                splitPk,
+                                splitPk == null ? null : quote(splitPk),
+                                conf.getSnapshotChunkSize()));
+                conn.commit();
+            }
+        }
+        chunkIndex = new SnapshotChunkIndex(chunks);
+
+        int threadSize = Math.min(conf.getSnapshotThreadSize(), Math.max(1, chunks.size()));
+        LOG.info("start snapshot, chunk size = {}, threadSize = {}", chunks.size(), threadSize);
+        long start = System.currentTimeMillis();
+        BlockingQueue<SnapshotChunk> chunkQueue = new ArrayBlockingQueue<>(chunks.size());
+        chunkQueue.addAll(chunks);
+        ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        threadSize, new ChunJunThreadFactory("pgwal-snapshot", true));
+        List<Future<Void>> futures = new ArrayList<>(threadSize);
+        try {
+            for (int i = 0; i < threadSize; i++) {
+                futures.add(executor.submit(() -> readChunks(chunkQueue)));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Connection conn = createConnection();
+                Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery(PGUtil.QUERY_CURRENT_WAL_LSN)) {
+            rs.next();
+            endLsn = LogSequenceNumber.valueOf(rs.getString(1)).asLong();
+            conn.commit();
+        }
+        LOG.info(
+                "snapshot finished, rows = {}, cost = {}ms, endLsn = {}",
+                snapshotCount.get(),
+                System.currentTimeMillis() - start,
+                LogSequenceNumber.valueOf(endLsn).asString());
+    }
+
+    private Void readChunks(BlockingQueue<SnapshotChunk> chunkQueue) throws Exception {
+        PGWalColumnConverter converter = new PGWalColumnConverter(conf.pavingData, conf.pavingData);
+        try (Connection conn = createConnection()) {
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            SnapshotChunk chunk;
+            while (format.isRunning() && (chunk = chunkQueue.poll()) != null) {
+                try {
+                    readChunk(conn, chunk, converter);
+                } finally {
+                    conn.commit();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void readChunk(Connection conn, SnapshotChunk chunk, PGWalColumnConverter converter)
+            throws Exception {
+        String tableId = chunk.getTableId();
+        int index = tableId.lastIndexOf(ConstantValue.POINT_SYMBOL);
+        String schemaName = tableId.substring(0, index);
+        String tableName = tableId.substring(index + 1);
+        String sql =
+                SnapshotChunkSplitter.buildQuerySql(
+                        chunk,
+                        quoteTable(schemaName, tableName),
+                        chunk.getSplitPk() == null ? null : quote(chunk.getSplitPk()));
+
+        try (Statement st = conn.createStatement()) {
+            // REPEATABLE READ下事务的第一条查询确定快照，水位与之后读取的数据使用同一个快照
+            try (ResultSet rs = st.executeQuery(PGUtil.QUERY_TXID_SNAPSHOT)) {
+                rs.next();
+                chunk.setWatermark(PgTxidSnapshot.valueOf(rs.getString(1)));
+            }
+            st.setFetchSize(FETCH_SIZE);
+            long count = 0;
+            try (ResultSet rs = st.executeQuery(sql)) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                List<ColumnInfo> columnList = new ArrayList<>(columnCount);
+                for (int i = 1; i <= columnCount; i++) {
+                    columnList.add(
+                            new ColumnInfo(
+                                    i - 1,
+                                    metaData.getColumnName(i),
+                                    toWalType(metaData.getColumnTypeName(i))));
+                }
+                while (rs.next()) {
+                    Object[] data = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        data[i] = rs.getString(i + 1);
+                    }
+                    ChangeLog changeLog = new ChangeLog(schemaName, tableName, columnList);
+                    changeLog.setType(PgMessageTypeEnum.INSERT);
+                    changeLog.setOldData(new Object[columnCount]);
+                    changeLog.setNewData(data);
+                    changeLog.setTs(System.currentTimeMillis());
+                    format.appendResult(converter.toInternal(changeLog));
+                    count++;
+                }
+            }
+            snapshotCount.addAndGet(count);
+            LOG.info(
+                    "read {} finished, rows = {}, watermark = {}",
+                    chunk,
+                    count,
+                    chunk.getWatermark());
+        }
+    }
+
+    /**
+     * 判断复制流中的变更是否已经包含在全量数据中
+     *
+     * @param changeLog 变更
+     * @return true表示已包含，需要丢弃
+     */
+    public boolean isReflected(ChangeLog changeLog) {
+        String tableId = changeLog.getId();
+        if (!chunkIndex.containsTable(tableId)) {
+            return false;
+        }
+        String splitPk = chunkIndex.getSplitPk(tableId);
+        boolean reflected;
+        switch (changeLog.getType()) {
+            case INSERT:
+                reflected = isReflected(changeLog, splitPk, changeLog.getNewData());
+                break;
+            case DELETE:
+                reflected = isReflected(changeLog, splitPk, changeLog.getOldData());
+                break;
+            case UPDATE:
+                // 主键变化时新旧数据可能位于不同的数据块，两个数据块都已包含才能丢弃
+                reflected =
+                        isReflected(changeLog, splitPk, changeLog.getOldData())
+                                && isReflected(changeLog, splitPk, changeLog.getNewData());
+                break;
+            default:
+                reflected = false;
+        }
+        if (reflected) {
+            filteredCount++;
+        }
+        return reflected;
+    }
+
+    private boolean isReflected(ChangeLog changeLog, String splitPk, Object[] data) {
+        BigDecimal key = null;
+        if (splitPk != null) {
+            key = getKey(changeLog.getColumnList(), splitPk, data);
+            if (key == null) {
+                return false;
+            }
+        }
+        SnapshotChunk chunk = chunkIndex.find(changeLog.getId(), key);
+        if (chunk == null || chunk.getWatermark() == null) {
+            return false;
+        }
+        return ((PgTxidSnapshot) chunk.getWatermark()).isVisible(changeLog.getTransactionId());
+    }
+
+    private BigDecimal getKey(List<ColumnInfo> columnList, String splitPk, Object[] data) {
+        if (data == null) {
+            return null;
+        }
+        for (int i = 0; i < columnList.size() && i < data.length; i++) {
+            if (splitPk.equals(columnList.get(i).getName())) {
+                Object value = data[i];
+                if (value == null) {
+                    return null;
+                }
+                try {
+                    return new BigDecimal(value.toString());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 查询单列数值类型的主键作为切分字段，联合主键或非数值主键不切分
+     *
+     * @param conn 连接
+     * @param schemaName schema
+     * @param tableName 表名
+     * @return 切分字段，不切分时返回null
+     * @throws SQLException 查询元数据失败
+     */
+    private String querySplitPk(Connection conn, String schemaName, String tableName)
+            throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        List<String> primaryKeys = new ArrayList<>(1);
+        try (ResultSet rs = metaData.getPrimaryKeys(null, schemaName, tableName)) {
+            while (rs.next()) {
+                primaryKeys.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+        if (primaryKeys.size() != 1) {
+            LOG.info(
+                    "table {}.{} has {} primary key columns, read it as one chunk",
+                    schemaName,
+                    tableName,
+                    primaryKeys.size());
+            return null;
+        }
+        String primaryKey = primaryKeys.get(0);
+        try (ResultSet rs = metaData.getColumns(null, schemaName, tableName, primaryKey)) {
+            if (rs.next()) {
+                switch (rs.getInt("DATA_TYPE")) {
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                    case Types.INTEGER:
+                    case Types.BIGINT:
+                    case Types.NUMERIC:
+                    case Types.DECIMAL:
+                        return primaryKey;
+                    default:
+                }
+            }
+        }
+        LOG.info(
+                "primary key {} of table {}.{} is not numeric, read it as one chunk",
+                primaryKey,
+                schemaName,
+                tableName);
+        return null;
+    }
+
+    /** ResultSetMetaData返回的自增类型名称转换为复制流中的类型名称 */
+    private String toWalType(String typeName) {
+        switch (typeName) {
+            case "serial":
+                return "int4";
+            case "bigserial":
+                return "int8";
+            case "smallserial":
+                return "int2";
+            default:
+                return typeName;
+        }
+    }
+
+    private Connection createConnection() throws SQLException {
+        Connection conn =
+                PGUtil.getQueryConnection(
+                        conf.getJdbcUrl(), conf.getUsername(), conf.getPassword());
+        try {
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+        } catch (SQLException e) {
+            try {
+                conn.close();
+            } catch (SQLException ex) {
+                LOG.warn("close connection error, e = {}", ExceptionUtil.getErrorMessage(ex));
+            }
+            throw e;
+        }
+        return conn;
+    }
+
+    private String quoteTable(String schemaName, String tableName) {
+        return quote(schemaName) + ConstantValue.POINT_SYMBOL + quote(tableName);
+    }
+
+    private String quote(String name) {
+        return "\"" + name.replace("\"", "\"\"") + "\"";
+    }
+
+    public long getEndLsn() {
+        return endLsn;
+    }
+
+    public long getFilteredCount() {
+        return filteredCount;
+    }
+}
@@ -50,6 +50,21 @@ public class PGWalOptions {
     public static final ConfigOption<Integer> STATUS_INTERVAL_CONFIG_OPTION =
             key("statusInterval").intType().defaultValue(20000);
 
+    public static final ConfigOption<Boolean> BINARY_CONFIG_OPTION =
+            key("binary").booleanType().defaultValue(false);
+
+    public static final ConfigOption<Long> POLL_INTERVAL_CONFIG_OPTION =
+            key("pollInterval").longType().defaultValue(100L);
+
+    public static final ConfigOption<Boolean> SNAPSHOT_CONFIG_OPTION =
+            key("snapshot").booleanType().defaultValue(false);
+
+    public static final ConfigOption<Long> SNAPSHOT_CHUNK_SIZE_CONFIG_OPTION =
+            key("snapshotChunkSize").longType().defaultValue(100000L);
+
+    public static final ConfigOption<Integer> SNAPSHOT_THREAD_SIZE_CONFIG_OPTION =
+            key("snapshotThreadSize").intType().defaultValue(4);
+
     public static final ConfigOption<Long> LSN_CONFIG_OPTION =
             key("lsn").longType().defaultValue(0L);
 
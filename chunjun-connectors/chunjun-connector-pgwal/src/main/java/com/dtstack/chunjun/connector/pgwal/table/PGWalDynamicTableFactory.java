@@ -169,6 +169,11 @@ public class PGWalDynamicTableFactory extends JdbcDynamicTableFactory {
         options.add(PGWalOptions.PAVING_CONFIG_OPTION);
         options.add(PGWalOptions.SLOT_NAME_CONFIG_OPTION);
         options.add(PGWalOptions.STATUS_INTERVAL_CONFIG_OPTION);
+        options.add(PGWalOptions.BINARY_CONFIG_OPTION);
+        options.add(PGWalOptions.POLL_INTERVAL_CONFIG_OPTION);
+        options.add(PGWalOptions.SNAPSHOT_CONFIG_OPTION);
+        options.add(PGWalOptions.SNAPSHOT_CHUNK_SIZE_CONFIG_OPTION);
+        options.add(PGWalOptions.SNAPSHOT_THREAD_SIZE_CONFIG_OPTION);
         options.add(PGWalOptions.TABLES_CONFIG_OPTION);
         options.add(PGWalOptions.TEMPORARY_CONFIG_OPTION);
         options.add(JsonOptions.TIMESTAMP_FORMAT);
@@ -356,6 +361,11 @@ public class PGWalDynamicTableFactory extends JdbcDynamicTableFactory {
         conf.setPavingData(config.get(PGWalOptions.PAVING_CONFIG_OPTION));
         conf.setTableList(config.get(PGWalOptions.TABLES_CONFIG_OPTION));
         conf.setStatusInterval(config.get(PGWalOptions.STATUS_INTERVAL_CONFIG_OPTION));
+        conf.setBinary(config.get(PGWalOptions.BINARY_CONFIG_OPTION));
+        conf.setPollInterval(config.get(PGWalOptions.POLL_INTERVAL_CONFIG_OPTION));
+        conf.setSnapshot(config.get(PGWalOptions.SNAPSHOT_CONFIG_OPTION));
+        conf.setSnapshotChunkSize(config.get(PGWalOptions.SNAPSHOT_CHUNK_SIZE_CONFIG_OPTION));
+        conf.setSnapshotThreadSize(config.get(PGWalOptions.SNAPSHOT_THREAD_SIZE_CONFIG_OPTION));
         conf.setLsn(config.get(PGWalOptions.LSN_CONFIG_OPTION));
         conf.setSlotAttribute(
                 config.get(PGWalOptions.SLOT_NAME_CONFIG_OPTION),
@@ -52,6 +52,14 @@ public class ChangeLog {
         return new ChangeLog();
     }
 
+    public long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(long transactionId) {
+        this.transactionId = transactionId;
+    }
+
     public String getId() {
         return id;
     }
@@ -35,10 +35,13 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 /** */
 public class PGUtil {
@@ -60,6 +63,15 @@ public class PGUtil {
     public static final String QUERY_TYPES =
             "SELECT t.oid AS oid, t.typname AS name FROM pg_catalog.pg_type t JOIN pg_catalog.pg_namespace n "
                     + "ON (t.typnamespace = n.oid) WHERE n.nspname != 'pg_toast' AND t.typcategory <> 'A';";
+    public static final String QUERY_COLUMN_TYPES =
+            "SELECT n.nspname AS schema_name, c.relname AS table_name, a.attname AS column_name, "
+                    + "t.typname AS type_name, t.typcategory AS type_category FROM pg_catalog.pg_attribute a "
+                    + "JOIN pg_catalog.pg_class c ON (a.attrelid = c.oid) JOIN pg_catalog.pg_namespace n ON (c.relnamespace = n.oid) "
+                    + "JOIN pg_catalog.pg_type t ON (a.atttypid = t.oid) WHERE a.attnum > 0 AND NOT a.attisdropped "
+                    + "AND c.relkind IN ('r', 'p') AND n.nspname NOT IN ('pg_catalog', 'information_schema') "
+                    + "AND n.nspname NOT LIKE 'pg_toast%';";
+    public static final String QUERY_TXID_SNAPSHOT = "SELECT txid_current_snapshot()::text;";
+    public static final String QUERY_CURRENT_WAL_LSN = "SELECT pg_current_wal_lsn()::text;";
     private static final Logger LOG = LoggerFactory.getLogger(PGUtil.class);
     private static final Object lock = new Object();
 
@@ -98,6 +110,30 @@ public class PGUtil {
         return dbConn.unwrap(PgConnection.class);
     }
 
+    /**
+     * 获取普通查询连接，用于全量读取。关闭二进制传输，getString直接返回服务端的文本格式，与复制流的text格式保持一致
+     *
+     * @param jdbcUrl url
+     * @param username 用户名
+     * @param password 密码
+     * @return 查询连接
+     * @throws SQLException 连接失败
+     */
+    public static Connection getQueryConnection(String jdbcUrl, String username, String password)
+            throws SQLException {
+        ClassUtil.forName(DRIVER_NAME, PGUtil.class.getClassLoader());
+        Properties props = new Properties();
+        PGProperty.USER.set(props, username);
+        PGProperty.PASSWORD.set(props, password);
+        PGProperty.BINARY_TRANSFER.set(props, false);
+        PGProperty.CONNECT_TIMEOUT.set(props, "60");
+        PGProperty.LOGIN_TIMEOUT.set(props, "60");
+        synchronized (lock) {
+            TelnetUtil.telnet(jdbcUrl);
+            return DriverManager.getConnection(jdbcUrl, props);
+        }
+    }
+
     public static ReplicationSlotInfoWrapper checkPostgres(
             PgConnection conn, boolean allowCreateSlot, String slotName, List<String> tableList) {
         ResultSet resultSet = null;
@@ -245,4 +281,38 @@ public class PGUtil {
         }
         return map;
     }
+
+    /**
+     * 查询无法按二进制格式解析的列，见{@link PgTupleDecoder#isBinarySupported(String)}
+     *
+     * @param conn 连接
+     * @param tableList 同步的表，格式为schema.table，为空时检查所有表
+     * @return schema.table.column(type)
+     */
+    public static List<String> queryBinaryUnsupportedColumns(
+            PgConnection conn, List<String> tableList) throws SQLException {
+        Set<String> tables = tableList == null ? new HashSet<>() : new HashSet<>(tableList);
+        List<String> columns = new ArrayList<>();
+        try (ResultSet resultSet = conn.execSQLQuery(QUERY_COLUMN_TYPES)) {
+            while (resultSet.next()) {
+                String table =
+                        formatTableName(
+                                resultSet.getString("schema_name"),
+                                resultSet.getString("table_name"));
+                if (!tables.isEmpty() && !tables.contains(table)) {
+                    continue;
+                }
+                String typeName = resultSet.getString("type_name");
+                // 与queryTypes一致，数组类型没有类型名称
+                boolean array = "A".equals(resultSet.getString("type_category"));
+                if (array || !PgTupleDecoder.isBinarySupported(typeName)) {
+                    columns.add(
+                            String.format(
+                                    "%s.%s(%s)",
+                                    table, resultSet.getString("column_name"), typeName));
+                }
+            }
+        }
+        return columns;
+    }
 }
@@ -18,6 +18,7 @@
 package com.dtstack.chunjun.connector.pgwal.util;
 
 import com.dtstack.chunjun.connector.pgwal.conf.PGWalConf;
+import com.dtstack.chunjun.converter.AbstractCDCRowConverter;
 import com.dtstack.chunjun.util.RetryUtil;
 
 import org.postgresql.jdbc.PgConnection;
@@ -25,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -33,9 +35,11 @@ import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * reference to https://github.com/debezium/debezium &
@@ -49,34 +53,48 @@ public class PgDecoder {
     private final PGWalConf conf;
 
     private Map<Integer, ChangeLog> tableMap = new HashMap<>(64);
+    private Map<Integer, PgTupleDecoder> tupleDecoderMap = new HashMap<>(64);
     private Map<Integer, String> pgTypeMap;
     private volatile long currentLsn;
     private volatile long ts;
     private volatile long transactionId;
 
     private TypeRegistry typeRegistry;
+    /** 在解析TupleData之前按表及操作类型过滤，并提供列裁剪，为null时不过滤 */
+    private AbstractCDCRowConverter<?, ?> rowConverter;
 
     public PgDecoder(Map<Integer, String> pgTypeMap, PGWalConf conf) {
         this.pgTypeMap = pgTypeMap;
         this.conf = conf;
     }
 
-    private static String readColumnValueAsString(ByteBuffer buffer) {
-        // Int32 列值的长度
-        int length = buffer.getInt();
-        byte[] value = new byte[length];
-        // Byte(n) 该列的值，以文本格式显示。n是上面的长度
-        buffer.get(value, 0, length);
-        return new String(value);
+    public void setRowConverter(AbstractCDCRowConverter<?, ?> rowConverter) {
+        this.rowConverter = rowConverter;
+    }
+
+    /**
+     * 根据relation中的库表名及消息类型判断是否需要解析TupleData
+     *
+     * @param relation relation对应的ChangeLog
+     * @param type 消息类型
+     * @return 是否需要
+     */
+    private boolean accept(ChangeLog relation, PgMessageTypeEnum type) {
+        return rowConverter == null
+                || relation == null
+                || rowConverter.accept(relation.getSchema(), relation.getTable(), type.name());
     }
 
     private static String readString(ByteBuffer buffer) {
-        StringBuilder sb = new StringBuilder();
-        byte b = 0;
-        while ((b = buffer.get()) != 0) {
-            sb.append((char) b);
+        // String 以0结尾的UTF-8字符串，整体解码，不逐字节拼接
+        int start = buffer.position();
+        int end = start;
+        while (buffer.get(end) != 0) {
+            end++;
         }
-        return sb.toString();
+        String value = PgTupleDecoder.readString(buffer, end - start, StandardCharsets.UTF_8);
+        buffer.position(end + 1);
+        return value;
     }
 
     public static String unquoteIdentifierPart(String identifierPart) {
@@ -258,6 +276,14 @@ public class PgDecoder {
             }
             ChangeLog changeLog = new ChangeLog(schemaName, tableName, columnList);
             tableMap.put(relationId, changeLog);
+            boolean[] projection =
+                    rowConverter == null
+                            ? null
+                            : rowConverter.getProjection(
+                                    columnList.stream()
+                                            .map(ColumnInfo::getName)
+                                            .collect(Collectors.toList()));
+            tupleDecoderMap.put(relationId, new PgTupleDecoder(columnList, projection));
         }
 
         primaryKeyColumns.retainAll(columnList);
@@ -375,14 +401,18 @@ public class PgDecoder {
     private ChangeLog decodeInsert(ByteBuffer buffer) {
         // Int32 与关系消息中的ID对应的关系的ID
         int relationId = buffer.getInt();
+        ChangeLog changeLog = tableMap.get(relationId);
+        if (!accept(changeLog, PgMessageTypeEnum.INSERT)) {
+            return ChangeLog.init();
+        }
         // Byte1('N') 将以下TupleData消息标识为新元组
         char tupleType = (char) buffer.get();
         // TupleData TupleData消息部分表示新元组的内容
-        Object[] newData = resolveColumnsFromStreamTupleData(buffer);
-        ChangeLog changeLog = tableMap.get(relationId);
+        Object[] newData = resolveColumnsFromStreamTupleData(relationId, buffer);
         changeLog.setOldData(new Object[newData.length]);
         changeLog.setNewData(newData);
         changeLog.setCurrentLsn(currentLsn);
+        changeLog.setTransactionId(transactionId);
         changeLog.setTs(ts);
         return changeLog;
     }
@@ -391,6 +421,9 @@ public class PgDecoder {
         // Int32 与关系消息中的ID对应的关系的ID
         int relationId = buffer.getInt();
         ChangeLog changeLog = tableMap.get(relationId);
+        if (!accept(changeLog, PgMessageTypeEnum.UPDATE)) {
+            return ChangeLog.init();
+        }
         // Byte1('K') 将以下TupleData子消息标识为键。该字段是可选的， 并且只有在更新改变了REPLICA IDENTITY索引一部分的任何一列中的数据时才存在
         // Byte1('O') 将以下TupleData子消息标识为旧元组。此字段是可选的， 并且仅当发生更新的表的REPLICA IDENTITY设置为FULL时才存在
         // 更新消息可以包含'K'消息部分或者'O'消息部分或者都不包含它们，但不同时包括它们两者
@@ -400,7 +433,7 @@ public class PgDecoder {
         char tupleType = (char) buffer.get();
         if ('O' == tupleType || 'K' == tupleType) {
             // TupleData TupleData消息部分表示旧元组或主键的内容。 只有在前面的'O'或'K'部分存在时才存在
-            Object[] oldData = resolveColumnsFromStreamTupleData(buffer);
+            Object[] oldData = resolveColumnsFromStreamTupleData(relationId, buffer);
             changeLog.setOldData(oldData);
             // Read the 'N' tuple type
             // This is necessary so the stream position is accurate for resolving the column tuple
@@ -409,9 +442,10 @@ public class PgDecoder {
             tupleType = (char) buffer.get();
         }
         // TupleData TupleData消息部分表示新元组的内容
-        Object[] newData = resolveColumnsFromStreamTupleData(buffer);
+        Object[] newData = resolveColumnsFromStreamTupleData(relationId, buffer);
         changeLog.setNewData(newData);
         changeLog.setCurrentLsn(currentLsn);
+        changeLog.setTransactionId(transactionId);
         changeLog.setTs(ts);
         return changeLog;
     }
@@ -420,37 +454,28 @@ public class PgDecoder {
         // Int32 与关系消息中的ID对应的关系的ID
         int relationId = buffer.getInt();
         ChangeLog changeLog = tableMap.get(relationId);
+        if (!accept(changeLog, PgMessageTypeEnum.DELETE)) {
+            return ChangeLog.init();
+        }
         // Byte1('K') 将以下TupleData子消息标识为键。 如果发生删除的表使用索引作为REPLICA IDENTITY，则此字段存在
         // Byte1('O') 将以下TupleData消息标识为旧元组。 如果发生删除的表的REPLICA IDENTITY设置为FULL，则此字段存在
         // 删除消息可能包含'K'消息部分或'O'消息部分，但不会同时包含这两个部分
         char tupleType = (char) buffer.get();
         // TupleData TupleData消息部分，表示旧元组或主键的内容，具体取决于前一个字段
-        Object[] oldData = resolveColumnsFromStreamTupleData(buffer);
+        Object[] oldData = resolveColumnsFromStreamTupleData(relationId, buffer);
         changeLog.setOldData(oldData);
         changeLog.setNewData(new Object[oldData.length]);
         changeLog.setCurrentLsn(currentLsn);
+        changeLog.setTransactionId(transactionId);
         changeLog.setTs(ts);
         return changeLog;
     }
 
-    private Object[] resolveColumnsFromStreamTupleData(ByteBuffer buffer) {
-        // Int16 列数
-        short numberOfColumns = buffer.getShort();
-        Object[] data = new Object[numberOfColumns];
-        for (int i = 0; i < numberOfColumns; i++) {
-
-            // Byte1('n') 将数据标识为NULL值
-            // Byte1('u') 识别未更改的TOASTed值（实际值未发送）
-            // Byte1('t') 将数据标识为文本格式的值
-            char type = (char) buffer.get();
-            if (type == 't') {
-                data[i] = readColumnValueAsString(buffer);
-            } else if (type == 'u') {
-                data[i] = null;
-            } else if (type == 'n') {
-                data[i] = null;
-            }
+    private Object[] resolveColumnsFromStreamTupleData(int relationId, ByteBuffer buffer) {
+        PgTupleDecoder tupleDecoder = tupleDecoderMap.get(relationId);
+        if (tupleDecoder == null) {
+            tupleDecoder = new PgTupleDecoder(Collections.emptyList());
         }
-        return data;
+        return tupleDecoder.decode(buffer);
     }
 }
@@ -0,0 +1,522 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.pgwal.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 按relation中的列类型直接从复制流的ByteBuffer中解析pgoutput的TupleData。
+ *
+ * <p>文本格式下整数直接按字节解析，其余只包含ASCII字符的类型按ISO-8859-1构造字符串，只有文本类型才做UTF-8解码； 开启binary选项(PostgreSQL
+ * 14+)后按各类型的send格式解析，只支持{@link #isBinarySupported(String)}中的类型，其余类型的二进制值直接报错，不按文本解析。
+ *
+ * <p>reference to http://www.postgres.cn/docs/14/protocol-logicalrep-message-formats.html
+ */
+public class PgTupleDecoder {
+
+    /** 2000-01-01 相对 1970-01-01 的秒数 */
+    private static final long PG_EPOCH_SECONDS = 946684800L;
+    /** 2000-01-01 相对 1970-01-01 的天数 */
+    private static final long PG_EPOCH_DAYS = 10957L;
+
+    private static final int NUMERIC_NEG = 0x4000;
+    private static final int NUMERIC_NAN = 0xC000;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** date的infinity、-infinity */
+    private static final int DATE_POSITIVE_INFINITY = Integer.MAX_VALUE;
+
+    private static final int DATE_NEGATIVE_INFINITY = Integer.MIN_VALUE;
+    /** timestamp、timestamptz的infinity、-infinity */
+    private static final long TIMESTAMP_POSITIVE_INFINITY = Long.MAX_VALUE;
+
+    private static final long TIMESTAMP_NEGATIVE_INFINITY = Long.MIN_VALUE;
+
+    private static final String POSITIVE_INFINITY = "infinity";
+    private static final String NEGATIVE_INFINITY = "-infinity";
+
+    /** send格式就是文本本身的类型 */
+    private static final Set<String> TEXT_SEND_TYPES =
+            new HashSet<>(Arrays.asList("text", "varchar", "bpchar", "name", "json", "char"));
+
+    private final ColumnDecoder[] decoders;
+    /** 列类型是否能按二进制格式解析 */
+    private final boolean[] binarySupported;
+
+    private final String[] typeNames;
+    /** 列裁剪，为null时解析全部列 */
+    private final boolean[] projection;
+
+    public PgTupleDecoder(List<ColumnInfo> columnList) {
+        this(columnList, null);
+    }
+
+    /**
+     * @param columnList relation中的列
+     * @param projection 与columnList一一对应，false的列直接跳过不解析，值为null；为null时解析全部列
+     */
+    public PgTupleDecoder(List<ColumnInfo> columnList, boolean[] projection) {
+        this.decoders = new ColumnDecoder[columnList.size()];
+        this.binarySupported = new boolean[columnList.size()];
+        this.typeNames = new String[columnList.size()];
+        for (int i = 0; i < decoders.length; i++) {
+            typeNames[i] = columnList.get(i).getType();
+            decoders[i] = forType(typeNames[i]);
+            binarySupported[i] = isBinarySupported(typeNames[i]);
+        }
+        this.projection = projection;
+    }
+
+    /**
+     * 解析TupleData
+     *
+     * @param buffer 复制流消息，position位于列数之前
+     * @return 各列的值
+     */
+    public Object[] decode(ByteBuffer buffer) {
+        // Int16 列数
+        short numberOfColumns = buffer.getShort();
+        Object[] data = new Object[numberOfColumns];
+        for (int i = 0; i < numberOfColumns; i++) {
+            // Byte1('n') 将数据标识为NULL值
+            // Byte1('u') 识别未更改的TOASTed值（实际值未发送）
+            // Byte1('t') 将数据标识为文本格式的值
+            // Byte1('b') 将数据标识为二进制格式的值
+            char kind = (char) buffer.get();
+            if (kind == 't' || kind == 'b') {
+                int length = buffer.getInt();
+                int end = buffer.position() + length;
+                if (projection != null && i < projection.length && !projection[i]) {
+                    buffer.position(end);
+                    continue;
+                }
+                ColumnDecoder decoder = i < decoders.length ? decoders[i] : ColumnDecoder.TEXT;
+                if (kind == 't') {
+                    data[i] = decoder.decodeText(buffer, length);
+                } else if (i < binarySupported.length && binarySupported[i]) {
+                    data[i] = decoder.decodeBinary(buffer, length);
+                } else {
+                    throw new IllegalStateException(
+                            String.format(
+                                    "column %s of type [%s] can not be decoded from binary format, please set binary to false",
+                                    i, i < typeNames.length ? typeNames[i] : null));
+                }
+                buffer.position(end);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * 是否能解析该类型的二进制格式。interval、timetz、inet、money、bit、数组、枚举、domain等类型没有对应的解析器，只能使用文本格式
+     *
+     * @param typeName pg_type中的类型名称，数组类型为null
+     * @return 是否支持
+     */
+    public static boolean isBinarySupported(String typeName) {
+        return typeName != null
+                && (TEXT_SEND_TYPES.contains(typeName) || forType(typeName) != ColumnDecoder.TEXT);
+    }
+
+    static ColumnDecoder forType(String typeName) {
+        if (typeName == null) {
+            return ColumnDecoder.TEXT;
+        }
+        switch (typeName) {
+            case "int2":
+                return ColumnDecoder.INT2;
+            case "int4":
+                return ColumnDecoder.INT4;
+            case "int8":
+                return ColumnDecoder.INT8;
+            case "oid":
+                return ColumnDecoder.OID;
+            case "bool":
+                return ColumnDecoder.BOOL;
+            case "float4":
+                return ColumnDecoder.FLOAT4;
+            case "float8":
+                return ColumnDecoder.FLOAT8;
+            case "numeric":
+                return ColumnDecoder.NUMERIC;
+            case "date":
+                return ColumnDecoder.DATE;
+            case "time":
+                return ColumnDecoder.TIME;
+            case "timestamp":
+                return ColumnDecoder.TIMESTAMP;
+            case "timestamptz":
+                return ColumnDecoder.TIMESTAMPTZ;
+            case "uuid":
+                return ColumnDecoder.UUID;
+            case "bytea":
+                return ColumnDecoder.BYTEA;
+            case "jsonb":
+                return ColumnDecoder.JSONB;
+            default:
+                return ColumnDecoder.TEXT;
+        }
+    }
+
+    /**
+     * 从buffer当前位置读取指定长度的字符串，不移动position
+     *
+     * @param buffer buffer
+     * @param length 字节长度
+     * @param charset 字符集
+     * @return 字符串
+     */
+    static String readString(ByteBuffer buffer, int length, Charset charset) {
+        if (buffer.hasArray()) {
+            return new String(
+                    buffer.array(), buffer.arrayOffset() + buffer.position(), length, charset);
+        }
+        byte[] bytes = new byte[length];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * 直接按ASCII数字解析整数，不构造中间字符串
+     *
+     * @param buffer buffer
+     * @param length 字节长度
+     * @return 整数值
+     */
+    static long parseLong(ByteBuffer buffer, int length) {
+        int start = buffer.position();
+        int end = start + length;
+        boolean negative = buffer.get(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end || end - i > 19) {
+            return Long.parseLong(readString(buffer, length, StandardCharsets.ISO_8859_1));
+        }
+        // 按负数累加，避免Long.MIN_VALUE溢出
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < (Long.MIN_VALUE + digit) / 10) {
+                return Long.parseLong(readString(buffer, length, StandardCharsets.ISO_8859_1));
+            }
+            result = result * 10 - digit;
+        }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                return Long.parseLong(readString(buffer, length, StandardCharsets.ISO_8859_1));
+            }
+            return -result;
+        }
+        return result;
+    }
+
+    /**
+     * 解析numeric的二进制格式：ndigits, weight, sign, dscale, 以及ndigits个10000进制的数字
+     *
+     * @param buffer buffer
+     * @return BigDecimal，NaN时返回字符串NaN
+     */
+    static Object parseBinaryNumeric(ByteBuffer buffer) {
+        int start = buffer.position();
+        int ndigits = buffer.getShort(start);
+        int weight = buffer.getShort(start + 2);
+        int sign = buffer.getShort(start + 4) & 0xFFFF;
+        int dscale = buffer.getShort(start + 6);
+        if (sign == NUMERIC_NAN) {
+            return "NaN";
+        }
+        if (ndigits == 0) {
+            return BigDecimal.ZERO.setScale(dscale);
+        }
+        BigInteger unscaled;
+        if (ndigits <= 4) {
+            long value = 0;
+            for (int i = 0; i < ndigits; i++) {
+                value = value * 10000 + buffer.getShort(start + 8 + i * 2);
+            }
+            unscaled = BigInteger.valueOf(value);
+        } else {
+            BigInteger base = BigInteger.valueOf(10000);
+            unscaled = BigInteger.ZERO;
+            for (int i = 0; i < ndigits; i++) {
+                unscaled =
+                        unscaled.multiply(base)
+                                .add(BigInteger.valueOf(buffer.getShort(start + 8 + i * 2)));
+            }
+        }
+        if (sign == NUMERIC_NEG) {
+            unscaled = unscaled.negate();
+        }
+        BigDecimal value = new BigDecimal(unscaled, (ndigits - 1 - weight) * 4);
+        // 多出的小数位一定是补齐10000进制产生的0
+        return value.setScale(dscale, BigDecimal.ROUND_UNNECESSARY);
+    }
+
+    private static String toHexString(ByteBuffer buffer, int length) {
+        int start = buffer.position();
+        char[] chars = new char[2 + length * 2];
+        chars[0] = '\\';
+        chars[1] = 'x';
+        for (int i = 0; i < length; i++) {
+            int b = buffer.get(start + i) & 0xFF;
+            chars[2 + i * 2] = HEX[b >>> 4];
+            chars[3 + i * 2] = HEX[b & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    private static String toInfinity(long value, long positive, long negative) {
+        if (value == positive) {
+            return POSITIVE_INFINITY;
+        }
+        return value == negative ? NEGATIVE_INFINITY : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(long micros) {
+        long seconds = Math.floorDiv(micros, 1_000_000L) + PG_EPOCH_SECONDS;
+        int nanos = (int) Math.floorMod(micros, 1_000_000L) * 1000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    /** 单列解析器，调用时buffer的position位于列值开始处，由调用方负责跳过列值 */
+    enum ColumnDecoder {
+        TEXT {
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                // 只用于TEXT_SEND_TYPES中的类型，send格式即为UTF-8文本
+                return readString(buffer, length, StandardCharsets.UTF_8);
+            }
+        },
+        INT2 {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return parseLong(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                return (long) buffer.getShort(buffer.position());
+            }
+        },
+        INT4 {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return parseLong(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                return (long) buffer.getInt(buffer.position());
+            }
+        },
+        INT8 {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return parseLong(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                return buffer.getLong(buffer.position());
+            }
+        },
+        OID {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return parseLong(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                return buffer.getInt(buffer.position()) & 0xFFFFFFFFL;
+            }
+        },
+        BOOL {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                return buffer.get(buffer.position()) != 0;
+            }
+        },
+        FLOAT4 {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                return buffer.getFloat(buffer.position());
+            }
+        },
+        FLOAT8 {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                return buffer.getDouble(buffer.position());
+            }
+        },
+        NUMERIC {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                return parseBinaryNumeric(buffer);
+            }
+        },
+        DATE {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                int days = buffer.getInt(buffer.position());
+                String infinity = toInfinity(days, DATE_POSITIVE_INFINITY, DATE_NEGATIVE_INFINITY);
+                if (infinity != null) {
+                    return infinity;
+                }
+                return Date.valueOf(LocalDate.ofEpochDay(days + PG_EPOCH_DAYS));
+            }
+        },
+        TIME {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                // 当天的微秒数，最大为24:00:00。Time只精确到毫秒，24:00:00表示为次日零点
+                long micros = buffer.getLong(buffer.position());
+                Time time = Time.valueOf(LocalTime.MIDNIGHT);
+                time.setTime(time.getTime() + micros / 1000);
+                return time;
+            }
+        },
+        TIMESTAMP {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                long micros = buffer.getLong(buffer.position());
+                String infinity =
+                        toInfinity(
+                                micros, TIMESTAMP_POSITIVE_INFINITY, TIMESTAMP_NEGATIVE_INFINITY);
+                if (infinity != null) {
+                    return infinity;
+                }
+                return Timestamp.valueOf(toLocalDateTime(micros));
+            }
+        },
+        TIMESTAMPTZ {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                long micros = buffer.getLong(buffer.position());
+                String infinity =
+                        toInfinity(
+                                micros, TIMESTAMP_POSITIVE_INFINITY, TIMESTAMP_NEGATIVE_INFINITY);
+                if (infinity != null) {
+                    return infinity;
+                }
+                return Timestamp.from(
+                        Instant.ofEpochSecond(
+                                Math.floorDiv(micros, 1_000_000L) + PG_EPOCH_SECONDS,
+                                Math.floorMod(micros, 1_000_000L) * 1000));
+            }
+        },
+        UUID {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                int start = buffer.position();
+                return new java.util.UUID(buffer.getLong(start), buffer.getLong(start + 8));
+            }
+        },
+        BYTEA {
+            @Override
+            Object decodeText(ByteBuffer buffer, int length) {
+                return readAscii(buffer, length);
+            }
+
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                // 与文本格式保持一致，输出hex格式
+                return toHexString(buffer, length);
+            }
+        },
+        JSONB {
+            @Override
+            Object decodeBinary(ByteBuffer buffer, int length) {
+                // 第一个字节为jsonb版本号
+                ByteBuffer duplicate = buffer.duplicate();
+                duplicate.position(buffer.position() + 1);
+                return readString(duplicate, length - 1, StandardCharsets.UTF_8);
+            }
+        };
+
+        Object decodeText(ByteBuffer buffer, int length) {
+            return readString(buffer, length, StandardCharsets.UTF_8);
+        }
+
+        abstract Object decodeBinary(ByteBuffer buffer, int length);
+
+        private static String readAscii(ByteBuffer buffer, int length) {
+            return readString(buffer, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.pgwal.util;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+
+/**
+ * txid_current_snapshot()返回的事务快照，格式为xmin:xmax:xip_list。
+ *
+ * <p>快照中的txid带有epoch，复制流BEGIN消息中的xid只有低32位，因此比较时按照PostgreSQL的回卷规则只比较低32位。
+ *
+ * @author tudou
+ */
+public class PgTxidSnapshot {
+
+    private final int xmin;
+    private final int xmax;
+    /** 快照创建时仍在进行中的事务，已排序 */
+    private final int[] xip;
+
+    private PgTxidSnapshot(int xmin, int xmax, int[] xip) {
+        this.xmin = xmin;
+        this.xmax = xmax;
+        this.xip = xip;
+    }
+
+    /**
+     * 解析txid_current_snapshot()的文本格式，如 10:20:10,14,15
+     *
+     * @param snapshot 快照文本
+     * @return 事务快照
+     */
+    public static PgTxidSnapshot valueOf(String snapshot) {
+        String[] parts = StringUtils.split(snapshot, ':');
+        if (parts == null || parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException("invalid txid snapshot: " + snapshot);
+        }
+        int[] xip = new int[0];
+        if (parts.length == 3) {
+            String[] xipArray = StringUtils.split(parts[2], ',');
+            xip = new int[xipArray.length];
+            for (int i = 0; i < xipArray.length; i++) {
+                xip[i] = (int) Long.parseLong(xipArray[i].trim());
+            }
+            Arrays.sort(xip);
+        }
+        return new PgTxidSnapshot(
+                (int) Long.parseLong(parts[0].trim()), (int) Long.parseLong(parts[1].trim()), xip);
+    }
+
+    /**
+     * 判断事务的修改对该快照是否可见，即事务在快照创建之前已经提交
+     *
+     * @param xid 复制流中的事务id
+     * @return 是否可见
+     */
+    public boolean isVisible(long xid) {
+        int id = (int) xid;
+        if (precedes(id, xmin)) {
+            return true;
+        }
+        if (!precedes(id, xmax)) {
+            return false;
+        }
+        return Arrays.binarySearch(xip, id) < 0;
+    }
+
+    private static boolean precedes(int id1, int id2) {
+        return id1 - id2 < 0;
+    }
+
+    @Override
+    public String toString() {
+        return "PgTxidSnapshot{"
+                + "xmin="
+                + Integer.toUnsignedString(xmin)
+                + ", xmax="
+                + Integer.toUnsignedString(xmax)
+                + ", xip="
+                + Arrays.toString(xip)
+                + '}';
+    }
+}
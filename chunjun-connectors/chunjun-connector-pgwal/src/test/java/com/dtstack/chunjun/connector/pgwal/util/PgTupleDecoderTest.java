@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.pgwal.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class PgTupleDecoderTest {
+
+    private final List<ColumnInfo> columns =
+            Arrays.asList(
+                    new ColumnInfo(0, "id", "int8"),
+                    new ColumnInfo(1, "name", "varchar"),
+                    new ColumnInfo(2, "price", "numeric"),
+                    new ColumnInfo(3, "flag", "bool"),
+                    new ColumnInfo(4, "remark", "text"));
+
+    @Test
+    public void testDecodeText() {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        buffer.putShort((short) 5);
+        putText(buffer, "-9223372036854775808");
+        putText(buffer, "中文");
+        putText(buffer, "12.50");
+        putText(buffer, "t");
+        buffer.put((byte) 'n');
+        buffer.flip();
+
+        Object[] data = new PgTupleDecoder(columns).decode(buffer);
+        Assert.assertEquals(Long.MIN_VALUE, data[0]);
+        Assert.assertEquals("中文", data[1]);
+        Assert.assertEquals("12.50", data[2]);
+        Assert.assertEquals("t", data[3]);
+        Assert.assertNull(data[4]);
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testDecodeBinary() {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        buffer.putShort((short) 5);
+        buffer.put((byte) 'b').putInt(8).putLong(42L);
+        byte[] name = "abc".getBytes(StandardCharsets.UTF_8);
+        buffer.put((byte) 'b').putInt(name.length).put(name);
+        // -1234.5600: ndigits=2, weight=0, sign=NEG, dscale=4, digits=1234,5600
+        buffer.put((byte) 'b').putInt(12);
+        buffer.putShort((short) 2).putShort((short) 0).putShort((short) 0x4000);
+        buffer.putShort((short) 4).putShort((short) 1234).putShort((short) 5600);
+        buffer.put((byte) 'b').putInt(1).put((byte) 1);
+        buffer.put((byte) 'u');
+        buffer.flip();
+
+        Object[] data = new PgTupleDecoder(columns).decode(buffer);
+        Assert.assertEquals(42L, data[0]);
+        Assert.assertEquals("abc", data[1]);
+        Assert.assertEquals(new BigDecimal("-1234.5600"), data[2]);
+        Assert.assertEquals(Boolean.TRUE, data[3]);
+        Assert.assertNull(data[4]);
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testDecodeBinaryTemporal() {
+        List<ColumnInfo> temporalColumns =
+                Arrays.asList(
+                        new ColumnInfo(0, "d", "date"),
+                        new ColumnInfo(1, "ts", "timestamp"),
+                        new ColumnInfo(2, "u", "uuid"));
+        UUID uuid = UUID.randomUUID();
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        buffer.putShort((short) 3);
+        buffer.put((byte) 'b').putInt(4).putInt(1);
+        buffer.put((byte) 'b').putInt(8).putLong(1_500_000L);
+        buffer.put((byte) 'b').putInt(16);
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        buffer.flip();
+
+        Object[] data = new PgTupleDecoder(temporalColumns).decode(buffer);
+        Assert.assertEquals(Date.valueOf("2000-01-02"), data[0]);
+        Assert.assertEquals(Timestamp.valueOf("2000-01-01 00:00:01.5"), data[1]);
+        Assert.assertEquals(uuid, data[2]);
+    }
+
+    @Test
+    public void testDecodeBinaryTimeAndInfinity() {
+        List<ColumnInfo> temporalColumns =
+                Arrays.asList(
+                        new ColumnInfo(0, "t", "time"),
+                        new ColumnInfo(1, "t_end", "time"),
+                        new ColumnInfo(2, "ts", "timestamp"),
+                        new ColumnInfo(3, "tz", "timestamptz"),
+                        new ColumnInfo(4, "d", "date"));
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        buffer.putShort((short) 5);
+        // 12:34:56.789123
+        buffer.put((byte) 'b').putInt(8).putLong(45_296_789_123L);
+        // 24:00:00
+        buffer.put((byte) 'b').putInt(8).putLong(86_400_000_000L);
+        buffer.put((byte) 'b').putInt(8).putLong(Long.MAX_VALUE);
+        buffer.put((byte) 'b').putInt(8).putLong(Long.MIN_VALUE);
+        buffer.put((byte) 'b').putInt(4).putInt(Integer.MAX_VALUE);
+        buffer.flip();
+
+        Object[] data = new PgTupleDecoder(temporalColumns).decode(buffer);
+        Time time = (Time) data[0];
+        Assert.assertEquals("12:34:56", time.toString());
+        Assert.assertEquals(Time.valueOf("12:34:56").getTime() + 789, ((Time) data[0]).getTime());
+        Assert.assertEquals(
+                Time.valueOf("00:00:00").getTime() + 86_400_000L, ((Time) data[1]).getTime());
+        Assert.assertEquals("infinity", data[2]);
+        Assert.assertEquals("-infinity", data[3]);
+        Assert.assertEquals("infinity", data[4]);
+    }
+
+    @Test
+    public void testDecodeBinaryUnsupportedType() {
+        List<ColumnInfo> intervalColumns =
+                Arrays.asList(new ColumnInfo(0, "id", "int4"), new ColumnInfo(1, "i", "interval"));
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.putShort((short) 2);
+        buffer.put((byte) 'b').putInt(4).putInt(1);
+        buffer.put((byte) 'b').putInt(16).putLong(1_000_000L).putInt(1).putInt(0);
+        buffer.flip();
+
+        try {
+            new PgTupleDecoder(intervalColumns).decode(buffer);
+            Assert.fail("binary interval must not be decoded as text");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("interval"));
+        }
+    }
+
+    @Test
+    public void testIsBinarySupported() {
+        for (String type : Arrays.asList("int4", "numeric", "timestamptz", "varchar", "jsonb")) {
+            Assert.assertTrue(type, PgTupleDecoder.isBinarySupported(type));
+        }
+        for (String type : Arrays.asList("interval", "timetz", "inet", "money", "bit", "xml")) {
+            Assert.assertFalse(type, PgTupleDecoder.isBinarySupported(type));
+        }
+        Assert.assertFalse(PgTupleDecoder.isBinarySupported(null));
+    }
+
+    @Test
+    public void testDecodeWithProjection() {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        buffer.putShort((short) 5);
+        putText(buffer, "1");
+        putText(buffer, "skipped");
+        putText(buffer, "12.50");
+        putText(buffer, "t");
+        putText(buffer, "skipped");
+        buffer.flip();
+
+        boolean[] projection = new boolean[] {true, false, true, true, false};
+        Object[] data = new PgTupleDecoder(columns, projection).decode(buffer);
+        Assert.assertEquals(1L, data[0]);
+        Assert.assertNull(data[1]);
+        Assert.assertEquals("12.50", data[2]);
+        Assert.assertEquals("t", data[3]);
+        Assert.assertNull(data[4]);
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    private void putText(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.put((byte) 't').putInt(bytes.length).put(bytes);
+    }
+}
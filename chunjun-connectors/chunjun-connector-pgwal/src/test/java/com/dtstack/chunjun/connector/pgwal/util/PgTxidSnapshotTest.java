@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.pgwal.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PgTxidSnapshotTest {
+
+    @Test
+    public void testIsVisible() {
+        PgTxidSnapshot snapshot = PgTxidSnapshot.valueOf("100:110:100,105");
+        Assert.assertTrue(snapshot.isVisible(99));
+        Assert.assertFalse(snapshot.isVisible(100));
+        Assert.assertTrue(snapshot.isVisible(101));
+        Assert.assertFalse(snapshot.isVisible(105));
+        Assert.assertFalse(snapshot.isVisible(110));
+        Assert.assertFalse(snapshot.isVisible(200));
+    }
+
+    @Test
+    public void testIsVisibleWithEpoch() {
+        // epoch为1，复制流中的xid只有低32位，并且跨越了回卷点
+        long epoch = 1L << 32;
+        PgTxidSnapshot snapshot =
+                PgTxidSnapshot.valueOf((epoch - 5) + ":" + (epoch + 5) + ":" + (epoch + 1));
+        Assert.assertTrue(snapshot.isVisible(0xFFFFFFF0L));
+        Assert.assertTrue(snapshot.isVisible(0xFFFFFFFEL));
+        Assert.assertTrue(snapshot.isVisible(0));
+        Assert.assertFalse(snapshot.isVisible(1));
+        Assert.assertFalse(snapshot.isVisible(5));
+    }
+
+    @Test
+    public void testEmptyXip() {
+        PgTxidSnapshot snapshot = PgTxidSnapshot.valueOf("100:100:");
+        Assert.assertTrue(snapshot.isVisible(99));
+        Assert.assertFalse(snapshot.isVisible(100));
+    }
+}
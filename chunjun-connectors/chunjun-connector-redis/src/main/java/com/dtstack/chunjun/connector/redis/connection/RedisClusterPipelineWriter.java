@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.redis.connection;
+
+import com.dtstack.chunjun.util.ExceptionUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.util.JedisClusterCRC16;
+import redis.clients.util.SafeEncoder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 集群模式的pipeline。
+ *
+ * <p>JedisCluster不支持pipeline，这里通过CLUSTER SLOTS维护slot到master节点的映射，按key的slot将命令分组到各个节点的pipeline，
+ * 每个节点每批次只有一次网络往返。slot迁移导致命令被重定向(MOVED/ASK)时，由调用方通过JedisCluster重试并调用{@link #refresh()}刷新映射。
+ *
+ * @author chuixue
+ */
+public class RedisClusterPipelineWriter extends RedisPipelineWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(RedisClusterPipelineWriter.class);
+
+    private static final int SLOT_COUNT = 16384;
+
+    private final JedisCluster cluster;
+    /** slot -> master节点，host:port */
+    private final String[] slotNodes = new String[SLOT_COUNT];
+    /** 本批次借用的连接 */
+    private final Map<String, Jedis> connections = new HashMap<>();
+
+    private final Map<String, Pipeline> pipelines = new HashMap<>();
+
+    private Map<String, JedisPool> nodePools;
+
+    public RedisClusterPipelineWriter(JedisCluster cluster) {
+        this.cluster = cluster;
+        refresh();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void refresh() {
+        JedisException exception = null;
+        for (JedisPool pool : cluster.getClusterNodes().values()) {
+            try (Jedis jedis = pool.getResource()) {
+                List<Object> slots = jedis.clusterSlots();
+                Arrays.fill(slotNodes, null);
+                for (Object slot : slots) {
+                    List<Object> slotInfo = (List<Object>) slot;
+                    int start = ((Long) slotInfo.get(0)).intValue();
+                    int end = ((Long) slotInfo.get(1)).intValue();
+                    List<Object> master = (List<Object>) slotInfo.get(2);
+                    String node = SafeEncoder.encode((byte[]) master.get(0)) + ":" + master.get(1);
+                    Arrays.fill(slotNodes, start, end + 1, node);
+                }
+                nodePools = null;
+                return;
+            } catch (JedisException e) {
+                LOG.warn("get cluster slots failed, e = {}", ExceptionUtil.getErrorMessage(e));
+                exception = e;
+            }
+        }
+        throw new JedisConnectionException("no reachable redis cluster node", exception);
+    }
+
+    @Override
+    protected Pipeline pipeline(String key) {
+        String node = slotNodes[JedisClusterCRC16.getSlot(key)];
+        Pipeline pipeline = pipelines.get(node);
+        if (pipeline == null) {
+            if (nodePools == null) {
+                nodePools = cluster.getClusterNodes();
+            }
+            JedisPool pool = node == null ? null : nodePools.get(node);
+            if (pool == null) {
+                throw new JedisConnectionException(
+                        "can not find redis cluster node for key: " + key + ", node: " + node);
+            }
+            Jedis jedis = pool.getResource();
+            connections.put(node, jedis);
+            pipeline = jedis.pipelined();
+            pipelines.put(node, pipeline);
+        }
+        return pipeline;
+    }
+
+    @Override
+    public void sync() {
+        pipelines.values().forEach(this::sync);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        pipelines.clear();
+        // 归还连接，出现过连接异常的连接由连接池丢弃
+        connections.values().forEach(Jedis::close);
+        connections.clear();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.redis.connection;
+
+import java.util.Map;
+
+/**
+ * redis sink使用的写入命令。单条写入时命令直接执行，批量写入时命令放入pipeline，由{@link RedisPipelineWriter}一次发送。
+ *
+ * @author chuixue
+ */
+public interface RedisCommandWriter {
+
+    void set(String key, String value);
+
+    void lpush(String key, String... values);
+
+    void rpush(String key, String... values);
+
+    void sadd(String key, String... members);
+
+    void zadd(String key, double score, String member);
+
+    void hset(String key, String field, String value);
+
+    void hmset(String key, Map<String, String> hash);
+
+    void expire(String key, int seconds);
+
+    void expireAt(String key, long unixTime);
+}
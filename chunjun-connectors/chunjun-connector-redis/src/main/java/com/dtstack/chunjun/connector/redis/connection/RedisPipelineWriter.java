@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.redis.connection;
+
+import com.dtstack.chunjun.util.ExceptionUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将命令放入pipeline，{@link #sync()}时一次发送并读取全部响应。
+ *
+ * <p>每条命令的响应按写入顺序记录，调用方记录每行数据对应的响应区间，通过{@link #getError(int, int)}判断该行是否写入成功。
+ *
+ * @author chuixue
+ */
+public abstract class RedisPipelineWriter implements RedisCommandWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(RedisPipelineWriter.class);
+
+    private final List<Response<?>> responses = new ArrayList<>();
+    /** 每条命令所在的pipeline */
+    private final List<Pipeline> responsePipelines = new ArrayList<>();
+    /** sync失败的pipeline，其中命令的响应不可用 */
+    private final Map<Pipeline, JedisException> failedPipelines = new HashMap<>();
+
+    /**
+     * 获取key所在节点的pipeline
+     *
+     * @param key redis key
+     * @return pipeline
+     */
+    protected abstract Pipeline pipeline(String key);
+
+    /** 发送所有pipeline中的命令并读取响应，失败的pipeline通过{@link #getError(int, int)}返回给调用方 */
+    public abstract void sync();
+
+    protected void sync(Pipeline pipeline) {
+        try {
+            pipeline.sync();
+        } catch (JedisException e) {
+            LOG.warn("sync redis pipeline failed, e = {}", ExceptionUtil.getErrorMessage(e));
+            failedPipelines.put(pipeline, e);
+        }
+    }
+
+    /** 刷新路由信息，命令被重定向时调用 */
+    public void refresh() {}
+
+    /** 清空本批次的响应并释放本批次使用的连接 */
+    public void clear() {
+        responses.clear();
+        responsePipelines.clear();
+        failedPipelines.clear();
+    }
+
+    /** @return 是否有pipeline因连接异常等原因sync失败 */
+    public boolean hasFailedPipeline() {
+        return !failedPipelines.isEmpty();
+    }
+
+    /** @return 已写入的命令数量 */
+    public int responseCount() {
+        return responses.size();
+    }
+
+    /**
+     * 检查[from, to)区间内命令的响应，需在{@link #sync()}之后调用
+     *
+     * @return 第一个失败命令的异常，全部成功时返回null。命令所在pipeline整体失败时返回sync的异常
+     */
+    public JedisException getError(int from, int to) {
+        for (int i = from; i < to; i++) {
+            JedisException failure = failedPipelines.get(responsePipelines.get(i));
+            if (failure != null) {
+                return failure;
+            }
+            try {
+                responses.get(i).get();
+            } catch (JedisException e) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    private void add(Pipeline pipeline, Response<?> response) {
+        responsePipelines.add(pipeline);
+        responses.add(response);
+    }
+
+    @Override
+    public void set(String key, String value) {
+        Pipeline pipeline = pipeline(key);
+        add(pipeline, pipeline.set(key, value));
+    }
+
+    @Override
+    public void lpush(String key, String... values) {
+        Pipeline pipeline = pipeline(key);
+        add(pipeline, pipeline.lpush(key, values));
+    }
+
+    @Override
+    public void rpush(String key, String... values) {
+        Pipeline pipeline = pipeline(key);
+        add(pipeline, pipeline.rpush(key, values));
+    }
+
+    @Override
+    public void sadd(String key, String... members) {
+        Pipeline pipeline = pipeline(key);
+        add(pipeline, pipeline.sadd(key, members));
+    }
+
+    @Override
+    public void zadd(String key, double score, String member) {
+        Pipeline pipeline = pipeline(key);
+        add(pipeline, pipeline.zadd(key, score, member));
+    }
+
+    @Override
+    public void hset(String key, String field, String value) {
+        Pipeline pipeline = pipeline(key);
+        add(pipeline, pipeline.hset(key, field, value));
+    }
+
+    @Override
+    public void hmset(String key, Map<String, String> hash) {
+        Pipeline pipeline = pipeline(key);
+        add(pipeline, pipeline.hmset(key, hash));
+    }
+
+    @Override
+    public void expire(String key, int seconds) {
+        Pipeline pipeline = pipeline(key);
+        add(pipeline, pipeline.expire(key, seconds));
+    }
+
+    @Override
+    public void expireAt(String key, long unixTime) {
+        Pipeline pipeline = pipeline(key);
+        add(pipeline, pipeline.expireAt(key, unixTime));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.redis.connection;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+/**
+ * 单机及哨兵模式的pipeline，所有命令发送到同一个连接
+ *
+ * @author chuixue
+ */
+public class RedisStandalonePipelineWriter extends RedisPipelineWriter {
+
+    private final Jedis jedis;
+    private Pipeline pipeline;
+
+    public RedisStandalonePipelineWriter(Jedis jedis) {
+        this.jedis = jedis;
+    }
+
+    @Override
+    protected Pipeline pipeline(String key) {
+        if (pipeline == null) {
+            pipeline = jedis.pipelined();
+        }
+        return pipeline;
+    }
+
+    @Override
+    public void sync() {
+        if (pipeline != null) {
+            sync(pipeline);
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        pipeline = null;
+    }
+}
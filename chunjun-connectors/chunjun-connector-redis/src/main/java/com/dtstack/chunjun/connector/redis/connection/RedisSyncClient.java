@@ -161,6 +161,20 @@ public class RedisSyncClient {
         }
     }
 
+    /**
+     * 关闭连接并从连接池中重新获取，集群模式下由JedisCluster自行管理连接
+     *
+     * @param jedis 需要关闭的连接
+     * @return 新的连接
+     */
+    public JedisCommands reconnect(JedisCommands jedis) {
+        if (jedis instanceof JedisCluster) {
+            return jedis;
+        }
+        closeJedis(jedis);
+        return pool != null ? pool.getResource() : jedisSentinelPool.getResource();
+    }
+
     public JedisCommands getJedis() {
         JedisCommands jedisInner = null;
         for (int i = 0; i <= 2; i++) {
@@ -20,6 +20,7 @@ package com.dtstack.chunjun.connector.redis.converter;
 
 import com.dtstack.chunjun.conf.FieldConf;
 import com.dtstack.chunjun.connector.redis.conf.RedisConf;
+import com.dtstack.chunjun.connector.redis.connection.RedisCommandWriter;
 import com.dtstack.chunjun.connector.redis.enums.RedisDataMode;
 import com.dtstack.chunjun.connector.redis.enums.RedisDataType;
 import com.dtstack.chunjun.converter.AbstractRowConverter;
@@ -34,7 +35,6 @@ import org.apache.flink.table.types.logical.LogicalType;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import redis.clients.jedis.Jedis;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -51,7 +51,8 @@ import static com.dtstack.chunjun.connector.redis.options.RedisOptions.REDIS_KEY
  * @create 2021-06-17 14:32
  * @description
  */
-public class RedisColumnConverter extends AbstractRowConverter<Object, Object, Jedis, LogicalType> {
+public class RedisColumnConverter
+        extends AbstractRowConverter<Object, Object, RedisCommandWriter, LogicalType> {
 
     /** redis Conf */
     private final RedisConf redisConf;
@@ -87,7 +88,7 @@ public class RedisColumnConverter extends AbstractRowConverter<Object, Object, J
     }
 
     @Override
-    public Jedis toExternal(RowData rowData, Jedis jedis) {
+    public RedisCommandWriter toExternal(RowData rowData, RedisCommandWriter jedis) {
         ColumnRowData row = (ColumnRowData) rowData;
         processTimeFormat(row);
         String key = concatKey(row);
@@ -207,15 +208,19 @@ public class RedisColumnConverter extends AbstractRowConverter<Object, Object, J
         return keyBuilder.append(concatKey(row)).toString();
     }
 
-    private void hashWrite(ColumnRowData row, String key, Jedis jedis) {
+    private void hashWrite(ColumnRowData row, String key, RedisCommandWriter jedis) {
         if (CollectionUtils.isNotEmpty(redisConf.getColumn())) {
+            // 所有field通过一条hmset写入
+            Map<String, String> hash = new HashMap<>((fieldIndex.size() << 2) / 3 + 1);
             for (int index : fieldIndex) {
                 FieldConf fieldConf = redisConf.getColumn().get(index);
-                String field = fieldConf.getName();
                 if (row.getField(index) != null) {
-                    jedis.hset(key, field, row.getField(index).asString());
+                    hash.put(fieldConf.getName(), row.getField(index).asString());
                 }
             }
+            if (!hash.isEmpty()) {
+                jedis.hmset(key, hash);
+            }
         } else {
             List<Object> fieldValue = getFieldAndValue(row);
             jedis.hset(key, String.valueOf(fieldValue.get(0)), String.valueOf(fieldValue.get(1)));
@@ -19,6 +19,7 @@
 package com.dtstack.chunjun.connector.redis.converter;
 
 import com.dtstack.chunjun.connector.redis.conf.RedisConf;
+import com.dtstack.chunjun.connector.redis.connection.RedisCommandWriter;
 import com.dtstack.chunjun.converter.AbstractRowConverter;
 import com.dtstack.chunjun.converter.IDeserializationConverter;
 import com.dtstack.chunjun.converter.ISerializationConverter;
@@ -34,8 +35,6 @@ import org.apache.flink.table.types.logical.LogicalTypeRoot;
 import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.table.types.logical.TimestampType;
 
-import redis.clients.jedis.JedisCommands;
-
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -57,7 +56,7 @@ import java.util.stream.Collectors;
  */
 public class RedisRowConverter
         extends AbstractRowConverter<
-                Map<String, String>, Map<String, String>, JedisCommands, LogicalType> {
+                Map<String, String>, Map<String, String>, RedisCommandWriter, LogicalType> {
 
     private static final long serialVersionUID = 1L;
 
@@ -128,7 +127,8 @@ public class RedisRowConverter
     }
 
     @Override
-    public JedisCommands toExternal(RowData rowData, JedisCommands jedis) throws Exception {
+    public RedisCommandWriter toExternal(RowData rowData, RedisCommandWriter jedis)
+            throws Exception {
         List<String> fieldNames = rowType.getFieldNames();
         List<Object> fieldValue = new ArrayList<>();
         for (int index = 0; index < rowData.getArity(); index++) {
@@ -141,7 +141,9 @@ public class RedisRowConverter
                     collect.put(key, fieldValue.get(fieldNames.indexOf(key)));
                 });
         String key = buildCacheKey(collect);
-        collect.forEach((field, value) -> jedis.hset(key, field, String.valueOf(value)));
+        Map<String, String> hash = new HashMap<>((collect.size() << 2) / 3 + 1);
+        collect.forEach((field, value) -> hash.put(field, String.valueOf(value)));
+        jedis.hmset(key, hash);
 
         if (redisConf.getExpireTime() != 0) {
             jedis.expire(key, (int) redisConf.getExpireTime());
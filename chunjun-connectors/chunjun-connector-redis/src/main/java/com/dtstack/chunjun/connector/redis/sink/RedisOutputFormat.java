@@ -19,14 +19,27 @@
 package com.dtstack.chunjun.connector.redis.sink;
 
 import com.dtstack.chunjun.connector.redis.conf.RedisConf;
+import com.dtstack.chunjun.connector.redis.connection.JedisCommandWriter;
+import com.dtstack.chunjun.connector.redis.connection.RedisClusterPipelineWriter;
+import com.dtstack.chunjun.connector.redis.connection.RedisCommandWriter;
+import com.dtstack.chunjun.connector.redis.connection.RedisPipelineWriter;
+import com.dtstack.chunjun.connector.redis.connection.RedisStandalonePipelineWriter;
 import com.dtstack.chunjun.connector.redis.connection.RedisSyncClient;
 import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
 import com.dtstack.chunjun.throwable.WriteRecordException;
+import com.dtstack.chunjun.util.ExceptionUtil;
 
 import org.apache.flink.table.data.RowData;
 
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisCommands;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author chuixue
@@ -40,6 +53,10 @@ public class RedisOutputFormat extends BaseRichOutputFormat {
     private RedisConf redisConf;
     /** jedis */
     private JedisCommands jedis;
+    /** 单条写入 */
+    private transient RedisCommandWriter commandWriter;
+    /** 批量写入，batchSize大于1时使用 */
+    private transient RedisPipelineWriter pipelineWriter;
 
     private String TEST_KEY = "test";
 
@@ -47,6 +64,17 @@ public class RedisOutputFormat extends BaseRichOutputFormat {
     protected void openInternal(int taskNumber, int numTasks) {
         redisSyncClient = new RedisSyncClient(redisConf);
         jedis = redisSyncClient.getJedis();
+        commandWriter = new JedisCommandWriter(jedis);
+        if (batchSize > 1) {
+            pipelineWriter = createPipelineWriter();
+        }
+    }
+
+    private RedisPipelineWriter createPipelineWriter() {
+        if (jedis instanceof JedisCluster) {
+            return new RedisClusterPipelineWriter((JedisCluster) jedis);
+        }
+        return new RedisStandalonePipelineWriter((Jedis) jedis);
     }
 
     @Override
@@ -66,19 +94,109 @@ public class RedisOutputFormat extends BaseRichOutputFormat {
      */
     private void writeSingleRecordWithRetry(RowData rowData) throws Exception {
         try {
-            rowConverter.toExternal(rowData, jedis);
+            rowConverter.toExternal(rowData, commandWriter);
         } catch (JedisConnectionException e) {
             // JedisConnectionException may be caused by jedis time out ,retry to get jedis from
             // pool
             LOG.error("retry get redis once");
             jedis = redisSyncClient.testTimeout(jedis, TEST_KEY);
-            rowConverter.toExternal(rowData, jedis);
+            commandWriter = new JedisCommandWriter(jedis);
+            rowConverter.toExternal(rowData, commandWriter);
         }
     }
 
+    @Override
+    protected boolean isWriteCountedBySink() {
+        return true;
+    }
+
+    @Override
+    protected boolean fallbackToSingleWrite() {
+        return false;
+    }
+
+    /**
+     * 一批数据通过pipeline一次发送，集群模式下按slot分组到各个master节点。
+     *
+     * <p>发送后逐行检查响应：命令执行失败的行记为脏数据；被重定向或所在连接异常的行通过单条写入重试，单条写入时会重新获取连接，集群模式下由JedisCluster处理重定向。
+     */
     @Override
     protected void writeMultipleRecordsInternal() {
-        throw new UnsupportedOperationException();
+        int[] responseEnds = new int[rows.size()];
+        boolean[] invalid = new boolean[rows.size()];
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    rowConverter.toExternal(rows.get(i), pipelineWriter);
+                } catch (JedisException e) {
+                    throw e;
+                } catch (Exception e) {
+                    invalid[i] = true;
+                    dirtyManager.collect(rows.get(i), e, null);
+                }
+                responseEnds[i] = pipelineWriter.responseCount();
+            }
+            pipelineWriter.sync();
+        } catch (JedisException e) {
+            // 获取节点连接失败，整批转为单条写
+            LOG.warn(
+                    "write records by pipeline failed, write one by one, e = {}",
+                    ExceptionUtil.getErrorMessage(e));
+            resetPipeline(true);
+            for (int i = 0; i < rows.size(); i++) {
+                if (!invalid[i]) {
+                    writeSingleRecord(rows.get(i), numWriteCounter);
+                }
+            }
+            return;
+        }
+
+        boolean connectionFailed = pipelineWriter.hasFailedPipeline();
+        boolean redirected = false;
+        long success = 0;
+        List<RowData> retryRows = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (invalid[i]) {
+                continue;
+            }
+            JedisException error =
+                    pipelineWriter.getError(i == 0 ? 0 : responseEnds[i - 1], responseEnds[i]);
+            if (error == null) {
+                success++;
+            } else if (error instanceof JedisRedirectionException
+                    || error instanceof JedisConnectionException) {
+                redirected |= error instanceof JedisRedirectionException;
+                retryRows.add(rows.get(i));
+            } else {
+                dirtyManager.collect(rows.get(i), error, null);
+            }
+        }
+        numWriteCounter.add(success);
+        resetPipeline(connectionFailed || redirected);
+        retryRows.forEach(row -> writeSingleRecord(row, numWriteCounter));
+    }
+
+    /**
+     * 清空本批次的pipeline
+     *
+     * @param reconnect 出现连接异常或重定向，单机模式重新获取连接，集群模式刷新slot映射
+     */
+    private void resetPipeline(boolean reconnect) {
+        pipelineWriter.clear();
+        if (!reconnect) {
+            return;
+        }
+        if (jedis instanceof JedisCluster) {
+            try {
+                pipelineWriter.refresh();
+            } catch (JedisException e) {
+                LOG.warn("refresh cluster slots failed, e = {}", ExceptionUtil.getErrorMessage(e));
+            }
+        } else {
+            jedis = redisSyncClient.reconnect(jedis);
+            commandWriter = new JedisCommandWriter(jedis);
+            pipelineWriter = createPipelineWriter();
+        }
     }
 
     @Override
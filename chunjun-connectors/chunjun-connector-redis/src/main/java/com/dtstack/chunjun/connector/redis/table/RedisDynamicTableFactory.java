@@ -66,6 +66,8 @@ import static com.dtstack.chunjun.lookup.options.LookupOptions.LOOKUP_ERROR_LIMI
 import static com.dtstack.chunjun.lookup.options.LookupOptions.LOOKUP_FETCH_SIZE;
 import static com.dtstack.chunjun.lookup.options.LookupOptions.LOOKUP_MAX_RETRIES;
 import static com.dtstack.chunjun.lookup.options.LookupOptions.LOOKUP_PARALLELISM;
+import static com.dtstack.chunjun.table.options.SinkOptions.SINK_BUFFER_FLUSH_INTERVAL;
+import static com.dtstack.chunjun.table.options.SinkOptions.SINK_BUFFER_FLUSH_MAX_ROWS;
 import static org.apache.flink.table.factories.FactoryUtil.SINK_PARALLELISM;
 
 /**
@@ -141,6 +143,8 @@ public class RedisDynamicTableFactory
         optionalOptions.add(MAXIDLE);
         optionalOptions.add(MINIDLE);
         optionalOptions.add(KEYEXPIREDTIME);
+        optionalOptions.add(SINK_BUFFER_FLUSH_MAX_ROWS);
+        optionalOptions.add(SINK_BUFFER_FLUSH_INTERVAL);
 
         optionalOptions.add(LOOKUP_CACHE_PERIOD);
         optionalOptions.add(LOOKUP_CACHE_MAX_ROWS);
@@ -168,6 +172,8 @@ public class RedisDynamicTableFactory
         redisConf.setMaxIdle(config.get(MAXIDLE));
         redisConf.setMinIdle(config.get(MINIDLE));
         redisConf.setExpireTime(config.get(KEYEXPIREDTIME));
+        redisConf.setBatchSize(config.get(SINK_BUFFER_FLUSH_MAX_ROWS));
+        redisConf.setFlushIntervalMills(config.get(SINK_BUFFER_FLUSH_INTERVAL));
         redisConf.setType(RedisDataType.getDataType(config.get(REDIS_DATA_TYPE)));
         redisConf.setMode(RedisDataMode.getDataMode(config.get(REDIS_DATA_MODE)));
 
@@ -44,6 +44,12 @@ public class SqlServerCdcConf extends ChunJunCommonConf {
     private List<FieldConf> column;
     private boolean autoCommit = false;
     private boolean autoResetConnection = false;
+    /** 是否并行拉取各capture instance的变更 */
+    private boolean parallelPoll = false;
+    /** 并行拉取的线程数及连接数 */
+    private int pollThreadSize = 4;
+    /** 并行拉取时单轮LSN区间对应的提交时间跨度(秒)，小于等于0表示不限制 */
+    private long lsnWindowSeconds = 60L;
 
     public boolean isAutoCommit() {
         return autoCommit;
@@ -61,6 +67,30 @@ public class SqlServerCdcConf extends ChunJunCommonConf {
         this.autoResetConnection = autoResetConnection;
     }
 
+    public boolean isParallelPoll() {
+        return parallelPoll;
+    }
+
+    public void setParallelPoll(boolean parallelPoll) {
+        this.parallelPoll = parallelPoll;
+    }
+
+    public int getPollThreadSize() {
+        return pollThreadSize;
+    }
+
+    public void setPollThreadSize(int pollThreadSize) {
+        this.pollThreadSize = pollThreadSize;
+    }
+
+    public long getLsnWindowSeconds() {
+        return lsnWindowSeconds;
+    }
+
+    public void setLsnWindowSeconds(long lsnWindowSeconds) {
+        this.lsnWindowSeconds = lsnWindowSeconds;
+    }
+
     public String getTimestampFormat() {
         return timestampFormat;
     }
@@ -186,6 +216,12 @@ public class SqlServerCdcConf extends ChunJunCommonConf {
                 + ", lsn='"
                 + lsn
                 + '\''
+                + ", parallelPoll="
+                + parallelPoll
+                + ", pollThreadSize="
+                + pollThreadSize
+                + ", lsnWindowSeconds="
+                + lsnWindowSeconds
                 + '}';
     }
 }
@@ -36,6 +36,11 @@ public class ChangeTablePointer {
     private final ResultSet resultSet;
     private boolean completed = false;
     private TxLogPosition currentChangePosition;
+    /** 预取模式下缓存的变更行，为null时直接从resultSet中流式读取 */
+    private List<ChangeRow> bufferedRows;
+
+    private List<String> bufferedTypes;
+    private int bufferedIndex = -1;
 
     public ChangeTablePointer(
             ChangeTable changeTable, SqlServerCdcUtil.StatementResult statementResult) {
@@ -53,6 +58,9 @@ public class ChangeTablePointer {
     }
 
     public int getOperation() throws SQLException {
+        if (bufferedRows != null) {
+            return bufferedRows.get(bufferedIndex).operation;
+        }
         return resultSet.getInt(COL_OPERATION);
     }
 
@@ -63,6 +71,13 @@ public class ChangeTablePointer {
      * @throws SQLException
      */
     public Object[] getData() throws SQLException {
+        if (bufferedRows != null) {
+            return bufferedRows.get(bufferedIndex).data;
+        }
+        return readData();
+    }
+
+    private Object[] readData() throws SQLException {
         final int dataColumnCount = resultSet.getMetaData().getColumnCount() - (COL_DATA - 1);
         final Object[] data = new Object[dataColumnCount];
         for (int i = 0; i < dataColumnCount; i++) {
@@ -78,6 +93,9 @@ public class ChangeTablePointer {
      * @throws SQLException
      */
     public List<String> getTypes() throws SQLException {
+        if (bufferedRows != null) {
+            return bufferedTypes;
+        }
         final int dataColumnCount = resultSet.getMetaData().getColumnCount() - (COL_DATA - 1);
         List<String> columnTypes = new ArrayList<>();
         for (int i = 0; i < dataColumnCount; i++) {
@@ -86,14 +104,37 @@ public class ChangeTablePointer {
         return columnTypes;
     }
 
+    /**
+     * 将结果集中的全部变更读入内存并关闭statement，并行拉取时在连接归还连接池之前调用，之后{@link #next()}从缓存中读取
+     *
+     * @throws SQLException
+     */
+    public void prefetch() throws SQLException {
+        List<ChangeRow> rows = new ArrayList<>();
+        try {
+            bufferedTypes = getTypes();
+            while (resultSet.next()) {
+                rows.add(
+                        new ChangeRow(readPosition(), resultSet.getInt(COL_OPERATION), readData()));
+            }
+        } finally {
+            resultSet.close();
+            statement.close();
+        }
+        bufferedRows = rows;
+        bufferedIndex = -1;
+    }
+
     public boolean next() throws SQLException {
+        if (bufferedRows != null) {
+            bufferedIndex++;
+            completed = bufferedIndex >= bufferedRows.size();
+            currentChangePosition =
+                    completed ? TxLogPosition.NULL : bufferedRows.get(bufferedIndex).position;
+            return !completed;
+        }
         completed = !resultSet.next();
-        currentChangePosition =
-                completed
-                        ? TxLogPosition.NULL
-                        : TxLogPosition.valueOf(
-                                Lsn.valueOf(resultSet.getBytes(COL_COMMIT_LSN)),
-                                Lsn.valueOf(resultSet.getBytes(COL_ROW_LSN)));
+        currentChangePosition = completed ? TxLogPosition.NULL : readPosition();
         if (completed) {
             LOG.debug("Closing result set of change tables for table {}", changeTable);
             resultSet.close();
@@ -102,6 +143,12 @@ public class ChangeTablePointer {
         return !completed;
     }
 
+    private TxLogPosition readPosition() throws SQLException {
+        return TxLogPosition.valueOf(
+                Lsn.valueOf(resultSet.getBytes(COL_COMMIT_LSN)),
+                Lsn.valueOf(resultSet.getBytes(COL_ROW_LSN)));
+    }
+
     public boolean isCompleted() {
         return completed;
     }
@@ -122,4 +169,16 @@ public class ChangeTablePointer {
                 + currentChangePosition
                 + "]";
     }
+
+    private static class ChangeRow {
+        private final TxLogPosition position;
+        private final int operation;
+        private final Object[] data;
+
+        private ChangeRow(TxLogPosition position, int operation, Object[] data) {
+            this.position = position;
+            this.operation = operation;
+            this.data = data;
+        }
+    }
 }
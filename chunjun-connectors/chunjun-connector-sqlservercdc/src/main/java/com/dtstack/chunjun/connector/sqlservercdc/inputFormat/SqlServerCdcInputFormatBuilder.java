@@ -95,6 +95,10 @@ public class SqlServerCdcInputFormatBuilder
         if (StringUtils.isBlank(format.sqlserverCdcConf.getCat())) {
             sb.append("No cat supplied;\n");
         }
+        if (format.sqlserverCdcConf.isParallelPoll()
+                && format.sqlserverCdcConf.getPollThreadSize() <= 0) {
+            sb.append("pollThreadSize must be greater than 0 when parallelPoll is enabled;\n");
+        }
         if (sb.length() > 0) {
             throw new IllegalArgumentException(sb.toString());
         }
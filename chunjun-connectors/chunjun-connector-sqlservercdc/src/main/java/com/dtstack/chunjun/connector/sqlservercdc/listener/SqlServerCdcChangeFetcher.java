@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.sqlservercdc.listener;
+
+import com.dtstack.chunjun.connector.sqlservercdc.conf.SqlServerCdcConf;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.ChangeTable;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.ChangeTablePointer;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.Lsn;
+import com.dtstack.chunjun.connector.sqlservercdc.util.SqlServerCdcUtil;
+import com.dtstack.chunjun.factory.ChunJunThreadFactory;
+import com.dtstack.chunjun.util.ExceptionUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 并行拉取多个capture instance的变更数据。
+ *
+ * <p>每个capture instance的cdc.fn_cdc_get_all_changes_*查询作为一个任务提交到线程池，任务从连接池中借用连接执行查询，
+ * 并在归还连接前将结果集全部读入内存，因此单轮拉取的LSN区间需要有界。 合并排序由{@link SqlServerCdcListener}完成。
+ *
+ * @author tudou
+ */
+public class SqlServerCdcChangeFetcher {
+    private static final Logger LOG = LoggerFactory.getLogger(SqlServerCdcChangeFetcher.class);
+
+    private final SqlServerCdcConf conf;
+    private final BlockingQueue<Connection> connectionPool;
+    private final ExecutorService executor;
+
+    public SqlServerCdcChangeFetcher(SqlServerCdcConf conf) throws SQLException {
+        this.conf = conf;
+        int threadSize = conf.getPollThreadSize();
+        this.connectionPool = new ArrayBlockingQueue<>(threadSize);
+        for (int i = 0; i < threadSize; i++) {
+            connectionPool.add(createConnection());
+        }
+        this.executor =
+                Executors.newFixedThreadPool(
+                        threadSize, new ChunJunThreadFactory("sqlserver-cdc-fetch", true));
+        LOG.info("SqlServerCdcChangeFetcher started, pollThreadSize = {}", threadSize);
+    }
+
+    /**
+     * 并行查询所有capture instance在[fromLsn, toLsn]区间内的变更
+     *
+     * @param changeTables capture instance
+     * @param fromLsn 起始lsn
+     * @param toLsn 结束lsn
+     * @return 已预取并定位到第一条变更的ChangeTablePointer，与changeTables一一对应
+     * @throws Exception 任一查询失败
+     */
+    public ChangeTablePointer[] fetch(ChangeTable[] changeTables, Lsn fromLsn, Lsn toLsn)
+            throws Exception {
+        List<Future<ChangeTablePointer>> futures = new ArrayList<>(changeTables.length);
+        for (ChangeTable changeTable : changeTables) {
+            futures.add(executor.submit(() -> fetchTable(changeTable, fromLsn, toLsn)));
+        }
+
+        ChangeTablePointer[] pointers = new ChangeTablePointer[changeTables.length];
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                pointers[i] = futures.get(i).get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+        return pointers;
+    }
+
+    private ChangeTablePointer fetchTable(ChangeTable changeTable, Lsn fromLsn, Lsn toLsn)
+            throws Exception {
+        Connection conn = connectionPool.take();
+        try {
+            if (conn.isClosed()) {
+                conn = createConnection();
+            }
+            SqlServerCdcUtil.StatementResult[] resultSets =
+                    SqlServerCdcUtil.getChangesForTables(
+                            conn, new ChangeTable[] {changeTable}, fromLsn, toLsn);
+            ChangeTablePointer pointer = new ChangeTablePointer(changeTable, resultSets[0]);
+            pointer.prefetch();
+            pointer.next();
+            if (!conf.isAutoCommit()) {
+                conn.rollback();
+            }
+            return pointer;
+        } catch (SQLException e) {
+            // 连接可能已经不可用，关闭后由下一个任务重建
+            closeConnection(conn);
+            throw e;
+        } finally {
+            connectionPool.offer(conn);
+        }
+    }
+
+    private Connection createConnection() throws SQLException {
+        Connection conn =
+                SqlServerCdcUtil.getConnection(
+                        conf.getUrl(), conf.getUsername(), conf.getPassword());
+        conn.setAutoCommit(conf.isAutoCommit());
+        SqlServerCdcUtil.changeDatabase(conn, conf.getDatabaseName());
+        return conn;
+    }
+
+    private void closeConnection(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            LOG.warn("close connection error, e = {}", ExceptionUtil.getErrorMessage(e));
+        }
+    }
+
+    public void close() {
+        executor.shutdownNow();
+        Connection conn;
+        while ((conn = connectionPool.poll()) != null) {
+            closeConnection(conn);
+        }
+    }
+}
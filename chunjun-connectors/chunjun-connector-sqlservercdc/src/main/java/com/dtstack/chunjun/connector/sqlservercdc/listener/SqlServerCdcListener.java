@@ -43,9 +43,11 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 /**
@@ -57,6 +59,8 @@ import java.util.Set;
  */
 public class SqlServerCdcListener implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(SqlServerCdcListener.class);
+    /** 并行拉取模式下空闲等待的初始时间(毫秒)，之后逐次翻倍直到pollInterval */
+    private static final long MIN_IDLE_WAIT_MILLIS = 10L;
 
     private SqlServerCdcInputFormat format;
     private TxLogPosition logPosition;
@@ -67,6 +71,7 @@ public class SqlServerCdcListener implements Runnable {
     private Duration pollInterval;
     private SnowflakeIdWorker idWorker;
     private AbstractCDCRowConverter rowConverter;
+    private SqlServerCdcChangeFetcher changeFetcher;
 
     public SqlServerCdcListener(SqlServerCdcInputFormat format) throws SQLException {
         this.format = format;
@@ -84,11 +89,18 @@ public class SqlServerCdcListener implements Runnable {
                 Duration.of(format.sqlserverCdcConf.getPollInterval(), ChronoUnit.MILLIS);
         idWorker = new SnowflakeIdWorker(1, 1);
         this.rowConverter = format.getRowConverter();
+        if (format.sqlserverCdcConf.isParallelPoll()) {
+            this.changeFetcher = new SqlServerCdcChangeFetcher(format.sqlserverCdcConf);
+        }
     }
 
     @Override
     public void run() {
         LOG.info("SqlServerCdcListener start running.....");
+        if (changeFetcher != null) {
+            runParallel();
+            return;
+        }
         Metronome metronome = Metronome.sleeper(pollInterval, Clock.system());
         while (true) {
             try {
@@ -130,90 +142,206 @@ public class SqlServerCdcListener implements Runnable {
         }
     }
 
-    private void readData(ChangeTablePointer[] changeTables) throws Exception {
-        for (; ; ) {
-            ChangeTablePointer tableWithSmallestLsn = getTableWithSmallestLsn(changeTables);
-            if (tableWithSmallestLsn == null) {
-                break;
-            }
+    /** 并行拉取模式：按有界的LSN区间并行查询各capture instance，落后于最大lsn时不等待直接拉取下一个区间，空闲时逐步退避到pollInterval */
+    private void runParallel() {
+        long lsnWindowSeconds = format.sqlserverCdcConf.getLsnWindowSeconds();
+        long idleWait = 0L;
+        Lsn currentMaxLsn = Lsn.NULL;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    // 上一个区间没有追上最大lsn时，直接拉取下一个区间
+                    if (!isBehind(currentMaxLsn)) {
+                        currentMaxLsn = SqlServerCdcUtil.getMaxLsn(conn);
+                        if (!currentMaxLsn.isAvailable()
+                                || currentMaxLsn.equals(logPosition.getCommitLsn())) {
+                            if (!currentMaxLsn.isAvailable()) {
+                                LOG.warn(
+                                        "No maximum LSN recorded in the database; please ensure that the SQL Server Agent is running");
+                            }
+                            idleWait = nextIdleWait(idleWait);
+                            Thread.sleep(idleWait);
+                            if (format.sqlserverCdcConf.isAutoResetConnection()) {
+                                resetConnection();
+                            }
+                            continue;
+                        }
+                    }
+                    idleWait = 0L;
 
-            if (!(tableWithSmallestLsn.getChangePosition().isAvailable()
-                    && tableWithSmallestLsn.getChangePosition().getInTxLsn().isAvailable())) {
-                LOG.error(
-                        "Skipping change {} as its LSN is NULL which is not expected",
-                        tableWithSmallestLsn);
-                tableWithSmallestLsn.next();
-                continue;
-            }
+                    ChangeTable[] fetchTables = tablesSlot;
+                    Lsn windowEndLsn;
+                    if (logPosition.getCommitLsn().isAvailable()) {
+                        windowEndLsn =
+                                SqlServerCdcUtil.getLsnWindowEnd(
+                                        conn,
+                                        logPosition.getCommitLsn(),
+                                        lsnWindowSeconds,
+                                        currentMaxLsn);
+                    } else {
+                        // 没有起始位点时从各capture instance的最小lsn开始划分区间，避免一次预取全部保留期内的变更
+                        Lsn[] minLsns = getMinLsns();
+                        windowEndLsn =
+                                SqlServerCdcUtil.getLsnWindowEnd(
+                                        conn, smallest(minLsns), lsnWindowSeconds, currentMaxLsn);
+                        fetchTables = startedBefore(minLsns, windowEndLsn);
+                    }
+                    ChangeTablePointer[] changeTables =
+                            changeFetcher.fetch(fetchTables, getFromLsn(), windowEndLsn);
+                    readData(changeTables);
 
-            // After restart for changes that were executed before the last committed offset
-            if (tableWithSmallestLsn.getChangePosition().compareTo(logPosition) < 0) {
-                LOG.info(
-                        "Skipping change {} as its position is smaller than the last recorded position {}",
-                        tableWithSmallestLsn,
-                        logPosition);
-                tableWithSmallestLsn.next();
-                continue;
+                    LOG.debug("windowEndLsn = {}, currentMaxLsn = {}", windowEndLsn, currentMaxLsn);
+                    logPosition = TxLogPosition.valueOf(windowEndLsn);
+                    if (!format.sqlserverCdcConf.isAutoCommit()) {
+                        conn.rollback();
+                    }
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    LOG.error(ExceptionUtil.getErrorMessage(e), e);
+                    if (e.getCause() instanceof InterruptedException) {
+                        throw (InterruptedException) e.getCause();
+                    }
+                    currentMaxLsn = Lsn.NULL;
+                    Thread.sleep(pollInterval.toMillis());
+                }
             }
+        } catch (InterruptedException e) {
+            LOG.info("SqlServerCdcListener interrupted");
+            Thread.currentThread().interrupt();
+        } finally {
+            changeFetcher.close();
+        }
+    }
 
-            ChangeTable changeTable = tableWithSmallestLsn.getChangeTable();
-            if (changeTable.getStopLsn().isAvailable()
-                    && changeTable
-                                    .getStopLsn()
-                                    .compareTo(
-                                            tableWithSmallestLsn.getChangePosition().getCommitLsn())
-                            <= 0) {
-                LOG.debug(
-                        "Skipping table change {} as its stop LSN is smaller than the last recorded LSN {}",
-                        tableWithSmallestLsn,
-                        tableWithSmallestLsn.getChangePosition());
-                tableWithSmallestLsn.next();
-                continue;
-            }
+    private Lsn[] getMinLsns() throws SQLException {
+        Lsn[] minLsns = new Lsn[tablesSlot.length];
+        for (int i = 0; i < tablesSlot.length; i++) {
+            minLsns[i] = SqlServerCdcUtil.getMinLsn(conn, tablesSlot[i].getCaptureInstance());
+        }
+        return minLsns;
+    }
 
-            int operation = tableWithSmallestLsn.getOperation();
-            if (!cat.contains(operation)) {
-                tableWithSmallestLsn.next();
-                continue;
+    private static Lsn smallest(Lsn[] lsns) {
+        Lsn smallest = Lsn.NULL;
+        for (Lsn lsn : lsns) {
+            if (lsn.isAvailable() && (!smallest.isAvailable() || lsn.compareTo(smallest) < 0)) {
+                smallest = lsn;
             }
+        }
+        return smallest;
+    }
 
-            Object[] dataPrev = null;
-            TableId tableId = changeTable.getSourceTableId();
-            if (operation == SqlServerCdcEnum.UPDATE_BEFORE.code) {
-                dataPrev = tableWithSmallestLsn.getData();
-                if (!tableWithSmallestLsn.next()
-                        || tableWithSmallestLsn.getOperation()
-                                != SqlServerCdcEnum.UPDATE_AFTER.code) {
-                    throw new IllegalStateException(
-                            "The update before event at "
-                                    + tableWithSmallestLsn.getChangePosition()
-                                    + " for table "
-                                    + tableId
-                                    + " was not followed by after event");
-                }
+    /** 最小lsn不大于区间结束位置的capture instance，其余的capture instance在区间内没有变更，且查询会因区间非法而报错 */
+    private ChangeTable[] startedBefore(Lsn[] minLsns, Lsn windowEndLsn) {
+        List<ChangeTable> tables = new ArrayList<>(tablesSlot.length);
+        for (int i = 0; i < tablesSlot.length; i++) {
+            if (minLsns[i].isAvailable() && minLsns[i].compareTo(windowEndLsn) <= 0) {
+                tables.add(tablesSlot[i]);
             }
+        }
+        return tables.toArray(new ChangeTable[0]);
+    }
 
-            Object[] data = tableWithSmallestLsn.getData();
-            List<String> columnTypes = tableWithSmallestLsn.getTypes();
+    private boolean isBehind(Lsn currentMaxLsn) {
+        Lsn commitLsn = logPosition.getCommitLsn();
+        return currentMaxLsn.isAvailable()
+                && commitLsn.isAvailable()
+                && commitLsn.compareTo(currentMaxLsn) < 0;
+    }
+
+    private long nextIdleWait(long idleWait) {
+        return Math.min(pollInterval.toMillis(), Math.max(MIN_IDLE_WAIT_MILLIS, idleWait * 2));
+    }
 
-            if (operation == SqlServerCdcEnum.DELETE.code) {
-                dataPrev = data;
-                data = new Object[dataPrev.length];
-            } else if (operation != SqlServerCdcEnum.UPDATE_BEFORE.code) {
-                dataPrev = new Object[data.length];
+    private void readData(ChangeTablePointer[] changeTables) throws Exception {
+        // 按(commit lsn, seqval)合并各capture instance的变更
+        PriorityQueue<ChangeTablePointer> queue =
+                new PriorityQueue<>(
+                        Math.max(1, changeTables.length), ChangeTablePointer::compareTo);
+        for (ChangeTablePointer changeTable : changeTables) {
+            if (!changeTable.isCompleted()) {
+                queue.offer(changeTable);
+            }
+        }
+        ChangeTablePointer tableWithSmallestLsn;
+        while ((tableWithSmallestLsn = queue.poll()) != null) {
+            processChange(tableWithSmallestLsn);
+            if (!tableWithSmallestLsn.isCompleted()) {
+                queue.offer(tableWithSmallestLsn);
             }
+        }
+    }
+
+    private void processChange(ChangeTablePointer tableWithSmallestLsn) throws Exception {
+        if (!(tableWithSmallestLsn.getChangePosition().isAvailable()
+                && tableWithSmallestLsn.getChangePosition().getInTxLsn().isAvailable())) {
+            LOG.error(
+                    "Skipping change {} as its LSN is NULL which is not expected",
+                    tableWithSmallestLsn);
+            tableWithSmallestLsn.next();
+            return;
+        }
+
+        // After restart for changes that were executed before the last committed offset
+        if (tableWithSmallestLsn.getChangePosition().compareTo(logPosition) < 0) {
+            LOG.info(
+                    "Skipping change {} as its position is smaller than the last recorded position {}",
+                    tableWithSmallestLsn,
+                    logPosition);
+            tableWithSmallestLsn.next();
+            return;
+        }
 
-            buildResult(
-                    changeTable,
-                    tableId,
-                    data,
-                    dataPrev,
-                    operation,
+        ChangeTable changeTable = tableWithSmallestLsn.getChangeTable();
+        if (changeTable.getStopLsn().isAvailable()
+                && changeTable
+                                .getStopLsn()
+                                .compareTo(tableWithSmallestLsn.getChangePosition().getCommitLsn())
+                        <= 0) {
+            LOG.debug(
+                    "Skipping table change {} as its stop LSN is smaller than the last recorded LSN {}",
                     tableWithSmallestLsn,
-                    columnTypes);
-            format.setLogPosition(tableWithSmallestLsn.getChangePosition());
+                    tableWithSmallestLsn.getChangePosition());
             tableWithSmallestLsn.next();
+            return;
         }
+
+        int operation = tableWithSmallestLsn.getOperation();
+        if (!cat.contains(operation)) {
+            tableWithSmallestLsn.next();
+            return;
+        }
+
+        Object[] dataPrev = null;
+        TableId tableId = changeTable.getSourceTableId();
+        if (operation == SqlServerCdcEnum.UPDATE_BEFORE.code) {
+            dataPrev = tableWithSmallestLsn.getData();
+            if (!tableWithSmallestLsn.next()
+                    || tableWithSmallestLsn.getOperation() != SqlServerCdcEnum.UPDATE_AFTER.code) {
+                throw new IllegalStateException(
+                        "The update before event at "
+                                + tableWithSmallestLsn.getChangePosition()
+                                + " for table "
+                                + tableId
+                                + " was not followed by after event");
+            }
+        }
+
+        Object[] data = tableWithSmallestLsn.getData();
+        List<String> columnTypes = tableWithSmallestLsn.getTypes();
+
+        if (operation == SqlServerCdcEnum.DELETE.code) {
+            dataPrev = data;
+            data = new Object[dataPrev.length];
+        } else if (operation != SqlServerCdcEnum.UPDATE_BEFORE.code) {
+            dataPrev = new Object[data.length];
+        }
+
+        buildResult(
+                changeTable, tableId, data, dataPrev, operation, tableWithSmallestLsn, columnTypes);
+        format.setLogPosition(tableWithSmallestLsn.getChangePosition());
+        tableWithSmallestLsn.next();
     }
 
     private void buildResult(
@@ -268,21 +396,6 @@ public class SqlServerCdcListener implements Runnable {
         return changeTables;
     }
 
-    private ChangeTablePointer getTableWithSmallestLsn(ChangeTablePointer[] changeTables)
-            throws SQLException {
-        ChangeTablePointer tableWithSmallestLsn = null;
-        for (ChangeTablePointer changeTable : changeTables) {
-            if (changeTable.isCompleted()) {
-                continue;
-            }
-            if (tableWithSmallestLsn == null || changeTable.compareTo(tableWithSmallestLsn) < 0) {
-                tableWithSmallestLsn = changeTable;
-            }
-        }
-
-        return tableWithSmallestLsn;
-    }
-
     private Lsn getFromLsn() throws SQLException {
         if (logPosition.getCommitLsn().isAvailable()) {
             return SqlServerCdcUtil.incrementLsn(conn, logPosition.getCommitLsn());
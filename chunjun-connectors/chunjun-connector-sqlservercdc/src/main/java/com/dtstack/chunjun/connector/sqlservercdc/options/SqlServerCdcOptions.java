@@ -85,4 +85,23 @@ public class SqlServerCdcOptions {
                     .booleanType()
                     .defaultValue(false)
                     .withDescription("auto_reset_connection.");
+
+    public static final ConfigOption<Boolean> PARALLEL_POLL =
+            ConfigOptions.key("parallel-poll")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription("poll capture instances concurrently.");
+
+    public static final ConfigOption<Integer> POLL_THREAD_SIZE =
+            ConfigOptions.key("poll-thread-size")
+                    .intType()
+                    .defaultValue(4)
+                    .withDescription("thread and connection size of parallel poll.");
+
+    public static final ConfigOption<Long> LSN_WINDOW_SECONDS =
+            ConfigOptions.key("lsn-window-seconds")
+                    .longType()
+                    .defaultValue(60L)
+                    .withDescription(
+                            "commit time span in seconds of the lsn window fetched per parallel poll round, <= 0 means unbounded.");
 }
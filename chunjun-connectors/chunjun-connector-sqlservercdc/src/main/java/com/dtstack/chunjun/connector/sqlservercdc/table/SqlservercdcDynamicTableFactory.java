@@ -66,6 +66,9 @@ public class SqlservercdcDynamicTableFactory implements DynamicTableSourceFactor
         options.add(SqlServerCdcOptions.LSN);
         options.add(SqlServerCdcOptions.POLLINTERVAL);
         options.add(JsonOptions.TIMESTAMP_FORMAT);
+        options.add(SqlServerCdcOptions.PARALLEL_POLL);
+        options.add(SqlServerCdcOptions.POLL_THREAD_SIZE);
+        options.add(SqlServerCdcOptions.LSN_WINDOW_SECONDS);
         return options;
     }
 
@@ -107,6 +110,9 @@ public class SqlservercdcDynamicTableFactory implements DynamicTableSourceFactor
         sqlServerCdcConf.setAutoCommit(config.get(SqlServerCdcOptions.AUTO_COMMIT));
         sqlServerCdcConf.setAutoResetConnection(
                 config.get(SqlServerCdcOptions.AUTO_RESET_CONNECTION));
+        sqlServerCdcConf.setParallelPoll(config.get(SqlServerCdcOptions.PARALLEL_POLL));
+        sqlServerCdcConf.setPollThreadSize(config.get(SqlServerCdcOptions.POLL_THREAD_SIZE));
+        sqlServerCdcConf.setLsnWindowSeconds(config.get(SqlServerCdcOptions.LSN_WINDOW_SECONDS));
 
         return sqlServerCdcConf;
     }
@@ -70,7 +70,10 @@ public class SqlServerCdcUtil {
     private static final String GET_LIST_OF_CDC_ENABLED_TABLES =
             "EXEC sys.sp_cdc_help_change_data_capture";
     private static final String GET_MAX_LSN = "SELECT sys.fn_cdc_get_max_lsn()";
+    private static final String GET_MIN_LSN = "SELECT sys.fn_cdc_get_min_lsn(?)";
     private static final String INCREMENT_LSN = "SELECT sys.fn_cdc_increment_lsn(?)";
+    private static final String GET_LSN_WINDOW_END =
+            "SELECT sys.fn_cdc_map_time_to_lsn('smallest greater than or equal', DATEADD(SECOND, ?, sys.fn_cdc_map_lsn_to_time(?)))";
     private static final String GET_ALL_CHANGES_FOR_TABLE =
             "SELECT * FROM cdc.[fn_cdc_get_all_changes_#](ISNULL(?,sys.fn_cdc_get_min_lsn('#')), ?, N'all update old')";
 
@@ -205,6 +208,39 @@ public class SqlServerCdcUtil {
         return lsn;
     }
 
+    /**
+     * get the min lsn of a capture instance
+     *
+     * @param conn
+     * @param captureInstance capture instance name
+     * @return min lsn, {@link Lsn#NULL} if the capture instance has no valid lsn
+     * @throws SQLException
+     */
+    public static Lsn getMinLsn(Connection conn, String captureInstance) throws SQLException {
+        Lsn lsn;
+        try (PreparedStatement ps = conn.prepareStatement(GET_MIN_LSN)) {
+            ps.setString(1, captureInstance);
+            ps.setQueryTimeout(QUERY_TIME_OUT);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                lsn = Lsn.valueOf(rs.getBytes(1));
+            }
+        } catch (SQLException e) {
+            LOG.error("error to query min lsn, e = {}", ExceptionUtil.getErrorMessage(e));
+            throw e;
+        }
+        // fn_cdc_get_min_lsn returns 0x00 for an invalid or empty capture instance
+        byte[] binary = lsn.getBinary();
+        if (binary != null) {
+            for (byte b : binary) {
+                if (b != 0) {
+                    return lsn;
+                }
+            }
+        }
+        return Lsn.NULL;
+    }
+
     /**
      * get tables detail changes
      *
@@ -276,6 +312,43 @@ public class SqlServerCdcUtil {
         return ret;
     }
 
+    /**
+     * get the end of a bounded lsn window: the first transaction committed at least windowSeconds
+     * after the commit time of fromLsn, capped to maxLsn. Without a position the caller passes the
+     * smallest min lsn of the capture instances, so a cold start does not read the whole retention
+     * period in one window; maxLsn is returned only when no capture instance has a valid lsn.
+     *
+     * @param conn
+     * @param fromLsn last committed lsn, or the smallest min lsn on a cold start
+     * @param windowSeconds window size in seconds
+     * @param maxLsn current max lsn
+     * @return window end lsn (inclusive)
+     * @throws SQLException
+     */
+    public static Lsn getLsnWindowEnd(Connection conn, Lsn fromLsn, long windowSeconds, Lsn maxLsn)
+            throws SQLException {
+        if (windowSeconds <= 0 || !fromLsn.isAvailable()) {
+            return maxLsn;
+        }
+        Lsn ret;
+        try (PreparedStatement ps = conn.prepareStatement(GET_LSN_WINDOW_END)) {
+            ps.setInt(1, (int) Math.min(windowSeconds, Integer.MAX_VALUE));
+            ps.setBytes(2, fromLsn.getBinary());
+            ps.setQueryTimeout(QUERY_TIME_OUT);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                ret = Lsn.valueOf(rs.getBytes(1));
+            }
+        } catch (SQLException e) {
+            LOG.error("error to query lsn window end, e = {}", ExceptionUtil.getErrorMessage(e));
+            throw e;
+        }
+        if (!ret.isAvailable() || ret.compareTo(maxLsn) > 0 || ret.compareTo(fromLsn) <= 0) {
+            return maxLsn;
+        }
+        return ret;
+    }
+
     /**
      * get changes resultSet by tables
      *
@@ -297,10 +370,12 @@ public class SqlServerCdcUtil {
                 sql =
                         GET_ALL_CHANGES_FOR_TABLE.replace(
                                 STATEMENTS_PLACEHOLDER, changeTable.getCaptureInstance());
+                // without a from lsn the query starts at the min lsn of the capture instance
                 Lsn fromLsn =
-                        changeTable.getStartLsn().compareTo(intervalFromLsn) > 0
-                                ? changeTable.getStartLsn()
-                                : intervalFromLsn;
+                        !intervalFromLsn.isAvailable()
+                                        || changeTable.getStartLsn().compareTo(intervalFromLsn) <= 0
+                                ? intervalFromLsn
+                                : changeTable.getStartLsn();
 
                 PreparedStatement statement = conn.prepareStatement(sql);
                 statement.setQueryTimeout(QUERY_TIME_OUT);
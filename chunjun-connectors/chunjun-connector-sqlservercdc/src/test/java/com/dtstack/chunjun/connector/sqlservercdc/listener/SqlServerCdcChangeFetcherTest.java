@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.sqlservercdc.listener;
+
+import com.dtstack.chunjun.connector.sqlservercdc.conf.SqlServerCdcConf;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.ChangeTable;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.ChangeTablePointer;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.Lsn;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.SqlServerCdcEnum;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.dtstack.chunjun.connector.sqlservercdc.listener.SqlServerCdcListenerTest.lsn;
+import static com.dtstack.chunjun.connector.sqlservercdc.listener.SqlServerCdcListenerTest.resultSet;
+import static com.dtstack.chunjun.connector.sqlservercdc.listener.SqlServerCdcListenerTest.row;
+import static com.dtstack.chunjun.connector.sqlservercdc.listener.SqlServerCdcListenerTest.table;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SqlServerCdcChangeFetcherTest {
+
+    private static final int INSERT = SqlServerCdcEnum.INSERT.code;
+
+    private SqlServerCdcChangeFetcher fetcher;
+    private BlockingQueue<Connection> connectionPool;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        SqlServerCdcConf conf = new SqlServerCdcConf();
+        conf.setAutoCommit(true);
+        connectionPool = new ArrayBlockingQueue<>(2);
+        executor = Executors.newFixedThreadPool(2);
+        fetcher = Whitebox.newInstance(SqlServerCdcChangeFetcher.class);
+        Whitebox.setInternalState(fetcher, "conf", conf);
+        Whitebox.setInternalState(fetcher, "connectionPool", connectionPool);
+        Whitebox.setInternalState(fetcher, "executor", executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFetchPrefetchesEveryCaptureInstance() throws Exception {
+        PreparedStatement statementA =
+                statement(resultSet(row(1, 1, INSERT, "a1"), row(4, 1, INSERT, "a4")));
+        PreparedStatement statementB = statement(resultSet(row(2, 1, INSERT, "b2")));
+        PreparedStatement statementC = statement(resultSet());
+        Connection conn1 = connection(statementA, statementB, statementC);
+        Connection conn2 = connection(statementA, statementB, statementC);
+        connectionPool.add(conn1);
+        connectionPool.add(conn2);
+
+        ChangeTable[] tables = {table("a"), table("b"), table("c")};
+        ChangeTablePointer[] pointers = fetcher.fetch(tables, lsn(1), lsn(9));
+
+        Assert.assertEquals(3, pointers.length);
+        Assert.assertSame(tables[0], pointers[0].getChangeTable());
+        Assert.assertEquals(lsn(1), pointers[0].getChangePosition().getCommitLsn());
+        Assert.assertEquals(lsn(2), pointers[1].getChangePosition().getCommitLsn());
+        Assert.assertTrue(pointers[2].isCompleted());
+        // 结果集已读入内存，连接全部归还
+        Assert.assertEquals(2, connectionPool.size());
+        verify(statementA).close();
+        verify(statementB).close();
+        verify(statementA).setBytes(1, lsn(1).getBinary());
+        verify(statementA).setBytes(2, lsn(9).getBinary());
+
+        Assert.assertTrue(pointers[0].next());
+        Assert.assertEquals(lsn(4), pointers[0].getChangePosition().getCommitLsn());
+        Assert.assertArrayEquals(new Object[] {"a4"}, pointers[0].getData());
+        Assert.assertFalse(pointers[0].next());
+    }
+
+    @Test
+    public void testFetchWithoutFromLsnStartsAtMinLsn() throws Exception {
+        PreparedStatement statement = statement(resultSet(row(3, 1, INSERT, "a3")));
+        connectionPool.add(connection(statement, statement, statement));
+
+        ChangeTablePointer[] pointers =
+                fetcher.fetch(new ChangeTable[] {table("a")}, Lsn.NULL, lsn(5));
+
+        Assert.assertEquals(lsn(3), pointers[0].getChangePosition().getCommitLsn());
+        // 绑定null后由ISNULL(?, sys.fn_cdc_get_min_lsn(...))从最小lsn开始查询
+        verify(statement).setBytes(1, null);
+    }
+
+    @Test
+    public void testFailedQueryClosesConnection() throws Exception {
+        Connection conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString())).thenThrow(new SQLException("boom"));
+        connectionPool.add(conn);
+
+        try {
+            fetcher.fetch(new ChangeTable[] {table("a")}, lsn(1), lsn(2));
+            Assert.fail("query failure should be rethrown");
+        } catch (SQLException e) {
+            Assert.assertEquals("boom", e.getMessage());
+        }
+        verify(conn).close();
+        Assert.assertEquals(1, connectionPool.size());
+    }
+
+    private static PreparedStatement statement(ResultSet rs) throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(rs);
+        return statement;
+    }
+
+    /** 按查询语句中的capture instance返回对应的statement */
+    private static Connection connection(
+            PreparedStatement statementA,
+            PreparedStatement statementB,
+            PreparedStatement statementC)
+            throws SQLException {
+        Connection conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString()))
+                .thenAnswer(
+                        invocation -> {
+                            String sql = invocation.getArgument(0);
+                            if (sql.contains("dbo_a")) {
+                                return statementA;
+                            } else if (sql.contains("dbo_b")) {
+                                return statementB;
+                            }
+                            return statementC;
+                        });
+        return conn;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.connector.sqlservercdc.listener;
+
+import com.dtstack.chunjun.connector.sqlservercdc.entity.ChangeTable;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.ChangeTablePointer;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.Lsn;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.SqlServerCdcEnum;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.SqlServerCdcEventRow;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.TableId;
+import com.dtstack.chunjun.connector.sqlservercdc.entity.TxLogPosition;
+import com.dtstack.chunjun.connector.sqlservercdc.inputFormat.SqlServerCdcInputFormat;
+import com.dtstack.chunjun.connector.sqlservercdc.util.SqlServerCdcUtil;
+import com.dtstack.chunjun.converter.AbstractCDCRowConverter;
+import com.dtstack.chunjun.util.SnowflakeIdWorker;
+
+import org.apache.flink.table.data.RowData;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SqlServerCdcListenerTest {
+
+    private static final int INSERT = SqlServerCdcEnum.INSERT.code;
+    private static final int DELETE = SqlServerCdcEnum.DELETE.code;
+    private static final int UPDATE_BEFORE = SqlServerCdcEnum.UPDATE_BEFORE.code;
+    private static final int UPDATE_AFTER = SqlServerCdcEnum.UPDATE_AFTER.code;
+
+    private SqlServerCdcListener listener;
+    private List<SqlServerCdcEventRow> events;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        events = new ArrayList<>();
+        AbstractCDCRowConverter<SqlServerCdcEventRow, String> rowConverter =
+                mock(AbstractCDCRowConverter.class);
+        when(rowConverter.toInternal(any()))
+                .thenAnswer(
+                        invocation -> {
+                            events.add(invocation.getArgument(0));
+                            return new LinkedList<RowData>();
+                        });
+        SqlServerCdcInputFormat format = mock(SqlServerCdcInputFormat.class);
+        when(format.getQueue()).thenReturn(new LinkedBlockingQueue<>());
+
+        listener = Whitebox.newInstance(SqlServerCdcListener.class);
+        Whitebox.setInternalState(listener, "format", format);
+        Whitebox.setInternalState(listener, "rowConverter", rowConverter);
+        Whitebox.setInternalState(listener, "idWorker", new SnowflakeIdWorker(1, 1));
+        Whitebox.setInternalState(
+                listener,
+                "cat",
+                new HashSet<>(Arrays.asList(INSERT, DELETE, UPDATE_BEFORE, UPDATE_AFTER)));
+        Whitebox.setInternalState(listener, "logPosition", TxLogPosition.valueOf(lsn(0), lsn(0)));
+    }
+
+    @Test
+    public void testMergeByCommitLsnAndSeqval() throws Exception {
+        ChangeTablePointer a =
+                pointer(
+                        table("a"),
+                        true,
+                        row(1, 1, INSERT, "a1"),
+                        row(3, 1, INSERT, "a3"),
+                        row(5, 1, DELETE, "a5"));
+        ChangeTablePointer b =
+                pointer(table("b"), false, row(1, 2, INSERT, "b1"), row(2, 1, DELETE, "b2"));
+        ChangeTablePointer c =
+                pointer(
+                        table("c"),
+                        true,
+                        row(3, 2, UPDATE_BEFORE, "c-old"),
+                        row(3, 2, UPDATE_AFTER, "c-new"),
+                        row(4, 1, INSERT, "c4"));
+        ChangeTablePointer empty = pointer(table("d"), true);
+
+        Whitebox.invokeMethod(
+                listener, "readData", (Object) new ChangeTablePointer[] {a, b, c, empty});
+
+        Assert.assertEquals(
+                Arrays.asList(
+                        "insert a a1",
+                        "insert b b1",
+                        "delete b b2",
+                        "insert a a3",
+                        "update c c-new",
+                        "insert c c4",
+                        "delete a a5"),
+                describe(events));
+        SqlServerCdcEventRow update = events.get(4);
+        Assert.assertArrayEquals(new Object[] {"c-old"}, update.getDataPrev());
+        Assert.assertArrayEquals(new Object[] {"c-new"}, update.getData());
+        Assert.assertEquals(lsn(3).toString(), update.getLsn());
+        Assert.assertArrayEquals(new Object[] {"b2"}, events.get(2).getDataPrev());
+        Assert.assertArrayEquals(new Object[1], events.get(2).getData());
+        Assert.assertTrue(a.isCompleted() && b.isCompleted() && c.isCompleted());
+    }
+
+    @Test
+    public void testSkipChangesBeforeLogPosition() throws Exception {
+        Whitebox.setInternalState(listener, "logPosition", TxLogPosition.valueOf(lsn(2), lsn(1)));
+        ChangeTablePointer a =
+                pointer(table("a"), true, row(1, 5, INSERT, "a1"), row(2, 1, INSERT, "a2"));
+        ChangeTablePointer b =
+                pointer(table("b"), true, row(2, 0, INSERT, "b2"), row(3, 1, INSERT, "b3"));
+
+        Whitebox.invokeMethod(listener, "readData", (Object) new ChangeTablePointer[] {a, b});
+
+        Assert.assertEquals(Arrays.asList("insert a a2", "insert b b3"), describe(events));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUpdateBeforeWithoutUpdateAfter() throws Exception {
+        ChangeTablePointer a =
+                pointer(
+                        table("a"),
+                        true,
+                        row(1, 1, UPDATE_BEFORE, "old"),
+                        row(1, 2, INSERT, "other"));
+
+        Whitebox.invokeMethod(listener, "readData", (Object) new ChangeTablePointer[] {a});
+    }
+
+    @Test
+    public void testColdStartWindowSkipsLaterCaptureInstances() throws Exception {
+        ChangeTable[] tables = {table("a"), table("b"), table("c")};
+        Whitebox.setInternalState(listener, "tablesSlot", tables);
+        Lsn[] minLsns = {lsn(7), lsn(3), Lsn.NULL};
+
+        Assert.assertEquals(lsn(3), Whitebox.invokeMethod(listener, "smallest", (Object) minLsns));
+        ChangeTable[] started = Whitebox.invokeMethod(listener, "startedBefore", minLsns, lsn(5));
+        Assert.assertArrayEquals(new ChangeTable[] {tables[1]}, started);
+        started = Whitebox.invokeMethod(listener, "startedBefore", minLsns, lsn(7));
+        Assert.assertArrayEquals(new ChangeTable[] {tables[0], tables[1]}, started);
+    }
+
+    private static List<String> describe(List<SqlServerCdcEventRow> events) {
+        List<String> result = new ArrayList<>();
+        for (SqlServerCdcEventRow event : events) {
+            Object value =
+                    "delete".equals(event.getType()) ? event.getDataPrev()[0] : event.getData()[0];
+            result.add(event.getType() + " " + event.getTable() + " " + value);
+        }
+        return result;
+    }
+
+    static Lsn lsn(int value) {
+        byte[] binary = new byte[10];
+        binary[8] = (byte) (value >> 8);
+        binary[9] = (byte) value;
+        return Lsn.valueOf(binary);
+    }
+
+    static ChangeTable table(String name) {
+        return new ChangeTable(
+                new TableId("db", "dbo", name),
+                "dbo_" + name,
+                1,
+                lsn(0),
+                Lsn.NULL,
+                Arrays.asList("id"));
+    }
+
+    static Object[] row(int commitLsn, int seqval, int operation, Object... data) {
+        Object[] row = new Object[3 + data.length];
+        row[0] = commitLsn;
+        row[1] = seqval;
+        row[2] = operation;
+        System.arraycopy(data, 0, row, 3, data.length);
+        return row;
+    }
+
+    /** 模拟fn_cdc_get_all_changes_*的结果集：__$start_lsn, __$seqval, __$operation, __$update_mask, 数据列 */
+    static ResultSet resultSet(Object[]... rows) throws Exception {
+        int[] cursor = {-1};
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenAnswer(invocation -> ++cursor[0] < rows.length);
+        when(rs.getBytes(anyInt()))
+                .thenAnswer(
+                        invocation ->
+                                lsn((int) rows[cursor[0]][(int) invocation.getArgument(0) - 1])
+                                        .getBinary());
+        when(rs.getInt(3)).thenAnswer(invocation -> rows[cursor[0]][2]);
+        when(rs.getObject(anyInt()))
+                .thenAnswer(invocation -> rows[cursor[0]][(int) invocation.getArgument(0) - 2]);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(5);
+        when(metaData.getColumnTypeName(anyInt())).thenReturn("varchar");
+        when(rs.getMetaData()).thenReturn(metaData);
+        return rs;
+    }
+
+    private static ChangeTablePointer pointer(ChangeTable table, boolean prefetch, Object[]... rows)
+            throws Exception {
+        ChangeTablePointer pointer =
+                new ChangeTablePointer(
+                        table,
+                        new SqlServerCdcUtil.StatementResult(
+                                mock(Statement.class), resultSet(rows)));
+        if (prefetch) {
+            pointer.prefetch();
+        }
+        pointer.next();
+        return pointer;
+    }
+}
@@ -20,7 +20,9 @@ package com.dtstack.chunjun.connector.starrocks.conf;
 import com.dtstack.chunjun.connector.jdbc.conf.JdbcConf;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author lihongwei
@@ -32,6 +34,18 @@ public class StarRocksConf extends JdbcConf {
     private String loadUrl;
     /** 主键模型表需要传入主键列表 */
     private List<String> primaryKey = new ArrayList<>();
+    /** stream load字段分隔符，默认\x01，避免与数据内容冲突 */
+    private String fieldDelimiter = "\u0001";
+    /** stream load行分隔符，默认\x02 */
+    private String lineDelimiter = "\u0002";
+    /** stream load label前缀 */
+    private String labelPrefix = "chunjun";
+    /** 连接FE失败时更换FE重试的次数 */
+    private int maxRetries = 3;
+    /** 重试间隔，单位毫秒 */
+    private long waitRetryMills = 1000L;
+    /** 其它stream load请求头，如 max_filter_ratio、timeout */
+    private Map<String, String> loadProperties = new HashMap<>();
 
     public String getLoadUrl() {
         return loadUrl;
@@ -49,8 +63,69 @@ public class StarRocksConf extends JdbcConf {
         this.primaryKey = primaryKey;
     }
 
+    public String getFieldDelimiter() {
+        return fieldDelimiter;
+    }
+
+    public void setFieldDelimiter(String fieldDelimiter) {
+        this.fieldDelimiter = fieldDelimiter;
+    }
+
+    public String getLineDelimiter() {
+        return lineDelimiter;
+    }
+
+    public void setLineDelimiter(String lineDelimiter) {
+        this.lineDelimiter = lineDelimiter;
+    }
+
+    public String getLabelPrefix() {
+        return labelPrefix;
+    }
+
+    public void setLabelPrefix(String labelPrefix) {
+        this.labelPrefix = labelPrefix;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getWaitRetryMills() {
+        return waitRetryMills;
+    }
+
+    public void setWaitRetryMills(long waitRetryMills) {
+        this.waitRetryMills = waitRetryMills;
+    }
+
+    public Map<String, String> getLoadProperties() {
+        return loadProperties;
+    }
+
+    public void setLoadProperties(Map<String, String> loadProperties) {
+        this.loadProperties = loadProperties;
+    }
+
     @Override
     public String toString() {
-        return "StarRocksConf{" + "loadUrl='" + loadUrl + '\'' + ", primaryKey=" + primaryKey + '}';
+        return "StarRocksConf{"
+                + "loadUrl='"
+                + loadUrl
+                + '\''
+                + ", primaryKey="
+                + primaryKey
+                + ", labelPrefix='"
+                + labelPrefix
+                + '\''
+                + ", maxRetries="
+                + maxRetries
+                + ", loadProperties="
+                + loadProperties
+                + '}';
     }
 }
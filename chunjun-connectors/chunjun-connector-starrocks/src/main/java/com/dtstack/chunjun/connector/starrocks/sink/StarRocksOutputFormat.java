@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.starrocks.sink;
+
+import com.dtstack.chunjun.conf.FieldConf;
+import com.dtstack.chunjun.connector.starrocks.conf.StarRocksConf;
+import com.dtstack.chunjun.connector.starrocks.streamload.StarRocksStreamLoad;
+import com.dtstack.chunjun.connector.starrocks.streamload.StreamLoadBuffer;
+import com.dtstack.chunjun.element.AbstractBaseColumn;
+import com.dtstack.chunjun.element.ColumnRowData;
+import com.dtstack.chunjun.sink.format.BaseRichOutputFormat;
+import com.dtstack.chunjun.throwable.WriteRecordException;
+import com.dtstack.chunjun.util.ExceptionUtil;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.types.RowKind;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 通过stream load写入starrocks。
+ *
+ * <p>一个批次的数据直接序列化到可复用的缓冲区中，以一次stream load导入，导入失败时整批数据记为脏数据，不会退化为逐条导入。
+ * 配置primaryKey时通过__op字段写入删除，UPDATE_BEFORE与DELETE均作为删除处理。
+ *
+ * @author tudou
+ */
+public class StarRocksOutputFormat extends BaseRichOutputFormat {
+
+    private static final String OP_COLUMN = "__op";
+    private static final String OP_UPSERT = "0";
+    private static final String OP_DELETE = "1";
+
+    private StarRocksConf starRocksConf;
+
+    private transient StarRocksStreamLoad streamLoad;
+    private transient StreamLoadBuffer buffer;
+    /** 缓冲区中的原始数据，导入失败时作为脏数据记录 */
+    private transient List<RowData> bufferedRows;
+
+    private transient List<String> columns;
+    /** 是否通过__op字段区分upsert和delete */
+    private transient boolean withOp;
+
+    private transient int columnSize;
+
+    public void setStarRocksConf(StarRocksConf starRocksConf) {
+        this.starRocksConf = starRocksConf;
+    }
+
+    public StarRocksConf getStarRocksConf() {
+        return starRocksConf;
+    }
+
+    @Override
+    protected void openInternal(int taskNumber, int numTasks) {
+        withOp = !starRocksConf.getPrimaryKey().isEmpty();
+        columns = new ArrayList<>();
+        for (FieldConf field : starRocksConf.getColumn()) {
+            columns.add(field.getName());
+        }
+        columnSize = columns.size();
+        if (withOp) {
+            columns.add(OP_COLUMN);
+        }
+        buffer =
+                new StreamLoadBuffer(
+                        starRocksConf.getFieldDelimiter(), starRocksConf.getLineDelimiter());
+        bufferedRows = new ArrayList<>();
+        streamLoad = new StarRocksStreamLoad(starRocksConf);
+        streamLoad.open(jobId, taskNumber);
+        LOG.info(
+                "task number : {} , number task : {}, columns : {}", taskNumber, numTasks, columns);
+    }
+
+    private List<String> toValues(RowData rowData) {
+        RowKind rowKind = rowData.getRowKind();
+        boolean delete = rowKind == RowKind.DELETE || rowKind == RowKind.UPDATE_BEFORE;
+        if (delete && !withOp) {
+            throw new IllegalArgumentException(
+                    "delete data can only be written to primary key table, please set primaryKey.");
+        }
+        ColumnRowData row = (ColumnRowData) rowData;
+        if (row.getArity() < columnSize) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "row arity %s is less than column size %s",
+                            row.getArity(), columnSize));
+        }
+        List<String> values = new ArrayList<>(columnSize + 1);
+        for (int i = 0; i < columnSize; i++) {
+            AbstractBaseColumn column = row.getField(i);
+            values.add(column == null || column.getData() == null ? null : column.asString());
+        }
+        if (withOp) {
+            values.add(delete ? OP_DELETE : OP_UPSERT);
+        }
+        return values;
+    }
+
+    @Override
+    protected void writeSingleRecordInternal(RowData rowData) throws WriteRecordException {
+        try {
+            buffer.writeRow(toValues(rowData));
+            load();
+        } catch (Exception e) {
+            throw new WriteRecordException("", e, 0, rowData);
+        } finally {
+            buffer.reset();
+        }
+    }
+
+    @Override
+    protected void writeMultipleRecordsInternal() throws Exception {
+        for (RowData row : rows) {
+            try {
+                buffer.writeRow(toValues(row));
+                bufferedRows.add(row);
+            } catch (Exception e) {
+                dirtyManager.collect(row, e, null);
+            }
+        }
+        if (buffer.isEmpty()) {
+            return;
+        }
+        try {
+            load();
+            numWriteCounter.add(bufferedRows.size());
+        } catch (Exception e) {
+            // 整批导入失败，记为脏数据，不再逐条重试
+            for (RowData rowData : bufferedRows) {
+                dirtyManager.collect(rowData, e, null);
+            }
+        } finally {
+            buffer.reset();
+            bufferedRows.clear();
+        }
+    }
+
+    /** 连接失败时更换FE重试，重试使用同一个label，不会重复导入 */
+    private void load() throws Exception {
+        String label = streamLoad.generateLabel();
+        for (int i = 0; ; i++) {
+            try {
+                streamLoad.load(label, columns, buffer);
+                return;
+            } catch (ConnectException e) {
+                if (i >= starRocksConf.getMaxRetries()) {
+                    throw e;
+                }
+                LOG.warn(
+                        "stream load {} failed, retry times = {}, e = {}",
+                        label,
+                        i + 1,
+                        ExceptionUtil.getErrorMessage(e));
+                Thread.sleep(starRocksConf.getWaitRetryMills());
+                streamLoad.replaceFrontend();
+            }
+        }
+    }
+
+    @Override
+    protected boolean isWriteCountedBySink() {
+        return true;
+    }
+
+    @Override
+    protected boolean fallbackToSingleWrite() {
+        return false;
+    }
+
+    @Override
+    protected void closeInternal() throws IOException {
+        if (streamLoad != null) {
+            streamLoad.close();
+        }
+    }
+}
@@ -19,9 +19,7 @@ package com.dtstack.chunjun.connector.starrocks.sink;
 
 import com.dtstack.chunjun.conf.FieldConf;
 import com.dtstack.chunjun.conf.SyncConf;
-import com.dtstack.chunjun.connector.jdbc.adapter.ConnectionAdapter;
-import com.dtstack.chunjun.connector.jdbc.conf.ConnectionConf;
-import com.dtstack.chunjun.connector.jdbc.exclusion.FieldNameExclusionStrategy;
+import com.dtstack.chunjun.connector.jdbc.conf.JdbcConf;
 import com.dtstack.chunjun.connector.jdbc.sink.JdbcOutputFormatBuilder;
 import com.dtstack.chunjun.connector.jdbc.sink.JdbcSinkFactory;
 import com.dtstack.chunjun.connector.jdbc.util.JdbcUtil;
@@ -30,7 +28,6 @@ import com.dtstack.chunjun.connector.starrocks.converter.StarRocksRawTypeConvert
 import com.dtstack.chunjun.connector.starrocks.dialect.StarRocksDialect;
 import com.dtstack.chunjun.converter.AbstractRowConverter;
 import com.dtstack.chunjun.converter.RawTypeConverter;
-import com.dtstack.chunjun.util.GsonUtil;
 import com.dtstack.chunjun.util.TableUtil;
 
 import org.apache.flink.api.common.io.OutputFormat;
@@ -43,8 +40,6 @@ import org.apache.flink.table.types.DataType;
 import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.util.Preconditions;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.starrocks.connector.flink.row.StarRocksTableRowTransformer;
 import com.starrocks.connector.flink.table.StarRocksDynamicSinkFunction;
 import com.starrocks.connector.flink.table.StarRocksSinkOptions;
@@ -65,17 +60,12 @@ public class StarrocksSinkFactory extends JdbcSinkFactory {
     public StarrocksSinkFactory(SyncConf syncConf) {
         super(syncConf, new StarRocksDialect());
         JdbcUtil.putExtParam(jdbcConf);
-        Gson gson =
-                new GsonBuilder()
-                        .registerTypeAdapter(
-                                ConnectionConf.class, new ConnectionAdapter("SinkConnectionConf"))
-                        .addDeserializationExclusionStrategy(
-                                new FieldNameExclusionStrategy("column"))
-                        .create();
-        GsonUtil.setTypeAdapter(gson);
-        starRocksConf =
-                gson.fromJson(
-                        gson.toJson(syncConf.getWriter().getParameter()), StarRocksConf.class);
+        starRocksConf = (StarRocksConf) jdbcConf;
+    }
+
+    @Override
+    protected Class<? extends JdbcConf> getConfClass() {
+        return StarRocksConf.class;
     }
 
     @Override
@@ -139,8 +129,16 @@ public class StarrocksSinkFactory extends JdbcSinkFactory {
                 .build();
     }
 
+    /** 同步任务通过stream load写入，使用transformer时仍使用flink-connector-starrocks */
     @Override
     public DataStreamSink<RowData> createSink(DataStream<RowData> dataSet) {
+        if (useAbstractBaseColumn) {
+            StarRocksOutputFormatBuilder builder = new StarRocksOutputFormatBuilder();
+            builder.setStarRocksConf(starRocksConf);
+            builder.setMonitorConfig(monitor);
+            return super.createOutput(
+                    dataSet, builder.finish(), this.getClass().getSimpleName().toLowerCase());
+        }
 
         JdbcOutputFormatBuilder builder = getBuilder();
 
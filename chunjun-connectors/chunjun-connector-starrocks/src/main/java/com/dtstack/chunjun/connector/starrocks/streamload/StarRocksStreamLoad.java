@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.starrocks.streamload;
+
+import com.dtstack.chunjun.connector.starrocks.conf.StarRocksConf;
+import com.dtstack.chunjun.util.GsonUtil;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultRedirectStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 通过FE的stream load接口导入数据，FE将请求重定向到BE。连接FE失败时轮换到下一个FE。
+ *
+ * @author tudou
+ */
+public class StarRocksStreamLoad {
+    private static final Logger LOG = LoggerFactory.getLogger(StarRocksStreamLoad.class);
+
+    private static final List<String> SUCCESS_STATUS = Arrays.asList("Success", "Publish Timeout");
+    private static final String LABEL_ALREADY_EXISTS = "Label Already Exists";
+    private static final String JOB_STATUS_FINISHED = "FINISHED";
+    private static final String LOAD_URL_PATTERN = "http://%s/api/%s/%s/_stream_load";
+    private static final int DEFAULT_CONNECT_TIMEOUT_MILLS = 10 * 1000;
+    private static final String HEX_PREFIX = "\\x";
+
+    private final StarRocksConf conf;
+    private final List<String> feHosts;
+    private final String authEncoding;
+    private final AtomicLong labelSequence = new AtomicLong();
+    private volatile int hostIndex;
+    private String labelPrefix;
+    private CloseableHttpClient httpClient;
+
+    public StarRocksStreamLoad(StarRocksConf conf) {
+        this.conf = conf;
+        this.feHosts =
+                Arrays.stream(StringUtils.split(conf.getLoadUrl(), ';'))
+                        .map(String::trim)
+                        .filter(StringUtils::isNotEmpty)
+                        .collect(Collectors.toList());
+        this.authEncoding =
+                Base64.getEncoder()
+                        .encodeToString(
+                                String.format("%s:%s", conf.getUsername(), conf.getPassword())
+                                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 创建http客户端，FE会返回307重定向到BE，需要允许PUT请求跟随重定向
+     *
+     * @param jobId flink job id
+     * @param taskNumber 子任务索引
+     */
+    public void open(String jobId, int taskNumber) {
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(2);
+        connectionManager.setDefaultMaxPerRoute(2);
+        int connectTimeout =
+                conf.getConnectTimeOut() > 0
+                        ? conf.getConnectTimeOut() * 1000
+                        : DEFAULT_CONNECT_TIMEOUT_MILLS;
+        this.httpClient =
+                HttpClients.custom()
+                        .setConnectionManager(connectionManager)
+                        .setDefaultRequestConfig(
+                                RequestConfig.custom().setConnectTimeout(connectTimeout).build())
+                        .setRedirectStrategy(
+                                new DefaultRedirectStrategy() {
+                                    @Override
+                                    protected boolean isRedirectable(String method) {
+                                        return true;
+                                    }
+                                })
+                        .build();
+        this.hostIndex = Math.floorMod(taskNumber, feHosts.size());
+        // label在整个库内唯一，加入随机串避免任务重启后与已导入的label冲突
+        this.labelPrefix =
+                String.format(
+                        "%s_%s_%s_%s",
+                        conf.getLabelPrefix(),
+                        StringUtils.isBlank(jobId) ? "job" : jobId,
+                        taskNumber,
+                        UUID.randomUUID().toString().replaceAll("-", ""));
+    }
+
+    public String generateLabel() {
+        return labelPrefix + "_" + labelSequence.incrementAndGet();
+    }
+
+    /** 更换FE，在连接失败后重试之前调用 */
+    public void replaceFrontend() {
+        hostIndex = (hostIndex + 1) % feHosts.size();
+        LOG.info("replace frontend node to {}", feHosts.get(hostIndex));
+    }
+
+    /**
+     * 导入缓冲区中的数据，label在重试时保持不变，由starrocks保证同一label只导入一次
+     *
+     * @param label 本批次的label
+     * @param columns 字段名
+     * @param buffer 数据
+     * @throws IOException 导入失败，连接失败时为{@link ConnectException}
+     */
+    public void load(String label, List<String> columns, StreamLoadBuffer buffer)
+            throws IOException {
+        String url =
+                String.format(
+                        LOAD_URL_PATTERN,
+                        feHosts.get(hostIndex),
+                        conf.getSchema(),
+                        conf.getTable());
+        HttpPut httpPut = new HttpPut(url);
+        httpPut.setHeader("Authorization", "Basic " + authEncoding);
+        httpPut.setHeader("Expect", "100-continue");
+        httpPut.setHeader("label", label);
+        httpPut.setHeader(
+                "columns",
+                columns.stream()
+                        .map(column -> "`" + column + "`")
+                        .collect(Collectors.joining(",")));
+        httpPut.setHeader("format", "csv");
+        httpPut.setHeader("column_separator", toHeaderValue(conf.getFieldDelimiter()));
+        httpPut.setHeader("row_delimiter", toHeaderValue(conf.getLineDelimiter()));
+        for (Map.Entry<String, String> entry : conf.getLoadProperties().entrySet()) {
+            httpPut.setHeader(entry.getKey(), entry.getValue());
+        }
+        httpPut.setEntity(buffer.toEntity());
+
+        int status;
+        String body;
+        try (CloseableHttpResponse response = httpClient.execute(httpPut)) {
+            status = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+            body = entity == null ? "" : EntityUtils.toString(entity, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            ConnectException exception =
+                    new ConnectException("failed to execute stream load request, url: " + url);
+            exception.initCause(e);
+            throw exception;
+        }
+        if (status != 200) {
+            throw new ConnectException(
+                    String.format("stream load error, status: %s, response: %s", status, body));
+        }
+        Map<String, Object> result = GsonUtil.GSON.fromJson(body, GsonUtil.gsonMapTypeToken);
+        String loadStatus = String.valueOf(result.get("Status"));
+        if (SUCCESS_STATUS.contains(loadStatus)) {
+            LOG.debug("stream load {} finished, response: {}", label, body);
+        } else if (LABEL_ALREADY_EXISTS.equals(loadStatus)
+                && JOB_STATUS_FINISHED.equals(result.get("ExistingJobStatus"))) {
+            // 上一次请求已经导入成功，只是没有收到响应
+            LOG.info("label {} has already been loaded, skip it.", label);
+        } else {
+            throw new IOException("stream load error: " + getDetailErrorLog(result, body));
+        }
+    }
+
+    /** 不可见字符不能直接放在请求头中，转为\x开头的十六进制 */
+    private static String toHeaderValue(String delimiter) {
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (Character.isISOControl(delimiter.charAt(i))) {
+                StringBuilder sb = new StringBuilder(HEX_PREFIX);
+                for (byte b : delimiter.getBytes(StandardCharsets.UTF_8)) {
+                    sb.append(String.format("%02x", b));
+                }
+                return sb.toString();
+            }
+        }
+        return delimiter;
+    }
+
+    private String getDetailErrorLog(Map<String, Object> result, String body) {
+        Object errorUrl = result.get("ErrorURL");
+        if (errorUrl == null || StringUtils.isBlank(errorUrl.toString())) {
+            return body;
+        }
+        try (CloseableHttpResponse response =
+                httpClient.execute(new HttpGet(errorUrl.toString()))) {
+            return body + ", detail: " + EntityUtils.toString(response.getEntity());
+        } catch (IOException e) {
+            LOG.warn("Get detail error message failed. Error Url: " + errorUrl);
+            return body;
+        }
+    }
+
+    public void close() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.connector.starrocks.streamload;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * stream load的请求体缓冲区，数据在写入时直接按CSV格式追加，导入时以chunked方式发送。导入结束后调用{@link #reset()}，底层数组在后续批次中复用。
+ *
+ * @author tudou
+ */
+public class StreamLoadBuffer {
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    /** 每次写入socket的数据块大小 */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final byte[] NULL_VALUE = "\\N".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] fieldDelimiter;
+    private final byte[] lineDelimiter;
+    private byte[] buf = new byte[INITIAL_CAPACITY];
+    private int count;
+    private int rows;
+
+    public StreamLoadBuffer(String fieldDelimiter, String lineDelimiter) {
+        this.fieldDelimiter = fieldDelimiter.getBytes(StandardCharsets.UTF_8);
+        this.lineDelimiter = lineDelimiter.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 追加一行数据，空值写为\N
+     *
+     * @param values 字段值
+     */
+    public void writeRow(List<String> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                write(fieldDelimiter);
+            }
+            String value = values.get(i);
+            write(value == null ? NULL_VALUE : value.getBytes(StandardCharsets.UTF_8));
+        }
+        write(lineDelimiter);
+        rows++;
+    }
+
+    private void write(byte[] b) {
+        int minCapacity = count + b.length;
+        if (minCapacity > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, minCapacity));
+        }
+        System.arraycopy(b, 0, buf, count, b.length);
+        count += b.length;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public boolean isEmpty() {
+        return rows == 0;
+    }
+
+    /** 清空数据，保留底层数组 */
+    public void reset() {
+        count = 0;
+        rows = 0;
+    }
+
+    /**
+     * 以当前缓冲区内容构建chunked请求体，请求体可重复发送，用于失败重试及跟随重定向
+     *
+     * @return http请求体
+     */
+    public HttpEntity toEntity() {
+        AbstractHttpEntity entity =
+                new AbstractHttpEntity() {
+                    @Override
+                    public boolean isRepeatable() {
+                        return true;
+                    }
+
+                    @Override
+                    public long getContentLength() {
+                        return -1;
+                    }
+
+                    @Override
+                    public InputStream getContent() {
+                        return new ByteArrayInputStream(buf, 0, count);
+                    }
+
+                    @Override
+                    public void writeTo(OutputStream out) throws IOException {
+                        for (int off = 0; off < count; off += CHUNK_SIZE) {
+                            out.write(buf, off, Math.min(CHUNK_SIZE, count - off));
+                        }
+                        out.flush();
+                    }
+
+                    @Override
+                    public boolean isStreaming() {
+                        return false;
+                    }
+                };
+        entity.setChunked(true);
+        return entity;
+    }
+}
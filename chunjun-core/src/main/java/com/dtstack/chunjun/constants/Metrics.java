@@ -60,6 +60,8 @@ public class Metrics {
 
     public static final String NUM_READS = "numRead";
 
+    public static final String NUM_FILTERED = "numFiltered";
+
     public static final String END_LOCATION = "endLocation";
 
     public static final String START_LOCATION = "startLocation";
@@ -86,6 +88,8 @@ public class Metrics {
 
     public static final String DIRTY_DATA_COLLECT_FAILED_COUNT = "collectFailedCount";
 
+    public static final String DIRTY_DATA_DROPPED_COUNT = "droppedCount";
+
     public static final List<String> METRIC_SINK_LIST =
             Arrays.asList(
                     NUM_ERRORS,
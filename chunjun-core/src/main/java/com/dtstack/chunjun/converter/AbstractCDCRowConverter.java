@@ -31,10 +31,12 @@ import java.io.Serializable;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoField;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -83,6 +85,8 @@ public abstract class AbstractCDCRowConverter<SourceT, T> implements Serializabl
     protected boolean split;
     protected List<String> fieldNameList;
     protected List<IDeserializationConverter> converters;
+    /** 解码前的过滤条件，为null时不过滤 */
+    protected CDCEventFilter eventFilter;
 
     /**
      * 将外部数据库类型转换为flink内部类型
@@ -93,6 +97,46 @@ public abstract class AbstractCDCRowConverter<SourceT, T> implements Serializabl
      */
     public abstract LinkedList<RowData> toInternal(SourceT input) throws Exception;
 
+    /**
+     * 数据源在解码消息体之前，根据消息头中的库、表及操作类型判断是否需要该条数据
+     *
+     * @param schema schema
+     * @param table 表名
+     * @param operation 操作类型
+     * @return 是否需要，不需要时跳过解码
+     */
+    public boolean accept(String schema, String table, String operation) {
+        return eventFilter == null || eventFilter.accept(schema, table, operation);
+    }
+
+    /**
+     * 列裁剪：根据输出字段计算解码时需要保留的列，未保留的列在解码时跳过，值为null
+     *
+     * @param columnNames 表的全部列名，按消息中的列顺序
+     * @return 与columnNames一一对应，返回null表示全部保留
+     */
+    public boolean[] getProjection(List<String> columnNames) {
+        if (fieldNameList == null || fieldNameList.isEmpty()) {
+            return null;
+        }
+        Set<String> fieldNames = new HashSet<>(fieldNameList);
+        boolean[] projection = new boolean[columnNames.size()];
+        boolean all = true;
+        for (int i = 0; i < projection.length; i++) {
+            projection[i] = fieldNames.contains(columnNames.get(i));
+            all &= projection[i];
+        }
+        return all ? null : projection;
+    }
+
+    public CDCEventFilter getEventFilter() {
+        return eventFilter;
+    }
+
+    public void setEventFilter(CDCEventFilter eventFilter) {
+        this.eventFilter = eventFilter;
+    }
+
     /**
      * 将外部数据库类型转换为flink内部类型
      *
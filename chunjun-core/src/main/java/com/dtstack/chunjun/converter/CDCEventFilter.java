@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.converter;
+
+import com.dtstack.chunjun.constants.ConstantValue;
+
+import org.apache.flink.api.common.accumulators.LongCounter;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * CDC数据在解码之前的过滤条件。数据源从消息头中取得库、表及操作类型后先调用{@link #accept(String, String, String)}，
+ * 不需要的数据直接跳过，不再解码消息体。
+ *
+ * <p>表配置在构造时预编译：不含正则字符的配置放入hash表精确匹配，其余编译为{@link Pattern}。{@code $}在Oracle、PostgreSQL中是合法的标识符字符，
+ * 不作为正则字符；包含正则字符的配置也先按原样精确匹配，匹配不上再按正则匹配。每张表的匹配结果按schema、table两级缓存， 因此每条数据的判断只有两次hash查找，不会遍历配置列表。
+ *
+ * <p>表配置中带schema的(schema.table)按schema和表名匹配，不带schema的按表名匹配任意schema；正则同时尝试匹配schema.table及表名。
+ *
+ * @author tudou
+ */
+public class CDCEventFilter implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final String REGEX_CHARS = "*?+[](){}|^\\";
+
+    /** 精确匹配的schema.table */
+    private final Set<String> qualifiedTables = new HashSet<>();
+    /** 精确匹配的表名，不限制schema */
+    private final Set<String> simpleTables = new HashSet<>();
+    /** 包含正则的表配置，匹配schema.table或表名 */
+    private final List<Pattern> tablePatterns = new ArrayList<>();
+    /** 需要的操作类型，大写，为空时不过滤 */
+    private final Set<String> operations = new HashSet<>();
+
+    private final boolean acceptAllTables;
+    /** schema -> table -> 是否需要 */
+    private transient Map<String, Map<String, Boolean>> tableCache;
+    /** 解码之前被过滤的数据条数 */
+    private transient LongCounter filteredCounter;
+
+    /**
+     * @param tables 表配置，为空或只包含空白配置时不按表过滤
+     * @param operations 操作类型，如insert、update、delete，为空时不按操作类型过滤
+     */
+    public CDCEventFilter(Collection<String> tables, Collection<String> operations) {
+        if (tables != null) {
+            for (String table : tables) {
+                if (StringUtils.isBlank(table)) {
+                    continue;
+                }
+                table = table.trim();
+                if (StringUtils.containsAny(table, REGEX_CHARS)) {
+                    tablePatterns.add(Pattern.compile(table));
+                }
+                if (table.contains(ConstantValue.POINT_SYMBOL)) {
+                    qualifiedTables.add(table);
+                } else {
+                    simpleTables.add(table);
+                }
+            }
+        }
+        this.acceptAllTables =
+                qualifiedTables.isEmpty() && simpleTables.isEmpty() && tablePatterns.isEmpty();
+        if (operations != null) {
+            for (String operation : operations) {
+                if (StringUtils.isNotBlank(operation)) {
+                    this.operations.add(operation.trim().toUpperCase(Locale.ENGLISH));
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据消息头判断是否需要该条数据，不需要时累加过滤计数
+     *
+     * @param schema schema
+     * @param table 表名
+     * @param operation 操作类型
+     * @return 是否需要
+     */
+    public boolean accept(String schema, String table, String operation) {
+        if (acceptOperation(operation) && acceptTable(schema, table)) {
+            return true;
+        }
+        if (filteredCounter != null) {
+            filteredCounter.add(1L);
+        }
+        return false;
+    }
+
+    public boolean acceptOperation(String operation) {
+        return operations.isEmpty()
+                || (operation != null
+                        && operations.contains(operation.toUpperCase(Locale.ENGLISH)));
+    }
+
+    public boolean acceptTable(String schema, String table) {
+        if (acceptAllTables) {
+            return true;
+        }
+        if (table == null) {
+            return false;
+        }
+        if (tableCache == null) {
+            tableCache = new ConcurrentHashMap<>(16);
+        }
+        String schemaKey = schema == null ? "" : schema;
+        Map<String, Boolean> cache =
+                tableCache.computeIfAbsent(schemaKey, k -> new ConcurrentHashMap<>(64));
+        Boolean accepted = cache.get(table);
+        if (accepted == null) {
+            accepted = match(schema, table);
+            cache.put(table, accepted);
+        }
+        return accepted;
+    }
+
+    private boolean match(String schema, String table) {
+        if (simpleTables.contains(table)) {
+            return true;
+        }
+        String qualifiedName = schema == null ? table : schema + ConstantValue.POINT_SYMBOL + table;
+        if (qualifiedTables.contains(qualifiedName)) {
+            return true;
+        }
+        for (Pattern pattern : tablePatterns) {
+            if (pattern.matcher(qualifiedName).matches() || pattern.matcher(table).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setFilteredCounter(LongCounter filteredCounter) {
+        this.filteredCounter = filteredCounter;
+    }
+
+    public long getFilteredCount() {
+        return filteredCounter == null ? 0L : filteredCounter.getLocalValue();
+    }
+}
@@ -54,6 +54,18 @@ public class DirtyConf implements Serializable {
     /** ChunJun dirty-plugins local plugins path {@link Options#getFlinkLibDir()} */
     private String localPluginPath;
 
+    /** The limit on the estimated bytes of dirty-data waiting to be consumed. */
+    private long maxQueueBytes = 64 * 1024 * 1024L;
+
+    /** What to do with new dirty-data when {@link #maxQueueBytes} is reached. */
+    private DirtyOverflowPolicy overflowPolicy = DirtyOverflowPolicy.BLOCK;
+
+    /** Keep one of every ${sampleRate} overflowing rows with {@link DirtyOverflowPolicy#SAMPLE}. */
+    private long sampleRate = 100L;
+
+    /** The max count of dirty-data handed to the consumer at a time. */
+    private int consumeBatchSize = 100;
+
     public long getMaxConsumed() {
         return maxConsumed;
     }
@@ -102,6 +114,38 @@ public class DirtyConf implements Serializable {
         this.localPluginPath = localPluginPath;
     }
 
+    public long getMaxQueueBytes() {
+        return maxQueueBytes;
+    }
+
+    public void setMaxQueueBytes(long maxQueueBytes) {
+        this.maxQueueBytes = maxQueueBytes;
+    }
+
+    public DirtyOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(DirtyOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public long getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(long sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getConsumeBatchSize() {
+        return consumeBatchSize;
+    }
+
+    public void setConsumeBatchSize(int consumeBatchSize) {
+        this.consumeBatchSize = consumeBatchSize;
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", DirtyConf.class.getSimpleName() + "[", "]")
@@ -111,6 +155,10 @@ public class DirtyConf implements Serializable {
                 .add("printRate=" + printRate)
                 .add("pluginProperties=" + pluginProperties)
                 .add("localPluginPath='" + localPluginPath + "'")
+                .add("maxQueueBytes=" + maxQueueBytes)
+                .add("overflowPolicy=" + overflowPolicy)
+                .add("sampleRate=" + sampleRate)
+                .add("consumeBatchSize=" + consumeBatchSize)
                 .toString();
     }
 }
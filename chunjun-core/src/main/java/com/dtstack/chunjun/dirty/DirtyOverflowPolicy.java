@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.dirty;
+
+import org.apache.commons.lang3.StringUtils;
+
+/** The behavior of dirty-consumer when the bytes of pending dirty-data exceed the queue limit. */
+public enum DirtyOverflowPolicy {
+
+    /** Block the caller until the consumer has drained enough pending dirty-data. */
+    BLOCK,
+
+    /** Keep one of every ${sampleRate} overflowing rows by evicting the oldest pending rows. */
+    SAMPLE,
+
+    /** Drop the overflowing rows and count them. */
+    DROP;
+
+    public static DirtyOverflowPolicy getByName(String name) {
+        if (StringUtils.isBlank(name)) {
+            return BLOCK;
+        }
+        for (DirtyOverflowPolicy policy : DirtyOverflowPolicy.values()) {
+            if (policy.name().equalsIgnoreCase(name.trim())) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("unsupported dirty-data overflow policy: " + name);
+    }
+}
@@ -19,6 +19,7 @@
 package com.dtstack.chunjun.dirty.consumer;
 
 import com.dtstack.chunjun.dirty.DirtyConf;
+import com.dtstack.chunjun.dirty.DirtyOverflowPolicy;
 import com.dtstack.chunjun.dirty.impl.DirtyDataEntry;
 import com.dtstack.chunjun.throwable.NoRestartException;
 
@@ -28,8 +29,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.dtstack.chunjun.dirty.utils.LogUtil.warn;
 
@@ -43,10 +49,16 @@ public abstract class DirtyDataCollector implements Runnable, Serializable {
 
     protected final LongCounter consumedCounter = new LongCounter(0L);
 
+    /** The count of dirty-data dropped because the queue is full. */
+    protected final LongCounter droppedCounter = new LongCounter(0L);
+
     private static final long serialVersionUID = 1L;
 
     private static final Logger LOG = LoggerFactory.getLogger(DirtyDataCollector.class);
 
+    /** The max time to wait for the queue once, so that a closed consumer never hangs callers. */
+    private static final long QUEUE_WAIT_MILLIS = 100L;
+
     /** private dirty data every ${printRate} */
     protected long printRate = Long.MAX_VALUE;
 
@@ -63,38 +75,172 @@ public abstract class DirtyDataCollector implements Runnable, Serializable {
      */
     protected long maxFailedConsumed = 1L;
 
+    /** The limit on the estimated bytes of the data not yet consumed. */
+    protected long maxQueueBytes = Long.MAX_VALUE;
+
+    protected DirtyOverflowPolicy overflowPolicy = DirtyOverflowPolicy.BLOCK;
+
+    protected long sampleRate = 1L;
+
+    /** The max count of data passed to {@link #consume(List)} at a time. */
+    protected int consumeBatchSize = 1;
+
     /** The flag of consumer thread. */
     protected AtomicBoolean isRunning = new AtomicBoolean(true);
 
-    /** The queue stored the data not yet consumed. */
-    protected LinkedBlockingQueue<DirtyDataEntry> consumeQueue = new LinkedBlockingQueue<>();
+    /** The queue stored the data not yet consumed, guarded by {@link #queueLock}. */
+    private final ArrayDeque<DirtyDataEntry> consumeQueue = new ArrayDeque<>();
+
+    private final ReentrantLock queueLock = new ReentrantLock();
+
+    private final Condition notEmpty = queueLock.newCondition();
+
+    private final Condition notFull = queueLock.newCondition();
+
+    /** The estimated bytes of the data in {@link #consumeQueue}. */
+    private long queueBytes;
+
+    /** The count of data overflowed the queue, used to sample with {@link #sampleRate}. */
+    private long overflowCount;
 
     /**
-     * Offer data into the blocking-queue.
+     * Offer data into the queue. If the queue is full, the data is handled by {@link
+     * #overflowPolicy}, and the dropped data is counted as consumed as well. The data is dropped
+     * directly once the consumer has stopped.
      *
      * @param dirty dirty data.
      */
-    public synchronized void offer(DirtyDataEntry dirty) {
-        consumeQueue.offer(dirty);
-        addConsumed(1L);
+    public void offer(DirtyDataEntry dirty) {
+        long bytes = dirty.estimateSize();
+        queueLock.lock();
+        try {
+            if (!isRunning.get() || (isFull(bytes) && !handleOverflow(bytes))) {
+                droppedCounter.add(1L);
+            } else {
+                consumeQueue.offer(dirty);
+                queueBytes += bytes;
+                notEmpty.signal();
+            }
+            addConsumed(1L);
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private boolean isFull(long bytes) {
+        return !consumeQueue.isEmpty() && queueBytes + bytes > maxQueueBytes;
+    }
+
+    /**
+     * Make room for the data with {@link #overflowPolicy}.
+     *
+     * @param bytes the estimated bytes of the data.
+     * @return true if the data should be put into the queue, false if it should be dropped.
+     */
+    private boolean handleOverflow(long bytes) {
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    while (isFull(bytes) && isRunning.get()) {
+                        notFull.await(QUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                return true;
+            case SAMPLE:
+                if (++overflowCount % sampleRate != 0) {
+                    return false;
+                }
+                while (isFull(bytes)) {
+                    queueBytes -= consumeQueue.poll().estimateSize();
+                    droppedCounter.add(1L);
+                }
+                return true;
+            case DROP:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Take at most {@link #consumeBatchSize} data from the queue, waiting for a while if the queue
+     * is empty.
+     *
+     * @param batch the list to put the data into.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    protected void drain(List<DirtyDataEntry> batch) throws InterruptedException {
+        queueLock.lock();
+        try {
+            if (consumeQueue.isEmpty()) {
+                notEmpty.await(QUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            DirtyDataEntry dirty;
+            while (batch.size() < consumeBatchSize && (dirty = consumeQueue.poll()) != null) {
+                queueBytes -= dirty.estimateSize();
+                batch.add(dirty);
+            }
+            if (!batch.isEmpty()) {
+                notFull.signalAll();
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Remove all the data not yet consumed from the queue, which is used to flush them on close.
+     *
+     * @return the data not yet consumed.
+     */
+    protected List<DirtyDataEntry> drainAll() {
+        queueLock.lock();
+        try {
+            List<DirtyDataEntry> remaining = new ArrayList<>(consumeQueue);
+            consumeQueue.clear();
+            queueBytes = 0L;
+            notFull.signalAll();
+            return remaining;
+        } finally {
+            queueLock.unlock();
+        }
     }
 
     public void initializeConsumer(DirtyConf conf) {
         this.maxConsumed = conf.getMaxConsumed();
         this.maxFailedConsumed = conf.getMaxFailedConsumed();
+        this.maxQueueBytes = conf.getMaxQueueBytes();
+        this.overflowPolicy = conf.getOverflowPolicy();
+        this.sampleRate = conf.getSampleRate();
+        this.consumeBatchSize = conf.getConsumeBatchSize();
 
         this.init(conf);
     }
 
     @Override
     public void run() {
-        while (isRunning.get()) {
-            try {
-                DirtyDataEntry dirty = consumeQueue.take();
-                consume(dirty);
-            } catch (Exception e) {
-                addFailedConsumed(e, 1L);
+        List<DirtyDataEntry> batch = new ArrayList<>(consumeBatchSize);
+        try {
+            while (isRunning.get()) {
+                try {
+                    drain(batch);
+                    if (!batch.isEmpty()) {
+                        consume(batch);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    addFailedConsumed(e, batch.size());
+                } finally {
+                    batch.clear();
+                }
             }
+        } finally {
+            // Callers blocked on the full queue must not wait for a dead consumer.
+            isRunning.set(false);
         }
     }
 
@@ -133,6 +279,10 @@ public abstract class DirtyDataCollector implements Runnable, Serializable {
         return failedConsumedCounter;
     }
 
+    public LongCounter getDropped() {
+        return droppedCounter;
+    }
+
     public void open() {}
 
     /**
@@ -150,6 +300,22 @@ public abstract class DirtyDataCollector implements Runnable, Serializable {
      */
     protected abstract void consume(DirtyDataEntry dirty) throws Exception;
 
+    /**
+     * Consume a batch of dirty data. Consumers which support batch writing should override it.
+     *
+     * @param dirties dirty-data which should be consumed.
+     * @throws Exception exception.
+     */
+    protected void consume(List<DirtyDataEntry> dirties) throws Exception {
+        for (DirtyDataEntry dirty : dirties) {
+            try {
+                consume(dirty);
+            } catch (Exception e) {
+                addFailedConsumed(e, 1L);
+            }
+        }
+    }
+
     /** Close and release resource, and flush the data which is not been consumed in the queue; */
     public abstract void close();
 }
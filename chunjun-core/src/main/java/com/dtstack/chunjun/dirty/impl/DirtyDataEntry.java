@@ -18,6 +18,10 @@
 
 package com.dtstack.chunjun.dirty.impl;
 
+import com.dtstack.chunjun.util.ExceptionUtil;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.StringJoiner;
@@ -30,6 +34,9 @@ public class DirtyDataEntry implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** Estimated bytes of the job info, the error message and the object headers of an entry. */
+    private static final long ENTRY_OVERHEAD_BYTES = 1024L;
+
     private String jobId;
 
     private String jobName;
@@ -44,6 +51,12 @@ public class DirtyDataEntry implements Serializable {
 
     private Timestamp createTime;
 
+    /** The cause which is rendered into {@link #errorMessage} on the consumer thread. */
+    private transient Throwable cause;
+
+    /** The cached result of {@link #estimateSize()}, 0 means not estimated yet. */
+    private transient long estimatedSize;
+
     public String getJobId() {
         return jobId;
     }
@@ -77,9 +90,24 @@ public class DirtyDataEntry implements Serializable {
     }
 
     public String getErrorMessage() {
+        if (errorMessage == null && cause != null) {
+            errorMessage = ExceptionUtil.getErrorMessage(cause);
+            cause = null;
+        }
         return errorMessage;
     }
 
+    /**
+     * Set the cause of dirty-data, which is rendered on the first call of {@link
+     * #getErrorMessage()}.
+     *
+     * @param cause the cause of dirty-data.
+     */
+    public void setCause(Throwable cause) {
+        this.cause = cause;
+        this.errorMessage = null;
+    }
+
     public void setErrorMessage(String errorMessage) {
         this.errorMessage = errorMessage;
     }
@@ -100,6 +128,27 @@ public class DirtyDataEntry implements Serializable {
         this.createTime = createTime;
     }
 
+    /**
+     * Estimate the heap bytes of this entry without rendering the cause. The result is computed
+     * once, so that it keeps the same after the cause is rendered.
+     *
+     * @return estimated bytes.
+     */
+    public long estimateSize() {
+        if (estimatedSize > 0) {
+            return estimatedSize;
+        }
+        long size = ENTRY_OVERHEAD_BYTES;
+        if (dirtyContent != null) {
+            size += 2L * dirtyContent.length();
+        }
+        if (errorMessage != null) {
+            size += 2L * errorMessage.length();
+        }
+        estimatedSize = size;
+        return size;
+    }
+
     /**
      * Transform dirty data to String arrays.
      *
@@ -110,21 +159,26 @@ public class DirtyDataEntry implements Serializable {
             jobId,
             jobName,
             operatorName,
-            dirtyContent,
-            errorMessage,
+            getDirtyContent(),
+            getErrorMessage(),
             fieldName,
             String.valueOf(createTime)
         };
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getErrorMessage();
+        out.defaultWriteObject();
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", DirtyDataEntry.class.getSimpleName() + "[", "]")
                 .add("jobId='" + jobId + "'")
                 .add("jobName='" + jobName + "'")
                 .add("operatorName='" + operatorName + "'")
-                .add("dirtyContent='" + dirtyContent + "'")
-                .add("errorMessage='" + errorMessage + "'")
+                .add("dirtyContent='" + getDirtyContent() + "'")
+                .add("errorMessage='" + getErrorMessage() + "'")
                 .add("fieldName='" + fieldName + "'")
                 .add("createTime=" + createTime)
                 .toString();
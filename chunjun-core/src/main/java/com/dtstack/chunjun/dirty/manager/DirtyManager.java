@@ -24,7 +24,6 @@ import com.dtstack.chunjun.dirty.consumer.DirtyDataCollector;
 import com.dtstack.chunjun.dirty.impl.DirtyDataEntry;
 import com.dtstack.chunjun.factory.ChunJunThreadFactory;
 import com.dtstack.chunjun.util.DataSyncFactoryUtil;
-import com.dtstack.chunjun.util.ExceptionUtil;
 
 import org.apache.flink.api.common.accumulators.LongCounter;
 import org.apache.flink.api.common.functions.RuntimeContext;
@@ -122,6 +121,14 @@ public class DirtyManager implements Serializable {
         return consumer.getFailedConsumed();
     }
 
+    /**
+     * Collect dirty-data. The data is serialized on the caller thread, only the error message of
+     * the cause is rendered later by the dirty-consumer thread.
+     *
+     * @param data dirty-data.
+     * @param cause the cause of dirty-data.
+     * @param field the field which makes the data dirty.
+     */
     public void collect(Object data, Throwable cause, String field) {
         if (executor == null) {
             execute();
@@ -133,14 +140,19 @@ public class DirtyManager implements Serializable {
         entity.setJobName(jobName);
         entity.setOperatorName(operationName);
         entity.setCreateTime(new Timestamp(System.currentTimeMillis()));
+        // The data may be reused by the caller, so serialize it before returning.
         entity.setDirtyContent(toString(data));
         entity.setFieldName(field);
-        entity.setErrorMessage(ExceptionUtil.getErrorMessage(cause));
+        entity.setCause(cause);
 
         consumer.offer(entity);
         errorCounter.add(1L);
     }
 
+    public LongCounter getDroppedMetric() {
+        return consumer.getDropped();
+    }
+
     public String toString(Object data) {
         try {
             return OBJECT_MAPPER.writeValueAsString(data);
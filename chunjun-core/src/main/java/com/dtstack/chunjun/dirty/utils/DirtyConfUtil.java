@@ -19,6 +19,7 @@
 package com.dtstack.chunjun.dirty.utils;
 
 import com.dtstack.chunjun.dirty.DirtyConf;
+import com.dtstack.chunjun.dirty.DirtyOverflowPolicy;
 import com.dtstack.chunjun.options.Options;
 import com.dtstack.chunjun.throwable.NoRestartException;
 import com.dtstack.chunjun.util.PropertiesUtil;
@@ -52,6 +53,15 @@ public class DirtyConfUtil {
 
     public static final String DIRTY_DIR = "chunjun.dirty-data.dir";
 
+    public static final String QUEUE_MAX_BYTES_KEY = "chunjun.dirty-data.queue.max-bytes";
+
+    public static final String QUEUE_OVERFLOW_POLICY_KEY =
+            "chunjun.dirty-data.queue.overflow-policy";
+
+    public static final String QUEUE_SAMPLE_RATE_KEY = "chunjun.dirty-data.queue.sample-rate";
+
+    public static final String CONSUME_BATCH_SIZE_KEY = "chunjun.dirty-data.consume.batch-size";
+
     public static final String DIRTY_DIR_SUFFIX = "dirty-data-collector";
 
     public static DirtyConf parseFromMap(Map<String, String> confMap) {
@@ -67,6 +77,26 @@ public class DirtyConfUtil {
                 Long.parseLong(String.valueOf(confMap.getOrDefault(MAX_FAILED_ROWS_KEY, "0")));
         long printRate = Long.parseLong(String.valueOf(confMap.getOrDefault(PRINT_INTERVAL, "1")));
         String pluginDir = MapUtils.getString(confMap, DIRTY_DIR);
+        long maxQueueBytes =
+                Long.parseLong(
+                        String.valueOf(
+                                confMap.getOrDefault(
+                                        QUEUE_MAX_BYTES_KEY,
+                                        String.valueOf(dirtyConf.getMaxQueueBytes()))));
+        DirtyOverflowPolicy overflowPolicy =
+                DirtyOverflowPolicy.getByName(confMap.get(QUEUE_OVERFLOW_POLICY_KEY));
+        long sampleRate =
+                Long.parseLong(
+                        String.valueOf(
+                                confMap.getOrDefault(
+                                        QUEUE_SAMPLE_RATE_KEY,
+                                        String.valueOf(dirtyConf.getSampleRate()))));
+        int consumeBatchSize =
+                Integer.parseInt(
+                        String.valueOf(
+                                confMap.getOrDefault(
+                                        CONSUME_BATCH_SIZE_KEY,
+                                        String.valueOf(dirtyConf.getConsumeBatchSize()))));
 
         confMap.entrySet().stream()
                 .filter(
@@ -89,6 +119,10 @@ public class DirtyConfUtil {
         dirtyConf.setPrintRate(printRate <= 0 ? Long.MAX_VALUE : printRate);
         dirtyConf.setPluginProperties(pluginProperties);
         dirtyConf.setLocalPluginPath(pluginDir);
+        dirtyConf.setMaxQueueBytes(maxQueueBytes <= 0 ? Long.MAX_VALUE : maxQueueBytes);
+        dirtyConf.setOverflowPolicy(overflowPolicy);
+        dirtyConf.setSampleRate(sampleRate <= 0 ? 1L : sampleRate);
+        dirtyConf.setConsumeBatchSize(Math.max(1, consumeBatchSize));
 
         return dirtyConf;
     }
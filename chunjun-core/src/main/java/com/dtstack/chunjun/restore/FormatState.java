@@ -107,7 +107,7 @@ public class FormatState implements Serializable {
     }
 
     public long getMetricValue(String key) {
-        if (metric != null) {
+        if (metric != null && metric.get(key) != null) {
             return metric.get(key).getLocalValue();
         }
         return 0;
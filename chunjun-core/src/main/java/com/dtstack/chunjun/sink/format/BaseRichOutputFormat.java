@@ -387,6 +387,8 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData>
         outputMetric.addDirtyMetric(
                 Metrics.DIRTY_DATA_COLLECT_FAILED_COUNT,
                 this.dirtyManager.getFailedConsumedMetric());
+        outputMetric.addDirtyMetric(
+                Metrics.DIRTY_DATA_DROPPED_COUNT, this.dirtyManager.getDroppedMetric());
     }
 
     /** 初始化累加器收集器 */
@@ -476,13 +478,28 @@ public abstract class BaseRichOutputFormat extends RichOutputFormat<RowData>
         }
     }
 
+    /** 写入条数与脏数据是否由writeMultipleRecordsInternal自行统计，为true时批量写成功后不再累加本批次的条数 */
+    protected boolean isWriteCountedBySink() {
+        return false;
+    }
+
+    /** 批量写异常时是否转为单条写，为false时直接抛出异常 */
+    protected boolean fallbackToSingleWrite() {
+        return true;
+    }
+
     /** 数据批量写出 */
     protected synchronized void writeRecordInternal() {
         if (flushEnable.get()) {
             try {
                 writeMultipleRecordsInternal();
-                numWriteCounter.add(rows.size());
+                if (!isWriteCountedBySink()) {
+                    numWriteCounter.add(rows.size());
+                }
             } catch (Exception e) {
+                if (!fallbackToSingleWrite()) {
+                    throw new ChunJunRuntimeException("write multiple records failed.", e);
+                }
                 // 批量写异常转为单条写
                 rows.forEach(item -> writeSingleRecord(item, numWriteCounter));
             } finally {
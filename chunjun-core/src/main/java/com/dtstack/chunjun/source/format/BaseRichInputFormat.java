@@ -21,6 +21,7 @@ package com.dtstack.chunjun.source.format;
 import com.dtstack.chunjun.conf.ChunJunCommonConf;
 import com.dtstack.chunjun.constants.Metrics;
 import com.dtstack.chunjun.converter.AbstractRowConverter;
+import com.dtstack.chunjun.converter.CDCEventFilter;
 import com.dtstack.chunjun.dirty.DirtyConf;
 import com.dtstack.chunjun.dirty.manager.DirtyManager;
 import com.dtstack.chunjun.dirty.utils.DirtyConfUtil;
@@ -312,6 +313,8 @@ public abstract class BaseRichInputFormat extends RichInputFormat<RowData, Input
         inputMetric.addDirtyMetric(
                 Metrics.DIRTY_DATA_COLLECT_FAILED_COUNT,
                 this.dirtyManager.getFailedConsumedMetric());
+        inputMetric.addDirtyMetric(
+                Metrics.DIRTY_DATA_DROPPED_COUNT, this.dirtyManager.getDroppedMetric());
     }
 
     /** 从checkpoint状态缓存map中恢复上次任务的指标信息 */
@@ -325,6 +328,23 @@ public abstract class BaseRichInputFormat extends RichInputFormat<RowData, Input
         }
     }
 
+    /**
+     * 注册CDC数据在解码前被过滤的条数指标，指标随checkpoint保存，任务恢复后继续累加
+     *
+     * @param eventFilter 解码前的过滤条件
+     */
+    protected void initEventFilterMetric(CDCEventFilter eventFilter) {
+        if (inputMetric == null) {
+            return;
+        }
+        LongCounter numFilteredCounter = getRuntimeContext().getLongCounter(Metrics.NUM_FILTERED);
+        inputMetric.addMetric(Metrics.NUM_FILTERED, numFilteredCounter, true);
+        if (formatState != null) {
+            numFilteredCounter.add(formatState.getMetricValue(Metrics.NUM_FILTERED));
+        }
+        eventFilter.setFilteredCounter(numFilteredCounter);
+    }
+
     /**
      * 更新checkpoint状态缓存map
      *
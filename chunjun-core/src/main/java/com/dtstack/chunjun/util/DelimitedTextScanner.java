@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.util;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 直接在编码后的字节上切分分隔符文本的一行数据。
+ *
+ * <p>只记录最大投影下标及之前各字段的边界，字段只在被读取时才解码为String，列很多而读取列很少时可以省去大部分解码开销。引号及转义符是可选的， 不设置时结果与{@link
+ * org.apache.commons.lang3.StringUtils#splitPreserveAllTokens}(任一分隔字符)或{@link
+ * org.apache.commons.lang3.StringUtils#splitByWholeSeparatorPreserveAllTokens}(整体分隔符)一致。
+ *
+ * <p>分隔符、引号及转义符在字符集中的编码必须与ASCII相同且为单字节，见{@link #isSupported(String, Charset)}。非线程安全。
+ */
+public class DelimitedTextScanner {
+
+    private static final int NONE = -1;
+
+    private final Charset charset;
+    /** 任一分隔字节，使用整体分隔符时为null */
+    private final boolean[] separatorSet;
+    /** 整体分隔符的字节，使用任一分隔字节时为null */
+    private final byte[] separator;
+
+    private int quote = NONE;
+    private int escape = NONE;
+    /** 该下标之后的字段不再扫描及记录 */
+    private int maxIndex = Integer.MAX_VALUE - 1;
+
+    private byte[] bytes;
+    private int fieldCount;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    /** 字段是否包含需要去除的引号或转义符 */
+    private boolean[] quoted = new boolean[16];
+
+    private byte[] unescapeBuffer = new byte[64];
+
+    private DelimitedTextScanner(Charset charset, boolean[] separatorSet, byte[] separator) {
+        this.charset = charset;
+        this.separatorSet = separatorSet;
+        this.separator = separator;
+    }
+
+    /**
+     * {@code separatorChars}中的每个字符都是分隔符，与{@code StringUtils.splitPreserveAllTokens(line,
+     * separatorChars)}一致
+     */
+    public static DelimitedTextScanner ofSeparatorChars(String separatorChars, Charset charset) {
+        checkSupported(separatorChars, charset);
+        boolean[] separatorSet = new boolean[128];
+        for (int i = 0; i < separatorChars.length(); i++) {
+            separatorSet[separatorChars.charAt(i)] = true;
+        }
+        return new DelimitedTextScanner(charset, separatorSet, null);
+    }
+
+    /**
+     * {@code separator}整体作为分隔符，与{@code StringUtils.splitByWholeSeparatorPreserveAllTokens(line,
+     * separator)}一致
+     */
+    public static DelimitedTextScanner ofWholeSeparator(String separator, Charset charset) {
+        checkSupported(separator, charset);
+        return new DelimitedTextScanner(
+                charset, null, separator.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 字符能否在该字符集编码后的字节上匹配：必须是ASCII字符且编码后的字节与ASCII相同。UTF-8以外的多字节字符集还要求字节小于0x40， 避免与多字节字符的尾字节冲突
+     *
+     * @param chars 分隔符、引号或转义符
+     * @param charset 文本的字符集
+     * @return 是否可以在字节上切分
+     */
+    public static boolean isSupported(String chars, Charset charset) {
+        if (chars == null || chars.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < chars.length(); i++) {
+            if (chars.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        if (!Arrays.equals(chars.getBytes(charset), chars.getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        if (StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset)) {
+            return true;
+        }
+        for (int i = 0; i < chars.length(); i++) {
+            if (chars.charAt(i) >= 0x40) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkSupported(String chars, Charset charset) {
+        if (!isSupported(chars, charset)) {
+            throw new IllegalArgumentException(
+                    "chars [" + chars + "] can not be scanned on bytes of charset " + charset);
+        }
+    }
+
+    /** 一对引号之间的文本不切分，连续两个引号表示一个引号字符 */
+    public DelimitedTextScanner withQuote(char quoteChar) {
+        checkSupported(String.valueOf(quoteChar), charset);
+        this.quote = quoteChar;
+        return this;
+    }
+
+    /** 转义符之后的字节按字面值处理 */
+    public DelimitedTextScanner withEscape(char escapeChar) {
+        checkSupported(String.valueOf(escapeChar), charset);
+        this.escape = escapeChar;
+        return this;
+    }
+
+    /** 找到下标为{@code maxIndex}的字段后停止扫描 */
+    public DelimitedTextScanner withMaxIndex(int maxIndex) {
+        this.maxIndex = maxIndex;
+        return this;
+    }
+
+    /** 扫描一行数据，返回字段个数，设置了最大下标时不超过{@code maxIndex + 1}，空行没有字段 */
+    public int scan(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.fieldCount = 0;
+        if (length == 0) {
+            return 0;
+        }
+        int end = offset + length;
+        int pos = offset;
+        while (true) {
+            int fieldStart = pos;
+            boolean special = false;
+            if (quote != NONE && pos < end && bytes[pos] == quote) {
+                special = true;
+                pos++;
+                while (pos < end) {
+                    byte b = bytes[pos];
+                    if (isEscape(b)) {
+                        pos += 2;
+                    } else if (b == quote) {
+                        if (pos + 1 < end && bytes[pos + 1] == quote) {
+                            pos += 2;
+                        } else {
+                            pos++;
+                            break;
+                        }
+                    } else {
+                        pos++;
+                    }
+                }
+            }
+            int separatorLength = 0;
+            while (pos < end) {
+                if (isEscape(bytes[pos])) {
+                    special = true;
+                    pos += 2;
+                    continue;
+                }
+                separatorLength = matchSeparator(pos, end);
+                if (separatorLength > 0) {
+                    break;
+                }
+                pos++;
+            }
+            if (pos > end) {
+                pos = end;
+            }
+            addField(fieldStart, pos, special);
+            if (separatorLength == 0 || fieldCount > maxIndex) {
+                return fieldCount;
+            }
+            pos += separatorLength;
+        }
+    }
+
+    private boolean isEscape(byte b) {
+        return escape != NONE && b == escape;
+    }
+
+    private int matchSeparator(int pos, int end) {
+        byte b = bytes[pos];
+        if (separatorSet != null) {
+            return b >= 0 && separatorSet[b] ? 1 : 0;
+        }
+        if (b != separator[0] || pos + separator.length > end) {
+            return 0;
+        }
+        for (int i = 1; i < separator.length; i++) {
+            if (bytes[pos + i] != separator[i]) {
+                return 0;
+            }
+        }
+        return separator.length;
+    }
+
+    private void addField(int start, int end, boolean special) {
+        if (fieldCount == starts.length) {
+            int capacity = fieldCount << 1;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            quoted = Arrays.copyOf(quoted, capacity);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        quoted[fieldCount] = special;
+        fieldCount++;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * 解码最近一次扫描的数据中下标为{@code index}的字段，去除引号及转义符
+     *
+     * @param index 字段下标，必须小于{@link #getFieldCount()}
+     * @return 字段值
+     */
+    public String getString(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException(
+                    "field index " + index + " out of field count " + fieldCount);
+        }
+        int start = starts[index];
+        int end = ends[index];
+        if (!quoted[index]) {
+            return new String(bytes, start, end - start, charset);
+        }
+        if (unescapeBuffer.length < end - start) {
+            unescapeBuffer = new byte[Math.max(end - start, unescapeBuffer.length << 1)];
+        }
+        int length = 0;
+        int pos = start;
+        if (quote != NONE && bytes[pos] == quote) {
+            pos++;
+            while (pos < end) {
+                byte b = bytes[pos];
+                if (isEscape(b) && pos + 1 < end) {
+                    unescapeBuffer[length++] = bytes[pos + 1];
+                    pos += 2;
+                } else if (b == quote) {
+                    pos++;
+                    if (pos < end && bytes[pos] == quote) {
+                        unescapeBuffer[length++] = b;
+                        pos++;
+                    } else {
+                        break;
+                    }
+                } else {
+                    unescapeBuffer[length++] = b;
+                    pos++;
+                }
+            }
+        }
+        while (pos < end) {
+            byte b = bytes[pos];
+            if (isEscape(b) && pos + 1 < end) {
+                unescapeBuffer[length++] = bytes[pos + 1];
+                pos += 2;
+            } else {
+                unescapeBuffer[length++] = b;
+                pos++;
+            }
+        }
+        return new String(unescapeBuffer, 0, length, charset);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.converter;
+
+import org.apache.flink.api.common.accumulators.LongCounter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CDCEventFilterTest {
+
+    @Test
+    public void testAcceptTable() {
+        CDCEventFilter filter =
+                new CDCEventFilter(Arrays.asList("orders", "inventory.item", "log_.*"), null);
+        Assert.assertTrue(filter.acceptTable("public", "orders"));
+        Assert.assertTrue(filter.acceptTable("sales", "orders"));
+        Assert.assertTrue(filter.acceptTable("inventory", "item"));
+        Assert.assertFalse(filter.acceptTable("public", "item"));
+        Assert.assertTrue(filter.acceptTable("public", "log_2021"));
+        Assert.assertFalse(filter.acceptTable("public", "users"));
+        // 第二次走缓存
+        Assert.assertFalse(filter.acceptTable("public", "users"));
+    }
+
+    @Test
+    public void testDollarInTableName() {
+        CDCEventFilter filter =
+                new CDCEventFilter(Arrays.asList("SYS$LOG", "APP.T$ORDER", "^A(1)"), null);
+        Assert.assertTrue(filter.acceptTable("APP", "SYS$LOG"));
+        Assert.assertTrue(filter.acceptTable("APP", "T$ORDER"));
+        Assert.assertFalse(filter.acceptTable("APP", "T"));
+        // 包含正则字符的配置先按原样匹配
+        Assert.assertTrue(filter.acceptTable("APP", "^A(1)"));
+        Assert.assertTrue(filter.acceptTable("APP", "A1"));
+    }
+
+    @Test
+    public void testBlankTables() {
+        CDCEventFilter filter = new CDCEventFilter(Arrays.asList("", "  "), null);
+        Assert.assertTrue(filter.acceptTable("public", "orders"));
+        Assert.assertTrue(filter.acceptTable(null, "users"));
+    }
+
+    @Test
+    public void testAcceptOperation() {
+        CDCEventFilter filter = new CDCEventFilter(null, Arrays.asList("insert", " Update"));
+        Assert.assertTrue(filter.acceptTable("any", "table"));
+        Assert.assertTrue(filter.acceptOperation("INSERT"));
+        Assert.assertTrue(filter.acceptOperation("update"));
+        Assert.assertFalse(filter.acceptOperation("DELETE"));
+    }
+
+    @Test
+    public void testFilteredCounter() {
+        CDCEventFilter filter =
+                new CDCEventFilter(
+                        Collections.singletonList("public.orders"),
+                        Collections.singletonList("delete"));
+        LongCounter counter = new LongCounter();
+        filter.setFilteredCounter(counter);
+        Assert.assertTrue(filter.accept("public", "orders", "DELETE"));
+        Assert.assertFalse(filter.accept("public", "orders", "INSERT"));
+        Assert.assertFalse(filter.accept("public", "users", "DELETE"));
+        Assert.assertEquals(2L, filter.getFilteredCount());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.dirty;
+
+import com.dtstack.chunjun.dirty.consumer.DirtyDataCollector;
+import com.dtstack.chunjun.dirty.impl.DirtyDataEntry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DirtyDataCollectorTest {
+
+    @Test
+    public void testDropOnOverflow() throws Exception {
+        TestCollector collector = newCollector(DirtyOverflowPolicy.DROP, 1L, 2);
+        for (int i = 0; i < 5; i++) {
+            collector.offer(newEntry("row-" + i));
+        }
+        Assert.assertEquals(5L, collector.getConsumed().getLocalValue().longValue());
+        Assert.assertEquals(3L, collector.getDropped().getLocalValue().longValue());
+
+        List<DirtyDataEntry> batch = new ArrayList<>();
+        collector.drainBatch(batch);
+        Assert.assertEquals(2, batch.size());
+        Assert.assertEquals("\"row-0\"", batch.get(0).getDirtyContent());
+        Assert.assertEquals("\"row-1\"", batch.get(1).getDirtyContent());
+    }
+
+    @Test
+    public void testSampleOnOverflow() throws Exception {
+        TestCollector collector = newCollector(DirtyOverflowPolicy.SAMPLE, 2L, 2);
+        for (int i = 0; i < 4; i++) {
+            collector.offer(newEntry("row-" + i));
+        }
+        // row-2 is dropped, row-3 is sampled and evicts row-0.
+        Assert.assertEquals(2L, collector.getDropped().getLocalValue().longValue());
+
+        List<DirtyDataEntry> batch = new ArrayList<>();
+        collector.drainBatch(batch);
+        Assert.assertEquals(2, batch.size());
+        Assert.assertEquals("\"row-1\"", batch.get(0).getDirtyContent());
+        Assert.assertEquals("\"row-3\"", batch.get(1).getDirtyContent());
+    }
+
+    @Test
+    public void testBlockOnOverflow() throws Exception {
+        TestCollector collector = newCollector(DirtyOverflowPolicy.BLOCK, 1L, 2);
+        collector.offer(newEntry("row-0"));
+        collector.offer(newEntry("row-1"));
+
+        Thread producer = new Thread(() -> collector.offer(newEntry("row-2")));
+        producer.start();
+        producer.join(300L);
+        Assert.assertTrue(producer.isAlive());
+
+        List<DirtyDataEntry> batch = new ArrayList<>();
+        collector.drainBatch(batch);
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        Assert.assertFalse(producer.isAlive());
+        Assert.assertEquals(0L, collector.getDropped().getLocalValue().longValue());
+
+        batch.clear();
+        collector.drainBatch(batch);
+        Assert.assertEquals(1, batch.size());
+        Assert.assertEquals("\"row-2\"", batch.get(0).getDirtyContent());
+    }
+
+    @Test
+    public void testConsumeInBatch() throws Exception {
+        TestCollector collector = newCollector(DirtyOverflowPolicy.BLOCK, 1L, 2);
+        Thread consumer = new Thread(collector);
+        consumer.start();
+        for (int i = 0; i < 5; i++) {
+            collector.offer(newEntry("row-" + i));
+        }
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (collector.consumed.get() < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        collector.close();
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+
+        Assert.assertEquals(5, collector.consumed.get());
+        Assert.assertTrue(collector.batches.get() >= 3);
+        Assert.assertFalse(consumer.isAlive());
+    }
+
+    /** Every entry estimates the same bytes, so the queue holds two entries at most. */
+    private static TestCollector newCollector(
+            DirtyOverflowPolicy policy, long sampleRate, int batchSize) {
+        DirtyConf conf = new DirtyConf();
+        conf.setMaxConsumed(Long.MAX_VALUE);
+        conf.setMaxFailedConsumed(Long.MAX_VALUE);
+        conf.setMaxQueueBytes(2 * newEntry("row-0").estimateSize());
+        conf.setOverflowPolicy(policy);
+        conf.setSampleRate(sampleRate);
+        conf.setConsumeBatchSize(batchSize);
+
+        TestCollector collector = new TestCollector();
+        collector.initializeConsumer(conf);
+        return collector;
+    }
+
+    private static DirtyDataEntry newEntry(String data) {
+        DirtyDataEntry entry = new DirtyDataEntry();
+        entry.setDirtyContent("\"" + data + "\"");
+        entry.setCause(new RuntimeException("dirty"));
+        return entry;
+    }
+
+    private static class TestCollector extends DirtyDataCollector {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AtomicInteger consumed = new AtomicInteger();
+
+        private final AtomicInteger batches = new AtomicInteger();
+
+        void drainBatch(List<DirtyDataEntry> batch) throws InterruptedException {
+            drain(batch);
+        }
+
+        @Override
+        protected void init(DirtyConf conf) {}
+
+        @Override
+        protected void consume(DirtyDataEntry dirty) {
+            consumed.incrementAndGet();
+        }
+
+        @Override
+        protected void consume(List<DirtyDataEntry> dirties) throws Exception {
+            batches.incrementAndGet();
+            super.consume(dirties);
+        }
+
+        @Override
+        public void close() {
+            isRunning.compareAndSet(true, false);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dtstack.chunjun.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class DelimitedTextScannerTest {
+
+    @Test
+    public void testSeparatorCharsSameAsSplitPreserveAllTokens() {
+        Random random = new Random(7);
+        String alphabet = "ab中,|\u0001";
+        DelimitedTextScanner scanner =
+                DelimitedTextScanner.ofSeparatorChars(",|", StandardCharsets.UTF_8);
+        for (int round = 0; round < 2000; round++) {
+            String line = randomLine(random, alphabet);
+            assertFields(StringUtils.splitPreserveAllTokens(line, ",|"), scanner, line);
+        }
+    }
+
+    @Test
+    public void testWholeSeparatorSameAsSplitByWholeSeparator() {
+        Random random = new Random(11);
+        String alphabet = "ab中|,";
+        DelimitedTextScanner scanner =
+                DelimitedTextScanner.ofWholeSeparator("||", StandardCharsets.UTF_8);
+        for (int round = 0; round < 2000; round++) {
+            String line = randomLine(random, alphabet);
+            assertFields(
+                    StringUtils.splitByWholeSeparatorPreserveAllTokens(line, "||"), scanner, line);
+        }
+    }
+
+    @Test
+    public void testQuoteAndEscape() {
+        DelimitedTextScanner scanner =
+                DelimitedTextScanner.ofSeparatorChars(",", StandardCharsets.UTF_8)
+                        .withQuote('"')
+                        .withEscape('\\');
+        byte[] bytes =
+                "1,\"a,b\",\"say \"\"hi\"\"\",c\\,d,\"中\\\"文\",".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(6, scanner.scan(bytes, 0, bytes.length));
+        Assert.assertEquals("1", scanner.getString(0));
+        Assert.assertEquals("a,b", scanner.getString(1));
+        Assert.assertEquals("say \"hi\"", scanner.getString(2));
+        Assert.assertEquals("c,d", scanner.getString(3));
+        Assert.assertEquals("中\"文", scanner.getString(4));
+        Assert.assertEquals("", scanner.getString(5));
+    }
+
+    @Test
+    public void testMaxIndexStopsScanning() {
+        DelimitedTextScanner scanner =
+                DelimitedTextScanner.ofSeparatorChars("\u0001", StandardCharsets.UTF_8)
+                        .withMaxIndex(1);
+        byte[] bytes = "a\u0001b\u0001c\u0001d".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(2, scanner.scan(bytes, 0, bytes.length));
+        Assert.assertEquals("b", scanner.getString(1));
+        Assert.assertEquals(0, scanner.scan(bytes, 0, 0));
+    }
+
+    @Test
+    public void testIsSupported() {
+        Assert.assertTrue(DelimitedTextScanner.isSupported(",", StandardCharsets.UTF_8));
+        Assert.assertTrue(DelimitedTextScanner.isSupported("\u0001", Charset.forName("GBK")));
+        Assert.assertFalse(DelimitedTextScanner.isSupported("|", Charset.forName("GBK")));
+        Assert.assertFalse(DelimitedTextScanner.isSupported(",", StandardCharsets.UTF_16));
+        Assert.assertFalse(DelimitedTextScanner.isSupported("，", StandardCharsets.UTF_8));
+        Assert.assertFalse(DelimitedTextScanner.isSupported("", StandardCharsets.UTF_8));
+    }
+
+    private static String randomLine(Random random, String alphabet) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    private static void assertFields(String[] expected, DelimitedTextScanner scanner, String line) {
+        byte[] bytes = ("#" + line).getBytes(StandardCharsets.UTF_8);
+        int count = scanner.scan(bytes, 1, bytes.length - 1);
+        Assert.assertEquals(line, expected.length, count);
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(line, expected[i], scanner.getString(i));
+        }
+    }
+}
@@ -30,8 +30,9 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ScheduledExecutorService;
@@ -64,7 +65,10 @@ public class MysqlDirtyDataCollector extends DirtyDataCollector {
 
     private static final int CONN_VALID_TIME = 1000;
 
-    private final List<DirtyDataEntry> entities = new LinkedList<>();
+    /** The max count of placeholders in a mysql prepared statement. */
+    private static final int MAX_PLACEHOLDERS = 65535;
+
+    private final List<DirtyDataEntry> entities = new ArrayList<>();
 
     /** For schedule task of flush. */
     private transient ScheduledExecutorService scheduler;
@@ -73,6 +77,11 @@ public class MysqlDirtyDataCollector extends DirtyDataCollector {
 
     private transient PreparedStatement statement;
 
+    /** Multi-row insert statement for a full batch of {@link #rowsPerStatement} rows. */
+    private transient PreparedStatement batchStatement;
+
+    private int rowsPerStatement;
+
     private transient Connection connection;
 
     private String url;
@@ -108,7 +117,10 @@ public class MysqlDirtyDataCollector extends DirtyDataCollector {
         }
 
         connection = DriverManager.getConnection(url, userName, password);
-        statement = prepareStatement(connection, tableName);
+        statement = prepareStatement(connection, tableName, 1);
+        rowsPerStatement =
+                (int) Math.max(1L, Math.min(batchSize, MAX_PLACEHOLDERS / TABLE_FIELDS.length));
+        batchStatement = prepareStatement(connection, tableName, rowsPerStatement);
     }
 
     /**
@@ -116,20 +128,24 @@ public class MysqlDirtyDataCollector extends DirtyDataCollector {
      *
      * @param connection mysql connection.
      * @param tableName dirty table name.
+     * @param rows the count of rows inserted by the statement.
      * @return prepared statement.
      * @throws SQLException exception when prepare statement fails.
      */
-    private PreparedStatement prepareStatement(Connection connection, String tableName)
+    private PreparedStatement prepareStatement(Connection connection, String tableName, int rows)
             throws SQLException {
-        String placeholders =
-                Arrays.stream(TABLE_FIELDS).map(f -> "?").collect(Collectors.joining(", "));
+        String rowPlaceholders =
+                Arrays.stream(TABLE_FIELDS)
+                        .map(f -> "?")
+                        .collect(Collectors.joining(", ", "(", ")"));
+        String placeholders = String.join(", ", Collections.nCopies(rows, rowPlaceholders));
 
         String insertField =
                 Arrays.stream(TABLE_FIELDS)
                         .map(this::quoteIdentifier)
                         .collect(Collectors.joining(", "));
         String insertSql =
-                "INSERT INTO " + tableName + " (" + insertField + ") VALUES (" + placeholders + ")";
+                "INSERT INTO " + tableName + " (" + insertField + ") VALUES " + placeholders;
         return connection.prepareStatement(insertSql);
     }
 
@@ -222,8 +238,8 @@ public class MysqlDirtyDataCollector extends DirtyDataCollector {
     }
 
     /** execute statement with single execution. */
-    private void singleFlush() {
-        for (DirtyDataEntry item : entities) {
+    private void singleFlush(List<DirtyDataEntry> rows) {
+        for (DirtyDataEntry item : rows) {
             try {
                 final String[] dirtyArrays = item.toArray();
                 for (int i = 0; i < TABLE_FIELDS.length; i++) {
@@ -237,26 +253,49 @@ public class MysqlDirtyDataCollector extends DirtyDataCollector {
     }
 
     /**
-     * execute statement with batch execution. If exceptions failed, it will execute with single
-     * exception.
+     * execute statement with multi-row insert, every statement inserts at most {@link
+     * #rowsPerStatement} rows. If a statement fails, its rows will be executed with single
+     * execution.
      */
     private void flush() {
         try {
-            for (DirtyDataEntry item : entities) {
-                final String[] dirtyArrays = item.toArray();
-                for (int i = 0; i < TABLE_FIELDS.length; i++) {
-                    statement.setObject(i + 1, dirtyArrays[i]);
+            for (int from = 0; from < entities.size(); from += rowsPerStatement) {
+                List<DirtyDataEntry> rows =
+                        entities.subList(from, Math.min(from + rowsPerStatement, entities.size()));
+                try {
+                    multiRowFlush(rows);
+                } catch (SQLException e) {
+                    singleFlush(rows);
                 }
-                statement.addBatch();
             }
-            statement.executeBatch();
-        } catch (SQLException e) {
-            singleFlush();
         } finally {
             entities.clear();
         }
     }
 
+    private void multiRowFlush(List<DirtyDataEntry> rows) throws SQLException {
+        if (rows.size() == 1) {
+            singleFlush(rows);
+            return;
+        }
+        boolean fullBatch = rows.size() == rowsPerStatement;
+        PreparedStatement ps =
+                fullBatch ? batchStatement : prepareStatement(connection, schemaInfo, rows.size());
+        try {
+            int index = 1;
+            for (DirtyDataEntry item : rows) {
+                for (String value : item.toArray()) {
+                    ps.setObject(index++, value);
+                }
+            }
+            ps.executeUpdate();
+        } finally {
+            if (!fullBatch) {
+                ps.close();
+            }
+        }
+    }
+
     /**
      * Sink dirty to mysql datasource.
      *
@@ -265,9 +304,20 @@ public class MysqlDirtyDataCollector extends DirtyDataCollector {
      */
     @Override
     protected void consume(DirtyDataEntry dirty) throws Exception {
-        entities.add(dirty);
+        consume(Collections.singletonList(dirty));
+    }
 
-        if (consumedCounter.getLocalValue() % batchSize == 0) {
+    /**
+     * Buffer the dirty-data and flush them with multi-row insert once the buffer reaches the batch
+     * size.
+     *
+     * @param dirties dirty-data which should be consumed.
+     */
+    @Override
+    protected synchronized void consume(List<DirtyDataEntry> dirties) {
+        entities.addAll(dirties);
+
+        if (entities.size() >= batchSize) {
             flush();
         }
     }
@@ -276,8 +326,11 @@ public class MysqlDirtyDataCollector extends DirtyDataCollector {
     public void close() {
         isRunning.compareAndSet(true, false);
 
-        if (!entities.isEmpty()) {
-            flush();
+        synchronized (this) {
+            entities.addAll(drainAll());
+            if (!entities.isEmpty()) {
+                flush();
+            }
         }
 
         try {
@@ -292,6 +345,9 @@ public class MysqlDirtyDataCollector extends DirtyDataCollector {
             if (statement != null && !statement.isClosed()) {
                 statement.close();
             }
+            if (batchStatement != null && !batchStatement.isClosed()) {
+                batchStatement.close();
+            }
         } catch (SQLException e) {
             LOG.warn("Close mysql statement failed!", e);
         }
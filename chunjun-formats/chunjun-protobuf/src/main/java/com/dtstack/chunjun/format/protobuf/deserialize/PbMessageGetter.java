@@ -24,21 +24,34 @@ import com.dtstack.chunjun.throwable.ChunJunRuntimeException;
 import com.google.protobuf.AbstractMessage;
 import com.google.protobuf.Descriptors;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.function.Function;
 
 /**
- * Reflect all GET methods in the order of the fields in the protobuf message, then we can get the
- * values of all the fields in the Message object by index.
+ * Create accessors of all GET methods in the order of the fields in the protobuf message, then we
+ * can get the values of all the fields in the Message object by index.
+ *
+ * <p>The accessors are generated once per message class by {@link LambdaMetafactory}, so getting a
+ * field is a plain interface call instead of {@link Method#invoke}. If the message class is not
+ * visible to the class loader of this class, a {@link MethodHandle} is used instead.
  *
  * @author liuliu 2022/4/13
  */
 public class PbMessageGetter extends PbMessageAdaptor {
 
-    private Method[] normalMethods;
-    private Method[] oneofCaseMethods;
-    private Method[] oneOfNumberMethods;
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private Function<Object, Object>[] normalGetters;
+    private Function<Object, Object>[] oneofCaseGetters;
+    private Function<Object, Object>[] oneOfNumberGetters;
 
     public PbMessageGetter(
             List<Descriptors.FieldDescriptor> fieldDescriptorList,
@@ -55,14 +68,7 @@ public class PbMessageGetter extends PbMessageAdaptor {
      * @param index index of fieldDescriptor
      */
     public Object getByIndex(Object object, int index) {
-        try {
-            return normalMethods[index].invoke(object);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new ChunJunRuntimeException(
-                    String.format(
-                            "failed to get filed from flink type[%s],index[%s]", object, index),
-                    e);
-        }
+        return normalGetters[index].apply(object);
     }
 
     /**
@@ -71,29 +77,103 @@ public class PbMessageGetter extends PbMessageAdaptor {
      * @param object protocolMessage
      * @param index index of fieldDescriptor
      */
-    public Integer getOneofCase(Object object, int index)
-            throws InvocationTargetException, IllegalAccessException {
+    public Integer getOneofCase(Object object, int index) {
         int oneofIndex = normalToOneof[index];
         return (Integer)
-                oneOfNumberMethods[oneofIndex].invoke(oneofCaseMethods[oneofIndex].invoke(object));
+                oneOfNumberGetters[oneofIndex].apply(oneofCaseGetters[oneofIndex].apply(object));
     }
 
+    @SuppressWarnings("unchecked")
     public void initMethods(
             List<Descriptors.FieldDescriptor> fieldDescriptorList,
             List<Descriptors.OneofDescriptor> oneofDescriptorList,
             Class<? extends AbstractMessage> clazz) {
-        this.normalMethods =
+        this.normalGetters =
                 fieldDescriptorList.stream()
                         .map(fieldDescriptor -> obtainNormalGetMethod(fieldDescriptor, clazz))
-                        .toArray(Method[]::new);
-        this.oneofCaseMethods =
+                        .map(PbMessageGetter::createGetter)
+                        .toArray(Function[]::new);
+        this.oneofCaseGetters =
                 oneofDescriptorList.stream()
                         .map(oneofDescriptor -> obtainOneofCaseMethod(oneofDescriptor, clazz))
-                        .toArray(Method[]::new);
-        this.oneOfNumberMethods =
+                        .map(PbMessageGetter::createGetter)
+                        .toArray(Function[]::new);
+        this.oneOfNumberGetters =
                 oneofDescriptorList.stream()
                         .map(oneofDescriptor -> obtainOneofNumberMethod(oneofDescriptor, clazz))
-                        .toArray(Method[]::new);
+                        .map(PbMessageGetter::createGetter)
+                        .toArray(Function[]::new);
+    }
+
+    /**
+     * Create a {@link Function} which invokes the no-arg instance method on its argument.
+     *
+     * @param method GET method
+     * @return accessor of the method
+     */
+    @SuppressWarnings("unchecked")
+    public static Function<Object, Object> createGetter(Method method) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new ChunJunRuntimeException(
+                    String.format("failed to access method[%s]", method), e);
+        }
+        // the lambda class is defined in the class loader of this class and links the message
+        // class by name, so it can only be used when that name resolves to the same class here
+        if (!isVisible(method)) {
+            return createHandleGetter(method, handle);
+        }
+        CallSite callSite;
+        try {
+            callSite =
+                    LambdaMetafactory.metafactory(
+                            lookup,
+                            "apply",
+                            MethodType.methodType(Function.class),
+                            GETTER_TYPE,
+                            handle,
+                            handle.type().wrap());
+        } catch (LambdaConversionException e) {
+            return createHandleGetter(method, handle);
+        }
+        try {
+            return (Function<Object, Object>) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new ChunJunRuntimeException(
+                    String.format("failed to create accessor of method[%s]", method), e);
+        }
+    }
+
+    /**
+     * Whether the method and its declaring class are public and the class is the one resolved by
+     * the class loader of this class.
+     */
+    private static boolean isVisible(Method method) {
+        Class<?> clazz = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(clazz.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, PbMessageGetter.class.getClassLoader())
+                    == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static Function<Object, Object> createHandleGetter(Method method, MethodHandle handle) {
+        MethodHandle genericHandle = handle.asType(GETTER_TYPE);
+        return object -> {
+            try {
+                return genericHandle.invokeExact(object);
+            } catch (Throwable t) {
+                throw new ChunJunRuntimeException(
+                        String.format("failed to invoke method[%s] on [%s]", method, object), t);
+            }
+        };
     }
 
     public Method obtainOneofNumberMethod(
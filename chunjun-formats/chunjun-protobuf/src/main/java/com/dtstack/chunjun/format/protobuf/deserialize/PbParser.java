@@ -21,27 +21,36 @@ package com.dtstack.chunjun.format.protobuf.deserialize;
 import com.dtstack.chunjun.format.protobuf.util.PbReflectUtil;
 import com.dtstack.chunjun.throwable.ChunJunRuntimeException;
 
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+
 import java.lang.reflect.Method;
 
 /**
- * trans byte[] to protobuf object by protobuf parseFrom method
+ * trans byte[] to protobuf object by the {@link Parser} of the protobuf message, which is obtained
+ * once from the default instance of the message class
  *
  * @author liuliu 2022/4/8
  */
 public class PbParser {
 
     private Class messageClass;
-    private Method parseMethod;
+    private Parser<?> parser;
 
     public PbParser(String messageClassName) throws NoSuchMethodException {
         messageClass = PbReflectUtil.getClassByClassName(messageClassName);
-        parseMethod = messageClass.getMethod("parseFrom", byte[].class);
-        parseMethod.setAccessible(true);
+        Method getDefaultInstance = messageClass.getMethod("getDefaultInstance");
+        try {
+            parser = ((MessageLite) getDefaultInstance.invoke(null)).getParserForType();
+        } catch (Exception e) {
+            throw new ChunJunRuntimeException(
+                    String.format("Failed to get parser of messageClass=%s", messageClass), e);
+        }
     }
 
     public Object parse(byte[] bytes) {
         try {
-            return parseMethod.invoke(messageClass, bytes);
+            return parser.parseFrom(bytes);
         } catch (Exception e) {
             throw new ChunJunRuntimeException(
                     String.format(
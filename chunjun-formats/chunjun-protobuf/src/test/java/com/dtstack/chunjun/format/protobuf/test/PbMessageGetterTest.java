@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.chunjun.format.protobuf.test;
+
+import com.dtstack.chunjun.format.protobuf.deserialize.PbMessageGetter;
+
+import com.google.protobuf.Descriptors;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.function.Function;
+
+public class PbMessageGetterTest {
+
+    @Test
+    public void testGetByIndex() {
+        MessageTestOuterClass.MessageTest message = PbFormatFactoryTest.getMessageGroup();
+        Descriptors.Descriptor descriptor = MessageTestOuterClass.MessageTest.getDescriptor();
+        PbMessageGetter getter =
+                new PbMessageGetter(
+                        descriptor.getFields(),
+                        descriptor.getOneofs(),
+                        MessageTestOuterClass.MessageTest.class);
+
+        Assert.assertEquals(message.getGroupInfoMap(), getter.getByIndex(message, 0));
+        Assert.assertEquals(message.getMessagesList(), getter.getByIndex(message, 1));
+    }
+
+    @Test
+    public void testGetOneof() {
+        MessageTestOuterClass.Variant variant = PbFormatFactoryTest.getVariant();
+        Descriptors.Descriptor descriptor = MessageTestOuterClass.Variant.getDescriptor();
+        PbMessageGetter getter =
+                new PbMessageGetter(
+                        descriptor.getFields(),
+                        descriptor.getOneofs(),
+                        MessageTestOuterClass.Variant.class);
+
+        List<Descriptors.FieldDescriptor> fields = descriptor.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            Descriptors.FieldDescriptor field = fields.get(i);
+            Assert.assertEquals(variant.getField(field), getter.getByIndex(variant, i));
+            if (getter.isOneOf(i)) {
+                Assert.assertEquals(
+                        variant.getValue2Case().getNumber(),
+                        getter.getOneofCase(variant, i).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void testGetterOfInvisibleClass() throws Exception {
+        URL classes = Bean.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {classes}, null)) {
+            // same name as Bean, but not the class resolved by the loader of PbMessageGetter
+            Class<?> isolated = Class.forName(Bean.class.getName(), true, loader);
+            Assert.assertNotSame(Bean.class, isolated);
+            Method method = isolated.getMethod("getName");
+
+            Function<Object, Object> getter = PbMessageGetter.createGetter(method);
+            Assert.assertEquals("bean", getter.apply(isolated.newInstance()));
+        }
+        Function<Object, Object> getter =
+                PbMessageGetter.createGetter(Bean.class.getMethod("getName"));
+        Assert.assertEquals("bean", getter.apply(new Bean()));
+    }
+
+    public static class Bean {
+        public String getName() {
+            return "bean";
+        }
+    }
+}